@@ -2,12 +2,8 @@ package com.nianji.auth.config;
 
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.context.properties.ConfigurationProperties;
-import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Data
 @Configuration
@@ -21,10 +17,4 @@ public class AuthSecurityConfig {
     private int ipLockDurationMinutes = 60;
     private boolean enableIpRiskCheck = true;
     private boolean enableConcurrentLoginCheck = true;
-
-    @Bean
-    @ConditionalOnMissingBean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
 }
\ No newline at end of file
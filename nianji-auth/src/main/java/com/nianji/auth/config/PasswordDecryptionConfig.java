@@ -0,0 +1,39 @@
+package com.nianji.auth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 批量密码解密配置 - 专用线程池参数
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "security.password-decryption")
+public class PasswordDecryptionConfig {
+
+    /**
+     * 解密线程数，默认等于 CPU 核数
+     */
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * 等待队列容量，队列满时直接拒绝（503）
+     */
+    private int queueCapacity = 64;
+
+    /**
+     * 每个解密任务处理的最少条数，条数太少时拆分任务的开销大于并行收益
+     */
+    private int minChunkSize = 8;
+
+    /**
+     * 调用方等待整批结果的最长时间（毫秒），超时按过载处理
+     */
+    private long timeoutMillis = 3000;
+
+    /**
+     * 过载时建议客户端重试的等待时间（秒）
+     */
+    private long retryAfterSeconds = 1;
+}
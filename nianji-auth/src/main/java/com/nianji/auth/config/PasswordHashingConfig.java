@@ -0,0 +1,90 @@
+package com.nianji.auth.config;
+
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * 密码哈希配置 - 专用线程池参数与 BCrypt 成本校准
+ */
+@Slf4j
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "security.password-hashing")
+public class PasswordHashingConfig {
+
+    /**
+     * 哈希线程数，默认等于 CPU 核数
+     */
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * 等待队列容量，队列满时直接拒绝（503）而不是排队拖垮整个服务
+     */
+    private int queueCapacity = 64;
+
+    /**
+     * 调用方等待哈希结果的最长时间（毫秒），超时按过载处理
+     */
+    private long timeoutMillis = 2000;
+
+    /**
+     * 过载时建议客户端重试的等待时间（秒）
+     */
+    private long retryAfterSeconds = 1;
+
+    /**
+     * 固定 BCrypt 成本，大于 0 时不做校准
+     */
+    private int strength = 0;
+
+    /**
+     * 校准目标：单次哈希耗时（毫秒）
+     */
+    private long targetMillis = 100;
+
+    /**
+     * 校准下限，低于该成本的安全性不可接受
+     */
+    private int minStrength = 10;
+
+    /**
+     * 校准上限
+     */
+    private int maxStrength = 14;
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        int calibrated = strength > 0 ? strength : calibrateStrength();
+        log.info("BCrypt 成本: {}（{}）", calibrated, strength > 0 ? "配置指定" : "启动校准");
+        return new BCryptPasswordEncoder(calibrated);
+    }
+
+    /**
+     * 在最低成本上实测一次哈希耗时，成本每加 1 耗时翻倍，取不超过目标耗时的最大成本
+     */
+    private int calibrateStrength() {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+        // 第一次包含类加载和 JIT 预热，不计入
+        probe.encode("calibration");
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        double baseMillis = Math.max(best / 1_000_000.0, 0.01);
+
+        int calibrated = minStrength;
+        while (calibrated < maxStrength && baseMillis * (1L << (calibrated + 1 - minStrength)) <= targetMillis) {
+            calibrated++;
+        }
+        log.info("BCrypt 成本校准 - 成本 {} 耗时: {}ms, 目标: {}ms, 结果: {}",
+                minStrength, String.format("%.1f", baseMillis), targetMillis, calibrated);
+        return calibrated;
+    }
+}
@@ -0,0 +1,19 @@
+package com.nianji.auth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 公钥响应缓存配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "security.public-key-response")
+public class PublicKeyResponseConfig {
+
+    /**
+     * Cache-Control max-age 上限（秒），实际值不超过距下次自动轮换的剩余时间
+     */
+    private long maxAgeSeconds = 600;
+}
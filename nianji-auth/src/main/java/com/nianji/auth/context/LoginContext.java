@@ -5,6 +5,7 @@ import com.nianji.auth.entity.User;
 import com.nianji.auth.model.device.DeviceAnalysisResult;
 import com.nianji.auth.model.session.SessionLimitInfo;
 import com.nianji.auth.service.impl.LoginSuccessServiceImpl;
+import com.nianji.common.jwt.dto.IssuedToken;
 import com.nianji.common.utils.IpUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.AllArgsConstructor;
@@ -69,6 +70,16 @@ public class LoginContext {
      */
     private String refreshToken;
 
+    /**
+     * 签发的访问令牌（含令牌ID与过期时间），供建立会话索引时直接使用，无需重新解析
+     */
+    private IssuedToken issuedAccessToken;
+
+    /**
+     * 签发的刷新令牌（含令牌ID与过期时间）
+     */
+    private IssuedToken issuedRefreshToken;
+
     /**
      * 登录状态：0-失败，1-成功 see LoginStatusEnum
      */
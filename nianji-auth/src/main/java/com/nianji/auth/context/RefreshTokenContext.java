@@ -3,6 +3,8 @@ package com.nianji.auth.context;
 import cn.hutool.core.util.ObjectUtil;
 import com.nianji.auth.dto.request.RefreshTokenRequest;
 import com.nianji.auth.entity.User;
+import com.nianji.common.utils.IpUtil;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -25,16 +27,31 @@ public class RefreshTokenContext {
      */
     private String refreshToken;
 
+    /**
+     * 刷新令牌ID（jti），来自刷新时的唯一一次解析
+     */
+    private String refreshTokenId;
+
     /**
      * 新的token
      */
     private String newAccessToken;
 
+    /**
+     * 新访问令牌ID（jti），签发时取得
+     */
+    private String newAccessTokenId;
+
     /**
      * 新的刷新令牌
      */
     private String newRefreshToken;
 
+    /**
+     * 新刷新令牌ID（jti），签发时取得
+     */
+    private String newRefreshTokenId;
+
     /**
      * 用户ID
      */
@@ -50,9 +67,12 @@ public class RefreshTokenContext {
      */
     private String userAgent;
 
-    public static RefreshTokenContext buildRefreshTokenContext(RefreshTokenRequest refreshTokenRequest) {
+    public static RefreshTokenContext buildRefreshTokenContext(RefreshTokenRequest refreshTokenRequest,
+                                                               HttpServletRequest request) {
         return RefreshTokenContext.builder()
                 .refreshToken(refreshTokenRequest.getRefreshToken())
+                .clientIp(IpUtil.getIpAddr(request))
+                .userAgent(request.getHeader("User-Agent"))
                 .build();
     }
 
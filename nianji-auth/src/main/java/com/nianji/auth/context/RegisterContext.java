@@ -1,5 +1,6 @@
 package com.nianji.auth.context;
 
+import cn.hutool.core.util.StrUtil;
 import com.nianji.auth.dto.request.RegisterRequest;
 import com.nianji.auth.model.cache.CacheCheckResult;
 import lombok.AllArgsConstructor;
@@ -54,7 +55,8 @@ public class RegisterContext {
                 .username(registerRequest.getUsername().trim().toLowerCase())
                 .password(registerRequest.getPassword().trim().toLowerCase())
                 .email(registerRequest.getEmail().trim().toLowerCase())
-                .phone(registerRequest.getPhone() != null ? registerRequest.getPhone().trim() : null)
+                // 未填手机号统一存 NULL，空串会与其他未填手机号的用户在 uk_phone 上冲突
+                .phone(StrUtil.trimToNull(registerRequest.getPhone()))
                 .build();
     }
 }
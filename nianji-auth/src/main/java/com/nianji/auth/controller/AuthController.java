@@ -102,13 +102,15 @@ public class AuthController {
     @RateLimit(type = RateLimitConstants.RateLimitType.REFRESH_TOKEN,
             key = "#requestData",
             message = "令牌刷新过于频繁")
-    public BizResult<LoginVO> refreshToken(@RequestBody RequestModel<RefreshTokenRequest> requestModel) {
+    public BizResult<LoginVO> refreshToken(@RequestBody RequestModel<RefreshTokenRequest> requestModel,
+                                           HttpServletRequest request) {
         log.info("AuthController refreshToken request:{}", JSONUtil.toJsonStr(requestModel));
 
         requestModel.validateFullWithExpire();
         RefreshTokenRequest refreshTokenRequest = requestModel.getRequestData();
 
-        RefreshTokenContext refreshTokenContext = RefreshTokenContext.buildRefreshTokenContext(refreshTokenRequest);
+        RefreshTokenContext refreshTokenContext =
+                RefreshTokenContext.buildRefreshTokenContext(refreshTokenRequest, request);
 
         BizResult<LoginVO> loginVO = authService.refreshToken(refreshTokenContext);
 
@@ -0,0 +1,31 @@
+package com.nianji.auth.controller;
+
+import com.nianji.common.jwt.api.JwtGenerator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWKS 控制器
+ * <p>
+ * 发布 JWT 验签公钥（jwt.algorithm 为 RS256/ES256 时），网关和其他服务据此在本地验证令牌，不需要签名密钥。
+ * 按 JWKS 标准格式直接返回，不包装为统一响应
+ */
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+
+    private final JwtGenerator jwtGenerator;
+
+    @GetMapping("/auth/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic())
+                .body(jwtGenerator.getPublicJwks());
+    }
+}
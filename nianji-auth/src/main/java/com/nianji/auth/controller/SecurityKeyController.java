@@ -1,17 +1,28 @@
 package com.nianji.auth.controller;
 
+import com.nianji.auth.model.crypto.PasswordDecryptResult;
 import com.nianji.common.errorcode.ErrorCode;
+import com.nianji.common.exception.system.OverloadException;
 import com.nianji.common.reqres.BizResult;
 import com.nianji.common.security.enums.EncryptionAlgorithm;
 import com.nianji.common.security.model.PublicKeyInfo;
+import com.nianji.auth.model.crypto.PublicKeyResponse;
 import com.nianji.auth.service.PasswordTransmissionService;
+import com.nianji.auth.service.PublicKeyResponseService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.View;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 密码传输控制器
@@ -28,13 +39,15 @@ import java.util.Map;
 public class SecurityKeyController {
 
     private final PasswordTransmissionService passwordTransmissionService;
+    private final PublicKeyResponseService publicKeyResponseService;
 
     /**
      * 获取当前公钥信息
      * <p>
      * 该接口返回当前用于密码加密的公钥信息，前端使用此公钥对密码进行加密后传输。 无需认证即可访问，供所有需要密码加密的前端页面使用。
+     * 响应体按密钥版本预先序列化，携带强 ETag；If-None-Match 命中时返回 304，max-age 不超过距下次轮换的剩余时间。
      *
-     * @return 包含公钥信息的成功结果
+     * @return 统一响应格式的公钥信息
      * @apiNote 前端使用示例：
      * <pre>{@code
      * // 1. 调用此接口获取公钥信息
@@ -43,41 +56,25 @@ public class SecurityKeyController {
      * }</pre>
      */
     @GetMapping("/public-key")
-    public BizResult<PublicKeyInfo> getPublicKey() {
-        try {
-            PublicKeyInfo publicKeyInfo = passwordTransmissionService.getPublicKeyInfo();
-
-            log.debug("提供认证业务公钥信息 - 算法: {}, 版本: {}",
-                    publicKeyInfo.getAlgorithm(),
-                    publicKeyInfo.getKeyVersion());
-
-            return BizResult.success(publicKeyInfo);
-
-        } catch (Exception e) {
-            log.error("获取公钥信息失败", e);
-            return BizResult.fail(ErrorCode.System.CRYPTO_ERROR, "获取公钥信息失败");
-        }
+    public ResponseEntity<byte[]> getPublicKey(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return toResponseEntity(publicKeyResponseService.getAuthPublicKey(), ifNoneMatch);
     }
 
     /**
      * 获取指定算法的公钥信息
      * <p>
-     * 该接口返回指定加密算法的公钥信息，用于特定算法需求的场景。
+     * 该接口返回指定加密算法的公钥信息，用于特定算法需求的场景。缓存方式同 {@link #getPublicKey}。
      *
      * @param algorithm
      *         加密算法，如 RSA_ECB_OAEP 等
-     * @return 包含指定算法公钥信息的成功结果
+     * @return 统一响应格式的指定算法公钥信息
      */
     @GetMapping("/public-key/{algorithm}")
-    public BizResult<PublicKeyInfo> getPublicKeyByAlgorithm(
-            @PathVariable EncryptionAlgorithm algorithm) {
-        try {
-            PublicKeyInfo publicKeyInfo = passwordTransmissionService.getPublicKeyInfo(algorithm);
-            return BizResult.success(publicKeyInfo);
-        } catch (Exception e) {
-            log.error("获取算法公钥信息失败 - 算法: {}", algorithm, e);
-            return BizResult.fail(ErrorCode.System.CRYPTO_ERROR, "获取算法公钥信息失败: " + algorithm);
-        }
+    public ResponseEntity<byte[]> getPublicKeyByAlgorithm(
+            @PathVariable EncryptionAlgorithm algorithm,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return toResponseEntity(publicKeyResponseService.getPublicKey(algorithm), ifNoneMatch);
     }
 
     /**
@@ -270,7 +267,7 @@ public class SecurityKeyController {
      */
     @PostMapping("/decrypt-passwords/batch")
     @PreAuthorize("hasAuthority('auth:password:decrypt:batch')")
-    public BizResult<Map<String, String>> decryptPasswordsBatch(
+    public BizResult<Map<String, Object>> decryptPasswordsBatch(
             @RequestBody Map<String, String> encryptedPasswords) {
         try {
             if (encryptedPasswords == null || encryptedPasswords.isEmpty()) {
@@ -282,23 +279,32 @@ public class SecurityKeyController {
             }
 
             // 执行批量解密
-            Map<String, String> decryptedPasswords =
+            Map<String, PasswordDecryptResult> decryptResults =
                     passwordTransmissionService.decryptPasswordsBatch(encryptedPasswords);
 
-            Map<String, String> result = Map.of(
-                    "status", "SUCCESS",
-                    "message", "批量解密完成",
-                    "totalCount", String.valueOf(encryptedPasswords.size()),
-                    "successCount", String.valueOf(decryptedPasswords.values().stream()
-                            .filter(v -> v != null).count())
-            );
+            // 失败条目只返回错误码，不带异常信息
+            Map<String, String> failures = new LinkedHashMap<>();
+            decryptResults.forEach((id, decryptResult) -> {
+                if (!decryptResult.isSuccess()) {
+                    failures.put(id, decryptResult.getErrorCode());
+                }
+            });
+            int successCount = decryptResults.size() - failures.size();
 
-            log.info("批量解密完成 - 总数: {}, 成功: {}",
-                    encryptedPasswords.size(),
-                    decryptedPasswords.values().stream().filter(v -> v != null).count());
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("status", "SUCCESS");
+            result.put("message", "批量解密完成");
+            result.put("totalCount", encryptedPasswords.size());
+            result.put("successCount", successCount);
+            result.put("failures", failures);
+
+            log.info("批量解密完成 - 总数: {}, 成功: {}", encryptedPasswords.size(), successCount);
 
             return BizResult.success(result);
 
+        } catch (OverloadException e) {
+            // 交给全局异常处理返回 503 和 Retry-After
+            throw e;
         } catch (Exception e) {
             log.error("批量解密失败", e);
             return BizResult.fail(ErrorCode.System.DECRYPT_FAILED, "批量解密失败: " + e.getMessage());
@@ -389,4 +395,26 @@ public class SecurityKeyController {
 
         return suggestions;
     }
-}
\ No newline at end of file
+
+    /**
+     * 写出预序列化的公钥响应，If-None-Match 命中时返回 304
+     */
+    private static ResponseEntity<byte[]> toResponseEntity(PublicKeyResponse response, String ifNoneMatch) {
+        long maxAge = response.getMaxAgeSeconds();
+        CacheControl cacheControl = maxAge > 0
+                ? CacheControl.maxAge(maxAge, TimeUnit.SECONDS).cachePublic()
+                : CacheControl.noCache();
+
+        if (response.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(response.getEtag())
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(response.getEtag())
+                .cacheControl(cacheControl)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(response.getBody());
+    }
+}
@@ -5,6 +5,7 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.nianji.auth.entity.User;
 import com.nianji.common.mybatis.CustomBaseMapper;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
 import java.util.List;
@@ -13,4 +14,20 @@ import java.util.List;
 public interface UserMapper extends BaseMapper<User> {
     @Select("SELECT id, username, email, phone, public_id FROM users WHERE status = 1 AND deleted = 0 ORDER BY id ASC")
     List<User> selectActiveUsers();
+
+    /**
+     * 一次查询与用户名、邮箱、手机号任一冲突的未删除用户，参数为 null 的项不参与匹配
+     * live_* 生成列只对未删除用户取值，条件本身已排除已删除用户；三列均有唯一索引，MySQL 按索引合并查询，最多返回三行
+     */
+    @Select("<script>" +
+            "SELECT id, username, email, phone FROM users WHERE " +
+            "<trim prefixOverrides='OR'>" +
+            "<if test='username != null'> OR live_username = #{username}</if>" +
+            "<if test='email != null'> OR live_email = #{email}</if>" +
+            "<if test='phone != null'> OR live_phone = #{phone}</if>" +
+            "</trim> LIMIT 3" +
+            "</script>")
+    List<User> selectByIdentifiers(@Param("username") String username,
+                                   @Param("email") String email,
+                                   @Param("phone") String phone);
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.nianji.auth.dao.repository;
 import com.nianji.auth.entity.User;
 import org.springframework.data.domain.PageRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -62,6 +63,19 @@ public interface UserRepository {
      */
     boolean existsByPhone(String phone);
 
+    /**
+     * 一次查询与任一标识符冲突的用户，只返回标识字段
+     *
+     * @param username
+     *         用户名，为 null 时不参与匹配
+     * @param email
+     *         邮箱，为 null 时不参与匹配
+     * @param phone
+     *         手机号，为 null 时不参与匹配
+     * @return 冲突的用户集合
+     */
+    List<User> findByIdentifiers(String username, String email, String phone);
+
     /**
      * 根据对外唯一键查询用户是否存在
      *
@@ -145,4 +159,30 @@ public interface UserRepository {
      */
     int updateStatus(Long userId, Integer status);
 
+    /**
+     * 密码哈希仍为指定值时才替换为新哈希，期间密码被重置或修改则不更新
+     *
+     * @param userId
+     *         用户主键
+     * @param expectedPassword
+     *         校验时读取到的密码哈希
+     * @param newPassword
+     *         新的密码哈希
+     * @return 受影响的行数
+     */
+    int updatePasswordIfUnchanged(Long userId, String expectedPassword, String newPassword);
+
+    /**
+     * 记录一次成功登录：登录次数加一并更新最后登录时间和IP，不触碰其他字段
+     *
+     * @param userId
+     *         用户主键
+     * @param loginTime
+     *         登录时间
+     * @param loginIp
+     *         登录IP
+     * @return 受影响的行数
+     */
+    int recordSuccessfulLogin(Long userId, LocalDateTime loginTime, String loginIp);
+
 }
@@ -97,6 +97,14 @@ public class UserRepositoryImpl implements UserRepository {
         return userMapper.selectCount(queryWrapper) > 0;
     }
 
+    @Override
+    public List<User> findByIdentifiers(String username, String email, String phone) {
+        if (username == null && email == null && phone == null) {
+            return new ArrayList<>();
+        }
+        return userMapper.selectByIdentifiers(username, email, phone);
+    }
+
     @Override
     public boolean existsByPublicId(String publicId) {
         LambdaQueryWrapper<User> queryWrapper = Wrappers.lambdaQuery(User.class)
@@ -122,12 +130,10 @@ public class UserRepositoryImpl implements UserRepository {
         return userMapper.selectById(userId);
     }
 
+    /**
+     * 不加缓存注解，缓存由 UserCacheService#getUserByUsername 按防击穿方式管理
+     */
     @Override
-    @Cacheable(
-            value = CacheKeys.Config.Names.USER_INFO,
-            key = "T(com.nianji.common.constant.CacheKeys.User).infoByUsername(#username)",
-            sync = true  // 同步加载，防止缓存击穿
-    )
     public User selectByUsername(String username) {
         LambdaQueryWrapper<User> queryWrapper = Wrappers.lambdaQuery(User.class)
                 .eq(User::getUsername, username);
@@ -173,4 +179,23 @@ public class UserRepositoryImpl implements UserRepository {
         return userMapper.update(user, wrapper);
     }
 
+    @Override
+    public int updatePasswordIfUnchanged(Long userId, String expectedPassword, String newPassword) {
+        LambdaUpdateWrapper<User> wrapper = Wrappers.lambdaUpdate(User.class)
+                .set(User::getPassword, newPassword)
+                .eq(User::getId, userId)
+                .eq(User::getPassword, expectedPassword);
+        return userMapper.update(null, wrapper);
+    }
+
+    @Override
+    public int recordSuccessfulLogin(Long userId, LocalDateTime loginTime, String loginIp) {
+        LambdaUpdateWrapper<User> wrapper = Wrappers.lambdaUpdate(User.class)
+                .setSql("login_count = IFNULL(login_count, 0) + 1")
+                .set(User::getLastLoginTime, loginTime)
+                .set(User::getLastLoginIp, loginIp)
+                .eq(User::getId, userId);
+        return userMapper.update(null, wrapper);
+    }
+
 }
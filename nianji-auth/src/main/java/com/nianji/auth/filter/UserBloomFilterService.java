@@ -38,6 +38,19 @@ public interface UserBloomFilterService {
      */
     boolean mightPhoneExist(String phone);
 
+    /**
+     * 一次检测用户名、邮箱、手机号，参数为空的项视为不存在
+     *
+     * @param username
+     *         用户名
+     * @param email
+     *         邮箱
+     * @param phone
+     *         手机号
+     * @return 依次为用户名、邮箱、手机号是否可能存在
+     */
+    boolean[] mightIdentifiersExist(String username, String email, String phone);
+
     /**
      * 添加用户至布隆过滤器
      *
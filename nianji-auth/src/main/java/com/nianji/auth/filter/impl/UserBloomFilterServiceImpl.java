@@ -10,6 +10,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RBloomFilter;
 import org.redisson.api.RedissonClient;
+import org.springframework.data.redis.connection.StringRedisConnection;
 import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
@@ -372,6 +373,45 @@ public class UserBloomFilterServiceImpl implements UserBloomFilterService {
     }
 
 
+    @Override
+    public boolean[] mightIdentifiersExist(String username, String email, String phone) {
+        if (currentMode != BloomFilterMode.FALLBACK_SET) {
+            // Redisson 布隆过滤器没有批量接口，逐个检查
+            return new boolean[]{mightUsernameExist(username), mightEmailExist(email), mightPhoneExist(phone)};
+        }
+
+        // 备用方案：三个 SISMEMBER 走一次管道
+        String[] keys = {USERNAME_SET, EMAIL_SET, PHONE_SET};
+        String[] values = {
+                username != null ? username.trim().toLowerCase() : null,
+                email != null ? email.trim().toLowerCase() : null,
+                phone != null ? phone.trim() : null
+        };
+        boolean[] exists = new boolean[keys.length];
+        try {
+            List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                for (int i = 0; i < keys.length; i++) {
+                    if (values[i] != null && !values[i].isEmpty()) {
+                        stringConnection.sIsMember(keys[i], values[i]);
+                    }
+                }
+                return null;
+            });
+            int resultIndex = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (values[i] != null && !values[i].isEmpty()) {
+                    exists[i] = Boolean.TRUE.equals(results.get(resultIndex++));
+                }
+            }
+            return exists;
+        } catch (Exception e) {
+            log.error("Set 批量检查失败", e);
+            // 检查失败时按可能存在处理，交由数据库确认
+            return new boolean[]{true, true, phone != null && !phone.trim().isEmpty()};
+        }
+    }
+
     /**
      * 使用 Redis Set 检查存在性
      */
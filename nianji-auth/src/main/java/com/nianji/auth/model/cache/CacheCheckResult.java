@@ -11,10 +11,21 @@ public class CacheCheckResult {
     private boolean emailExists = false;
     private boolean phoneExists = false;
 
+    /**
+     * 缓存或布隆过滤器已确定结果（存在或不存在），无需再查数据库
+     */
+    private boolean usernameResolved = false;
+    private boolean emailResolved = false;
+    private boolean phoneResolved = false;
+
     public boolean hasConflict() {
         return usernameExists || emailExists || phoneExists;
     }
 
+    public boolean isAllResolved() {
+        return usernameResolved && emailResolved && phoneResolved;
+    }
+
     public String getConflictMessage() {
         if (usernameExists) return "用户名已存在";
         if (emailExists) return "邮箱已被注册";
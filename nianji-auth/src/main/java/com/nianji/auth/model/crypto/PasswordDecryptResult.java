@@ -0,0 +1,53 @@
+package com.nianji.auth.model.crypto;
+
+import com.nianji.common.errorcode.ErrorCode;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 单条密码解密结果，成功时 errorCode 为 null
+ */
+@Getter
+@ToString
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class PasswordDecryptResult {
+
+    /**
+     * 明文密码
+     */
+    @ToString.Exclude
+    private final String plaintext;
+
+    /**
+     * 解密使用的密钥版本
+     */
+    private final String keyVersion;
+
+    /**
+     * 错误码
+     */
+    private final String errorCode;
+
+    /**
+     * 错误信息
+     */
+    private final String errorMessage;
+
+    public static PasswordDecryptResult success(String plaintext, String keyVersion) {
+        return new PasswordDecryptResult(plaintext, keyVersion, null, null);
+    }
+
+    public static PasswordDecryptResult failure(ErrorCode errorCode) {
+        return new PasswordDecryptResult(null, null, errorCode.getCode(), errorCode.getMessage());
+    }
+
+    public static PasswordDecryptResult failure(ErrorCode errorCode, String errorMessage) {
+        return new PasswordDecryptResult(null, null, errorCode.getCode(), errorMessage);
+    }
+
+    public boolean isSuccess() {
+        return errorCode == null;
+    }
+}
@@ -0,0 +1,67 @@
+package com.nianji.auth.model.crypto;
+
+import lombok.Getter;
+
+/**
+ * 预序列化的公钥响应，每个密钥版本生成一次，之后每次请求直接写出 body
+ */
+@Getter
+public class PublicKeyResponse {
+
+    /**
+     * 强 ETag（含引号），由算法和密钥版本生成
+     */
+    private final String etag;
+
+    /**
+     * 序列化好的响应体（统一响应格式的 JSON）
+     */
+    private final byte[] body;
+
+    /**
+     * 下次自动轮换时间（毫秒时间戳），未开启自动轮换时为 {@link Long#MAX_VALUE}
+     */
+    private final long nextRotationMillis;
+
+    /**
+     * max-age 上限（秒）
+     */
+    private final long maxAgeCapSeconds;
+
+    public PublicKeyResponse(String etag, byte[] body, long nextRotationMillis, long maxAgeCapSeconds) {
+        this.etag = etag;
+        this.body = body;
+        this.nextRotationMillis = nextRotationMillis;
+        this.maxAgeCapSeconds = maxAgeCapSeconds;
+    }
+
+    /**
+     * 当前请求可用的 max-age（秒），临近轮换时递减到 0
+     */
+    public long getMaxAgeSeconds() {
+        long remaining = (nextRotationMillis - System.currentTimeMillis()) / 1000;
+        return Math.max(0, Math.min(maxAgeCapSeconds, remaining));
+    }
+
+    /**
+     * If-None-Match 是否命中当前版本（按 RFC 9110 使用弱比较，支持逗号分隔的多个值和 *）
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,40 @@
+package com.nianji.auth.model.token;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * RefreshToken轮换结果
+ */
+@Getter
+@RequiredArgsConstructor
+public enum RefreshTokenRotationResult {
+
+    /**
+     * 轮换成功
+     */
+    ROTATED(1L),
+
+    /**
+     * 旧令牌不存在、已过期、已撤销，或刚被同一客户端的并发请求轮换
+     */
+    INVALID(0L),
+
+    /**
+     * 旧令牌已被轮换过又再次使用，由它派生的令牌已全部撤销
+     */
+    REUSED(-1L);
+
+    private final long code;
+
+    public static RefreshTokenRotationResult fromCode(Long code) {
+        if (code != null) {
+            for (RefreshTokenRotationResult result : values()) {
+                if (result.code == code) {
+                    return result;
+                }
+            }
+        }
+        return INVALID;
+    }
+}
@@ -0,0 +1,20 @@
+package com.nianji.auth.service;
+
+import com.nianji.auth.model.crypto.PasswordDecryptResult;
+
+import java.util.Map;
+
+/**
+ * 批量密码解密服务 按算法分组，每组密钥只解析一次，在专用线程池上并行解密
+ */
+public interface BatchPasswordDecryptionService {
+
+    /**
+     * 批量解密
+     *
+     * @param encryptedPasswords
+     *         标识符 -> 加密密码
+     * @return 标识符 -> 解密结果，顺序与输入一致；单条失败只影响该条结果
+     */
+    Map<String, PasswordDecryptResult> decryptBatch(Map<String, String> encryptedPasswords);
+}
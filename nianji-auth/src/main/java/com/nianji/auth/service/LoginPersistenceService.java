@@ -0,0 +1,17 @@
+package com.nianji.auth.service;
+
+import com.nianji.auth.context.LoginContext;
+
+/**
+ * 登录数据持久化服务 只包含登录成功后需要写库的部分，事务范围仅覆盖这几条 SQL
+ */
+public interface LoginPersistenceService {
+
+    /**
+     * 更新用户登录信息并写入登录成功日志
+     *
+     * @param loginContext
+     *         登录上下文
+     */
+    void persistSuccessfulLogin(LoginContext loginContext);
+}
@@ -0,0 +1,54 @@
+package com.nianji.auth.service;
+
+/**
+ * 密码哈希服务 - BCrypt 计算在专用的有界线程池中执行
+ * <p>
+ * 线程数限制哈希占用的 CPU，队列满或等待超时时抛出过载异常（HTTP 503），不再让登录风暴拖垮请求线程和连接池
+ */
+public interface PasswordHashingService {
+
+    /**
+     * 计算密码哈希
+     *
+     * @param rawPassword
+     *         明文密码
+     * @return BCrypt 哈希
+     */
+    String encode(CharSequence rawPassword);
+
+    /**
+     * 校验密码
+     *
+     * @param rawPassword
+     *         明文密码
+     * @param encodedPassword
+     *         已存储的哈希
+     * @return 是否匹配
+     */
+    boolean matches(CharSequence rawPassword, String encodedPassword);
+
+    /**
+     * 已存储的哈希成本是否低于当前成本，需要在登录成功后重新哈希
+     *
+     * @param encodedPassword
+     *         已存储的哈希
+     * @return 是否需要重新哈希
+     */
+    boolean needsRehash(String encodedPassword);
+
+    /**
+     * 登录成功后按当前成本重新哈希并更新存储，后台执行，线程池繁忙时跳过（下次登录再升级）
+     * <p>
+     * 只在存储的哈希仍是本次校验通过的哈希时才替换，排队期间密码被重置则放弃升级
+     *
+     * @param userId
+     *         用户ID
+     * @param username
+     *         用户名
+     * @param rawPassword
+     *         明文密码
+     * @param verifiedPassword
+     *         本次校验通过的密码哈希
+     */
+    void rehashAsync(Long userId, String username, String rawPassword, String verifiedPassword);
+}
@@ -1,5 +1,6 @@
 package com.nianji.auth.service;
 
+import com.nianji.auth.model.crypto.PasswordDecryptResult;
 import com.nianji.auth.service.impl.PasswordTransmissionServiceImpl;
 import com.nianji.common.security.model.PublicKeyInfo;
 import com.nianji.common.security.enums.EncryptionAlgorithm;
@@ -115,12 +116,15 @@ public interface PasswordTransmissionService {
      * 批量解密密码
      * <p>
      * 该方法支持批量解密多个加密密码，提高处理效率。 适用于用户批量导入等需要处理多个加密密码的场景。
+     * 单条失败不影响其他条目，失败原因以错误码返回；线程池过载时整批快速失败。
      *
      * @param encryptedPasswords
      *         加密密码映射表，key为标识符，value为加密密码
-     * @return 解密后的密码映射表，key与输入相同，value为解密后的明文密码
+     * @return 解密结果映射表，key与输入相同且顺序一致
+     * @throws com.nianji.common.exception.system.OverloadException
+     *         当解密线程池已满或等待超时时抛出
      */
-    Map<String, String> decryptPasswordsBatch(Map<String, String> encryptedPasswords);
+    Map<String, PasswordDecryptResult> decryptPasswordsBatch(Map<String, String> encryptedPasswords);
 
     /**
      * 验证密码强度
@@ -0,0 +1,23 @@
+package com.nianji.auth.service;
+
+import com.nianji.auth.model.crypto.PublicKeyResponse;
+import com.nianji.common.security.enums.EncryptionAlgorithm;
+
+/**
+ * 公钥响应服务 密钥轮换后才重新序列化，登录页高频获取公钥时只做内存拷贝
+ */
+public interface PublicKeyResponseService {
+
+    /**
+     * 认证业务当前公钥的响应
+     */
+    PublicKeyResponse getAuthPublicKey();
+
+    /**
+     * 指定算法当前公钥的响应
+     *
+     * @param algorithm
+     *         加密算法
+     */
+    PublicKeyResponse getPublicKey(EncryptionAlgorithm algorithm);
+}
@@ -3,6 +3,7 @@ package com.nianji.auth.service;
 import com.nianji.auth.context.RefreshTokenContext;
 import com.nianji.auth.model.device.DeviceInfo;
 import com.nianji.auth.model.token.RefreshTokenMetadata;
+import com.nianji.auth.model.token.RefreshTokenRotationResult;
 
 import java.util.List;
 
@@ -18,31 +19,45 @@ public interface RefreshTokenCacheService {
      */
     void cacheRefreshToken(RefreshTokenContext refreshTokenContext);
 
+    /**
+     * 原子轮换RefreshToken：校验并消费旧令牌，写入新令牌元数据和访问令牌，随后旧令牌和旧访问令牌加入黑名单
+     * <p>
+     * 同一个旧令牌并发刷新时只有一次成功；已轮换的令牌再次使用视为泄露，撤销由它派生的所有令牌
+     *
+     * @param refreshTokenContext 刷新令牌上下文（旧令牌、新令牌、新访问令牌及其令牌ID、用户ID、客户端信息）
+     * @param oldTokenRemainingMillis 旧令牌剩余有效时间（毫秒）
+     * @return 轮换结果
+     */
+    RefreshTokenRotationResult rotateRefreshToken(RefreshTokenContext refreshTokenContext, long oldTokenRemainingMillis);
+
     /**
      * 验证RefreshToken是否有效
      *
+     * @param userId 用户ID
      * @param refreshToken 刷新令牌
      * @return 是否有效
      */
-    boolean isValidRefreshToken(String refreshToken);
+    boolean isValidRefreshToken(Long userId, String refreshToken);
 
     /**
      * 获取RefreshToken元数据
      *
+     * @param userId 用户ID
      * @param refreshToken 刷新令牌
      * @return 元数据信息
      */
-    RefreshTokenMetadata getMetadata(String refreshToken);
+    RefreshTokenMetadata getMetadata(Long userId, String refreshToken);
 
     /**
      * 撤销RefreshToken
      *
+     * @param userId 用户ID
      * @param refreshToken 刷新令牌
      */
-    void revokeRefreshToken(String refreshToken);
+    void revokeRefreshToken(Long userId, String refreshToken);
 
     /**
-     * 撤销用户所有RefreshToken
+     * 撤销用户所有RefreshToken，一次脚本执行完成，与设备数无关
      *
      * @param userId 用户ID
      */
@@ -67,9 +82,10 @@ public interface RefreshTokenCacheService {
     /**
      * 更新最后使用时间
      *
+     * @param userId 用户ID
      * @param refreshToken 刷新令牌
      */
-    void updateLastUsedTime(String refreshToken);
+    void updateLastUsedTime(Long userId, String refreshToken);
 
     /**
      * 记录登录设备信息
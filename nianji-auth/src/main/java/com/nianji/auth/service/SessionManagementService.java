@@ -3,6 +3,7 @@ package com.nianji.auth.service;
 import com.nianji.auth.context.LoginContext;
 import com.nianji.auth.model.session.SessionInfo;
 import com.nianji.auth.model.session.SessionStats;
+import com.nianji.common.jwt.dto.JwtUserInfo;
 import com.nianji.common.reqres.BizResult;
 
 import java.util.List;
@@ -89,4 +90,14 @@ public interface SessionManagementService {
      * 处理用户登出
      */
     void handleLogout(String token, String logoutReason);
+
+    /**
+     * 处理用户登出，令牌已解析时使用，按令牌ID反向索引直接定位会话
+     *
+     * @param claims
+     *         访问令牌声明
+     * @param logoutReason
+     *         登出原因
+     */
+    void handleLogout(JwtUserInfo claims, String logoutReason);
 }
\ No newline at end of file
@@ -2,12 +2,23 @@ package com.nianji.auth.service;
 
 import com.nianji.auth.entity.User;
 
+import java.util.function.Supplier;
+
 /**
  * 用户缓存服务接口
  * 负责用户相关数据的缓存管理，提高系统性能
  */
 public interface UserCacheService {
 
+    /**
+     * 按用户名获取用户，缓存未命中或即将过期时调用 loader 加载（同一用户并发加载合并为一次）
+     *
+     * @param username 用户名
+     * @param loader   从数据源加载用户
+     * @return 用户信息，不存在时返回 null
+     */
+    User getUserByUsername(String username, Supplier<User> loader);
+
     /**
      * 刷新用户缓存
      *
@@ -16,7 +27,7 @@ public interface UserCacheService {
     void refreshUserCache(User user);
 
     /**
-     * 清除用户缓存
+     * 清除用户缓存，清除前已开始的加载不会再写回旧数据
      *
      * @param username 用户名
      */
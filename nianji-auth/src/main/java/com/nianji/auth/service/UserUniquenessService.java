@@ -2,6 +2,7 @@ package com.nianji.auth.service;
 
 import com.nianji.auth.context.RegisterContext;
 import com.nianji.common.reqres.BizResult;
+import org.springframework.dao.DuplicateKeyException;
 
 /**
  * TODO
@@ -18,4 +19,25 @@ public interface UserUniquenessService {
      *         注册相关上下文
      */
     BizResult<Void> checkUserUniqueness(RegisterContext registerContext);
+
+    /**
+     * 注册成功后将标识符标记为已占用，覆盖短期负缓存
+     *
+     * @param username
+     *         用户名
+     * @param email
+     *         邮箱
+     * @param phone
+     *         手机号，可为空
+     */
+    void markIdentifiersTaken(String username, String email, String phone);
+
+    /**
+     * 根据唯一索引冲突异常得到提示信息，用于预检查通过后并发注册撞上唯一约束的情况
+     *
+     * @param e
+     *         唯一索引冲突异常
+     * @return 提示信息
+     */
+    String duplicateMessage(DuplicateKeyException e);
 }
@@ -10,7 +10,6 @@ import com.nianji.common.reqres.BizResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 /**
  * 认证服务 - 主协调服务
@@ -26,13 +25,11 @@ public class AuthServiceImpl implements AuthService {
     private final PasswordResetService passwordResetService;
 
     @Override
-    @Transactional
     public BizResult<LoginVO> login(LoginContext loginContext) {
         return loginService.processLogin(loginContext);
     }
 
     @Override
-    @Transactional
     public BizResult<Void> register(RegisterContext registerContext) {
         return userRegistrationService.registerUser(registerContext);
     }
@@ -0,0 +1,327 @@
+package com.nianji.auth.service.impl;
+
+import com.nianji.auth.config.PasswordDecryptionConfig;
+import com.nianji.auth.model.crypto.PasswordDecryptResult;
+import com.nianji.auth.service.BatchPasswordDecryptionService;
+import com.nianji.common.errorcode.ErrorCode;
+import com.nianji.common.exception.ExceptionFactory;
+import com.nianji.common.security.encryption.impl.AesEncryptionService;
+import com.nianji.common.security.encryption.impl.RsaEncryptionService;
+import com.nianji.common.security.enums.EncryptionAlgorithm;
+import com.nianji.common.security.model.AlgorithmKeyPair;
+import com.nianji.common.security.service.KeyManagementService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import java.security.Key;
+import java.security.PrivateKey;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 批量密码解密服务实现
+ * <p>
+ * 算法族按密文长度判断：与 RSA 模长相同的为 RSA，其余为 AES；格式错误的条目直接返回错误码，不做试解密。
+ * 族内按配置依次尝试每个已启用的算法（OAEP 先于 PKCS1，GCM 先于 CBC），每个算法先用当前版本，失败再尝试旧版本。
+ * 每组的密钥版本只解析一次，任务内每个密钥只创建一个 Cipher
+ */
+@Slf4j
+@Service
+public class BatchPasswordDecryptionServiceImpl implements BatchPasswordDecryptionService {
+
+    /**
+     * RSA 密文长度固定等于模长
+     */
+    private static final int RSA_CIPHERTEXT_BYTES = EncryptionAlgorithm.RSA_ECB_OAEP.getKeySize() / 8;
+
+    /**
+     * 与单条解密的前置校验一致
+     */
+    private static final int MIN_ENCODED_LENGTH = 50;
+    private static final int MAX_ENCODED_LENGTH = 2048;
+
+    private static final EncryptionAlgorithm[] RSA_ALGORITHMS = {
+            EncryptionAlgorithm.RSA_ECB_OAEP,
+            EncryptionAlgorithm.RSA_ECB_PKCS1
+    };
+
+    private static final EncryptionAlgorithm[] AES_ALGORITHMS = {
+            EncryptionAlgorithm.AES_GCM,
+            EncryptionAlgorithm.AES_CBC_PKCS5
+    };
+
+    private final KeyManagementService keyManagementService;
+    private final RsaEncryptionService rsaEncryptionService;
+    private final AesEncryptionService aesEncryptionService;
+    private final PasswordDecryptionConfig config;
+    private final ThreadPoolExecutor executor;
+    private final LongAdder rejectedCount = new LongAdder();
+
+    public BatchPasswordDecryptionServiceImpl(KeyManagementService keyManagementService,
+                                              RsaEncryptionService rsaEncryptionService,
+                                              AesEncryptionService aesEncryptionService,
+                                              PasswordDecryptionConfig config,
+                                              ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.keyManagementService = keyManagementService;
+        this.rsaEncryptionService = rsaEncryptionService;
+        this.aesEncryptionService = aesEncryptionService;
+        this.config = config;
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        int threads = Math.max(1, config.getThreads());
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, config.getQueueCapacity())),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "Password-Decrypt-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        log.info("批量解密线程池初始化 - 线程数: {}, 队列容量: {}", threads, config.getQueueCapacity());
+
+        meterRegistryProvider.ifAvailable(this::bindMeters);
+    }
+
+    @Override
+    public Map<String, PasswordDecryptResult> decryptBatch(Map<String, String> encryptedPasswords) {
+        int size = encryptedPasswords.size();
+        String[] ids = new String[size];
+        PasswordDecryptResult[] results = new PasswordDecryptResult[size];
+
+        // 1. 解码并按算法族分组，格式错误的条目直接出结果
+        Set<EncryptionAlgorithm> supported = keyManagementService.getSupportedAlgorithms();
+        List<EncryptionAlgorithm> rsaAlgorithms = supportedOf(RSA_ALGORITHMS, supported);
+        List<EncryptionAlgorithm> aesAlgorithms = supportedOf(AES_ALGORITHMS, supported);
+
+        List<Item> rsaItems = new ArrayList<>();
+        List<Item> aesItems = new ArrayList<>();
+        int index = 0;
+        for (Map.Entry<String, String> entry : encryptedPasswords.entrySet()) {
+            ids[index] = entry.getKey();
+            byte[] data = decode(entry.getValue());
+            if (data == null) {
+                results[index] = PasswordDecryptResult.failure(ErrorCode.Client.PARAM_FORMAT_ERROR, "加密数据格式错误");
+            } else {
+                boolean rsa = data.length == RSA_CIPHERTEXT_BYTES;
+                if ((rsa ? rsaAlgorithms : aesAlgorithms).isEmpty()) {
+                    results[index] = PasswordDecryptResult.failure(ErrorCode.System.UNSUPPORTED_DECRYPT);
+                } else {
+                    (rsa ? rsaItems : aesItems).add(new Item(index, data));
+                }
+            }
+            index++;
+        }
+
+        // 2. 每组解析一次密钥，拆分成任务并行解密
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            submitGroup(true, rsaAlgorithms, rsaItems, results, futures);
+            submitGroup(false, aesAlgorithms, aesItems, results, futures);
+        } catch (RejectedExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            rejectedCount.increment();
+            log.warn("批量解密线程池已满，拒绝请求 - 条数: {}, 排队: {}", size, executor.getQueue().size());
+            throw ExceptionFactory.overload(ErrorCode.System.SYSTEM_OVERLOAD,
+                    "系统繁忙，请稍后重试", config.getRetryAfterSeconds());
+        }
+        await(futures);
+
+        Map<String, PasswordDecryptResult> resultMap = new LinkedHashMap<>(size * 2);
+        int failed = 0;
+        for (int i = 0; i < size; i++) {
+            resultMap.put(ids[i], results[i]);
+            if (!results[i].isSuccess()) {
+                failed++;
+            }
+        }
+        log.debug("批量解密完成 - 总数: {}, 失败: {}, RSA: {}, AES: {}", size, failed, rsaItems.size(), aesItems.size());
+        return resultMap;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private void submitGroup(boolean rsa, List<EncryptionAlgorithm> algorithms, List<Item> items,
+                             PasswordDecryptResult[] results, List<Future<?>> futures) {
+        if (items.isEmpty()) {
+            return;
+        }
+        List<ResolvedKey> keys = resolveKeys(rsa, algorithms);
+        if (keys.isEmpty()) {
+            items.forEach(item -> results[item.index()] = PasswordDecryptResult.failure(ErrorCode.System.CRYPTO_ERROR));
+            return;
+        }
+
+        int threads = Math.max(1, config.getThreads());
+        int chunkSize = Math.max(config.getMinChunkSize(), (items.size() + threads - 1) / threads);
+        for (int from = 0; from < items.size(); from += chunkSize) {
+            List<Item> chunk = items.subList(from, Math.min(items.size(), from + chunkSize));
+            futures.add(executor.submit(() -> {
+                if (rsa) {
+                    decryptRsaChunk(keys, chunk, results);
+                } else {
+                    decryptAesChunk(keys, chunk, results);
+                }
+            }));
+        }
+    }
+
+    /**
+     * 按算法顺序展开每个算法的密钥版本；某个算法的密钥解析失败时跳过该算法，不影响族内其他算法
+     */
+    private List<ResolvedKey> resolveKeys(boolean rsa, List<EncryptionAlgorithm> algorithms) {
+        List<ResolvedKey> keys = new ArrayList<>();
+        for (EncryptionAlgorithm algorithm : algorithms) {
+            try {
+                for (AlgorithmKeyPair keyPair : keyManagementService.getDecryptionKeys(algorithm)) {
+                    Key key = rsa
+                            ? rsaEncryptionService.parsePrivateKey(keyPair.getPrivateKey())
+                            : aesEncryptionService.parseKey(keyPair.getSymmetricKey());
+                    keys.add(new ResolvedKey(algorithm, keyPair.getKeyVersion(), key));
+                }
+            } catch (RuntimeException e) {
+                log.warn("批量解密密钥解析失败 - 算法: {}, 原因: {}", algorithm, e.getMessage());
+            }
+        }
+        return keys;
+    }
+
+    private void decryptRsaChunk(List<ResolvedKey> keys, List<Item> chunk, PasswordDecryptResult[] results) {
+        // 每个密钥一个 Cipher，按需创建，任务内复用
+        Cipher[] ciphers = new Cipher[keys.size()];
+        for (Item item : chunk) {
+            PasswordDecryptResult result = null;
+            for (int i = 0; i < keys.size() && result == null; i++) {
+                ResolvedKey key = keys.get(i);
+                if (ciphers[i] == null) {
+                    ciphers[i] = rsaEncryptionService.newDecryptCipher(key.algorithm(), (PrivateKey) key.key());
+                }
+                String plaintext = rsaEncryptionService.tryDecrypt(ciphers[i], item.data());
+                if (plaintext != null) {
+                    result = PasswordDecryptResult.success(plaintext, key.version());
+                } else {
+                    // 失败后重新初始化，不依赖异常后的 Cipher 状态
+                    ciphers[i] = null;
+                }
+            }
+            results[item.index()] = result != null ? result : PasswordDecryptResult.failure(ErrorCode.System.DECRYPT_FAILED);
+        }
+    }
+
+    private void decryptAesChunk(List<ResolvedKey> keys, List<Item> chunk, PasswordDecryptResult[] results) {
+        // 每条密文都会重新 init，同一模式的密钥共用一个 Cipher
+        Map<EncryptionAlgorithm, Cipher> ciphers = new EnumMap<>(EncryptionAlgorithm.class);
+        for (Item item : chunk) {
+            PasswordDecryptResult result = null;
+            for (int i = 0; i < keys.size() && result == null; i++) {
+                ResolvedKey key = keys.get(i);
+                Cipher cipher = ciphers.computeIfAbsent(key.algorithm(), aesEncryptionService::newDecryptCipher);
+                String plaintext = aesEncryptionService.tryDecrypt(key.algorithm(), cipher, (SecretKey) key.key(), item.data());
+                if (plaintext != null) {
+                    result = PasswordDecryptResult.success(plaintext, key.version());
+                }
+            }
+            results[item.index()] = result != null ? result : PasswordDecryptResult.failure(ErrorCode.System.DECRYPT_FAILED);
+        }
+    }
+
+    private void await(List<Future<?>> futures) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getTimeoutMillis());
+        try {
+            for (Future<?> future : futures) {
+                future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+        } catch (TimeoutException e) {
+            futures.forEach(future -> future.cancel(true));
+            rejectedCount.increment();
+            log.warn("批量解密等待超时 - 超时: {}ms, 排队: {}", config.getTimeoutMillis(), executor.getQueue().size());
+            throw ExceptionFactory.overload(ErrorCode.System.SYSTEM_OVERLOAD,
+                    "系统繁忙，请稍后重试", config.getRetryAfterSeconds(), e);
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw ExceptionFactory.system(ErrorCode.System.SYSTEM_ERROR, "批量解密被中断", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw ExceptionFactory.system(ErrorCode.System.SYSTEM_ERROR, "批量解密失败", cause);
+        }
+    }
+
+    private static byte[] decode(String encrypted) {
+        if (encrypted == null || encrypted.length() < MIN_ENCODED_LENGTH || encrypted.length() > MAX_ENCODED_LENGTH) {
+            return null;
+        }
+        try {
+            return Base64.getDecoder().decode(encrypted);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static List<EncryptionAlgorithm> supportedOf(EncryptionAlgorithm[] candidates,
+                                                         Set<EncryptionAlgorithm> supported) {
+        List<EncryptionAlgorithm> algorithms = new ArrayList<>(candidates.length);
+        for (EncryptionAlgorithm candidate : candidates) {
+            if (supported.contains(candidate)) {
+                algorithms.add(candidate);
+            }
+        }
+        return algorithms;
+    }
+
+    private void bindMeters(MeterRegistry registry) {
+        Gauge.builder("nianji.password.decryption.queue", executor, pool -> pool.getQueue().size())
+                .description("等待中的批量解密任务数")
+                .register(registry);
+        Gauge.builder("nianji.password.decryption.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("执行中的批量解密任务数")
+                .register(registry);
+        FunctionCounter.builder("nianji.password.decryption.rejected", rejectedCount, LongAdder::sum)
+                .description("因过载被拒绝的批量解密请求数")
+                .register(registry);
+    }
+
+    /**
+     * 待解密条目
+     *
+     * @param index
+     *         在结果数组中的位置
+     * @param data
+     *         解码后的密文
+     */
+    private record Item(int index, byte[] data) {
+    }
+
+    /**
+     * 已解析的密钥版本及其所属算法
+     */
+    private record ResolvedKey(EncryptionAlgorithm algorithm, String version, Key key) {
+    }
+}
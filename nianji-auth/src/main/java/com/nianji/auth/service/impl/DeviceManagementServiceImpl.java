@@ -3,7 +3,6 @@ package com.nianji.auth.service.impl;
 import com.nianji.auth.model.device.DeviceInfo;
 import com.nianji.auth.model.device.DeviceTrustLevel;
 import com.nianji.auth.service.DeviceManagementService;
-import com.nianji.common.config.CacheConfig;
 import com.nianji.common.constant.CacheKeys;
 import com.nianji.common.utils.CacheUtil;
 import lombok.RequiredArgsConstructor;
@@ -12,7 +11,6 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -24,7 +22,6 @@ import java.util.stream.Collectors;
 public class DeviceManagementServiceImpl implements DeviceManagementService {
 
     private final CacheUtil cacheUtil;
-    private final CacheConfig cacheConfig;
 
     @Override
     public DeviceInfo recordDeviceLogin(Long userId, String ip, String userAgent) {
@@ -52,12 +49,13 @@ public class DeviceManagementServiceImpl implements DeviceManagementService {
                     .usageCount(1)
                     .build();
 
-            // 存储设备信息
+            // 存储设备信息（一次管道往返）
             String deviceKey = CacheKeys.Auth.trustedDevices(userId);
-            cacheUtil.leftPush(deviceKey, deviceInfo);
-            cacheUtil.trim(deviceKey, 0, 9);
-            cacheUtil.expire(deviceKey,
-                    cacheConfig.getExpire(deviceKey), TimeUnit.SECONDS);
+            cacheUtil.pipelined(pipeline -> {
+                pipeline.leftPush(deviceKey, deviceInfo);
+                pipeline.trim(deviceKey, 0, 9);
+                pipeline.expireSmart(deviceKey);
+            });
 
             log.debug("记录设备登录 - 用户ID: {}, 设备指纹: {}", userId, deviceInfo.getDeviceFingerprint());
             return deviceInfo;
@@ -96,8 +94,10 @@ public class DeviceManagementServiceImpl implements DeviceManagementService {
             return DeviceTrustLevel.UNKNOWN;
         }
 
-        List<DeviceInfo> userDevices = getUserDevices(deviceInfo.getUserId());
+        return analyzeDeviceTrustLevel(deviceInfo, getUserDevices(deviceInfo.getUserId()));
+    }
 
+    private DeviceTrustLevel analyzeDeviceTrustLevel(DeviceInfo deviceInfo, List<DeviceInfo> userDevices) {
         // 过滤掉设备指纹为空的设备
         long sameDeviceCount = userDevices.stream()
                 .filter(device -> device != null && device.getDeviceFingerprint() != null)
@@ -137,7 +137,8 @@ public class DeviceManagementServiceImpl implements DeviceManagementService {
                 .noneMatch(device -> device.getDeviceFingerprint().equals(currentDevice.getDeviceFingerprint()));
 
         if (isNewDevice) {
-            DeviceTrustLevel trustLevel = analyzeDeviceTrustLevel(currentDevice);
+            // 复用已读取的设备列表，不再重复读取
+            DeviceTrustLevel trustLevel = analyzeDeviceTrustLevel(currentDevice, userDevices);
             return trustLevel == DeviceTrustLevel.UNKNOWN;
         }
 
@@ -0,0 +1,46 @@
+package com.nianji.auth.service.impl;
+
+import com.nianji.auth.context.LoginContext;
+import com.nianji.auth.context.LoginLogContext;
+import com.nianji.auth.dao.repository.UserRepository;
+import com.nianji.auth.entity.User;
+import com.nianji.auth.service.AuthLogService;
+import com.nianji.auth.service.LoginPersistenceService;
+import com.nianji.common.enums.LoginStatusEnum;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * 登录数据持久化服务
+ * <p>
+ * 令牌生成、会话和缓存等 Redis 操作都在事务之外完成，数据库连接只在这里的两条写入期间占用
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LoginPersistenceServiceImpl implements LoginPersistenceService {
+
+    private final UserRepository userRepository;
+    private final AuthLogService authLogService;
+
+    @Override
+    @Transactional
+    public void persistSuccessfulLogin(LoginContext loginContext) {
+        // 更新用户登录信息：只写登录统计字段，上下文中的用户可能来自缓存，整行回写会覆盖并发的密码、状态变更
+        User user = loginContext.getUser();
+        LocalDateTime loginTime = LocalDateTime.now();
+        userRepository.recordSuccessfulLogin(user.getId(), loginTime, loginContext.getClientIp());
+        user.setLoginCount(user.getLoginCount() != null ? user.getLoginCount() + 1 : 1);
+        user.setLastLoginTime(loginTime);
+        user.setLastLoginIp(loginContext.getClientIp());
+
+        // 记录登录日志
+        loginContext.setFailReason("登录成功");
+        loginContext.setLoginStatus(LoginStatusEnum.SUCCESS.getCode());
+        authLogService.logLoginRequest(LoginLogContext.buildLoginLogContext(loginContext));
+    }
+}
@@ -14,9 +14,7 @@ import com.nianji.common.security.enums.EncryptionAlgorithm;
 import com.nianji.common.utils.CacheUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 /**
  * 增强的登录处理服务 - 支持密码加密传输
@@ -31,10 +29,12 @@ public class LoginServiceImpl implements LoginService {
     private final LoginSuccessService loginSuccessService;
     private final AuthLogService authLogService;
     private final PasswordTransmissionService passwordTransmissionService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
 
+    /**
+     * 解密和 BCrypt 校验不在事务中执行，避免计算期间占用数据库连接；登录成功后的写库由 handleSuccessfulLogin 负责
+     */
     @Override
-    @Transactional
     public BizResult<LoginVO> processLogin(LoginContext loginContext) {
         // String username = loginContext.getUsername();
         String encryptedPassword = loginContext.getPassword();
@@ -113,8 +113,8 @@ public class LoginServiceImpl implements LoginService {
             return BizResult.fail(ErrorCode.Client.INVALID_CREDENTIALS);
         }
 
-        // 3. 密码验证
-        if (!passwordEncoder.matches(password, user.getPassword())) {
+        // 3. 密码验证（专用哈希线程池，过载时抛出 503）
+        if (!passwordHashingService.matches(password, user.getPassword())) {
             loginContext.setFailReason("密码错误");
             loginSecurityService.recordFailedAttempt(loginContext);
             loginContext.setLoginStatus(LoginStatusEnum.FAIL.getCode());
@@ -123,6 +123,11 @@ public class LoginServiceImpl implements LoginService {
             return BizResult.fail(ErrorCode.Client.INVALID_CREDENTIALS);
         }
 
+        // 4. 哈希成本低于当前配置时后台升级
+        if (passwordHashingService.needsRehash(user.getPassword())) {
+            passwordHashingService.rehashAsync(user.getId(), username, password, user.getPassword());
+        }
+
         return BizResult.success(user);
     }
 }
\ No newline at end of file
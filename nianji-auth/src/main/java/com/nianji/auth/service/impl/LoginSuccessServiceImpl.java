@@ -2,9 +2,7 @@ package com.nianji.auth.service.impl;
 
 import com.nianji.auth.config.AuthConfig;
 import com.nianji.auth.context.LoginContext;
-import com.nianji.auth.context.LoginLogContext;
 import com.nianji.auth.context.RefreshTokenContext;
-import com.nianji.auth.dao.repository.UserRepository;
 import com.nianji.auth.entity.User;
 import com.nianji.auth.model.device.DeviceAnalysisResult;
 import com.nianji.auth.model.device.DeviceInfo;
@@ -15,35 +13,35 @@ import com.nianji.auth.service.*;
 import com.nianji.auth.vo.LoginVO;
 import com.nianji.common.config.CacheConfig;
 import com.nianji.common.constant.CacheKeys;
-import com.nianji.common.enums.LoginStatusEnum;
 import com.nianji.common.errorcode.ErrorCode;
 import com.nianji.common.exception.ExceptionFactory;
 import com.nianji.common.jwt.api.JwtGenerator;
+import com.nianji.common.jwt.dto.IssuedToken;
 import com.nianji.common.reqres.BizResult;
 import com.nianji.common.utils.CacheUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
 import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 /**
  * 增强的登录成功处理服务
+ * <p>
+ * 整个流程不在事务中执行，只有写库部分交给 {@link LoginPersistenceService} 在最小事务内完成，
+ * Redis 和令牌操作期间不占用数据库连接
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class LoginSuccessServiceImpl implements LoginSuccessService {
 
-    private final UserRepository userRepository;
     private final JwtGenerator jwtGenerator;
     private final LoginSecurityService loginSecurityService;
     private final RefreshTokenCacheService refreshTokenCacheService;
-    private final AuthLogService authLogService;
+    private final LoginPersistenceService loginPersistenceService;
     private final SessionManagementService sessionManagementService;
     private final DeviceManagementService deviceManagementService;
     private final CacheUtil cacheUtil;
@@ -52,7 +50,6 @@ public class LoginSuccessServiceImpl implements LoginSuccessService {
     private final AuthConfig authConfig;
 
     @Override
-    @Transactional
     public BizResult<LoginVO> handleSuccessfulLogin(LoginContext loginContext) {
         final User user = loginContext.getUser();
         final Long userId = user.getId();
@@ -69,10 +66,12 @@ public class LoginSuccessServiceImpl implements LoginSuccessService {
 
             // 第二阶段：生成令牌
             TokenPair tokenPair = generateTokens(username, userId);
-            accessToken = tokenPair.accessToken();
-            refreshToken = tokenPair.refreshToken();
+            accessToken = tokenPair.accessToken().getToken();
+            refreshToken = tokenPair.refreshToken().getToken();
             loginContext.setAccessToken(accessToken);
             loginContext.setRefreshToken(refreshToken);
+            loginContext.setIssuedAccessToken(tokenPair.accessToken());
+            loginContext.setIssuedRefreshToken(tokenPair.refreshToken());
 
             // 第三阶段：会话策略处理（修复版）
             SessionLimitInfo sessionLimitInfo = processSessionPolicyWithRevocation(loginContext);
@@ -322,17 +321,14 @@ public class LoginSuccessServiceImpl implements LoginSuccessService {
     private void prepareForSuccessfulLogin(LoginContext loginContext) {
         // 清除失败计数
         loginSecurityService.clearFailedAttempts(loginContext);
-
-        // 更新用户登录信息
-        updateUserLoginInfo(loginContext);
     }
 
     /**
      * 第二阶段：生成令牌对
      */
     private TokenPair generateTokens(String username, Long userId) {
-        String accessToken = jwtGenerator.generateAccessToken(username, userId);
-        String refreshToken = jwtGenerator.generateRefreshToken(username, userId);
+        IssuedToken accessToken = jwtGenerator.issueAccessToken(username, userId);
+        IssuedToken refreshToken = jwtGenerator.issueRefreshToken(username, userId);
         return new TokenPair(accessToken, refreshToken);
     }
 
@@ -400,10 +396,8 @@ public class LoginSuccessServiceImpl implements LoginSuccessService {
      * 第五阶段：记录登录成功
      */
     private void recordSuccessfulLogin(LoginContext loginContext) {
-        // 记录登录日志
-        loginContext.setFailReason("登录成功");
-        loginContext.setLoginStatus(LoginStatusEnum.SUCCESS.getCode());
-        authLogService.logLoginRequest(LoginLogContext.buildLoginLogContext(loginContext));
+        // 更新用户登录信息并记录登录日志（唯一的事务）
+        loginPersistenceService.persistSuccessfulLogin(loginContext);
 
         // 记录成功IP
         recordSuccessfulLoginIp(loginContext);
@@ -451,7 +445,7 @@ public class LoginSuccessServiceImpl implements LoginSuccessService {
                 CacheKeys.Auth.accessToken(loginContext.getUser().getId())
         ));
         loginContext.setRefreshExpiresIn(cacheUtil.getExpire(
-                CacheKeys.Auth.refreshToken(loginContext.getRefreshToken())
+                CacheKeys.Auth.refreshToken(loginContext.getUser().getId(), loginContext.getRefreshToken())
         ));
         LoginVO loginVO = LoginVO.buildLoginVo(loginContext);
 
@@ -479,14 +473,6 @@ public class LoginSuccessServiceImpl implements LoginSuccessService {
 
     // ============ 不变的辅助方法 ============
 
-    private void updateUserLoginInfo(LoginContext loginContext) {
-        User user = loginContext.getUser();
-        user.setLoginCount(user.getLoginCount() + 1);
-        user.setLastLoginTime(LocalDateTime.now());
-        user.setLastLoginIp(loginContext.getClientIp());
-        userRepository.updateById(user);
-    }
-
     private void cacheAccessToken(LoginContext loginContext) {
         try {
             String tokenKey = CacheKeys.Auth.accessToken(loginContext.getUser().getId());
@@ -500,9 +486,11 @@ public class LoginSuccessServiceImpl implements LoginSuccessService {
     private void recordSuccessfulLoginIp(LoginContext loginContext) {
         try {
             String key = CacheKeys.Auth.successIp(loginContext.getUser().getId());
-            cacheUtil.leftPushString(key, loginContext.getClientIp());
-            cacheUtil.trimString(key, 0, 4);
-            cacheUtil.expireString(key, CacheKeys.Expire.MONTH, TimeUnit.SECONDS);
+            cacheUtil.pipelined(pipeline -> {
+                pipeline.leftPushString(key, loginContext.getClientIp());
+                pipeline.trim(key, 0, 4);
+                pipeline.expire(key, CacheKeys.Expire.MONTH, TimeUnit.SECONDS);
+            });
         } catch (Exception e) {
             log.error("记录成功登录IP失败", e);
         }
@@ -528,7 +516,7 @@ public class LoginSuccessServiceImpl implements LoginSuccessService {
     /**
      * 令牌对记录类
      */
-    private record TokenPair(String accessToken, String refreshToken) {
+    private record TokenPair(IssuedToken accessToken, IssuedToken refreshToken) {
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,153 @@
+package com.nianji.auth.service.impl;
+
+import com.nianji.auth.config.PasswordHashingConfig;
+import com.nianji.auth.dao.repository.UserRepository;
+import com.nianji.auth.service.PasswordHashingService;
+import com.nianji.auth.service.UserCacheService;
+import com.nianji.common.errorcode.ErrorCode;
+import com.nianji.common.exception.ExceptionFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 密码哈希服务实现
+ */
+@Slf4j
+@Service
+public class PasswordHashingServiceImpl implements PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingConfig config;
+    private final UserRepository userRepository;
+    private final UserCacheService userCacheService;
+    private final ThreadPoolExecutor executor;
+    private final LongAdder rejectedCount = new LongAdder();
+
+    public PasswordHashingServiceImpl(PasswordEncoder passwordEncoder,
+                                      PasswordHashingConfig config,
+                                      UserRepository userRepository,
+                                      UserCacheService userCacheService,
+                                      ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.passwordEncoder = passwordEncoder;
+        this.config = config;
+        this.userRepository = userRepository;
+        this.userCacheService = userCacheService;
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        int threads = Math.max(1, config.getThreads());
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, config.getQueueCapacity())),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "Password-Hash-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        log.info("密码哈希线程池初始化 - 线程数: {}, 队列容量: {}", threads, config.getQueueCapacity());
+
+        meterRegistryProvider.ifAvailable(this::bindMeters);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void rehashAsync(Long userId, String username, String rawPassword, String verifiedPassword) {
+        try {
+            executor.execute(() -> {
+                try {
+                    String upgraded = passwordEncoder.encode(rawPassword);
+                    if (userRepository.updatePasswordIfUnchanged(userId, verifiedPassword, upgraded) > 0) {
+                        userCacheService.evictUserCache(username);
+                        log.info("密码哈希已升级到当前成本 - 用户: {}", username);
+                    } else {
+                        log.debug("密码已在升级前变更，放弃哈希升级 - 用户: {}", username);
+                    }
+                } catch (Exception e) {
+                    log.warn("密码哈希升级失败 - 用户: {}", username, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 升级不是必须的，繁忙时留到下次登录
+            log.debug("密码哈希线程池繁忙，跳过哈希升级 - 用户: {}", username);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T execute(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejectedCount.increment();
+            log.warn("密码哈希线程池已满，拒绝请求 - 排队: {}", executor.getQueue().size());
+            throw ExceptionFactory.overload(ErrorCode.System.SYSTEM_OVERLOAD,
+                    "系统繁忙，请稍后重试", config.getRetryAfterSeconds());
+        }
+
+        try {
+            return future.get(config.getTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCount.increment();
+            log.warn("密码哈希等待超时 - 超时: {}ms, 排队: {}", config.getTimeoutMillis(), executor.getQueue().size());
+            throw ExceptionFactory.overload(ErrorCode.System.SYSTEM_OVERLOAD,
+                    "系统繁忙，请稍后重试", config.getRetryAfterSeconds(), e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw ExceptionFactory.system(ErrorCode.System.SYSTEM_ERROR, "密码处理被中断", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw ExceptionFactory.system(ErrorCode.System.SYSTEM_ERROR, "密码处理失败", cause);
+        }
+    }
+
+    private void bindMeters(MeterRegistry registry) {
+        Gauge.builder("nianji.password.hashing.queue", executor, pool -> pool.getQueue().size())
+                .description("等待中的密码哈希任务数")
+                .register(registry);
+        Gauge.builder("nianji.password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("执行中的密码哈希任务数")
+                .register(registry);
+        FunctionCounter.builder("nianji.password.hashing.rejected", rejectedCount, LongAdder::sum)
+                .description("因过载被拒绝的密码哈希请求数")
+                .register(registry);
+    }
+}
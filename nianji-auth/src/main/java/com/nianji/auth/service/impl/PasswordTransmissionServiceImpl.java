@@ -1,5 +1,7 @@
 package com.nianji.auth.service.impl;
 
+import com.nianji.auth.model.crypto.PasswordDecryptResult;
+import com.nianji.auth.service.BatchPasswordDecryptionService;
 import com.nianji.auth.service.PasswordTransmissionService;
 import com.nianji.common.exception.ExceptionFactory;
 import com.nianji.common.exception.system.CryptoException;
@@ -30,6 +32,7 @@ public class PasswordTransmissionServiceImpl implements PasswordTransmissionServ
 
     private final KeyManagementService keyManagementService;
     private final EncryptionServiceFactory encryptionServiceFactory;
+    private final BatchPasswordDecryptionService batchPasswordDecryptionService;
 
     // 统计信息
     private final AtomicLong totalRequests = new AtomicLong(0);
@@ -517,20 +520,18 @@ public class PasswordTransmissionServiceImpl implements PasswordTransmissionServ
      * 批量解密密码
      */
     @Override
-    public Map<String, String> decryptPasswordsBatch(Map<String, String> encryptedPasswords) {
-        Map<String, String> result = new HashMap<>();
+    public Map<String, PasswordDecryptResult> decryptPasswordsBatch(Map<String, String> encryptedPasswords) {
+        totalRequests.addAndGet(encryptedPasswords.size());
 
-        for (Map.Entry<String, String> entry : encryptedPasswords.entrySet()) {
-            try {
-                String decrypted = decryptPassword(entry.getValue());
-                result.put(entry.getKey(), decrypted);
-            } catch (Exception e) {
-                log.error("批量解密失败 - 键: {}", entry.getKey(), e);
-                result.put(entry.getKey(), null); // 或者抛出异常，根据业务决定
-            }
-        }
+        Map<String, PasswordDecryptResult> results = batchPasswordDecryptionService.decryptBatch(encryptedPasswords);
 
-        return result;
+        long failed = results.values().stream().filter(result -> !result.isSuccess()).count();
+        successRequests.addAndGet(results.size() - failed);
+        if (failed > 0) {
+            failedRequests.addAndGet(failed);
+            lastErrorTime.set(System.currentTimeMillis());
+        }
+        return results;
     }
 
     /**
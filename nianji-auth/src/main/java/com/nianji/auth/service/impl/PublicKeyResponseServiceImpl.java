@@ -0,0 +1,97 @@
+package com.nianji.auth.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nianji.auth.config.PublicKeyResponseConfig;
+import com.nianji.auth.model.crypto.PublicKeyResponse;
+import com.nianji.auth.service.PublicKeyResponseService;
+import com.nianji.common.errorcode.ErrorCode;
+import com.nianji.common.exception.ExceptionFactory;
+import com.nianji.common.reqres.Result;
+import com.nianji.common.security.enums.EncryptionAlgorithm;
+import com.nianji.common.security.model.AlgorithmKeyPair;
+import com.nianji.common.security.model.PublicKeyInfo;
+import com.nianji.common.security.service.KeyManagementService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 公钥响应服务实现
+ * <p>
+ * 每次请求只读取当前密钥引用并与缓存条目比较，密钥未变化时直接返回缓存的响应；
+ * 轮换或从密钥环加载新版本后当前密钥对象变化，下一次请求重新序列化。
+ * 不调用 {@link KeyManagementService#getPublicKeyInfo}，不记录密钥使用统计
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PublicKeyResponseServiceImpl implements PublicKeyResponseService {
+
+    private static final String AUTH_BUSINESS = "auth";
+
+    private final KeyManagementService keyManagementService;
+    private final ObjectMapper objectMapper;
+    private final PublicKeyResponseConfig config;
+
+    private final Map<String, CachedResponse> responses = new ConcurrentHashMap<>();
+
+    @Override
+    public PublicKeyResponse getAuthPublicKey() {
+        AlgorithmKeyPair currentKey = keyManagementService.getBusinessCurrentKey(AUTH_BUSINESS);
+        return resolve("business:" + AUTH_BUSINESS, currentKey);
+    }
+
+    @Override
+    public PublicKeyResponse getPublicKey(EncryptionAlgorithm algorithm) {
+        AlgorithmKeyPair currentKey = keyManagementService.getCurrentKey(algorithm);
+        return resolve("algorithm:" + algorithm.name(), currentKey);
+    }
+
+    private PublicKeyResponse resolve(String cacheKey, AlgorithmKeyPair currentKey) {
+        CachedResponse cached = responses.get(cacheKey);
+        if (cached != null && cached.key() == currentKey) {
+            return cached.response();
+        }
+
+        // 并发重建时结果相同，后写入的覆盖先写入的即可
+        PublicKeyResponse response = build(currentKey);
+        responses.put(cacheKey, new CachedResponse(currentKey, response));
+        log.info("公钥响应已重建 - 缓存键: {}, 算法: {}, 版本: {}",
+                cacheKey, currentKey.getAlgorithm(), currentKey.getKeyVersion());
+        return response;
+    }
+
+    private PublicKeyResponse build(AlgorithmKeyPair key) {
+        // 缓存的响应跨请求复用，不携带请求ID和耗时
+        Result<PublicKeyInfo> result = Result.success(key.toPublicKeyInfo())
+                .setRequestId(null)
+                .setCostTime(null);
+
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(result);
+        } catch (JsonProcessingException e) {
+            throw ExceptionFactory.crypto(ErrorCode.System.CRYPTO_ERROR, "公钥响应序列化失败", e);
+        }
+
+        LocalDateTime nextRotation = keyManagementService.getNextRotationTime(key.getAlgorithm());
+        long nextRotationMillis = nextRotation == null
+                ? Long.MAX_VALUE
+                : nextRotation.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        String etag = "\"" + key.getAlgorithm().name() + "-" + key.getKeyVersion() + "\"";
+        return new PublicKeyResponse(etag, body, nextRotationMillis, Math.max(0, config.getMaxAgeSeconds()));
+    }
+
+    /**
+     * 缓存条目，按密钥对象判断是否已轮换
+     */
+    private record CachedResponse(AlgorithmKeyPair key, PublicKeyResponse response) {
+    }
+}
@@ -3,6 +3,7 @@ package com.nianji.auth.service.impl;
 import com.nianji.auth.context.RefreshTokenContext;
 import com.nianji.auth.model.device.DeviceInfo;
 import com.nianji.auth.model.token.RefreshTokenMetadata;
+import com.nianji.auth.model.token.RefreshTokenRotationResult;
 import com.nianji.auth.service.RefreshTokenCacheService;
 import com.nianji.common.config.CacheConfig;
 import com.nianji.common.constant.CacheKeys;
@@ -11,8 +12,13 @@ import com.nianji.common.exception.ExceptionFactory;
 import com.nianji.common.utils.CacheUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
@@ -27,8 +33,39 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class RefreshTokenCacheServiceImpl implements RefreshTokenCacheService {
 
+    /**
+     * 轮换脚本：校验并消费旧令牌、写入新令牌，一次往返完成；返回被替换的访问令牌供拉黑
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> ROTATE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/refresh_token_rotate.lua"), List.class);
+
+    /**
+     * 脚本返回值中的字符串元素按 UTF-8 解码，整数元素保持原样
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final RedisSerializer<List> SCRIPT_REPLY_SERIALIZER = (RedisSerializer) RedisSerializer.string();
+
+    /**
+     * 批量撤销脚本：一次往返撤销用户的全部（或除指定令牌外的）RefreshToken；返回被撤销的令牌供拉黑
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> REVOKE_ALL_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/refresh_token_revoke_all.lua"), List.class);
+
+    /**
+     * 重放时沿后继链撤销的最大令牌数
+     */
+    private static final int MAX_ROTATION_CHAIN = 16;
+
+    /**
+     * 并发刷新宽限期：旧令牌轮换后这段时间内再次出现视为同一客户端的并发请求，不按重放处理
+     */
+    private static final long CONCURRENT_REFRESH_GRACE_MILLIS = 10_000L;
+
     private final CacheUtil cacheUtil;
     private final CacheConfig cacheConfig;
+    private final RedisTemplate<String, Object> redisTemplate;
 
     @Override
     public void cacheRefreshToken(RefreshTokenContext refreshTokenContext) {
@@ -39,14 +76,14 @@ public class RefreshTokenCacheServiceImpl implements RefreshTokenCacheService {
 
         try {
             // 1. 缓存refreshToken元数据
-            String tokenKey = CacheKeys.Auth.refreshToken(refreshToken);
+            String tokenKey = CacheKeys.Auth.refreshToken(userId, refreshToken);
             RefreshTokenMetadata metadata = new RefreshTokenMetadata(userId, clientIp, userAgent);
 
             cacheUtil.putSmart(tokenKey, metadata);
 
-            // 2. 维护用户会话列表
+            // 2. 维护用户会话列表（成员为令牌原文，轮换脚本直接拼接键）
             String userSessionsKey = CacheKeys.Auth.userSessions(userId);
-            cacheUtil.addSmart(userSessionsKey, refreshToken);
+            cacheUtil.addStringSmart(userSessionsKey, refreshToken);
 
             // 3. 记录登录设备信息
             recordLoginDevice(userId, clientIp, userAgent);
@@ -60,13 +97,73 @@ public class RefreshTokenCacheServiceImpl implements RefreshTokenCacheService {
     }
 
     @Override
-    public boolean isValidRefreshToken(String refreshToken) {
+    public RefreshTokenRotationResult rotateRefreshToken(RefreshTokenContext refreshTokenContext,
+                                                         long oldTokenRemainingMillis) {
+        Long userId = refreshTokenContext.getUserId();
+        String oldToken = refreshTokenContext.getRefreshToken();
+        String newToken = refreshTokenContext.getNewRefreshToken();
+
+        // 脚本访问的键都带同一个用户哈希标签，集群模式下位于同一个槽位
+        String newTokenKey = CacheKeys.Auth.refreshToken(userId, newToken);
+        String userSessionsKey = CacheKeys.Auth.userSessions(userId);
+        String accessTokenKey = CacheKeys.Auth.accessToken(userId);
+        List<String> keys = List.of(
+                CacheKeys.Auth.refreshToken(userId, oldToken),
+                CacheKeys.Auth.rotatedRefreshToken(userId, oldToken),
+                newTokenKey,
+                userSessionsKey,
+                accessTokenKey,
+                // 会话反向索引随令牌一起迁移，登出时仍能按新令牌定位会话；令牌ID在解析、签发时已取得
+                CacheKeys.Session.tokenSession(userId, nullToEmpty(refreshTokenContext.getRefreshTokenId())),
+                CacheKeys.Session.tokenSession(userId, nullToEmpty(refreshTokenContext.getNewAccessTokenId())),
+                CacheKeys.Session.tokenSession(userId, nullToEmpty(refreshTokenContext.getNewRefreshTokenId())));
+
+        RefreshTokenMetadata metadata = new RefreshTokenMetadata(userId,
+                refreshTokenContext.getClientIp(), refreshTokenContext.getUserAgent());
+
+        // 元数据按 RedisTemplate 的值序列化写入，与 getMetadata 读取一致；其余参数为原文
+        @SuppressWarnings("unchecked")
+        RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+        Object[] args = {
+                utf8(oldToken),
+                utf8(newToken),
+                valueSerializer.serialize(metadata),
+                utf8(String.valueOf(cacheConfig.getExpire(newTokenKey))),
+                utf8(String.valueOf(cacheConfig.getExpire(userSessionsKey))),
+                utf8(refreshTokenContext.getNewAccessToken()),
+                utf8(String.valueOf(cacheConfig.getExpire(accessTokenKey))),
+                utf8(String.valueOf(Math.max(1L, oldTokenRemainingMillis))),
+                utf8(CacheKeys.Auth.refreshToken(userId, "")),
+                utf8(CacheKeys.Auth.rotatedRefreshToken(userId, "")),
+                utf8(String.valueOf(MAX_ROTATION_CHAIN)),
+                utf8(String.valueOf(CONCURRENT_REFRESH_GRACE_MILLIS)),
+                utf8(CacheKeys.Session.sessionRefreshToken(userId, ""))
+        };
+
+        try {
+            List<?> reply = redisTemplate.execute(ROTATE_SCRIPT, RedisSerializer.byteArray(),
+                    SCRIPT_REPLY_SERIALIZER, keys, args);
+            RefreshTokenRotationResult result = RefreshTokenRotationResult.fromCode(
+                    reply != null && !reply.isEmpty() && reply.get(0) instanceof Number code ? code.longValue() : null);
+            if (result != RefreshTokenRotationResult.INVALID) {
+                blacklistReplacedTokens(result, oldToken, oldTokenRemainingMillis, reply);
+            }
+            return result;
+        } catch (Exception e) {
+            log.error("RefreshToken轮换失败 - 用户ID: {}, Token: {}", userId, maskToken(oldToken), e);
+            throw ExceptionFactory.business(ErrorCode.Business.BUSINESS_ERROR,
+                    "刷新令牌失败");
+        }
+    }
+
+    @Override
+    public boolean isValidRefreshToken(Long userId, String refreshToken) {
         if (refreshToken == null || refreshToken.trim().isEmpty()) {
             return false;
         }
 
         try {
-            RefreshTokenMetadata metadata = getMetadata(refreshToken);
+            RefreshTokenMetadata metadata = getMetadata(userId, refreshToken);
 
             boolean isValid = metadata != null && !metadata.isRevoked();
             log.debug("RefreshToken验证 - Token: {}, 有效: {}", maskToken(refreshToken), isValid);
@@ -79,9 +176,9 @@ public class RefreshTokenCacheServiceImpl implements RefreshTokenCacheService {
     }
 
     @Override
-    public RefreshTokenMetadata getMetadata(String refreshToken) {
+    public RefreshTokenMetadata getMetadata(Long userId, String refreshToken) {
         try {
-            String tokenKey = CacheKeys.Auth.refreshToken(refreshToken);
+            String tokenKey = CacheKeys.Auth.refreshToken(userId, refreshToken);
             return cacheUtil.get(tokenKey);
         } catch (Exception e) {
             log.error("获取RefreshToken元数据失败 - Token: {}", maskToken(refreshToken), e);
@@ -90,13 +187,13 @@ public class RefreshTokenCacheServiceImpl implements RefreshTokenCacheService {
     }
 
     @Override
-    public void revokeRefreshToken(String refreshToken) {
+    public void revokeRefreshToken(Long userId, String refreshToken) {
         try {
-            RefreshTokenMetadata metadata = getMetadata(refreshToken);
+            RefreshTokenMetadata metadata = getMetadata(userId, refreshToken);
             if (metadata != null) {
                 // 标记为已撤销，短期保留记录用于审计
                 metadata.setRevoked(true);
-                String tokenKey = CacheKeys.Auth.refreshToken(refreshToken);
+                String tokenKey = CacheKeys.Auth.refreshToken(userId, refreshToken);
                 cacheUtil.put(
                         tokenKey,
                         metadata,
@@ -106,7 +203,7 @@ public class RefreshTokenCacheServiceImpl implements RefreshTokenCacheService {
 
                 // 从用户会话列表中移除
                 String userSessionsKey = CacheKeys.Auth.userSessions(metadata.getUserId());
-                cacheUtil.remove(userSessionsKey, refreshToken);
+                cacheUtil.removeString(userSessionsKey, refreshToken);
 
                 log.info("RefreshToken已撤销 - 用户ID: {}, Token: {}",
                         metadata.getUserId(), maskToken(refreshToken));
@@ -119,16 +216,8 @@ public class RefreshTokenCacheServiceImpl implements RefreshTokenCacheService {
     @Override
     public void revokeAllUserRefreshTokens(Long userId) {
         try {
-            String userSessionsKey = CacheKeys.Auth.userSessions(userId);
-            Set<Object> refreshTokens = cacheUtil.members(userSessionsKey);
-
-            if (refreshTokens != null) {
-                for (Object tokenObj : refreshTokens) {
-                    String refreshToken = (String) tokenObj;
-                    revokeRefreshToken(refreshToken);
-                }
-                log.info("用户所有RefreshToken已撤销 - 用户ID: {}, 撤销数量: {}", userId, refreshTokens.size());
-            }
+            long revokedCount = revokeUserTokens(userId, "");
+            log.info("用户所有RefreshToken已撤销 - 用户ID: {}, 撤销数量: {}", userId, revokedCount);
         } catch (Exception e) {
             log.error("撤销用户所有RefreshToken失败 - 用户ID: {}", userId, e);
         }
@@ -137,21 +226,9 @@ public class RefreshTokenCacheServiceImpl implements RefreshTokenCacheService {
     @Override
     public void revokeUserSessionsExcept(Long userId, String excludeToken) {
         try {
-            String userSessionsKey = CacheKeys.Auth.userSessions(userId);
-            Set<Object> refreshTokens = cacheUtil.members(userSessionsKey);
-
-            if (refreshTokens != null) {
-                int revokedCount = 0;
-                for (Object tokenObj : refreshTokens) {
-                    String refreshToken = (String) tokenObj;
-                    if (!refreshToken.equals(excludeToken)) {
-                        revokeRefreshToken(refreshToken);
-                        revokedCount++;
-                    }
-                }
-                log.info("用户其他会话已撤销 - 用户ID: {}, 保留Token: {}, 撤销数量: {}",
-                        userId, maskToken(excludeToken), revokedCount);
-            }
+            long revokedCount = revokeUserTokens(userId, excludeToken != null ? excludeToken : "");
+            log.info("用户其他会话已撤销 - 用户ID: {}, 保留Token: {}, 撤销数量: {}",
+                    userId, maskToken(excludeToken), revokedCount);
         } catch (Exception e) {
             log.error("撤销用户其他会话失败 - 用户ID: {}", userId, e);
         }
@@ -161,14 +238,14 @@ public class RefreshTokenCacheServiceImpl implements RefreshTokenCacheService {
     public List<RefreshTokenMetadata> getUserActiveSessions(Long userId) {
         try {
             String userSessionsKey = CacheKeys.Auth.userSessions(userId);
-            Set<Object> refreshTokens = cacheUtil.members(userSessionsKey);
+            Set<String> refreshTokens = cacheUtil.membersString(userSessionsKey);
 
             if (refreshTokens == null) {
                 return List.of();
             }
 
             return refreshTokens.stream()
-                    .map(token -> getMetadata((String) token))
+                    .map(refreshToken -> getMetadata(userId, refreshToken))
                     .filter(metadata -> metadata != null && !metadata.isRevoked())
                     .collect(Collectors.toList());
         } catch (Exception e) {
@@ -178,12 +255,12 @@ public class RefreshTokenCacheServiceImpl implements RefreshTokenCacheService {
     }
 
     @Override
-    public void updateLastUsedTime(String refreshToken) {
+    public void updateLastUsedTime(Long userId, String refreshToken) {
         try {
-            RefreshTokenMetadata metadata = getMetadata(refreshToken);
+            RefreshTokenMetadata metadata = getMetadata(userId, refreshToken);
             if (metadata != null && !metadata.isRevoked()) {
                 metadata.setLastUsedAt(LocalDateTime.now());
-                String tokenKey = CacheKeys.Auth.refreshToken(refreshToken);
+                String tokenKey = CacheKeys.Auth.refreshToken(userId, refreshToken);
                 cacheUtil.putSmart(tokenKey, metadata);
             }
         } catch (Exception e) {
@@ -198,10 +275,12 @@ public class RefreshTokenCacheServiceImpl implements RefreshTokenCacheService {
             String deviceKey = CacheKeys.Auth.trustedDevices(userId);
             DeviceInfo deviceInfo = new DeviceInfo(loginIp, userAgent, LocalDateTime.now());
 
-            // 存储最近5个登录设备
-            cacheUtil.leftPush(deviceKey, deviceInfo);
-            cacheUtil.trim(deviceKey, 0, 4);
-            cacheUtil.expire(deviceKey, cacheConfig.getExpire(deviceKey), TimeUnit.SECONDS);
+            // 存储最近5个登录设备（一次管道往返）
+            cacheUtil.pipelined(pipeline -> {
+                pipeline.leftPush(deviceKey, deviceInfo);
+                pipeline.trim(deviceKey, 0, 4);
+                pipeline.expireSmart(deviceKey);
+            });
         } catch (Exception e) {
             log.error("记录登录设备信息失败 - 用户ID: {}", userId, e);
         }
@@ -234,4 +313,75 @@ public class RefreshTokenCacheServiceImpl implements RefreshTokenCacheService {
         }
         return token.substring(0, 8) + "..." + token.substring(token.length() - 8);
     }
-}
\ No newline at end of file
+
+    /**
+     * 执行批量撤销脚本
+     *
+     * @param excludeToken 保留的令牌，为空字符串时全部撤销
+     * @return 撤销的令牌数
+     */
+    private long revokeUserTokens(Long userId, String excludeToken) {
+        List<?> reply = redisTemplate.execute(REVOKE_ALL_SCRIPT, RedisSerializer.byteArray(),
+                SCRIPT_REPLY_SERIALIZER,
+                List.of(CacheKeys.Auth.userSessions(userId)),
+                utf8(CacheKeys.Auth.refreshToken(userId, "")),
+                utf8(excludeToken));
+        if (reply == null || reply.isEmpty()) {
+            return 0L;
+        }
+        blacklistRevokedTokens(reply);
+        return reply.size() / 2;
+    }
+
+    /**
+     * 已撤销的令牌加入黑名单，保留到元数据原本的过期时间（一次管道往返）
+     * <p>
+     * 黑名单不带用户哈希标签，与撤销脚本的键不在同一个槽位，因此在脚本之后写入
+     *
+     * @param reply 撤销脚本返回的 {令牌, 剩余毫秒数} 序列
+     */
+    private void blacklistRevokedTokens(List<?> reply) {
+        cacheUtil.pipelined(pipeline -> {
+            for (int i = 0; i + 1 < reply.size(); i += 2) {
+                if (reply.get(i) instanceof String token && reply.get(i + 1) instanceof Number ttl
+                        && ttl.longValue() > 0) {
+                    pipeline.putString(CacheKeys.Security.blacklistedToken(token), "revoked",
+                            ttl.longValue(), TimeUnit.MILLISECONDS);
+                }
+            }
+        });
+    }
+
+    /**
+     * 轮换成功后拉黑旧令牌和被替换的访问令牌，重放时只拉黑访问令牌（一次管道往返）
+     * <p>
+     * 黑名单按令牌原文查找、不带用户哈希标签，与轮换脚本的键不在同一个槽位，因此在脚本之后写入
+     */
+    private void blacklistReplacedTokens(RefreshTokenRotationResult result, String oldToken,
+                                         long oldTokenRemainingMillis, List<?> reply) {
+        String replacedAccessToken = reply.size() > 1 && reply.get(1) instanceof String token ? token : null;
+        long accessTokenTtl = reply.size() > 2 && reply.get(2) instanceof Number ttl ? ttl.longValue() : 0L;
+
+        cacheUtil.pipelined(pipeline -> {
+            if (result == RefreshTokenRotationResult.ROTATED) {
+                pipeline.putString(CacheKeys.Security.blacklistedToken(oldToken), "refreshed",
+                        Math.max(1L, oldTokenRemainingMillis), TimeUnit.MILLISECONDS);
+            }
+            if (replacedAccessToken != null && accessTokenTtl > 0) {
+                pipeline.putString(CacheKeys.Security.blacklistedToken(replacedAccessToken), "refreshed",
+                        accessTokenTtl, TimeUnit.MILLISECONDS);
+            }
+        });
+    }
+
+    /**
+     * 早期签发的令牌没有令牌ID（jti），按空字符串处理
+     */
+    private static String nullToEmpty(String tokenId) {
+        return tokenId != null ? tokenId : "";
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -10,10 +10,8 @@ import com.nianji.common.jwt.api.JwtValidator;
 import com.nianji.common.reqres.BizResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 /**
  * 增强的密码重置服务 - 支持密码加密传输
@@ -24,7 +22,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class ResetPasswordServiceImpl implements PasswordResetService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final PasswordTransmissionService passwordTransmissionService;
     private final UserCacheService userCacheService;
     private final UserQueryService userQueryService;
@@ -32,8 +30,10 @@ public class ResetPasswordServiceImpl implements PasswordResetService {
 
     private final JwtValidator jwtValidator;
 
+    /**
+     * 只有一条 UPDATE，不开启事务；两次 BCrypt 计算不占用数据库连接
+     */
     @Override
-    @Transactional
     public BizResult<Void> processPasswordReset(ResetPasswordContext resetPasswordContext) {
         String token = resetPasswordContext.getToken();
 
@@ -65,12 +65,12 @@ public class ResetPasswordServiceImpl implements PasswordResetService {
         }
 
         // 5. 验证原密码
-        if (!passwordEncoder.matches(oldPassword, user.getPassword())) {
+        if (!passwordHashingService.matches(oldPassword, user.getPassword())) {
             return BizResult.fail(ErrorCode.Client.PARAM_ERROR, "原密码不正确");
         }
 
         // 6. 更新密码
-        String newPasswordHash = passwordEncoder.encode(newPassword);
+        String newPasswordHash = passwordHashingService.encode(newPassword);
         user.setPassword(newPasswordHash);
 
         int updated = userRepository.updateById(user);
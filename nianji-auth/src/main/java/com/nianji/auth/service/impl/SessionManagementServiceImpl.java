@@ -6,11 +6,12 @@ import com.nianji.auth.model.session.SessionStats;
 import com.nianji.auth.service.DeviceManagementService;
 import com.nianji.auth.service.RefreshTokenCacheService;
 import com.nianji.auth.service.SessionManagementService;
-import com.nianji.common.config.CacheConfig;
 import com.nianji.common.constant.CacheKeys;
 import com.nianji.common.errorcode.ErrorCode;
 import com.nianji.common.exception.ExceptionFactory;
 import com.nianji.common.jwt.api.JwtValidator;
+import com.nianji.common.jwt.dto.IssuedToken;
+import com.nianji.common.jwt.dto.JwtUserInfo;
 import com.nianji.common.reqres.BizResult;
 import com.nianji.common.utils.CacheUtil;
 import lombok.RequiredArgsConstructor;
@@ -19,10 +20,10 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
 
 /**
  * 会话管理服务实现
@@ -36,29 +37,44 @@ public class SessionManagementServiceImpl implements SessionManagementService {
     private final DeviceManagementService deviceManagementService;
     private final CacheUtil cacheUtil;
     private final JwtValidator jwtValidator;
-    private final CacheConfig cacheConfig;
 
     @Override
     public void handleLogout(String token, String logoutReason) {
         try {
-            Long userId = jwtValidator.extractUserId(token);
-            if (userId != null) {
-                // 找到当前token对应的会话并撤销
-                List<SessionInfo> activeSessions = getActiveSessions(userId);
-                for (SessionInfo session : activeSessions) {
-                    if (token.equals(session.getAccessToken())) {
-                        revokeSession(session.getSessionId(), logoutReason);
-                        log.info("处理用户登出 - 用户ID: {}, 会话ID: {}, 原因: {}",
-                                userId, session.getSessionId(), logoutReason);
-                        break;
-                    }
-                }
+            JwtUserInfo claims = jwtValidator.parseValidToken(token);
+            if (claims != null) {
+                handleLogout(claims, logoutReason);
             }
         } catch (Exception e) {
             log.error("处理用户登出失败 - Token: {}", maskToken(token), e);
         }
     }
 
+    @Override
+    public void handleLogout(JwtUserInfo claims, String logoutReason) {
+        Long userId = claims.getUserId();
+        String tokenId = claims.getTokenId();
+        try {
+            if (userId == null || tokenId == null) {
+                log.debug("令牌没有令牌ID，无法定位会话 - 用户ID: {}", userId);
+                return;
+            }
+
+            String indexKey = CacheKeys.Session.tokenSession(userId, tokenId);
+            String sessionId = cacheUtil.getString(indexKey);
+            if (sessionId == null) {
+                log.debug("未找到令牌对应的会话 - 用户ID: {}, 令牌ID: {}", userId, tokenId);
+                return;
+            }
+
+            revokeSession(sessionId, logoutReason);
+            cacheUtil.deleteString(indexKey);
+            log.info("处理用户登出 - 用户ID: {}, 会话ID: {}, 原因: {}", userId, sessionId, logoutReason);
+        } catch (Exception e) {
+            log.error("处理用户登出失败 - 用户ID: {}, 令牌ID: {}", userId, tokenId, e);
+        }
+    }
+
     @Override
     public BizResult<SessionInfo> createSession(LoginContext loginContext) {
         try {
@@ -93,7 +109,11 @@ public class SessionManagementServiceImpl implements SessionManagementService {
                 return BizResult.fail(ErrorCode.Business.BUSINESS_ERROR, "会话创建失败");
             }
 
-            // 4. 验证会话创建结果
+            // 4. 建立令牌到会话的反向索引，登出时直接定位会话，并记录会话当前的刷新令牌
+            indexSessionTokens(sessionInfo, loginContext.getIssuedAccessToken(), loginContext.getIssuedRefreshToken());
+            trackSessionRefreshToken(sessionInfo, loginContext.getIssuedRefreshToken());
+
+            // 5. 验证会话创建结果
             int afterSessions = getActiveSessionCount(userId);
             log.info("会话创建完成 - 用户: {}, 会话ID: {}, 会话数变化: {} -> {}",
                     username, sessionInfo.getSessionId(), currentSessions, afterSessions);
@@ -123,14 +143,14 @@ public class SessionManagementServiceImpl implements SessionManagementService {
                 Long userId = sessionInfo.getUserId();
                 String sessionId = sessionInfo.getSessionId();
 
-                // 1. 存储会话详情
+                // 1. 存储会话详情并添加到活跃会话列表（一次管道往返）
                 String sessionKey = CacheKeys.Session.sessionDetail(sessionId);
-                cacheUtil.putSmart(sessionKey, sessionInfo);
-
-                // 2. 添加到活跃会话列表
                 String sessionsKey = CacheKeys.Session.activeSessionList(userId);
-                cacheUtil.leftPush(sessionsKey, sessionInfo);
-                cacheUtil.expire(sessionsKey, cacheConfig.getExpire(sessionsKey), TimeUnit.SECONDS);
+                cacheUtil.pipelined(pipeline -> {
+                    pipeline.putSmart(sessionKey, sessionInfo);
+                    pipeline.leftPush(sessionsKey, sessionInfo);
+                    pipeline.expireSmart(sessionsKey);
+                });
 
                 // 3. 立即验证缓存结果
                 Thread.sleep(50); // 确保Redis操作完成
@@ -196,20 +216,35 @@ public class SessionManagementServiceImpl implements SessionManagementService {
                 return List.of();
             }
 
-            List<SessionInfo> sessions = new ArrayList<>();
+            List<SessionInfo> listed = new ArrayList<>(sessionObjects.size());
             for (Object obj : sessionObjects) {
                 if (obj instanceof SessionInfo session) {
-                    // 双重验证：检查会话详情是否也存在
-                    if (isSessionReallyActive(session.getSessionId())) {
-                        sessions.add(session);
-                    } else {
-                        log.warn("发现无效会话，从活跃列表中移除 - 会话ID: {}", session.getSessionId());
-                        // 从活跃列表中移除无效会话
-                        removeFromActiveSessions(userId, session.getSessionId());
-                    }
+                    listed.add(session);
+                }
+            }
+
+            // 双重验证：一次批量读取所有会话详情，检查详情是否存在且仍然活跃
+            List<Object> details = cacheUtil.multiGet(listed.stream()
+                    .map(session -> CacheKeys.Session.sessionDetail(session.getSessionId()))
+                    .toList());
+
+            List<SessionInfo> sessions = new ArrayList<>(listed.size());
+            Set<String> invalidSessionIds = new HashSet<>();
+            for (int i = 0; i < listed.size(); i++) {
+                SessionInfo session = listed.get(i);
+                if (details.get(i) instanceof SessionInfo detail
+                        && detail.getStatus() == SessionInfo.SessionStatus.ACTIVE) {
+                    sessions.add(session);
+                } else {
+                    invalidSessionIds.add(session.getSessionId());
                 }
             }
 
+            if (!invalidSessionIds.isEmpty()) {
+                log.warn("发现无效会话，从活跃列表中移除 - 用户ID: {}, 会话ID: {}", userId, invalidSessionIds);
+                removeFromActiveSessions(userId, sessionObjects, invalidSessionIds);
+            }
+
             log.debug("获取有效活跃会话 - 用户ID: {}, 数量: {}", userId, sessions.size());
             return sessions;
         } catch (Exception e) {
@@ -218,21 +253,6 @@ public class SessionManagementServiceImpl implements SessionManagementService {
         }
     }
 
-    /**
-     * 双重验证会话是否真正活跃
-     */
-    private boolean isSessionReallyActive(String sessionId) {
-        try {
-            String sessionKey = CacheKeys.Session.sessionDetail(sessionId);
-            SessionInfo session = (SessionInfo) cacheUtil.get(sessionKey);
-            return session != null && session.getStatus() == SessionInfo.SessionStatus.ACTIVE;
-        } catch (Exception e) {
-            log.warn("验证会话活跃状态失败 - 会话ID: {}", sessionId, e);
-            return false;
-        }
-    }
-
-
     @Override
     public SessionInfo getSession(String sessionId) {
         try {
@@ -263,19 +283,14 @@ public class SessionManagementServiceImpl implements SessionManagementService {
         try {
             SessionInfo session = getSession(sessionId);
             if (session != null) {
-                // 更新会话状态
-                session.setStatus(SessionInfo.SessionStatus.REVOKED);
-                session.setLogoutTime(LocalDateTime.now());
-                session.setLogoutReason(reason);
-
-                // 更新缓存中的会话信息
-                cacheSession(session);
-
-                // 从活跃会话列表中移除
-                removeFromActiveSessions(session.getUserId(), sessionId);
+                markSessionRevoked(session, reason);
 
-                // 撤销对应的RefreshToken
-                refreshTokenCacheService.revokeRefreshToken(session.getRefreshToken());
+                // 撤销会话当前的RefreshToken：轮换后登录时签发的令牌已被消费，按轮换维护的当前令牌撤销
+                String currentTokenKey = CacheKeys.Session.sessionRefreshToken(session.getUserId(), sessionId);
+                String currentToken = cacheUtil.getString(currentTokenKey);
+                refreshTokenCacheService.revokeRefreshToken(session.getUserId(),
+                        currentToken != null ? currentToken : session.getRefreshToken());
+                cacheUtil.deleteString(currentTokenKey);
 
                 log.info("撤销会话成功 - 会话ID: {}, 用户: {}, 原因: {}",
                         sessionId, session.getUsername(), reason);
@@ -290,26 +305,20 @@ public class SessionManagementServiceImpl implements SessionManagementService {
     @Override
     public void revokeAllUserSessions(Long userId, String reason) {
         try {
-            // 修改：获取所有会话，不限于ACTIVE状态
             List<SessionInfo> allSessions = getActiveSessions(userId);
             log.info("开始撤销用户所有会话 - 用户ID: {}, 会话数: {}", userId, allSessions.size());
 
-            int revokedCount = 0;
-            for (SessionInfo session : allSessions) {
-                // 修改：撤销所有会话，无论当前状态
-                revokeSession(session.getSessionId(), reason);
-                revokedCount++;
-
-                // 短暂延迟确保Redis操作完成
-                try {
-                    Thread.sleep(20);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    break;
+            // 会话详情改写和会话列表整体删除在一次管道往返中完成，RefreshToken由一次脚本执行全部撤销
+            cacheUtil.pipelined(pipeline -> {
+                for (SessionInfo session : allSessions) {
+                    applyRevocation(session, reason);
+                    pipeline.putSmart(CacheKeys.Session.sessionDetail(session.getSessionId()), session);
                 }
-            }
+                pipeline.delete(CacheKeys.Session.activeSessionList(userId));
+            });
+            refreshTokenCacheService.revokeAllUserRefreshTokens(userId);
 
-            log.info("撤销用户所有会话完成 - 用户ID: {}, 撤销数量: {}", userId, revokedCount);
+            log.info("撤销用户所有会话完成 - 用户ID: {}, 撤销数量: {}", userId, allSessions.size());
         } catch (Exception e) {
             log.error("撤销用户所有会话失败 - 用户ID: {}", userId, e);
         }
@@ -352,21 +361,19 @@ public class SessionManagementServiceImpl implements SessionManagementService {
             Long userId = sessionInfo.getUserId();
             String sessionId = sessionInfo.getSessionId();
 
-            // 1. 存储到活跃会话列表
+            // 存储到活跃会话列表、单独存储会话详情并设置列表的过期时间（一次管道往返）
             String sessionsKey = CacheKeys.Session.activeSessionList(userId);
-            cacheUtil.leftPush(sessionsKey, sessionInfo);
-
-            // 2. 单独存储会话详情
             String sessionKey = CacheKeys.Session.sessionDetail(sessionId);
-            cacheUtil.putSmart(sessionKey, sessionInfo);
-
-            // 3. 设置列表的过期时间
-            cacheUtil.expire(sessionsKey, cacheConfig.getExpire(sessionsKey), TimeUnit.SECONDS);
+            cacheUtil.pipelined(pipeline -> {
+                pipeline.leftPush(sessionsKey, sessionInfo);
+                pipeline.putSmart(sessionKey, sessionInfo);
+                pipeline.expireSmart(sessionsKey);
+            });
 
             log.debug("缓存会话信息成功 - 用户ID: {}, 会话ID: {}, 状态: {}",
                     userId, sessionId, sessionInfo.getStatus());
 
-            // 4. 验证缓存结果
+            // 验证缓存结果
             validateCacheResult(userId, sessionId);
         } catch (Exception e) {
             log.error("缓存会话信息失败 - 用户ID: {}, 会话ID: {}",
@@ -406,36 +413,79 @@ public class SessionManagementServiceImpl implements SessionManagementService {
     }
 
     /**
-     * 从活跃会话列表中移除指定会话
+     * 会话详情标记为已撤销
+     * <p>
+     * 只改写会话详情，不重写活跃会话列表：{@link #getActiveSessions} 读取时按详情状态过滤并清理已撤销的会话
      */
-    private void removeFromActiveSessions(Long userId, String sessionId) {
-        try {
-            String sessionsKey = CacheKeys.Session.activeSessionList(userId);
-            List<Object> sessionObjects = cacheUtil.range(sessionsKey, 0, -1);
+    private void markSessionRevoked(SessionInfo session, String reason) {
+        applyRevocation(session, reason);
+        cacheUtil.putSmart(CacheKeys.Session.sessionDetail(session.getSessionId()), session);
+    }
 
-            if (sessionObjects != null) {
-                // 过滤掉要移除的会话
-                List<SessionInfo> updatedSessions = sessionObjects.stream()
-                        .filter(Objects::nonNull)
-                        .map(obj -> (SessionInfo) obj)
-                        .filter(session -> !session.getSessionId().equals(sessionId))
-                        .collect(Collectors.toList());
-
-                // 删除原列表并重新添加
-                cacheUtil.delete(sessionsKey);
-                for (SessionInfo session : updatedSessions) {
-                    cacheUtil.leftPush(sessionsKey, session);
-                }
-                cacheUtil.expire(sessionsKey, cacheConfig.getExpire(sessionsKey), TimeUnit.SECONDS);
+    private static void applyRevocation(SessionInfo session, String reason) {
+        session.setStatus(SessionInfo.SessionStatus.REVOKED);
+        session.setLogoutTime(LocalDateTime.now());
+        session.setLogoutReason(reason);
+    }
 
-                log.debug("从活跃会话列表移除会话 - 用户ID: {}, 会话ID: {}, 剩余会话数: {}",
-                        userId, sessionId, updatedSessions.size());
+    /**
+     * 建立访问令牌、刷新令牌到会话的反向索引，随令牌过期
+     * <p>
+     * 令牌ID与过期时间取自签发结果，刚签发的令牌无需再次验签解析
+     */
+    private void indexSessionTokens(SessionInfo sessionInfo, IssuedToken... issuedTokens) {
+        long now = System.currentTimeMillis();
+        for (IssuedToken issued : issuedTokens) {
+            if (issued == null || issued.getTokenId() == null || issued.getExpiration() == null) {
+                continue;
             }
-        } catch (Exception e) {
-            log.error("从活跃会话列表移除会话失败 - 用户ID: {}, 会话ID: {}", userId, sessionId, e);
+            long remainingMillis = issued.getExpiration().getTime() - now;
+            if (remainingMillis > 0) {
+                cacheUtil.putString(CacheKeys.Session.tokenSession(sessionInfo.getUserId(), issued.getTokenId()),
+                        sessionInfo.getSessionId(), remainingMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * 记录会话当前的刷新令牌，随令牌过期；轮换脚本在同一次往返中将其改为新令牌
+     */
+    private void trackSessionRefreshToken(SessionInfo sessionInfo, IssuedToken refreshToken) {
+        if (refreshToken == null || refreshToken.getToken() == null || refreshToken.getExpiration() == null) {
+            return;
+        }
+        long remainingMillis = refreshToken.getExpiration().getTime() - System.currentTimeMillis();
+        if (remainingMillis > 0) {
+            cacheUtil.putString(CacheKeys.Session.sessionRefreshToken(sessionInfo.getUserId(), sessionInfo.getSessionId()),
+                    refreshToken.getToken(), remainingMillis, TimeUnit.MILLISECONDS);
         }
     }
 
+    /**
+     * 从活跃会话列表中移除指定会话，按读取到的列表重建（一次管道往返）
+     */
+    private void removeFromActiveSessions(Long userId, List<Object> sessionObjects, Set<String> sessionIds) {
+        String sessionsKey = CacheKeys.Session.activeSessionList(userId);
+        List<SessionInfo> remaining = sessionObjects.stream()
+                .filter(obj -> obj instanceof SessionInfo session && !sessionIds.contains(session.getSessionId()))
+                .map(SessionInfo.class::cast)
+                .toList();
+
+        // 删除原列表并按原顺序重新添加
+        cacheUtil.pipelined(pipeline -> {
+            pipeline.delete(sessionsKey);
+            for (SessionInfo session : remaining) {
+                pipeline.rightPush(sessionsKey, session);
+            }
+            if (!remaining.isEmpty()) {
+                pipeline.expireSmart(sessionsKey);
+            }
+        });
+
+        log.debug("从活跃会话列表移除会话 - 用户ID: {}, 会话ID: {}, 剩余会话数: {}",
+                userId, sessionIds, remaining.size());
+    }
+
     private String generateSessionId() {
         return java.util.UUID.randomUUID().toString().replace("-", "");
     }
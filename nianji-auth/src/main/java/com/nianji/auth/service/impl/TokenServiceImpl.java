@@ -1,8 +1,8 @@
 package com.nianji.auth.service.impl;
 
-import cn.hutool.core.util.ObjectUtil;
+import cn.hutool.core.util.StrUtil;
 import com.nianji.auth.context.RefreshTokenContext;
-import com.nianji.auth.model.token.RefreshTokenMetadata;
+import com.nianji.auth.model.token.RefreshTokenRotationResult;
 import com.nianji.auth.service.RefreshTokenCacheService;
 import com.nianji.auth.service.SessionManagementService;
 import com.nianji.auth.service.TokenService;
@@ -14,6 +14,8 @@ import com.nianji.common.enums.TokenTypeEnum;
 import com.nianji.common.errorcode.ErrorCode;
 import com.nianji.common.jwt.api.JwtGenerator;
 import com.nianji.common.jwt.api.JwtValidator;
+import com.nianji.common.jwt.dto.IssuedToken;
+import com.nianji.common.jwt.dto.JwtUserInfo;
 import com.nianji.common.reqres.BizResult;
 import com.nianji.common.utils.CacheUtil;
 import lombok.RequiredArgsConstructor;
@@ -42,8 +44,10 @@ public class TokenServiceImpl implements TokenService {
 
     @Override
     public BizResult<Void> processLogout(String token) {
-        Long userId = jwtValidator.extractUserId(token);
-        String username = jwtValidator.extractUsername(token);
+        // 一次解析取得用户信息和令牌ID，后续步骤不再重复解析
+        JwtUserInfo claims = jwtValidator.parseValidToken(token);
+        Long userId = claims != null ? claims.getUserId() : null;
+        String username = claims != null ? claims.getUsername() : null;
 
         if (userId != null) {
             // 1. 清除登录token缓存
@@ -53,11 +57,11 @@ public class TokenServiceImpl implements TokenService {
             // 2. 清除用户缓存
             userCacheService.evictUserCache(username);
 
-            // 3. 清除用户所有会话
+            // 3. 清除用户所有会话（一次脚本执行）
             refreshTokenCacheService.revokeAllUserRefreshTokens(userId);
 
-            // 4. 处理会话登出
-            sessionManagementService.handleLogout(token, "USER_LOGOUT");
+            // 4. 处理会话登出（按令牌ID反向索引定位）
+            sessionManagementService.handleLogout(claims, "USER_LOGOUT");
         }
 
         // 5. 将access token加入黑名单
@@ -72,66 +76,47 @@ public class TokenServiceImpl implements TokenService {
         long startTime = System.currentTimeMillis();
         String refreshToken = refreshTokenContext.getRefreshToken();
 
-        // 1. 验证refresh token是否在缓存中且有效
-        if (!refreshTokenCacheService.isValidRefreshToken(refreshToken)) {
-            log.warn("RefreshToken缓存验证失败 - Token: {}",
+        // 1. 一次解析完成签名、过期和类型校验
+        JwtUserInfo claims = jwtValidator.parseValidToken(refreshToken);
+        if (claims == null || !claims.isValid() || !"refresh".equals(claims.getTokenType())) {
+            log.warn("RefreshToken校验失败 - Token: {}",
                     refreshTokenCacheService.maskToken(refreshToken));
             return BizResult.fail(ErrorCode.Client.TOKEN_INVALID);
         }
+        String username = claims.getUsername();
+        Long userId = claims.getUserId();
 
-        // 2. 验证令牌类型
-        String tokenType = jwtValidator.extractTokenType(refreshToken);
-        if (!"refresh".equals(tokenType)) {
-            log.warn("非RefreshToken类型 - Token: {}, 类型: {}",
-                    refreshTokenCacheService.maskToken(refreshToken), tokenType);
-            return BizResult.fail(ErrorCode.Client.TOKEN_INVALID);
+        // 2. 生成新令牌，令牌ID随上下文传递，后续步骤不再解析令牌
+        IssuedToken accessToken = jwtGenerator.issueAccessToken(username, userId);
+        IssuedToken newRefreshToken = jwtGenerator.issueRefreshToken(username, userId);
+        refreshTokenContext.setUserId(userId);
+        refreshTokenContext.setRefreshTokenId(claims.getTokenId());
+        refreshTokenContext.setNewAccessToken(accessToken.getToken());
+        refreshTokenContext.setNewAccessTokenId(accessToken.getTokenId());
+        refreshTokenContext.setNewRefreshToken(newRefreshToken.getToken());
+        refreshTokenContext.setNewRefreshTokenId(newRefreshToken.getTokenId());
+        if (StrUtil.isBlank(refreshTokenContext.getClientIp())) {
+            refreshTokenContext.setClientIp("unknown");
+        }
+        if (StrUtil.isBlank(refreshTokenContext.getUserAgent())) {
+            refreshTokenContext.setUserAgent("unknown");
         }
 
-        // 3. 提取用户信息
-        String username = jwtValidator.extractUsername(refreshToken);
-        Long userId = jwtValidator.extractUserId(refreshToken);
-        if (username == null || userId == null) {
-            log.warn("RefreshToken解析用户信息失败 - Token: {}",
-                    refreshTokenCacheService.maskToken(refreshToken));
+        // 3. 原子轮换：校验并消费旧令牌、写入新令牌、拉黑旧令牌，一次往返
+        RefreshTokenRotationResult result =
+                refreshTokenCacheService.rotateRefreshToken(refreshTokenContext, claims.getRemainingTime());
+        if (result == RefreshTokenRotationResult.REUSED) {
+            log.warn("检测到RefreshToken重复使用，已撤销其派生令牌 - 用户ID: {}, Token: {}",
+                    userId, refreshTokenCacheService.maskToken(refreshToken));
             return BizResult.fail(ErrorCode.Client.TOKEN_INVALID);
         }
-
-        // 4. 获取旧access token
-        String oldAccessToken = cacheUtil.getString(CacheKeys.Auth.accessToken(userId));
-        
-        // 5. 生成新令牌
-        String newAccessToken = jwtGenerator.generateAccessToken(username, userId);
-        String newRefreshToken = jwtGenerator.generateRefreshToken(username, userId);
-
-        // 6. 获取旧token的元数据用于新token缓存
-        RefreshTokenMetadata oldMetadata =
-                refreshTokenCacheService.getMetadata(refreshToken);
-
-        // 7. 更新refresh token缓存
-        refreshTokenContext.setUserId(userId);
-        refreshTokenContext.setRefreshToken(newRefreshToken);
-        refreshTokenContext.setClientIp(ObjectUtil.isEmpty(oldMetadata) ? "unknown" : oldMetadata.getLoginIp());
-        refreshTokenContext.setUserAgent(ObjectUtil.isEmpty(oldMetadata) ? "unknown" : oldMetadata.getUserAgent());
-        refreshTokenCacheService.cacheRefreshToken(refreshTokenContext);
-
-        // 8. 撤销旧的refresh token
-        refreshTokenCacheService.revokeRefreshToken(refreshToken);
-
-        // 9. 将旧的refresh token加入黑名单
-        addTokenToBlacklist(refreshToken, "refreshed");
-
-        // 10. 将旧的access token加入黑名单
-        if (oldAccessToken != null) {
-            addTokenToBlacklist(oldAccessToken, "refreshed");
+        if (result != RefreshTokenRotationResult.ROTATED) {
+            log.warn("RefreshToken缓存验证失败 - Token: {}",
+                    refreshTokenCacheService.maskToken(refreshToken));
+            return BizResult.fail(ErrorCode.Client.TOKEN_INVALID);
         }
 
-        refreshTokenContext.setNewRefreshToken(newRefreshToken);
-        refreshTokenContext.setNewAccessToken(newAccessToken);
-
-        // 11. 更新access token缓存
-        cacheLoginToken(refreshTokenContext);
-
-        // 12. 构建响应
+        // 4. 构建响应
         LoginVO response = buildTokenResponse(refreshTokenContext);
 
         long endTime = System.currentTimeMillis();
@@ -198,20 +183,6 @@ public class TokenServiceImpl implements TokenService {
         }
     }
 
-    /**
-     * 缓存登录token
-     */
-    private void cacheLoginToken(RefreshTokenContext refreshTokenContext) {
-        Long userId = refreshTokenContext.getUserId();
-        String newAccessToken = refreshTokenContext.getNewAccessToken();
-        try {
-            String tokenKey = CacheKeys.Auth.accessToken(userId);
-            cacheUtil.putStringSmart(tokenKey, newAccessToken);
-        } catch (Exception e) {
-            log.error("缓存登录Token失败 - 用户ID: {}", userId, e);
-        }
-    }
-
     /**
      * 构建令牌响应
      */
@@ -219,13 +190,13 @@ public class TokenServiceImpl implements TokenService {
         LoginVO response = new LoginVO();
         response.setAccessToken(refreshTokenContext.getNewAccessToken());
         response.setTokenType(TokenTypeEnum.BEARER.getType());
-        response.setExpiresIn(cacheUtil.getExpire(
-                        CacheKeys.Auth.accessToken(refreshTokenContext.getUserId()))
-        );
+        // 过期时间与轮换脚本写入时使用的配置一致，无需再查询 TTL
+        response.setExpiresIn(cacheConfig.getExpire(
+                CacheKeys.Auth.accessToken(refreshTokenContext.getUserId())));
         response.setRefreshToken(refreshTokenContext.getNewRefreshToken());
-        response.setRefreshExpiresIn(cacheUtil.getExpire(
-                CacheKeys.Auth.refreshToken(refreshTokenContext.getNewRefreshToken())
-        ));
+        response.setRefreshExpiresIn(cacheConfig.getExpire(
+                CacheKeys.Auth.refreshToken(refreshTokenContext.getUserId(),
+                        refreshTokenContext.getNewRefreshToken())));
         return response;
     }
 }
\ No newline at end of file
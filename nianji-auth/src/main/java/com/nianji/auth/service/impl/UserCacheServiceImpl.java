@@ -2,13 +2,15 @@ package com.nianji.auth.service.impl;
 
 import com.nianji.auth.entity.User;
 import com.nianji.auth.service.UserCacheService;
+import com.nianji.common.config.CacheConfig;
 import com.nianji.common.constant.CacheKeys;
 import com.nianji.common.utils.CacheUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.util.concurrent.TimeUnit;
+import java.time.Duration;
+import java.util.function.Supplier;
 
 /**
  * 用户缓存服务
@@ -19,6 +21,13 @@ import java.util.concurrent.TimeUnit;
 public class UserCacheServiceImpl implements UserCacheService {
 
     private final CacheUtil cacheUtil;
+    private final CacheConfig cacheConfig;
+
+    @Override
+    public User getUserByUsername(String username, Supplier<User> loader) {
+        String cacheKey = CacheKeys.User.infoByUsername(username);
+        return cacheUtil.getOrCompute(cacheKey, Duration.ofSeconds(cacheConfig.getExpire(cacheKey)), loader);
+    }
 
     @Override
     public void refreshUserCache(User user) {
@@ -30,7 +39,8 @@ public class UserCacheServiceImpl implements UserCacheService {
     public void evictUserCache(String username) {
         try {
             String cacheKey = CacheKeys.User.infoByUsername(username);
-            cacheUtil.delete(cacheKey);
+            // 同时丢弃失效前已开始的加载结果，避免提前刷新把旧的密码哈希写回缓存
+            cacheUtil.invalidate(cacheKey);
         } catch (Exception e) {
             log.error("清除用户缓存失败: {}", username, e);
         }
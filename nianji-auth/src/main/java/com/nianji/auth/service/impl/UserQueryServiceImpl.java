@@ -2,6 +2,7 @@ package com.nianji.auth.service.impl;
 
 import com.nianji.auth.dao.repository.UserRepository;
 import com.nianji.auth.entity.User;
+import com.nianji.auth.service.UserCacheService;
 import com.nianji.auth.service.UserQueryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -16,6 +17,7 @@ import org.springframework.stereotype.Service;
 public class UserQueryServiceImpl implements UserQueryService {
 
     private final UserRepository userRepository;
+    private final UserCacheService userCacheService;
 
     @Override
     public User getUserById(Long userId) {
@@ -24,7 +26,7 @@ public class UserQueryServiceImpl implements UserQueryService {
 
     @Override
     public User getUserByUsername(String username) {
-        return userRepository.selectByUsername(username);
+        return userCacheService.getUserByUsername(username, () -> userRepository.selectByUsername(username));
     }
 
     @Override
@@ -12,10 +12,9 @@ import com.nianji.common.reqres.BizResult;
 import com.nianji.common.utils.CommonUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 /**
  * 增强的用户注册服务 - 支持密码加密传输
@@ -26,15 +25,17 @@ import org.springframework.transaction.annotation.Transactional;
 public class UserRegistrationServiceImpl implements UserRegistrationService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final PasswordStrengthService passwordStrengthService;
     private final PasswordTransmissionService passwordTransmissionService;
     private final UserBloomFilterService userBloomFilterService;
     private final UserCacheService userCacheService;
     private final UserUniquenessService userUniquenessService;
 
+    /**
+     * 只有一条 INSERT，不开启事务；密码哈希在插入前完成，不占用数据库连接
+     */
     @Override
-    @Transactional
     public BizResult<Void> registerUser(RegisterContext registerContext) {
         String username = registerContext.getUsername();
         String encryptedPassword = registerContext.getPassword();
@@ -59,10 +60,15 @@ public class UserRegistrationServiceImpl implements UserRegistrationService {
             return uniquenessResult;
         }
 
-        // 5. 创建用户
+        // 5. 创建用户（并发注册同一标识符时由唯一索引拦截）
         User user = buildUserFromRequest(registerContext, plainPassword);
-        if (userRepository.insert(user) <= 0) {
-            return BizResult.fail(ErrorCode.System.DATABASE_ERROR, "注册失败，请稍后重试");
+        try {
+            if (userRepository.insert(user) <= 0) {
+                return BizResult.fail(ErrorCode.System.DATABASE_ERROR, "注册失败，请稍后重试");
+            }
+        } catch (DuplicateKeyException e) {
+            log.info("注册时唯一索引冲突 - 用户名: {}", username);
+            return BizResult.fail(ErrorCode.Client.PARAM_ERROR, userUniquenessService.duplicateMessage(e));
         }
 
         // 6. 异步处理
@@ -81,7 +87,7 @@ public class UserRegistrationServiceImpl implements UserRegistrationService {
         return User.builder()
                 .publicId(CommonUtil.generateUUID())
                 .username(username)
-                .password(passwordEncoder.encode(password)) // 使用BCrypt加密存储
+                .password(passwordHashingService.encode(password)) // 专用线程池中BCrypt加密
                 .phone(registerContext.getPhone())
                 .email(registerContext.getEmail())
                 .nickname(nickname != null ? nickname :
@@ -97,6 +103,8 @@ public class UserRegistrationServiceImpl implements UserRegistrationService {
         try {
             // 更新布隆过滤器
             userBloomFilterService.addUserToBloomFilter(user);
+            // 覆盖唯一性检查的负缓存
+            userUniquenessService.markIdentifiersTaken(user.getUsername(), user.getEmail(), user.getPhone());
             // 预热用户缓存
             userCacheService.refreshUserCache(user);
             log.debug("用户 {} 注册后处理完成", user.getUsername());
@@ -3,27 +3,56 @@ package com.nianji.auth.service.impl;
 import cn.hutool.core.util.StrUtil;
 import com.nianji.auth.context.RegisterContext;
 import com.nianji.auth.dao.repository.UserRepository;
+import com.nianji.auth.entity.User;
 import com.nianji.auth.filter.UserBloomFilterService;
 import com.nianji.auth.model.cache.CacheCheckResult;
 import com.nianji.auth.service.UserUniquenessService;
 import com.nianji.common.constant.CacheKeys;
 import com.nianji.common.errorcode.ErrorCode;
 import com.nianji.common.reqres.BizResult;
+import com.nianji.common.utils.CachePipeline;
 import com.nianji.common.utils.CacheUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 /**
  * 用户唯一性检查服务
+ * <p>
+ * 一次 MGET 读取存在性缓存，未命中的标识符再查布隆过滤器，仍不确定的合并为一条 SQL 查询。
+ * 这里只是预检查，并发注册的最终正确性由 users 表上用户名、邮箱、手机号的唯一索引保证
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class UserUniquenessServiceImpl implements UserUniquenessService {
 
+    /**
+     * 缓存值：标识符已被占用
+     */
+    private static final String TAKEN = "1";
+
+    /**
+     * 缓存值：标识符未被占用（短期负缓存）
+     */
+    private static final String AVAILABLE = "0";
+
+    /**
+     * 负缓存有效期，注册成功后会被 {@link #markIdentifiersTaken} 覆盖
+     */
+    private static final long NEGATIVE_CACHE_SECONDS = 60;
+
+    /**
+     * users 表唯一索引名，见 sql/init.sql
+     */
+    private static final String EMAIL_UNIQUE_KEY = "uk_email";
+    private static final String PHONE_UNIQUE_KEY = "uk_phone";
+
     private final UserRepository userRepository;
     private final UserBloomFilterService userBloomFilterService;
 
@@ -32,72 +61,92 @@ public class UserUniquenessServiceImpl implements UserUniquenessService {
     @Override
     public BizResult<Void> checkUserUniqueness(RegisterContext registerContext) {
 
-        // 1. 布隆过滤器检查
-        if (!needDatabaseCheck(registerContext)) {
-            return BizResult.success();
-        }
-
-        // 2. 缓存检查
+        // 1. 缓存检查（一次 MGET）
         CacheCheckResult cacheResult = checkWithCache(registerContext);
         if (cacheResult.hasConflict()) {
             return BizResult.fail(ErrorCode.Client.PARAM_ERROR, cacheResult.getConflictMessage());
         }
 
+        // 2. 布隆过滤器检查（只检查缓存未确定的字段）
+        checkWithBloomFilter(registerContext, cacheResult);
+        if (cacheResult.isAllResolved()) {
+            log.debug("缓存和布隆过滤器确认所有标识符都不存在，跳过数据库检查");
+            return BizResult.success();
+        }
+
         registerContext.setCacheResult(cacheResult);
 
-        // 3. 数据库检查（只检查缓存中没有的字段）
+        // 3. 数据库检查（一条 SQL 检查所有未确定的字段）
         return checkWithDatabase(registerContext);
     }
 
-    private boolean needDatabaseCheck(RegisterContext registerContext) {
-        boolean usernameExists = userBloomFilterService.mightUsernameExist(registerContext.getUsername());
-        boolean emailExists = userBloomFilterService.mightEmailExist(registerContext.getEmail());
-        String phone = registerContext.getPhone();
-        boolean phoneExists = phone != null && userBloomFilterService.mightPhoneExist(phone);
-
-        log.debug("布隆过滤器检查 - 用户名: {}, 邮箱: {}, 手机号: {}",
-                usernameExists, emailExists, phoneExists);
+    @Override
+    public void markIdentifiersTaken(String username, String email, String phone) {
+        cacheUtil.pipelined(pipeline -> {
+            pipeline.putStringSmart(CacheKeys.User.usernameExists(username), TAKEN);
+            pipeline.putStringSmart(CacheKeys.User.emailExists(email), TAKEN);
+            if (StrUtil.isNotBlank(phone)) {
+                pipeline.putStringSmart(CacheKeys.User.phoneExists(phone), TAKEN);
+            }
+        });
+    }
 
-        if (!usernameExists && !emailExists
-                && (StrUtil.isBlank(phone) || !phoneExists)) {
-            log.debug("布隆过滤器确认所有标识符都不存在，跳过数据库检查");
-            return false;
+    @Override
+    public String duplicateMessage(DuplicateKeyException e) {
+        String message = String.valueOf(e.getMostSpecificCause().getMessage());
+        if (message.contains(EMAIL_UNIQUE_KEY)) {
+            return "邮箱已被注册";
         }
-
-        log.debug("布隆过滤器提示部分标识符可能存在，需要进行数据库确认");
-        return true;
+        if (message.contains(PHONE_UNIQUE_KEY)) {
+            return "手机号已被注册";
+        }
+        return "用户名已存在";
     }
 
     private CacheCheckResult checkWithCache(RegisterContext registerContext) {
         CacheCheckResult result = new CacheCheckResult();
+        String phone = registerContext.getPhone();
+        boolean hasPhone = StrUtil.isNotBlank(phone);
 
-        // 检查用户名缓存
-        String usernameKey = CacheKeys.User.usernameExists(registerContext.getUsername());
-        Boolean usernameCached = cacheUtil.get(usernameKey);
-        if (Boolean.TRUE.equals(usernameCached)) {
-            result.setUsernameExists(true);
+        List<String> keys = new ArrayList<>(3);
+        keys.add(CacheKeys.User.usernameExists(registerContext.getUsername()));
+        keys.add(CacheKeys.User.emailExists(registerContext.getEmail()));
+        if (hasPhone) {
+            keys.add(CacheKeys.User.phoneExists(phone));
         }
+        List<String> values = cacheUtil.multiGetString(keys);
 
-        // 检查邮箱缓存
-        String emailKey = CacheKeys.User.emailExists(registerContext.getEmail());
-        Boolean emailCached = cacheUtil.get(emailKey);
-        if (Boolean.TRUE.equals(emailCached)) {
-            result.setEmailExists(true);
-        }
+        String usernameCached = values.get(0);
+        result.setUsernameResolved(usernameCached != null);
+        result.setUsernameExists(isTaken(usernameCached));
 
-        // 检查手机号缓存
-        String phone = registerContext.getPhone();
-        if (StrUtil.isNotBlank(phone)) {
-            String phoneKey = CacheKeys.User.phoneExists(phone);
-            Boolean phoneCached = cacheUtil.get(phoneKey);
-            if (Boolean.TRUE.equals(phoneCached)) {
-                result.setPhoneExists(true);
-            }
-        }
+        String emailCached = values.get(1);
+        result.setEmailResolved(emailCached != null);
+        result.setEmailExists(isTaken(emailCached));
+
+        // 未填手机号无需检查
+        String phoneCached = hasPhone ? values.get(2) : AVAILABLE;
+        result.setPhoneResolved(phoneCached != null);
+        result.setPhoneExists(isTaken(phoneCached));
 
         return result;
     }
 
+    private void checkWithBloomFilter(RegisterContext registerContext, CacheCheckResult result) {
+        boolean[] mightExist = userBloomFilterService.mightIdentifiersExist(
+                result.isUsernameResolved() ? null : registerContext.getUsername(),
+                result.isEmailResolved() ? null : registerContext.getEmail(),
+                result.isPhoneResolved() ? null : registerContext.getPhone());
+
+        log.debug("布隆过滤器检查 - 用户名: {}, 邮箱: {}, 手机号: {}",
+                mightExist[0], mightExist[1], mightExist[2]);
+
+        // 布隆过滤器判定不存在即一定不存在
+        result.setUsernameResolved(result.isUsernameResolved() || !mightExist[0]);
+        result.setEmailResolved(result.isEmailResolved() || !mightExist[1]);
+        result.setPhoneResolved(result.isPhoneResolved() || !mightExist[2]);
+    }
+
     private BizResult<Void> checkWithDatabase(RegisterContext registerContext) {
         String username = registerContext.getUsername();
         String email = registerContext.getEmail();
@@ -105,29 +154,42 @@ public class UserUniquenessServiceImpl implements UserUniquenessService {
         CacheCheckResult cacheResult = registerContext.getCacheResult();
 
         try {
-            // 只检查缓存中没有确认的字段
-            if (!cacheResult.isUsernameExists()) {
-                if (userRepository.existsByUsername(username)) {
-                    // 更新缓存
-                    cacheUsernameExists(username);
-                    return BizResult.fail(ErrorCode.Client.PARAM_ERROR, "用户名已存在");
+            // 只检查缓存和布隆过滤器都没有确定的字段
+            String usernameToCheck = cacheResult.isUsernameResolved() ? null : username;
+            String emailToCheck = cacheResult.isEmailResolved() ? null : email;
+            String phoneToCheck = cacheResult.isPhoneResolved() ? null : phone;
+
+            List<User> conflicts = userRepository.findByIdentifiers(usernameToCheck, emailToCheck, phoneToCheck);
+
+            // 与库中比较时忽略大小写，与列的排序规则一致
+            boolean usernameTaken = usernameToCheck != null && conflicts.stream()
+                    .anyMatch(user -> usernameToCheck.equalsIgnoreCase(user.getUsername()));
+            boolean emailTaken = emailToCheck != null && conflicts.stream()
+                    .anyMatch(user -> emailToCheck.equalsIgnoreCase(user.getEmail()));
+            boolean phoneTaken = phoneToCheck != null && conflicts.stream()
+                    .anyMatch(user -> phoneToCheck.equals(user.getPhone()));
+
+            // 更新缓存：存在的长期缓存，不存在的短期负缓存（一次管道往返）
+            cacheUtil.pipelined(pipeline -> {
+                if (usernameToCheck != null) {
+                    cacheIdentifierState(pipeline, CacheKeys.User.usernameExists(usernameToCheck), usernameTaken);
                 }
-            }
-
-            if (!cacheResult.isEmailExists()) {
-                if (userRepository.existsByEmail(email)) {
-                    // 更新缓存
-                    cacheEmailExists(email);
-                    return BizResult.fail(ErrorCode.Client.PARAM_ERROR, "邮箱已被注册");
+                if (emailToCheck != null) {
+                    cacheIdentifierState(pipeline, CacheKeys.User.emailExists(emailToCheck), emailTaken);
                 }
-            }
-
-            if (!cacheResult.isPhoneExists() && StrUtil.isNotBlank(phone)) {
-                if (userRepository.existsByPhone(phone)) {
-                    // 更新缓存
-                    cachePhoneExists(phone);
-                    return BizResult.fail(ErrorCode.Client.PARAM_ERROR, "手机号已被注册");
+                if (phoneToCheck != null) {
+                    cacheIdentifierState(pipeline, CacheKeys.User.phoneExists(phoneToCheck), phoneTaken);
                 }
+            });
+
+            if (usernameTaken) {
+                return BizResult.fail(ErrorCode.Client.PARAM_ERROR, "用户名已存在");
+            }
+            if (emailTaken) {
+                return BizResult.fail(ErrorCode.Client.PARAM_ERROR, "邮箱已被注册");
+            }
+            if (phoneTaken) {
+                return BizResult.fail(ErrorCode.Client.PARAM_ERROR, "手机号已被注册");
             }
 
             return BizResult.success();
@@ -138,19 +200,19 @@ public class UserUniquenessServiceImpl implements UserUniquenessService {
         }
     }
 
-    private void cacheUsernameExists(String username) {
-        String key = CacheKeys.User.usernameExists(username);
-        cacheUtil.putSmart(key, true);
-    }
-
-    private void cacheEmailExists(String email) {
-        String key = CacheKeys.User.emailExists(email);
-        cacheUtil.putSmart(key, true);
+    private static void cacheIdentifierState(CachePipeline pipeline, String key, boolean taken) {
+        if (taken) {
+            pipeline.putStringSmart(key, TAKEN);
+        } else {
+            pipeline.putString(key, AVAILABLE, NEGATIVE_CACHE_SECONDS, TimeUnit.SECONDS);
+        }
     }
 
-    private void cachePhoneExists(String phone) {
-        String key = CacheKeys.User.phoneExists(phone);
-        cacheUtil.putSmart(key, true);
+    /**
+     * 旧版本以 JSON 写入的 true 也视为已占用
+     */
+    private static boolean isTaken(String cached) {
+        return cached != null && !AVAILABLE.equals(cached);
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,26 @@
+-- 批量撤销用户的 RefreshToken，无论设备数多少只需一次往返
+--
+-- 元数据键与用户令牌集合带同一个用户哈希标签，Redis Cluster 下落在同一个槽位；
+-- 令牌黑名单不带用户标签，由调用方根据返回值在脚本之后写入
+--
+-- KEYS[1] 用户RefreshToken集合
+--
+-- ARGV[1] 元数据键前缀（含用户标签）
+-- ARGV[2] 保留的令牌（为空表示全部撤销）
+--
+-- 返回被撤销的令牌及其元数据剩余毫秒数：{令牌1, 剩余毫秒数1, 令牌2, 剩余毫秒数2, ...}
+
+local revoked = {}
+local tokens = redis.call('SMEMBERS', KEYS[1])
+for _, token in ipairs(tokens) do
+    if token ~= ARGV[2] then
+        local metadataKey = ARGV[1] .. token
+        local ttl = redis.call('PTTL', metadataKey)
+        redis.call('DEL', metadataKey)
+        redis.call('SREM', KEYS[1], token)
+        revoked[#revoked + 1] = token
+        revoked[#revoked + 1] = ttl
+    end
+end
+
+return revoked
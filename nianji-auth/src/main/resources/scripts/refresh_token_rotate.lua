@@ -0,0 +1,100 @@
+-- RefreshToken 原子轮换
+--
+-- 所有键（包括按前缀拼接的后继链键）都带同一个用户哈希标签，Redis Cluster 下落在同一个槽位。
+-- 令牌黑名单按令牌原文查找、不带用户标签，由调用方根据返回值在脚本之后写入
+--
+-- KEYS[1] 旧令牌元数据        KEYS[2] 旧令牌轮换标记（值为 轮换时间毫秒:接替它的新令牌）
+-- KEYS[3] 新令牌元数据        KEYS[4] 用户RefreshToken集合
+-- KEYS[5] 用户访问令牌
+-- KEYS[6] 旧令牌的会话反向索引  KEYS[7] 新访问令牌的会话反向索引  KEYS[8] 新令牌的会话反向索引
+--
+-- ARGV[1] 旧令牌              ARGV[2] 新令牌
+-- ARGV[3] 新令牌元数据（已序列化）
+-- ARGV[4] 新令牌元数据过期秒数  ARGV[5] 用户令牌集合过期秒数
+-- ARGV[6] 新访问令牌          ARGV[7] 访问令牌过期秒数
+-- ARGV[8] 旧令牌剩余有效毫秒数（轮换标记的保留时间）
+-- ARGV[9] 元数据键前缀（含用户标签）  ARGV[10] 轮换标记键前缀（含用户标签）
+-- ARGV[11] 后继链最大追踪长度  ARGV[12] 并发刷新宽限毫秒数
+-- ARGV[13] 会话当前刷新令牌键前缀（含用户标签）
+--
+-- 返回 {结果码, 被替换的访问令牌, 其剩余毫秒数}
+-- 结果码 1：轮换成功；0：旧令牌无效、已撤销，或在宽限期内被并发请求抢先轮换；
+--       -1：旧令牌在宽限期后再次使用（重放），其后继令牌已全部撤销
+-- 结果码为 1 或 -1 时，被替换的访问令牌应加入黑名单；没有时为 false
+
+local function nowMillis()
+    local time = redis.call('TIME')
+    return tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+end
+
+-- 解析轮换标记，返回 轮换时间, 后继令牌
+local function parseRotated(value)
+    local separator = string.find(value, ':', 1, true)
+    return tonumber(string.sub(value, 1, separator - 1)), string.sub(value, separator + 1)
+end
+
+-- 读取当前访问令牌及其剩余时间
+local function currentAccessToken(ttlFallback)
+    local accessToken = redis.call('GET', KEYS[5])
+    if not accessToken then
+        return false, 0
+    end
+    local ttl = redis.call('PTTL', KEYS[5])
+    if ttl <= 0 then
+        ttl = ttlFallback
+    end
+    return accessToken, ttl
+end
+
+local now = nowMillis()
+local accessTtlMillis = tonumber(ARGV[7]) * 1000
+local rotated = redis.call('GET', KEYS[2])
+if rotated then
+    local rotatedAt, token = parseRotated(rotated)
+    if now - rotatedAt <= tonumber(ARGV[12]) then
+        -- 同一客户端并发刷新，另一个请求已完成轮换
+        return { 0 }
+    end
+
+    -- 同一个令牌被第二次使用：令牌可能已泄露，沿后继链撤销由它派生的所有令牌
+    for _ = 1, tonumber(ARGV[11]) do
+        redis.call('DEL', ARGV[9] .. token)
+        redis.call('SREM', KEYS[4], token)
+        local nextRotated = redis.call('GET', ARGV[10] .. token)
+        if not nextRotated then
+            break
+        end
+        token = select(2, parseRotated(nextRotated))
+    end
+    local accessToken, ttl = currentAccessToken(accessTtlMillis)
+    redis.call('DEL', KEYS[5])
+    return { -1, accessToken, ttl }
+end
+
+if redis.call('EXISTS', KEYS[1]) == 0 or redis.call('SISMEMBER', KEYS[4], ARGV[1]) == 0 then
+    return { 0 }
+end
+
+local accessToken, accessTtl = currentAccessToken(accessTtlMillis)
+
+-- 消费旧令牌：删除元数据，留下轮换标记供重放检测
+redis.call('DEL', KEYS[1])
+redis.call('SREM', KEYS[4], ARGV[1])
+redis.call('SET', KEYS[2], now .. ':' .. ARGV[2], 'PX', tonumber(ARGV[8]))
+
+-- 写入新令牌
+redis.call('SET', KEYS[3], ARGV[3], 'EX', ARGV[4])
+redis.call('SADD', KEYS[4], ARGV[2])
+redis.call('EXPIRE', KEYS[4], ARGV[5])
+redis.call('SET', KEYS[5], ARGV[6], 'EX', ARGV[7])
+
+-- 会话反向索引指向同一个会话，会话的当前刷新令牌改为新令牌
+local sessionId = redis.call('GET', KEYS[6])
+if sessionId then
+    redis.call('SET', KEYS[7], sessionId, 'EX', ARGV[7])
+    redis.call('SET', KEYS[8], sessionId, 'EX', ARGV[4])
+    redis.call('SET', ARGV[13] .. sessionId, ARGV[2], 'EX', ARGV[4])
+    redis.call('DEL', KEYS[6])
+end
+
+return { 1, accessToken, accessTtl }
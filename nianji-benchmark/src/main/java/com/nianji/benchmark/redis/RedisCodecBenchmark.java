@@ -0,0 +1,136 @@
+package com.nianji.benchmark.redis;
+
+import com.nianji.auth.entity.User;
+import com.nianji.auth.model.session.SessionInfo;
+import com.nianji.common.config.RedisSerializationConfig;
+import com.nianji.common.redis.RedisCodecProperties;
+import com.nianji.common.redis.SchemaRedisCodec;
+import com.nianji.common.redis.TypedJsonRedisCodec;
+import com.nianji.common.redis.VersionedRedisSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis 值编码对比：旧版 GenericJackson2JsonRedisSerializer（legacy*）与 COMPACT 写入的 VersionedRedisSerializer（compact*）
+ * <p>
+ * 每个值的字节数在 Setup 时输出到基准日志；类型注册与 nianji-auth 的 redis-codec.types 一致，压缩阈值取默认 512 字节
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RedisCodecBenchmark {
+
+    /**
+     * 值类型：用户缓存或会话
+     */
+    @Param({"user", "session"})
+    public String type;
+
+    private GenericJackson2JsonRedisSerializer legacy;
+    private VersionedRedisSerializer compact;
+    private Object value;
+    private byte[] legacyBytes;
+    private byte[] compactBytes;
+
+    @Setup
+    public void setup() {
+        legacy = RedisSerializationConfig.valueSerializer();
+
+        Map<String, Class<?>> types = new LinkedHashMap<>();
+        types.put("user", User.class);
+        types.put("session", SessionInfo.class);
+        RedisCodecProperties properties = new RedisCodecProperties();
+        properties.setWriteFormat(RedisCodecProperties.WriteFormat.COMPACT);
+        compact = new VersionedRedisSerializer(
+                new TypedJsonRedisCodec(RedisSerializationConfig.getRedisObjectMapper()),
+                List.of(new SchemaRedisCodec(types)),
+                properties);
+
+        value = "user".equals(type) ? sampleUser() : sampleSession();
+        legacyBytes = legacy.serialize(value);
+        compactBytes = compact.serialize(value);
+        System.out.printf("%n[%s] 每个值字节数 - legacy: %d, compact: %d (%.0f%%)%n",
+                type, legacyBytes.length, compactBytes.length, 100.0 * compactBytes.length / legacyBytes.length);
+    }
+
+    @Benchmark
+    public byte[] legacyEncode() {
+        return legacy.serialize(value);
+    }
+
+    @Benchmark
+    public byte[] compactEncode() {
+        return compact.serialize(value);
+    }
+
+    @Benchmark
+    public Object legacyDecode() {
+        return legacy.deserialize(legacyBytes);
+    }
+
+    @Benchmark
+    public Object compactDecode() {
+        return compact.deserialize(compactBytes);
+    }
+
+    private static User sampleUser() {
+        LocalDateTime now = LocalDateTime.now();
+        return User.builder()
+                .id(1024L)
+                .publicId("5f0c6f1e-3b9a-4c52-9d1e-7a2b8c4d6e10")
+                .username("zhangsan")
+                .password("$2a$10$/VdY3x2HKt1iiCioHa9.C.BWJnyo1OKmDBbmhASA5M1385SSwT4oW")
+                .email("zhangsan@nianji.com")
+                .phone("13800138000")
+                .nickname("张三")
+                .avatar("https://static.nianji.com/avatar/1024.png")
+                .status(1)
+                .lastLoginTime(now.minusHours(3))
+                .lastLoginIp("192.168.10.24")
+                .loginCount(128)
+                .createTime(now.minusDays(200))
+                .updateTime(now.minusHours(3))
+                .deleted(0)
+                .build();
+    }
+
+    private static SessionInfo sampleSession() {
+        LocalDateTime now = LocalDateTime.now();
+        return SessionInfo.builder()
+                .sessionId("9b1deb4d-3b7d-4bad-9bdd-2b0d7b3dcb6d")
+                .userId(1024L)
+                .username("zhangsan")
+                .loginTime(now.minusMinutes(30))
+                .lastActivityTime(now)
+                .clientIp("192.168.10.24")
+                .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 "
+                        + "(KHTML, like Gecko) Chrome/126.0.0.0 Safari/537.36")
+                .accessToken("eyJhbGciOiJSUzI1NiJ9.eyJzdWIiOiIxMDI0IiwidXNlcm5hbWUiOiJ6aGFuZ3NhbiIsImlhdCI6MTcyMDAwMDAwMH0."
+                        + "c2lnbmF0dXJlLXBsYWNlaG9sZGVyLWZvci1iZW5jaG1hcmstb25seQ")
+                .refreshToken("3f6c1a2e-8d4b-4e9f-a1c7-5b2d9e0f6a3c")
+                .status(SessionInfo.SessionStatus.ACTIVE)
+                .deviceType("DESKTOP")
+                .browserType("Chrome")
+                .operatingSystem("Windows")
+                .build();
+    }
+}
@@ -0,0 +1,97 @@
+package com.nianji.benchmark.security;
+
+import com.nianji.common.security.enums.EncryptionAlgorithm;
+import com.nianji.common.security.model.AlgorithmKeyPair;
+import com.nianji.common.security.model.KeyVersionManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 密钥版本读路径对比：快照化之前的流式过滤（legacy*）与不可变快照（snapshot*）
+ * <p>
+ * 每次解密、公钥获取都会读取当前密钥或有效版本列表；按版本查找取最旧的版本，即流式过滤的最坏情况
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class KeyVersionManagerBenchmark {
+
+    /**
+     * 保留的版本数
+     */
+    @Param({"2", "10", "50"})
+    public int versions;
+
+    private LegacyKeyVersionManager legacy;
+    private KeyVersionManager snapshot;
+    private String oldestVersion;
+
+    @Setup
+    public void setup() {
+        legacy = new LegacyKeyVersionManager();
+        snapshot = new KeyVersionManager();
+        LocalDateTime base = LocalDateTime.now().minusDays(versions);
+
+        for (int i = 0; i < versions; i++) {
+            AlgorithmKeyPair key = AlgorithmKeyPair.builder()
+                    .algorithm(EncryptionAlgorithm.AES_GCM)
+                    .keyVersion("v" + i)
+                    .createdAt(base.plusDays(i))
+                    .valid(true)
+                    .build();
+            legacy.addKeyVersion(key);
+            snapshot.addKeyVersion(key);
+        }
+
+        String currentVersion = "v" + (versions - 1);
+        legacy.setCurrentVersion(currentVersion);
+        snapshot.setCurrentVersion(currentVersion);
+        oldestVersion = "v0";
+    }
+
+    @Benchmark
+    public AlgorithmKeyPair legacyCurrentKey() {
+        return legacy.getCurrentKey();
+    }
+
+    @Benchmark
+    public AlgorithmKeyPair snapshotCurrentKey() {
+        return snapshot.getCurrentKey();
+    }
+
+    @Benchmark
+    public AlgorithmKeyPair legacyKeyByVersion() {
+        return legacy.getKeyByVersion(oldestVersion);
+    }
+
+    @Benchmark
+    public AlgorithmKeyPair snapshotKeyByVersion() {
+        return snapshot.getKeyByVersion(oldestVersion);
+    }
+
+    @Benchmark
+    public List<AlgorithmKeyPair> legacyValidKeys() {
+        return legacy.getValidKeyVersions();
+    }
+
+    @Benchmark
+    public List<AlgorithmKeyPair> snapshotValidKeys() {
+        return snapshot.getValidKeyVersions();
+    }
+}
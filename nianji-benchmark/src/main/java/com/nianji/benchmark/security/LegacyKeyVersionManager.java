@@ -0,0 +1,49 @@
+package com.nianji.benchmark.security;
+
+import com.nianji.common.security.model.AlgorithmKeyPair;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+/**
+ * 快照化之前的 KeyVersionManager 读路径，仅作为基准对照
+ * <p>
+ * CopyOnWriteArrayList 保存版本，每次读取都对列表做一次流式过滤
+ */
+public class LegacyKeyVersionManager {
+
+    private final List<AlgorithmKeyPair> keyVersions = new CopyOnWriteArrayList<>();
+
+    private String currentVersion;
+
+    public synchronized void addKeyVersion(AlgorithmKeyPair keyPair) {
+        keyVersions.add(keyPair);
+        keyVersions.sort(Comparator.comparing(AlgorithmKeyPair::getCreatedAt).reversed());
+    }
+
+    public void setCurrentVersion(String currentVersion) {
+        this.currentVersion = currentVersion;
+    }
+
+    public AlgorithmKeyPair getCurrentKey() {
+        return keyVersions.stream()
+                .filter(k -> k.getKeyVersion().equals(currentVersion))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("当前激活密钥不存在: " + currentVersion));
+    }
+
+    public AlgorithmKeyPair getKeyByVersion(String version) {
+        return keyVersions.stream()
+                .filter(k -> k.getKeyVersion().equals(version) && k.isValid())
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("密钥版本不存在或已失效: " + version));
+    }
+
+    public List<AlgorithmKeyPair> getValidKeyVersions() {
+        return keyVersions.stream()
+                .filter(AlgorithmKeyPair::isValid)
+                .collect(Collectors.toList());
+    }
+}
@@ -1,9 +1,13 @@
 package com.nianji.common.config;
 
 
+import com.nianji.common.context.ContextPropagatingTaskDecorator;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
@@ -17,7 +21,10 @@ import java.util.concurrent.ThreadPoolExecutor;
 @EnableAsync
 public class AsyncConfig {
 
-    public AsyncConfig() {
+    private final Environment environment;
+
+    public AsyncConfig(Environment environment) {
+        this.environment = environment;
         log.debug("AsyncConfig 被初始化了");
     }
 
@@ -26,6 +33,11 @@ public class AsyncConfig {
      */
     @Bean("bloomFilterExecutor")
     public Executor bloomFilterExecutor() {
+        if (isVirtualThreadsEnabled()) {
+            // 与线程池模式的 最大线程数+队列容量 一致，限制同时访问 Redis 的任务数
+            return virtualThreadExecutor("BloomFilter-Async-", 55);
+        }
+
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         // 核心线程数：即使空闲也保留的线程数
         executor.setCorePoolSize(2);
@@ -37,6 +49,8 @@ public class AsyncConfig {
         executor.setThreadNamePrefix("BloomFilter-Async-");
         // 拒绝策略：当线程池和队列都满了时的处理策略
         executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        // 传递请求上下文和MDC，异步日志保留请求ID
+        executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
         // 线程空闲时间：超过核心线程数的线程，空闲多久后被销毁
         executor.setKeepAliveSeconds(60);
         // 等待所有任务结束后再关闭线程池
@@ -54,16 +68,41 @@ public class AsyncConfig {
      */
     @Bean("taskExecutor")
     public Executor taskExecutor() {
+        if (isVirtualThreadsEnabled()) {
+            return virtualThreadExecutor("Common-Async-", 200);
+        }
+
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(5);
         executor.setMaxPoolSize(10);
         executor.setQueueCapacity(100);
         executor.setThreadNamePrefix("Common-Async-");
         executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
         executor.setKeepAliveSeconds(60);
         executor.setWaitForTasksToCompleteOnShutdown(true);
         executor.setAwaitTerminationSeconds(60);
         executor.initialize();
         return executor;
     }
-}
\ No newline at end of file
+
+    /**
+     * 虚拟线程模式：spring.threads.virtual.enabled=true 且运行在 JDK 21+ 时生效
+     */
+    private boolean isVirtualThreadsEnabled() {
+        return Threading.VIRTUAL.isActive(environment);
+    }
+
+    /**
+     * 每个任务一个虚拟线程，不再排队；并发上限代替线程池大小做背压，达到上限时提交方阻塞等待
+     */
+    private Executor virtualThreadExecutor(String threadNamePrefix, int concurrencyLimit) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(concurrencyLimit);
+        executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+        executor.setTaskTerminationTimeout(60_000L);
+        log.info("异步执行器使用虚拟线程 - 前缀: {}, 并发上限: {}", threadNamePrefix, concurrencyLimit);
+        return executor;
+    }
+}
@@ -5,6 +5,7 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -21,6 +22,11 @@ public class CacheConfig {
     private long defaultExpire = CacheKeys.Expire.MEDIUM;
     private Map<String, Long> customExpires = new HashMap<>();
 
+    /**
+     * 防击穿加载配置
+     */
+    private Stampede stampede = new Stampede();
+
     /**
      * 获取 Spring Cache 配置
      */
@@ -88,4 +94,30 @@ public class CacheConfig {
         return timeUnit.convert(seconds, TimeUnit.SECONDS);
     }
 
-}
\ No newline at end of file
+    /**
+     * 防击穿加载配置，见 CacheUtil#getOrCompute
+     */
+    @Data
+    public static class Stampede {
+
+        /**
+         * 提前刷新系数（XFetch beta），越大越早刷新，0 表示不提前刷新
+         */
+        private double beta = 1.0;
+
+        /**
+         * 是否使用 Redis 租约，多个节点同时未命中时只有一个节点加载
+         */
+        private boolean leaseEnabled = false;
+
+        /**
+         * 租约时长，应覆盖一次加载的耗时
+         */
+        private Duration leaseTime = Duration.ofSeconds(3);
+
+        /**
+         * 未拿到租约时等待其他节点写入的最长时间，超时后自行加载
+         */
+        private Duration leaseWait = Duration.ofMillis(500);
+    }
+}
@@ -0,0 +1,23 @@
+package com.nianji.common.config;
+
+import com.nianji.common.metrics.EndpointMetricsProperties;
+import com.nianji.common.metrics.EndpointMetricsRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 接口统计配置 统计结果通过 Micrometer 导出到 /actuator/metrics
+ */
+@Configuration
+@EnableConfigurationProperties(EndpointMetricsProperties.class)
+public class EndpointMetricsConfig {
+
+    @Bean
+    public EndpointMetricsRegistry endpointMetricsRegistry(EndpointMetricsProperties endpointMetricsProperties,
+                                                           ObjectProvider<MeterRegistry> meterRegistry) {
+        return new EndpointMetricsRegistry(endpointMetricsProperties, meterRegistry.getIfAvailable());
+    }
+}
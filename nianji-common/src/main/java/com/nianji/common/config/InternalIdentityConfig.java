@@ -0,0 +1,35 @@
+package com.nianji.common.config;
+
+import com.nianji.common.identity.InternalIdentityCodec;
+import com.nianji.common.identity.InternalIdentityFilter;
+import com.nianji.common.identity.InternalIdentityProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * 内部身份头配置 配置 internal-identity.secret 后启用，验证网关转发的身份
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "internal-identity", name = "secret")
+@EnableConfigurationProperties(InternalIdentityProperties.class)
+public class InternalIdentityConfig {
+
+    @Bean
+    public InternalIdentityCodec internalIdentityCodec(InternalIdentityProperties internalIdentityProperties) {
+        return new InternalIdentityCodec(internalIdentityProperties.getSecret());
+    }
+
+    @Bean
+    public FilterRegistrationBean<InternalIdentityFilter> internalIdentityFilter(InternalIdentityCodec internalIdentityCodec) {
+        FilterRegistrationBean<InternalIdentityFilter> registration =
+                new FilterRegistrationBean<>(new InternalIdentityFilter(internalIdentityCodec));
+        registration.addUrlPatterns("/*");
+        // 先于业务拦截器和切面执行
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
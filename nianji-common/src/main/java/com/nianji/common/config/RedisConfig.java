@@ -1,17 +1,28 @@
 package com.nianji.common.config;
 
+import com.nianji.common.redis.RedisCodecProperties;
+import com.nianji.common.redis.SchemaRedisCodec;
+import com.nianji.common.redis.TypedJsonRedisCodec;
+import com.nianji.common.redis.VersionedRedisSerializer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.util.ClassUtils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @Configuration
+@EnableConfigurationProperties(RedisCodecProperties.class)
 public class RedisConfig {
 
     public RedisConfig() {
@@ -19,24 +30,41 @@ public class RedisConfig {
     }
 
     /**
-     * 主 RedisTemplate，用于业务数据存储（JSON序列化）
+     * Redis 值序列化器，RedisTemplate 与 Spring Cache 共用
+     */
+    @Bean
+    public RedisSerializer<Object> redisValueSerializer(RedisCodecProperties redisCodecProperties) {
+        Map<String, Class<?>> types = new LinkedHashMap<>();
+        redisCodecProperties.getTypes().forEach((alias, className) ->
+                types.put(alias, ClassUtils.resolveClassName(className, RedisConfig.class.getClassLoader())));
+
+        log.info("Redis 值编码 - 写入格式: {}, 压缩阈值: {} 字节, 结构编码类型: {}",
+                redisCodecProperties.getWriteFormat(), redisCodecProperties.getCompressionThreshold(), types.keySet());
+        return new VersionedRedisSerializer(
+                new TypedJsonRedisCodec(RedisSerializationConfig.getRedisObjectMapper()),
+                List.of(new SchemaRedisCodec(types)),
+                redisCodecProperties);
+    }
+
+    /**
+     * 主 RedisTemplate，用于业务数据存储
      * 与 Spring Cache 使用完全相同的序列化配置
      */
     @Bean
     @Primary
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory,
+                                                       RedisSerializer<Object> redisValueSerializer) {
         log.info("创建主 RedisTemplate - 使用统一序列化配置");
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
 
         // 使用统一的序列化器
         StringRedisSerializer keySerializer = RedisSerializationConfig.keySerializer();
-        GenericJackson2JsonRedisSerializer valueSerializer = RedisSerializationConfig.valueSerializer();
 
         template.setKeySerializer(keySerializer);
         template.setHashKeySerializer(keySerializer);
-        template.setValueSerializer(valueSerializer);
-        template.setHashValueSerializer(valueSerializer);
+        template.setValueSerializer(redisValueSerializer);
+        template.setHashValueSerializer(redisValueSerializer);
 
         template.afterPropertiesSet();
         return template;
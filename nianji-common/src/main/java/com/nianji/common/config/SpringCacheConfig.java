@@ -11,8 +11,8 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
@@ -32,12 +32,12 @@ public class SpringCacheConfig {
      * Redis 缓存管理器 使用与 RedisTemplate 完全相同的序列化配置
      */
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory, CacheConfig cacheConfig) {
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory, CacheConfig cacheConfig,
+                                     RedisSerializer<Object> valueSerializer) {
         log.debug("初始化 Redis CacheManager...");
 
         // 使用统一的序列化器
         StringRedisSerializer keySerializer = RedisSerializationConfig.keySerializer();
-        GenericJackson2JsonRedisSerializer valueSerializer = RedisSerializationConfig.valueSerializer();
 
         // 默认缓存配置（30分钟）
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
@@ -74,7 +74,7 @@ public class SpringCacheConfig {
     private RedisCacheConfiguration createCacheConfiguration(
             long ttlSeconds,
             StringRedisSerializer keySerializer,
-            GenericJackson2JsonRedisSerializer valueSerializer) {
+            RedisSerializer<Object> valueSerializer) {
 
         return RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofSeconds(ttlSeconds))
@@ -0,0 +1,19 @@
+package com.nianji.common.config;
+
+import com.nianji.common.metrics.TransactionMetricsListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 事务耗时统计配置 监听器由 Spring Boot 注册到事务管理器，统计结果通过 Micrometer 导出到 /actuator/metrics
+ */
+@Configuration
+public class TransactionMetricsConfig {
+
+    @Bean
+    public TransactionMetricsListener transactionMetricsListener(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new TransactionMetricsListener(meterRegistry.getIfAvailable());
+    }
+}
@@ -234,6 +234,13 @@ public final class CacheKeys {
         return String.join(SEPARATOR, parts);
     }
 
+    /**
+     * 用户哈希标签 同一用户的令牌、会话键落在 Redis Cluster 的同一个槽位，Lua 脚本可以原子地操作这些键
+     */
+    public static String userTag(Long userId) {
+        return "{" + userId + "}";
+    }
+
     // ============ 用户模块缓存键 ============
     public static final class User {
         public static String infoById(Long userId) {
@@ -283,11 +290,18 @@ public final class CacheKeys {
     // ============ 认证模块缓存键 ============
     public static final class Auth {
         public static String accessToken(Long userId) {
-            return build(PROJECT_PREFIX, "auth", "token", "access", userId.toString());
+            return build(PROJECT_PREFIX, "auth", "token", "access", userTag(userId));
         }
 
-        public static String refreshToken(String refreshToken) {
-            return build(PROJECT_PREFIX, "auth", "token", "refresh", refreshToken);
+        public static String refreshToken(Long userId, String refreshToken) {
+            return build(PROJECT_PREFIX, "auth", "token", "refresh", userTag(userId), refreshToken);
+        }
+
+        /**
+         * 已轮换的RefreshToken标记，值为接替它的新令牌，用于重放检测
+         */
+        public static String rotatedRefreshToken(Long userId, String refreshToken) {
+            return build(PROJECT_PREFIX, "auth", "token", "rotated", userTag(userId), refreshToken);
         }
 
         public static String tokenMapping(String accessToken) {
@@ -295,7 +309,7 @@ public final class CacheKeys {
         }
 
         public static String userSessions(Long userId) {
-            return build(PROJECT_PREFIX, "auth", "session", "list", userId.toString());
+            return build(PROJECT_PREFIX, "auth", "session", "list", userTag(userId));
         }
 
         public static String sessionInfo(String sessionId) {
@@ -356,6 +370,20 @@ public final class CacheKeys {
             return build(PROJECT_PREFIX, "session", "activity", "last", userId.toString());
         }
 
+        /**
+         * 令牌到会话的反向索引，键为令牌ID（jti），值为会话ID
+         */
+        public static String tokenSession(Long userId, String tokenId) {
+            return build(PROJECT_PREFIX, "session", "token", "index", userTag(userId), tokenId);
+        }
+
+        /**
+         * 会话当前的刷新令牌原文，随轮换更新；带用户标签，轮换脚本按前缀拼接
+         */
+        public static String sessionRefreshToken(Long userId, String sessionId) {
+            return build(PROJECT_PREFIX, "session", "token", "current", userTag(userId), sessionId);
+        }
+
         private Session() {
         }
     }
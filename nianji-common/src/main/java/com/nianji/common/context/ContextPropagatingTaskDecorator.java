@@ -0,0 +1,43 @@
+package com.nianji.common.context;
+
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.Map;
+
+/**
+ * 异步任务上下文传递 提交任务时捕获当前线程的 {@link RequestInfo} 和 MDC，在执行线程上恢复，执行结束后还原执行线程原有的上下文
+ * <p>
+ * RequestInfo 不可变，直接传引用；CallerRunsPolicy 回退到提交线程执行时也不会清掉请求线程自己的上下文
+ */
+public class ContextPropagatingTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        RequestInfo info = CustomRequestContext.current();
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        if (info == null && mdc == null) {
+            return runnable;
+        }
+
+        return () -> {
+            Map<String, String> previousMdc = MDC.getCopyOfContextMap();
+            RequestInfo previousInfo = CustomRequestContext.attach(info);
+            setMdc(mdc);
+            try {
+                runnable.run();
+            } finally {
+                CustomRequestContext.attach(previousInfo);
+                setMdc(previousMdc);
+            }
+        };
+    }
+
+    private static void setMdc(Map<String, String> contextMap) {
+        if (contextMap != null) {
+            MDC.setContextMap(contextMap);
+        } else {
+            MDC.clear();
+        }
+    }
+}
@@ -27,25 +27,43 @@ public class MdcContextInitializer {
      * 初始化MDC上下文
      */
     public void initializeMdcContext() {
+        putRequestInfo(CustomRequestContext.current());
+    }
+
+    /**
+     * 将请求上下文写入MDC（网关 Reactor 线程切换时也会调用）
+     */
+    public static void putRequestInfo(RequestInfo info) {
+        if (info == null) {
+            return;
+        }
+
         // 设置请求ID作为追踪ID
-        String requestId = CustomRequestContext.getRequestId();
+        String requestId = info.getRequestId();
         if (StrUtil.isNotBlank(requestId)) {
             MDC.put(REQUEST_ID, requestId);
             MDC.put(TRACE_ID, requestId);
         }
 
         // 设置请求相关信息
-        String uri = CustomRequestContext.getRequestUri();
-        if (StrUtil.isNotBlank(uri)) {
-            MDC.put(URI, uri);
+        if (StrUtil.isNotBlank(info.getUri())) {
+            MDC.put(URI, info.getUri());
         }
-
-        String method = CustomRequestContext.getRequestMethod();
-        if (StrUtil.isNotBlank(method)) {
-            MDC.put(METHOD, method);
+        if (StrUtil.isNotBlank(info.getMethod())) {
+            MDC.put(METHOD, info.getMethod());
         }
     }
 
+    /**
+     * 移除MDC中的请求上下文字段
+     */
+    public static void removeRequestInfo() {
+        MDC.remove(TRACE_ID);
+        MDC.remove(REQUEST_ID);
+        MDC.remove(URI);
+        MDC.remove(METHOD);
+    }
+
     /**
      * 设置用户相关信息
      */
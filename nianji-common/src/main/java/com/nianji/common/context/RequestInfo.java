@@ -0,0 +1,67 @@
+package com.nianji.common.context;
+
+import lombok.Getter;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求上下文 不可变，请求开始时创建一次
+ * <p>
+ * servlet 服务通过 {@link CustomRequestContext} 的 ThreadLocal 持有，异步线程池由 {@link ContextPropagatingTaskDecorator} 传递；
+ * 网关放在 Reactor Context 的 {@link #CONTEXT_KEY} 下
+ */
+@Getter
+public final class RequestInfo {
+
+    /**
+     * Reactor Context / ThreadLocalAccessor 使用的键
+     */
+    public static final String CONTEXT_KEY = "nianji.requestInfo";
+
+    private final String requestId;
+    private final String uri;
+    private final String method;
+    private final long startTimeMillis;
+    private final long startNanos;
+
+    private RequestInfo(String requestId, String uri, String method) {
+        this.requestId = requestId;
+        this.uri = uri;
+        this.method = method;
+        this.startTimeMillis = System.currentTimeMillis();
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * 创建请求上下文，以当前时间作为请求开始时间
+     *
+     * @param requestId
+     *         请求ID，为空时自动生成
+     */
+    public static RequestInfo start(String requestId, String uri, String method) {
+        String id = requestId == null || requestId.isBlank() ? newRequestId() : requestId;
+        return new RequestInfo(id, uri, method);
+    }
+
+    /**
+     * 生成请求ID
+     */
+    public static String newRequestId() {
+        return "G" + UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+    }
+
+    /**
+     * 请求已耗时（毫秒）
+     */
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(getElapsedNanos());
+    }
+
+    /**
+     * 请求已耗时（纳秒）
+     */
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+}
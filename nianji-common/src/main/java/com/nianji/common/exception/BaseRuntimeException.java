@@ -88,6 +88,18 @@ public class BaseRuntimeException extends RuntimeException {
         this.timestamp = System.currentTimeMillis();
     }
 
+    /**
+     * 不采集堆栈、不记录 suppressed 的轻量异常，用于高频且原因明确的拒绝路径
+     */
+    protected BaseRuntimeException(ErrorCode errorCode, boolean writableStackTrace) {
+        super(errorCode.getMessage(), null, false, writableStackTrace);
+        this.code = errorCode.getCode();
+        this.message = errorCode.getMessage();
+        this.alarmLevelEnum = AlarmLevelEnum.fromErrorCode(errorCode.getCode());
+        this.loggable = true;
+        this.timestamp = System.currentTimeMillis();
+    }
+
     /**
      * 获取完整的错误信息
      */
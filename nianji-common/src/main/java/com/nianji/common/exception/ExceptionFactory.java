@@ -40,6 +40,13 @@ public final class ExceptionFactory {
         return new AuthenticationException(code, message);
     }
 
+    /**
+     * 不采集堆栈的认证异常，用于网关等高频拒绝路径
+     */
+    public static AuthenticationException authenticationRejected(ErrorCode.Client code) {
+        return new AuthenticationException(code, false);
+    }
+
     public static AuthorizationException authorization(ErrorCode.Client code) {
         return new AuthorizationException(code);
     }
@@ -144,6 +151,14 @@ public final class ExceptionFactory {
         return new CacheException(code, message, cause);
     }
 
+    public static OverloadException overload(ErrorCode.System code, String message, long retryAfterSeconds) {
+        return new OverloadException(code, message, retryAfterSeconds);
+    }
+
+    public static OverloadException overload(ErrorCode.System code, String message, long retryAfterSeconds, Throwable cause) {
+        return new OverloadException(code, message, retryAfterSeconds, cause);
+    }
+
     public static CryptoException crypto(ErrorCode.System code) {
         return new CryptoException(code);
     }
@@ -20,4 +20,12 @@ public class AuthenticationException extends ClientException {
     public AuthenticationException(ErrorCode.Client errorCode, String message, Throwable cause) {
         super(errorCode, message, cause);
     }
+
+    /**
+     * @param writableStackTrace
+     *         为 false 时不采集堆栈
+     */
+    public AuthenticationException(ErrorCode.Client errorCode, boolean writableStackTrace) {
+        super(errorCode, writableStackTrace);
+    }
 }
\ No newline at end of file
@@ -33,4 +33,8 @@ public class ClientException extends BaseRuntimeException {
     public ClientException(ErrorCode.Client errorCode, String message, Throwable cause) {
         super(errorCode, message, cause);
     }
+
+    protected ClientException(ErrorCode.Client errorCode, boolean writableStackTrace) {
+        super(errorCode, writableStackTrace);
+    }
 }
\ No newline at end of file
@@ -110,6 +110,18 @@ public class GlobalExceptionHandler {
         return buildResponseEntity(e, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    /**
+     * 处理过载异常
+     */
+    @ExceptionHandler(OverloadException.class)
+    public ResponseEntity<Result<Object>> handleOverloadException(OverloadException e, HttpServletRequest request) {
+        logException(e, request);
+        Result<Object> result = Result.fail(e.getCode(), e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", String.valueOf(e.getRetryAfterSeconds()))
+                .body(result);
+    }
+
     /**
      * 处理数据库异常
      */
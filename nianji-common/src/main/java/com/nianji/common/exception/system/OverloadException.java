@@ -0,0 +1,28 @@
+package com.nianji.common.exception.system;
+
+import com.nianji.common.errorcode.ErrorCode;
+import lombok.Getter;
+
+/**
+ * 过载异常 服务主动拒绝请求（卸载负载），对应HTTP 503状态码
+ *
+ * @author zhangjinming
+ */
+@Getter
+public class OverloadException extends SystemException {
+
+    /**
+     * 建议客户端重试等待时间（秒）
+     */
+    private final long retryAfterSeconds;
+
+    public OverloadException(ErrorCode.System errorCode, String message, long retryAfterSeconds) {
+        super(errorCode, message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public OverloadException(ErrorCode.System errorCode, String message, long retryAfterSeconds, Throwable cause) {
+        super(errorCode, message, cause);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,51 @@
+package com.nianji.common.identity;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 网关转发给下游服务的已验证身份 不可变
+ * <p>
+ * 网关验证 JWT 后由 {@link InternalIdentityCodec} 签名写入 {@link #HEADER}，下游由 {@link InternalIdentityFilter}
+ * 验签后放入请求属性 {@link #REQUEST_ATTRIBUTE}
+ */
+@Getter
+public final class InternalIdentity {
+
+    /**
+     * 内部身份请求头
+     */
+    public static final String HEADER = "X-Internal-Identity";
+
+    /**
+     * 请求属性名
+     */
+    public static final String REQUEST_ATTRIBUTE = InternalIdentity.class.getName();
+
+    private final Long userId;
+    private final String username;
+    private final List<String> roles;
+
+    /**
+     * 过期时间（epoch 秒）
+     */
+    private final long expiresAt;
+
+    public InternalIdentity(Long userId, String username, List<String> roles, long expiresAt) {
+        this.userId = userId;
+        this.username = username;
+        this.roles = roles == null ? List.of() : List.copyOf(roles);
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean hasRole(String role) {
+        return roles.contains(role);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("InternalIdentity{userId=%d, username='%s', roles=%s, expiresAt=%d}",
+                userId, username, roles, expiresAt);
+    }
+}
@@ -0,0 +1,101 @@
+package com.nianji.common.identity;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * 内部身份头编解码
+ * <p>
+ * 格式：{@code base64url(载荷).base64url(HMAC-SHA256(前半部分))}，载荷为换行分隔的 用户ID、过期时间、用户名、逗号分隔的角色。
+ * 验签只需一次 HMAC 和一次 Base64 解码，不涉及 JSON 解析；失败时返回 null，不抛异常
+ */
+@Slf4j
+public class InternalIdentityCodec {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final int MIN_SECRET_BYTES = 32;
+
+    private final ThreadLocal<Mac> macs;
+
+    public InternalIdentityCodec(String secret) {
+        byte[] key = secret == null ? new byte[0] : secret.getBytes(StandardCharsets.UTF_8);
+        if (key.length < MIN_SECRET_BYTES) {
+            throw new IllegalArgumentException("内部身份签名密钥至少需要" + MIN_SECRET_BYTES + "字节");
+        }
+        SecretKeySpec keySpec = new SecretKeySpec(key, ALGORITHM);
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(keySpec);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("内部身份签名初始化失败", e);
+            }
+        });
+    }
+
+    /**
+     * 编码并签名
+     */
+    public String encode(InternalIdentity identity) {
+        String payload = identity.getUserId() + "\n"
+                + identity.getExpiresAt() + "\n"
+                + identity.getUsername() + "\n"
+                + String.join(",", identity.getRoles());
+        String encodedPayload = ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        return encodedPayload + "." + ENCODER.encodeToString(sign(encodedPayload));
+    }
+
+    /**
+     * 验签并解码
+     *
+     * @return 签名不匹配、格式错误或已过期时返回 null
+     */
+    public InternalIdentity decode(String header) {
+        if (header == null || header.isEmpty()) {
+            return null;
+        }
+        int dot = header.lastIndexOf('.');
+        if (dot <= 0 || dot == header.length() - 1) {
+            return null;
+        }
+
+        try {
+            String encodedPayload = header.substring(0, dot);
+            byte[] signature = DECODER.decode(header.substring(dot + 1));
+            if (!MessageDigest.isEqual(signature, sign(encodedPayload))) {
+                log.warn("内部身份头签名不匹配");
+                return null;
+            }
+
+            String[] fields = new String(DECODER.decode(encodedPayload), StandardCharsets.UTF_8).split("\n", -1);
+            if (fields.length != 4) {
+                return null;
+            }
+            long expiresAt = Long.parseLong(fields[1]);
+            if (expiresAt <= System.currentTimeMillis() / 1000) {
+                log.debug("内部身份头已过期 - 用户ID: {}", fields[0]);
+                return null;
+            }
+            List<String> roles = fields[3].isEmpty() ? List.of() : Arrays.asList(fields[3].split(","));
+            return new InternalIdentity(Long.valueOf(fields[0]), fields[2], roles, expiresAt);
+        } catch (IllegalArgumentException e) {
+            log.debug("内部身份头格式错误: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private byte[] sign(String encodedPayload) {
+        return macs.get().doFinal(encodedPayload.getBytes(StandardCharsets.US_ASCII));
+    }
+}
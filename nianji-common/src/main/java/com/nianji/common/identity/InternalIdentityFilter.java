@@ -0,0 +1,49 @@
+package com.nianji.common.identity;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 内部身份过滤器 验证网关转发的身份头，通过后放入请求属性，下游不再重复解析 JWT
+ * <p>
+ * 验证失败不拒绝请求，只是没有身份，需要登录的接口按未登录处理
+ */
+public class InternalIdentityFilter extends OncePerRequestFilter {
+
+    private final InternalIdentityCodec codec;
+
+    public InternalIdentityFilter(InternalIdentityCodec codec) {
+        this.codec = codec;
+    }
+
+    /**
+     * 当前请求已验证的身份
+     *
+     * @return 不在请求线程或没有有效身份头时返回 null
+     */
+    public static InternalIdentity current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        return (InternalIdentity) attributes.getAttribute(InternalIdentity.REQUEST_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        InternalIdentity identity = codec.decode(request.getHeader(InternalIdentity.HEADER));
+        if (identity != null) {
+            request.setAttribute(InternalIdentity.REQUEST_ATTRIBUTE, identity);
+        }
+        chain.doFilter(request, response);
+    }
+}
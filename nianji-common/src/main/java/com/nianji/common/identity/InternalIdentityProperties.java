@@ -0,0 +1,24 @@
+package com.nianji.common.identity;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 内部身份头配置 网关和下游服务必须使用同一个密钥，由各服务的配置类通过 @EnableConfigurationProperties 注册
+ */
+@Data
+@ConfigurationProperties(prefix = "internal-identity")
+public class InternalIdentityProperties {
+
+    /**
+     * HMAC-SHA256 签名密钥，至少32字节，未配置时不签发也不信任身份头
+     */
+    private String secret;
+
+    /**
+     * 身份头有效期，只需覆盖网关到下游的转发时间，过期时间不会晚于令牌本身
+     */
+    private Duration ttl = Duration.ofSeconds(30);
+}
@@ -3,10 +3,13 @@ package com.nianji.common.interceptor;
 import com.nianji.common.constant.CommonConstants;
 import com.nianji.common.context.CustomRequestContext;
 import com.nianji.common.context.MdcContextInitializer;
+import com.nianji.common.context.RequestInfo;
+import com.nianji.common.metrics.EndpointMetricsRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -21,10 +24,14 @@ public class RequestInterceptor implements HandlerInterceptor {
     @Autowired
     private MdcContextInitializer mdcContextInitializer;
 
+    @Autowired
+    private EndpointMetricsRegistry endpointMetricsRegistry;
+
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
-        // 初始化请求上下文，包含URI和方法信息
-        CustomRequestContext.initRequestContext(
+        // 初始化请求上下文，沿用上游（网关）传入的请求ID
+        RequestInfo info = CustomRequestContext.initRequestContext(
+                request.getHeader(CommonConstants.REQUEST_ID_HEADER),
                 request.getRequestURI(),
                 request.getMethod()
         );
@@ -33,11 +40,11 @@ public class RequestInterceptor implements HandlerInterceptor {
         mdcContextInitializer.initializeMdcContext();
 
         // 将请求ID设置到响应头中
-        response.setHeader(CommonConstants.REQUEST_ID_HEADER, CustomRequestContext.getRequestId());
+        response.setHeader(CommonConstants.REQUEST_ID_HEADER, info.getRequestId());
 
         // 记录请求开始日志
         log.debug("请求开始 - 请求ID: {}, 路径: {}, 方法: {}",
-                CustomRequestContext.getRequestId(),
+                info.getRequestId(),
                 request.getRequestURI(),
                 request.getMethod());
 
@@ -51,8 +58,15 @@ public class RequestInterceptor implements HandlerInterceptor {
             boolean success = response.getStatus() < 400;
             String errorCode = success ? null : String.valueOf(response.getStatus());
 
-            // 记录请求统计信息
-            CustomRequestContext.recordRequestStats(success, errorCode);
+            // 按路由模板记录耗时分布，避免路径参数导致统计项膨胀
+            RequestInfo info = CustomRequestContext.current();
+            if (info != null) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                endpointMetricsRegistry.record(request.getMethod(), pattern != null ? pattern.toString() : null,
+                        info.getElapsedNanos(), success);
+            }
+
+            CustomRequestContext.logRequestCompletion(success, errorCode);
 
         } finally {
             // 清除线程上下文
@@ -0,0 +1,249 @@
+package com.nianji.common.ip;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 编译后的 CIDR 网段集合 基于数组实现的二叉基数树（radix trie），IPv4/IPv6 各一棵
+ * <p>
+ * 构建后不可变、线程安全；查询只沿前缀走最多 32/128 步，过程不分配对象。 适用于内网段判断、黑白名单、可信代理等场景
+ */
+public final class CidrSet {
+
+    private static final CidrSet EMPTY = new CidrSet(Trie.EMPTY, Trie.EMPTY, Collections.emptyList());
+
+    private final Trie ipv4;
+    private final Trie ipv6;
+    private final List<String> definitions;
+
+    private CidrSet(Trie ipv4, Trie ipv6, List<String> definitions) {
+        this.ipv4 = ipv4;
+        this.ipv6 = ipv6;
+        this.definitions = definitions;
+    }
+
+    /**
+     * 空集合
+     */
+    public static CidrSet empty() {
+        return EMPTY;
+    }
+
+    /**
+     * 由 CIDR 定义构建集合，如 "10.0.0.0/8"、"fc00::/7"，不带前缀长度时视为单个地址
+     *
+     * @throws IllegalArgumentException
+     *         定义格式非法
+     */
+    public static CidrSet of(String... cidrs) {
+        return of(Arrays.asList(cidrs));
+    }
+
+    /**
+     * 由 CIDR 定义构建集合
+     *
+     * @throws IllegalArgumentException
+     *         定义格式非法
+     */
+    public static CidrSet of(Collection<String> cidrs) {
+        if (cidrs == null || cidrs.isEmpty()) {
+            return EMPTY;
+        }
+
+        Trie.Builder ipv4 = new Trie.Builder();
+        Trie.Builder ipv6 = new Trie.Builder();
+        long[] buffer = new long[2];
+        List<String> definitions = new ArrayList<>(cidrs.size());
+
+        for (String cidr : cidrs) {
+            if (cidr == null || cidr.isBlank()) {
+                continue;
+            }
+            String definition = cidr.trim();
+            int slash = definition.indexOf('/');
+            int end = slash >= 0 ? slash : definition.length();
+
+            long address = IpAddressParser.parseIpv4(definition, 0, end);
+            if (address != IpAddressParser.INVALID) {
+                int prefix = parsePrefix(definition, slash, 32);
+                ipv4.insert(address << 32, 0L, prefix);
+            } else if (IpAddressParser.parseIpv6(definition, 0, end, buffer)) {
+                int prefix = parsePrefix(definition, slash, 128);
+                ipv6.insert(buffer[0], buffer[1], prefix);
+            } else {
+                throw new IllegalArgumentException("非法的 CIDR 定义: " + cidr);
+            }
+            definitions.add(definition);
+        }
+
+        if (definitions.isEmpty()) {
+            return EMPTY;
+        }
+        return new CidrSet(ipv4.build(), ipv6.build(), Collections.unmodifiableList(definitions));
+    }
+
+    // ============ 查询方法 ============
+
+    /**
+     * 判断 IP 文本是否落在集合内，非法 IP 返回 false
+     */
+    public boolean contains(CharSequence ip) {
+        return ip != null && contains(ip, 0, ip.length());
+    }
+
+    /**
+     * 判断 [from, to) 区间的 IP 文本是否落在集合内
+     */
+    public boolean contains(CharSequence ip, int from, int to) {
+        if (isEmpty()) {
+            return false;
+        }
+
+        long address = IpAddressParser.parseIpv4(ip, from, to);
+        if (address != IpAddressParser.INVALID) {
+            return containsIpv4(address);
+        }
+
+        // IPv6 需要一个两元素的缓冲区，仅在真正需要时分配
+        long[] buffer = new long[2];
+        return IpAddressParser.parseIpv6(ip, from, to, buffer) && containsIpv6(buffer[0], buffer[1]);
+    }
+
+    /**
+     * 判断 IPv4 地址值是否落在集合内
+     */
+    public boolean containsIpv4(long address) {
+        return ipv4.contains(address << 32, 0L, 32);
+    }
+
+    /**
+     * 判断 IPv6 地址值是否落在集合内，IPv4 映射地址同时匹配 IPv4 网段
+     */
+    public boolean containsIpv6(long hi, long lo) {
+        if (IpAddressParser.isIpv4Mapped(hi, lo) && containsIpv4(lo & 0xFFFFFFFFL)) {
+            return true;
+        }
+        return ipv6.contains(hi, lo, 128);
+    }
+
+    public boolean isEmpty() {
+        return ipv4.isEmpty() && ipv6.isEmpty();
+    }
+
+    /**
+     * 构建时使用的网段定义
+     */
+    public List<String> getDefinitions() {
+        return definitions;
+    }
+
+    @Override
+    public String toString() {
+        return "CidrSet" + definitions;
+    }
+
+    // ============ 内部方法 ============
+
+    private static int parsePrefix(String definition, int slash, int maxPrefix) {
+        if (slash < 0) {
+            return maxPrefix;
+        }
+        int prefix;
+        try {
+            prefix = Integer.parseInt(definition.substring(slash + 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("非法的 CIDR 前缀长度: " + definition, e);
+        }
+        if (prefix < 0 || prefix > maxPrefix) {
+            throw new IllegalArgumentException("CIDR 前缀长度超出范围: " + definition);
+        }
+        return prefix;
+    }
+
+    /**
+     * 二叉基数树 节点以数组下标表示，children[2n]/children[2n+1] 为节点 n 的 0/1 子节点，0 表示不存在
+     */
+    private static final class Trie {
+
+        private static final Trie EMPTY = new Trie(new int[2], new boolean[1]);
+
+        private final int[] children;
+        private final boolean[] terminal;
+
+        private Trie(int[] children, boolean[] terminal) {
+            this.children = children;
+            this.terminal = terminal;
+        }
+
+        boolean isEmpty() {
+            return children[0] == 0 && children[1] == 0 && !terminal[0];
+        }
+
+        boolean contains(long hi, long lo, int width) {
+            int node = 0;
+            for (int depth = 0; ; depth++) {
+                if (terminal[node]) {
+                    return true;
+                }
+                if (depth == width) {
+                    return false;
+                }
+                node = children[(node << 1) | bit(hi, lo, depth)];
+                if (node == 0) {
+                    return false;
+                }
+            }
+        }
+
+        static int bit(long hi, long lo, int depth) {
+            return depth < 64
+                    ? (int) (hi >>> (63 - depth)) & 1
+                    : (int) (lo >>> (127 - depth)) & 1;
+        }
+
+        static final class Builder {
+            private int[] children = new int[64];
+            private boolean[] terminal = new boolean[32];
+            private int size = 1;
+
+            void insert(long hi, long lo, int prefix) {
+                int node = 0;
+                for (int depth = 0; depth < prefix; depth++) {
+                    if (terminal[node]) {
+                        // 已被更短的前缀覆盖
+                        return;
+                    }
+                    int slot = (node << 1) | bit(hi, lo, depth);
+                    int next = children[slot];
+                    if (next == 0) {
+                        next = allocate();
+                        children[slot] = next;
+                    }
+                    node = next;
+                }
+                terminal[node] = true;
+                // 更长的前缀已被当前网段覆盖，直接剪掉
+                children[node << 1] = 0;
+                children[(node << 1) | 1] = 0;
+            }
+
+            private int allocate() {
+                if (size == terminal.length) {
+                    terminal = Arrays.copyOf(terminal, size << 1);
+                    children = Arrays.copyOf(children, size << 2);
+                }
+                return size++;
+            }
+
+            Trie build() {
+                if (size == 1 && !terminal[0]) {
+                    return EMPTY;
+                }
+                return new Trie(Arrays.copyOf(children, size << 1), Arrays.copyOf(terminal, size));
+            }
+        }
+    }
+}
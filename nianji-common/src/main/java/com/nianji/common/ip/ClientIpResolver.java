@@ -0,0 +1,190 @@
+package com.nianji.common.ip;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 客户端 IP 解析器 Servlet（IpUtil.getIpAddr）与网关（GatewayRateLimitFilter）共用的一套实现
+ * <p>
+ * 通过 headerLookup 读取请求头，与具体的 Web 栈解耦。 未配置可信代理时保持原有行为：依次检查代理头，取第一个合法地址； 配置可信代理后，仅当直连地址为可信代理时才信任代理头，并从
+ * X-Forwarded-For 右侧向左跳过可信代理，取第一个非代理地址
+ */
+public final class ClientIpResolver {
+
+    /**
+     * 未知 IP
+     */
+    public static final String UNKNOWN_IP = "unknown";
+
+    /**
+     * IPv4 本地地址
+     */
+    public static final String LOCALHOST_IPV4 = "127.0.0.1";
+
+    /**
+     * 可能包含真实 IP 的请求头
+     */
+    public static final List<String> DEFAULT_HEADERS = List.of(
+            "X-Forwarded-For",
+            "X-Real-IP",
+            "Proxy-Client-IP",
+            "WL-Proxy-Client-IP",
+            "HTTP_CLIENT_IP",
+            "HTTP_X_FORWARDED_FOR"
+    );
+
+    private static final ClientIpResolver DEFAULT = new ClientIpResolver(DEFAULT_HEADERS, CidrSet.empty());
+
+    private static final ClientIpResolver REMOTE_ONLY = new ClientIpResolver(List.of(), CidrSet.empty());
+
+    private final String[] headers;
+    private final CidrSet trustedProxies;
+
+    private ClientIpResolver(List<String> headers, CidrSet trustedProxies) {
+        this.headers = headers.toArray(new String[0]);
+        this.trustedProxies = trustedProxies != null ? trustedProxies : CidrSet.empty();
+    }
+
+    /**
+     * 默认解析器（信任全部代理头）
+     */
+    public static ClientIpResolver defaults() {
+        return DEFAULT;
+    }
+
+    /**
+     * 只使用直连地址、忽略全部代理头的解析器
+     */
+    public static ClientIpResolver remoteOnly() {
+        return REMOTE_ONLY;
+    }
+
+    /**
+     * 使用默认代理头和指定可信代理创建解析器
+     */
+    public static ClientIpResolver of(CidrSet trustedProxies) {
+        return of(DEFAULT_HEADERS, trustedProxies);
+    }
+
+    /**
+     * 使用指定代理头和可信代理创建解析器
+     */
+    public static ClientIpResolver of(List<String> headers, CidrSet trustedProxies) {
+        if ((trustedProxies == null || trustedProxies.isEmpty()) && DEFAULT_HEADERS.equals(headers)) {
+            return DEFAULT;
+        }
+        return new ClientIpResolver(headers, trustedProxies);
+    }
+
+    /**
+     * 解析客户端 IP
+     *
+     * @param headerLookup
+     *         请求头读取函数
+     * @param remoteAddr
+     *         直连地址
+     * @return 客户端 IP，无法解析时返回 {@link #UNKNOWN_IP}
+     */
+    public String resolve(Function<String, String> headerLookup, String remoteAddr) {
+        boolean restricted = !trustedProxies.isEmpty();
+
+        // 1. 配置了可信代理时，直连方不是可信代理则代理头不可信
+        if (!restricted || trustedProxies.contains(remoteAddr)) {
+            for (String header : headers) {
+                String value = headerLookup.apply(header);
+                if (value == null || value.isEmpty()) {
+                    continue;
+                }
+                String ip = restricted ? lastUntrusted(value) : firstValid(value);
+                if (ip != null) {
+                    return ip;
+                }
+            }
+        }
+
+        // 2. 代理头中没有有效的 IP，使用直连地址
+        String ip = remoteAddr != null ? firstValid(remoteAddr) : null;
+        return ip != null ? ip : UNKNOWN_IP;
+    }
+
+    // ============ 内部方法 ============
+
+    /**
+     * 从左到右取第一个合法地址（如 X-Forwarded-For: client, proxy1, proxy2）
+     */
+    private String firstValid(String value) {
+        int length = value.length();
+        int start = 0;
+        while (start < length) {
+            int comma = value.indexOf(',', start);
+            int end = comma >= 0 ? comma : length;
+            String ip = normalize(value, start, end);
+            if (ip != null) {
+                return ip;
+            }
+            start = end + 1;
+        }
+        return null;
+    }
+
+    /**
+     * 从右到左跳过可信代理，取第一个合法的非代理地址
+     */
+    private String lastUntrusted(String value) {
+        int end = value.length();
+        String candidate = null;
+        while (end > 0) {
+            int comma = value.lastIndexOf(',', end - 1);
+            int start = comma + 1;
+            int from = trimStart(value, start, end);
+            int to = trimEnd(value, from, end);
+            if (IpAddressParser.isValid(value, from, to)) {
+                if (!trustedProxies.contains(value, from, to)) {
+                    return normalize(value, from, to);
+                }
+                candidate = normalize(value, from, to);
+            }
+            end = comma;
+        }
+        // 全部都是可信代理时，取最左侧的地址
+        return candidate;
+    }
+
+    /**
+     * 校验并规范化 [from, to) 区间内的地址，IPv6 回环地址统一转为 127.0.0.1
+     */
+    private static String normalize(String value, int from, int to) {
+        from = trimStart(value, from, to);
+        to = trimEnd(value, from, to);
+        if (from >= to) {
+            return null;
+        }
+
+        if (IpAddressParser.parseIpv4(value, from, to) != IpAddressParser.INVALID) {
+            return value.substring(from, to);
+        }
+
+        long[] buffer = new long[2];
+        if (!IpAddressParser.parseIpv6(value, from, to, buffer)) {
+            return null;
+        }
+        if (IpAddressParser.isIpv6Loopback(buffer[0], buffer[1])) {
+            return LOCALHOST_IPV4;
+        }
+        return value.substring(from, to);
+    }
+
+    private static int trimStart(String value, int from, int to) {
+        while (from < to && value.charAt(from) <= ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    private static int trimEnd(String value, int from, int to) {
+        while (to > from && value.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        return to;
+    }
+}
@@ -0,0 +1,283 @@
+package com.nianji.common.ip;
+
+/**
+ * IP 地址解析器 单次遍历解析 IPv4/IPv6 文本，直接产出原始 long 值，解析过程不分配对象
+ * <p>
+ * IPv4 解析为 0 ~ 2^32-1 的 long；IPv6 解析为高/低两个 64 位 long， 支持 "::" 压缩、内嵌 IPv4 后缀（如 ::ffff:1.2.3.4）和 %zone 后缀
+ */
+public final class IpAddressParser {
+
+    /**
+     * 非法地址
+     */
+    public static final long INVALID = -1L;
+
+    private IpAddressParser() {
+        // 工具类，防止实例化
+    }
+
+    // ============ 通用判断 ============
+
+    /**
+     * 是否为合法的 IPv4 或 IPv6 地址
+     */
+    public static boolean isValid(CharSequence ip) {
+        return ip != null && isValid(ip, 0, ip.length());
+    }
+
+    /**
+     * 判断 [from, to) 区间是否为合法的 IPv4 或 IPv6 地址
+     */
+    public static boolean isValid(CharSequence ip, int from, int to) {
+        return parseIpv4(ip, from, to) != INVALID || parseIpv6(ip, from, to, null);
+    }
+
+    /**
+     * 是否为合法的 IPv4 地址
+     */
+    public static boolean isIpv4(CharSequence ip) {
+        return parseIpv4(ip) != INVALID;
+    }
+
+    /**
+     * 是否为合法的 IPv6 地址
+     */
+    public static boolean isIpv6(CharSequence ip) {
+        return ip != null && parseIpv6(ip, 0, ip.length(), null);
+    }
+
+    // ============ IPv4 ============
+
+    /**
+     * 解析 IPv4 地址
+     *
+     * @param ip
+     *         IP 文本
+     * @return 0 ~ 2^32-1 的地址值，非法时返回 {@link #INVALID}
+     */
+    public static long parseIpv4(CharSequence ip) {
+        return ip == null ? INVALID : parseIpv4(ip, 0, ip.length());
+    }
+
+    /**
+     * 解析 [from, to) 区间内的 IPv4 地址
+     */
+    public static long parseIpv4(CharSequence ip, int from, int to) {
+        int length = to - from;
+        if (length < 7 || length > 15) {
+            return INVALID;
+        }
+
+        long result = 0;
+        int octet = 0;
+        int digits = 0;
+        int dots = 0;
+        for (int i = from; i < to; i++) {
+            char c = ip.charAt(i);
+            if (c >= '0' && c <= '9') {
+                octet = octet * 10 + (c - '0');
+                if (++digits > 3 || octet > 255) {
+                    return INVALID;
+                }
+            } else if (c == '.') {
+                if (digits == 0 || ++dots > 3) {
+                    return INVALID;
+                }
+                result = (result << 8) | octet;
+                octet = 0;
+                digits = 0;
+            } else {
+                return INVALID;
+            }
+        }
+
+        if (dots != 3 || digits == 0) {
+            return INVALID;
+        }
+        return (result << 8) | octet;
+    }
+
+    // ============ IPv6 ============
+
+    /**
+     * 解析 IPv6 地址
+     *
+     * @param ip
+     *         IP 文本
+     * @param out
+     *         长度至少为 2 的输出数组，out[0] 为高 64 位，out[1] 为低 64 位；为 null 时仅做校验
+     * @return 是否解析成功
+     */
+    public static boolean parseIpv6(CharSequence ip, long[] out) {
+        return ip != null && parseIpv6(ip, 0, ip.length(), out);
+    }
+
+    /**
+     * 解析 [from, to) 区间内的 IPv6 地址
+     */
+    public static boolean parseIpv6(CharSequence ip, int from, int to, long[] out) {
+        // 去掉 %zone 后缀
+        for (int i = from; i < to; i++) {
+            if (ip.charAt(i) == '%') {
+                to = i;
+                break;
+            }
+        }
+        int length = to - from;
+        if (length < 2 || length > 45) {
+            return false;
+        }
+
+        // "::" 之前的分组按位置直接落位，之后的分组逐个左移进入 tail，最后二者按位或合并
+        long headHi = 0;
+        long headLo = 0;
+        long tailHi = 0;
+        long tailLo = 0;
+        int headGroups = 0;
+        int tailGroups = 0;
+        boolean compressed = false;
+
+        int i = from;
+        if (ip.charAt(i) == ':') {
+            if (ip.charAt(i + 1) != ':') {
+                return false;
+            }
+            compressed = true;
+            i += 2;
+        }
+
+        while (i < to) {
+            int groupStart = i;
+            int value = 0;
+            int digits = 0;
+            while (i < to) {
+                int digit = hexValue(ip.charAt(i));
+                if (digit < 0) {
+                    break;
+                }
+                value = (value << 4) | digit;
+                if (++digits > 4) {
+                    return false;
+                }
+                i++;
+            }
+
+            if (i < to && ip.charAt(i) == '.') {
+                // 内嵌 IPv4 只能出现在末尾，占两个分组
+                long ipv4 = parseIpv4(ip, groupStart, to);
+                if (ipv4 == INVALID) {
+                    return false;
+                }
+                int high = (int) (ipv4 >>> 16);
+                int low = (int) (ipv4 & 0xFFFF);
+                if (compressed) {
+                    if (tailGroups + 2 > 7) {
+                        return false;
+                    }
+                    tailHi = (tailHi << 32) | (tailLo >>> 32);
+                    tailLo = (tailLo << 32) | (((long) high << 16) | low);
+                    tailGroups += 2;
+                } else {
+                    if (headGroups + 2 > 8) {
+                        return false;
+                    }
+                    headHi |= groupBits(headGroups, high, true);
+                    headLo |= groupBits(headGroups, high, false);
+                    headGroups++;
+                    headHi |= groupBits(headGroups, low, true);
+                    headLo |= groupBits(headGroups, low, false);
+                    headGroups++;
+                }
+                break;
+            }
+
+            if (digits == 0) {
+                return false;
+            }
+
+            if (compressed) {
+                if (tailGroups >= 7) {
+                    return false;
+                }
+                tailHi = (tailHi << 16) | (tailLo >>> 48);
+                tailLo = (tailLo << 16) | value;
+                tailGroups++;
+            } else {
+                if (headGroups >= 8) {
+                    return false;
+                }
+                headHi |= groupBits(headGroups, value, true);
+                headLo |= groupBits(headGroups, value, false);
+                headGroups++;
+            }
+
+            if (i == to) {
+                break;
+            }
+            if (ip.charAt(i) != ':') {
+                return false;
+            }
+            i++;
+            if (i < to && ip.charAt(i) == ':') {
+                if (compressed) {
+                    return false;
+                }
+                compressed = true;
+                i++;
+            } else if (i == to) {
+                // 不允许以单个冒号结尾
+                return false;
+            }
+        }
+
+        int groups = headGroups + tailGroups;
+        if (compressed ? groups > 7 : groups != 8) {
+            return false;
+        }
+
+        if (out != null) {
+            out[0] = headHi | tailHi;
+            out[1] = headLo | tailLo;
+        }
+        return true;
+    }
+
+    /**
+     * 是否为 IPv4 映射的 IPv6 地址（::ffff:0:0/96）
+     */
+    public static boolean isIpv4Mapped(long hi, long lo) {
+        return hi == 0 && (lo >>> 32) == 0xFFFFL;
+    }
+
+    /**
+     * 是否为 IPv6 回环地址（::1）
+     */
+    public static boolean isIpv6Loopback(long hi, long lo) {
+        return hi == 0 && lo == 1;
+    }
+
+    // ============ 内部方法 ============
+
+    /**
+     * 计算第 index 个分组在高/低 64 位中的位值
+     */
+    private static long groupBits(int index, int value, boolean high) {
+        if (index < 4) {
+            return high ? (long) value << (48 - 16 * index) : 0L;
+        }
+        return high ? 0L : (long) value << (48 - 16 * (index - 4));
+    }
+
+    private static int hexValue(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+}
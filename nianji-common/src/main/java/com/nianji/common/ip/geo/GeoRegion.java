@@ -0,0 +1,62 @@
+package com.nianji.common.ip.geo;
+
+import lombok.Getter;
+
+/**
+ * IP 归属地区 数据库加载时一次性构建，查询时直接返回共享实例，不产生新对象
+ */
+@Getter
+public final class GeoRegion {
+
+    /**
+     * 国内地区的国家名称
+     */
+    public static final String DOMESTIC_COUNTRY = "中国";
+
+    private final String country;
+    private final String region;
+    private final String city;
+    private final String isp;
+
+    /**
+     * 展示用地址（国家 省份 城市），预先拼接好
+     */
+    private final String location;
+
+    public GeoRegion(String country, String region, String city, String isp) {
+        this.country = country;
+        this.region = region;
+        this.city = city;
+        this.isp = isp;
+        this.location = buildLocation(country, region, city);
+    }
+
+    /**
+     * 是否为国内地区
+     */
+    public boolean isDomestic() {
+        return DOMESTIC_COUNTRY.equals(country);
+    }
+
+    private static String buildLocation(String... parts) {
+        StringBuilder builder = new StringBuilder();
+        String previous = null;
+        for (String part : parts) {
+            // 省份与城市同名（如直辖市）时只保留一个
+            if (part == null || part.isEmpty() || part.equals(previous)) {
+                continue;
+            }
+            if (builder.length() > 0) {
+                builder.append(' ');
+            }
+            builder.append(part);
+            previous = part;
+        }
+        return builder.length() > 0 ? builder.toString() : "未知";
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s %s %s", country, region, city, isp);
+    }
+}
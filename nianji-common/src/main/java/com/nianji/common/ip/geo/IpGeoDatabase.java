@@ -0,0 +1,163 @@
+package com.nianji.common.ip.geo;
+
+import com.nianji.common.ip.IpAddressParser;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * IP 地理位置数据库 以 MappedByteBuffer 映射本地二进制文件，按起始地址排序的区间表上做二分查找
+ * <p>
+ * 文件格式（大端序）：
+ * <pre>
+ * 0   int   魔数 "NJIP"
+ * 4   int   版本号
+ * 8   int   区间数量
+ * 12  int   地区数量
+ * 16  long  生成时间（毫秒）
+ * 24  int   地区表偏移
+ * 28  int   区间表偏移
+ * 地区表：每个地区依次为 国家/省份/城市/运营商 四个 (ushort 长度 + UTF-8 字节) 字符串
+ * 区间表：每条 12 字节 (int 起始地址, int 结束地址, int 地区下标)，按起始地址升序且互不重叠
+ * </pre>
+ * 地区表在打开时解码为共享的 {@link GeoRegion}；区间表保留在映射内存中，查询只做基本类型运算，不产生堆分配
+ */
+public final class IpGeoDatabase {
+
+    public static final int MAGIC = 0x4E4A4950;
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 32;
+    public static final int RANGE_RECORD_SIZE = 12;
+
+    private final ByteBuffer ranges;
+    private final GeoRegion[] regions;
+    @Getter
+    private final int rangeCount;
+    @Getter
+    private final long buildTime;
+    @Getter
+    private final Path source;
+
+    private IpGeoDatabase(ByteBuffer ranges, GeoRegion[] regions, int rangeCount, long buildTime, Path source) {
+        this.ranges = ranges;
+        this.regions = regions;
+        this.rangeCount = rangeCount;
+        this.buildTime = buildTime;
+        this.source = source;
+    }
+
+    /**
+     * 映射并校验数据库文件
+     *
+     * @throws IOException
+     *         文件读取失败或格式非法
+     */
+    public static IpGeoDatabase open(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // 映射建立后即可关闭通道，映射在缓冲区被回收前一直有效
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("非法的 IP 地理位置数据库文件: " + path);
+        }
+        int version = buffer.getInt(4);
+        if (version != VERSION) {
+            throw new IOException("不支持的 IP 地理位置数据库版本: " + version);
+        }
+
+        int rangeCount = buffer.getInt(8);
+        int regionCount = buffer.getInt(12);
+        long buildTime = buffer.getLong(16);
+        int regionsOffset = buffer.getInt(24);
+        int rangesOffset = buffer.getInt(28);
+        if (rangeCount < 0 || regionCount < 0
+                || (long) rangesOffset + (long) rangeCount * RANGE_RECORD_SIZE > buffer.capacity()) {
+            throw new IOException("IP 地理位置数据库文件已损坏: " + path);
+        }
+
+        GeoRegion[] regions = readRegions(buffer, regionsOffset, regionCount);
+        ByteBuffer ranges = buffer.duplicate()
+                .position(rangesOffset)
+                .limit(rangesOffset + rangeCount * RANGE_RECORD_SIZE)
+                .slice();
+
+        // 校验地区下标，避免查询时越界
+        for (int i = 0; i < rangeCount; i++) {
+            int regionIndex = ranges.getInt(i * RANGE_RECORD_SIZE + 8);
+            if (regionIndex < 0 || regionIndex >= regionCount) {
+                throw new IOException("IP 地理位置数据库地区下标越界: " + regionIndex);
+            }
+        }
+
+        return new IpGeoDatabase(ranges, regions, rangeCount, buildTime, path);
+    }
+
+    /**
+     * 查询 IP 文本的归属地区
+     *
+     * @return 归属地区，非 IPv4 或未收录时返回 null
+     */
+    public GeoRegion lookup(String ip) {
+        long address = IpAddressParser.parseIpv4(ip);
+        return address == IpAddressParser.INVALID ? null : lookup(address);
+    }
+
+    /**
+     * 查询 IPv4 地址值的归属地区
+     *
+     * @return 归属地区，未收录时返回 null
+     */
+    public GeoRegion lookup(long address) {
+        int low = 0;
+        int high = rangeCount - 1;
+        // 查找起始地址 <= address 的最后一个区间
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long start = Integer.toUnsignedLong(ranges.getInt(mid * RANGE_RECORD_SIZE));
+            if (start <= address) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (high < 0) {
+            return null;
+        }
+
+        int offset = high * RANGE_RECORD_SIZE;
+        long end = Integer.toUnsignedLong(ranges.getInt(offset + 4));
+        return address <= end ? regions[ranges.getInt(offset + 8)] : null;
+    }
+
+    public int getRegionCount() {
+        return regions.length;
+    }
+
+    private static GeoRegion[] readRegions(ByteBuffer buffer, int offset, int count) throws IOException {
+        GeoRegion[] regions = new GeoRegion[count];
+        ByteBuffer reader = buffer.duplicate().position(offset);
+        try {
+            for (int i = 0; i < count; i++) {
+                regions[i] = new GeoRegion(readString(reader), readString(reader), readString(reader), readString(reader));
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("IP 地理位置数据库地区表已损坏", e);
+        }
+        return regions;
+    }
+
+    private static String readString(ByteBuffer reader) {
+        int length = Short.toUnsignedInt(reader.getShort());
+        byte[] bytes = new byte[length];
+        reader.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8).intern();
+    }
+}
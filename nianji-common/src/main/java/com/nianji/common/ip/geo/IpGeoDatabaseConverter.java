@@ -0,0 +1,177 @@
+package com.nianji.common.ip.geo;
+
+import com.nianji.common.ip.IpAddressParser;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * IP 地理位置数据库构建工具 将 CSV 区间数据转换为 {@link IpGeoDatabase} 的二进制格式
+ * <p>
+ * CSV 每行格式：起始IP,结束IP,国家,省份,城市,运营商；IP 可以是点分形式或十进制整数，以 # 开头的行和表头行会被忽略。
+ * 输出先写入临时文件再原子替换，运行中的服务热加载时不会读到半成品
+ * <pre>
+ * java -cp nianji-common.jar com.nianji.common.ip.geo.IpGeoDatabaseConverter ip-ranges.csv ip-geo.db
+ * </pre>
+ */
+public final class IpGeoDatabaseConverter {
+
+    private static final int COLUMNS = 6;
+
+    private IpGeoDatabaseConverter() {
+        // 工具类，防止实例化
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("用法: IpGeoDatabaseConverter <input.csv> <output.db>");
+            System.exit(1);
+        }
+        int count = convert(Path.of(args[0]), Path.of(args[1]));
+        System.out.println("已生成 " + args[1] + "，区间数量: " + count);
+    }
+
+    /**
+     * 转换 CSV 文件
+     *
+     * @return 写入的区间数量
+     * @throws IOException
+     *         读写失败或数据非法（格式错误、区间重叠）
+     */
+    public static int convert(Path csv, Path output) throws IOException {
+        List<long[]> ranges = new ArrayList<>();
+        Map<String, Integer> regionIndexes = new LinkedHashMap<>();
+        List<String[]> regions = new ArrayList<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+
+                String[] columns = line.split(",", -1);
+                if (columns.length < COLUMNS) {
+                    throw new IOException("第 " + lineNumber + " 行列数不足: " + line);
+                }
+                long start = parseAddress(columns[0]);
+                long end = parseAddress(columns[1]);
+                if (start < 0 || end < 0) {
+                    if (lineNumber == 1) {
+                        // 表头
+                        continue;
+                    }
+                    throw new IOException("第 " + lineNumber + " 行 IP 非法: " + line);
+                }
+                if (start > end) {
+                    throw new IOException("第 " + lineNumber + " 行起始地址大于结束地址: " + line);
+                }
+
+                String[] region = {unquote(columns[2]), unquote(columns[3]), unquote(columns[4]), unquote(columns[5])};
+                String regionKey = String.join("\u0001", region);
+                Integer regionIndex = regionIndexes.get(regionKey);
+                if (regionIndex == null) {
+                    regionIndex = regions.size();
+                    regionIndexes.put(regionKey, regionIndex);
+                    regions.add(region);
+                }
+                ranges.add(new long[]{start, end, regionIndex});
+            }
+        }
+
+        ranges.sort(Comparator.comparingLong(range -> range[0]));
+        for (int i = 1; i < ranges.size(); i++) {
+            if (ranges.get(i)[0] <= ranges.get(i - 1)[1]) {
+                throw new IOException("IP 区间重叠: " + ranges.get(i - 1)[0] + "-" + ranges.get(i - 1)[1]
+                        + " 与 " + ranges.get(i)[0] + "-" + ranges.get(i)[1]);
+            }
+        }
+
+        write(output, ranges, regions);
+        return ranges.size();
+    }
+
+    private static void write(Path output, List<long[]> ranges, List<String[]> regions) throws IOException {
+        byte[] regionTable = encodeRegions(regions);
+        int regionsOffset = IpGeoDatabase.HEADER_SIZE;
+        int rangesOffset = regionsOffset + regionTable.length;
+
+        Path parent = output.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(parent, output.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream stream = Files.newOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+                out.writeInt(IpGeoDatabase.MAGIC);
+                out.writeInt(IpGeoDatabase.VERSION);
+                out.writeInt(ranges.size());
+                out.writeInt(regions.size());
+                out.writeLong(System.currentTimeMillis());
+                out.writeInt(regionsOffset);
+                out.writeInt(rangesOffset);
+                out.write(regionTable);
+                for (long[] range : ranges) {
+                    out.writeInt((int) range[0]);
+                    out.writeInt((int) range[1]);
+                    out.writeInt((int) range[2]);
+                }
+            }
+            Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static byte[] encodeRegions(List<String[]> regions) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            for (String[] region : regions) {
+                for (String value : region) {
+                    byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+                    if (encoded.length > 0xFFFF) {
+                        throw new IOException("地区字段过长: " + value);
+                    }
+                    out.writeShort(encoded.length);
+                    out.write(encoded);
+                }
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static long parseAddress(String column) {
+        String value = unquote(column);
+        long address = IpAddressParser.parseIpv4(value);
+        if (address != IpAddressParser.INVALID) {
+            return address;
+        }
+        try {
+            long number = Long.parseLong(value);
+            return number >= 0 && number <= 0xFFFFFFFFL ? number : IpAddressParser.INVALID;
+        } catch (NumberFormatException e) {
+            return IpAddressParser.INVALID;
+        }
+    }
+
+    private static String unquote(String value) {
+        String trimmed = value.trim();
+        if (trimmed.length() >= 2 && trimmed.startsWith("\"") && trimmed.endsWith("\"")) {
+            return trimmed.substring(1, trimmed.length() - 1).trim();
+        }
+        return trimmed;
+    }
+}
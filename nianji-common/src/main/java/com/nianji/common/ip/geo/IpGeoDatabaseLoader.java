@@ -0,0 +1,91 @@
+package com.nianji.common.ip.geo;
+
+import cn.hutool.core.util.StrUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * IP 地理位置数据库加载器 启动时映射数据库文件，并定期检查文件变更后热替换
+ * <p>
+ * 新文件校验失败时保留旧数据库继续服务
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IpGeoDatabaseLoader {
+
+    private final IpGeoProperties ipGeoProperties;
+
+    private ScheduledExecutorService reloadExecutor;
+    private long loadedModifiedTime = -1;
+    private long loadedSize = -1;
+
+    @PostConstruct
+    public void init() {
+        if (StrUtil.isBlank(ipGeoProperties.getDatabasePath())) {
+            log.info("未配置 IP 地理位置数据库，使用内置的归属地判断");
+            return;
+        }
+
+        Path path = Path.of(ipGeoProperties.getDatabasePath());
+        reloadIfChanged(path);
+
+        long intervalMillis = Math.max(1000L, ipGeoProperties.getReloadInterval().toMillis());
+        reloadExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "IpGeo-Reload");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reloadExecutor.scheduleWithFixedDelay(() -> reloadIfChanged(path),
+                intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (reloadExecutor != null) {
+            reloadExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * 文件修改时间或大小变化时重新加载
+     */
+    void reloadIfChanged(Path path) {
+        try {
+            if (!Files.isRegularFile(path)) {
+                log.warn("IP 地理位置数据库文件不存在: {}", path);
+                return;
+            }
+
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            long modifiedTime = attributes.lastModifiedTime().toMillis();
+            long size = attributes.size();
+            if (modifiedTime == loadedModifiedTime && size == loadedSize) {
+                return;
+            }
+
+            long startTime = System.nanoTime();
+            IpGeoDatabase database = IpGeoDatabase.open(path);
+            IpGeoLocator.install(database);
+            loadedModifiedTime = modifiedTime;
+            loadedSize = size;
+
+            log.info("IP 地理位置数据库已加载 - 文件: {}, 区间数: {}, 地区数: {}, 耗时: {}ms",
+                    path, database.getRangeCount(), database.getRegionCount(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        } catch (IOException | RuntimeException e) {
+            log.error("加载 IP 地理位置数据库失败，继续使用当前数据 - 文件: {}", path, e);
+        }
+    }
+}
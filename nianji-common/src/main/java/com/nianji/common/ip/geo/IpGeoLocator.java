@@ -0,0 +1,46 @@
+package com.nianji.common.ip.geo;
+
+/**
+ * IP 地理位置查询入口 持有当前生效的 {@link IpGeoDatabase}，供 IpUtil 等静态工具使用
+ * <p>
+ * 数据库由 {@link IpGeoDatabaseLoader} 加载和热替换，通过 volatile 引用发布，查询线程无锁读取
+ */
+public final class IpGeoLocator {
+
+    private static volatile IpGeoDatabase database;
+
+    private IpGeoLocator() {
+        // 工具类，防止实例化
+    }
+
+    /**
+     * 当前是否已加载数据库
+     */
+    public static boolean isAvailable() {
+        return database != null;
+    }
+
+    /**
+     * 查询 IPv4 地址值的归属地区
+     *
+     * @return 归属地区，数据库未加载或未收录时返回 null
+     */
+    public static GeoRegion lookup(long ipv4) {
+        IpGeoDatabase current = database;
+        return current != null ? current.lookup(ipv4) : null;
+    }
+
+    /**
+     * 当前生效的数据库
+     */
+    public static IpGeoDatabase current() {
+        return database;
+    }
+
+    /**
+     * 替换当前数据库
+     */
+    static void install(IpGeoDatabase newDatabase) {
+        database = newDatabase;
+    }
+}
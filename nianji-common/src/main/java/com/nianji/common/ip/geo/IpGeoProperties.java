@@ -0,0 +1,26 @@
+package com.nianji.common.ip.geo;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * IP 地理位置数据库配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "ip-geo")
+public class IpGeoProperties {
+
+    /**
+     * 数据库文件路径（由 IpGeoDatabaseConverter 生成），为空时使用内置的粗略判断
+     */
+    private String databasePath;
+
+    /**
+     * 文件变更检查间隔
+     */
+    private Duration reloadInterval = Duration.ofMinutes(1);
+}
@@ -1,7 +1,10 @@
 package com.nianji.common.jwt.api;
 
+import com.nianji.common.jwt.dto.IssuedToken;
 import com.nianji.common.jwt.exception.JwtGenerationException;
 
+import java.util.Map;
+
 /**
  * JWT令牌生成器接口
  * 用于认证服务生成各种类型的JWT令牌
@@ -13,6 +16,11 @@ public interface JwtGenerator {
      */
     String generateAccessToken(String username, Long userId);
     
+    /**
+     * 签发访问令牌，同时返回令牌ID和过期时间
+     */
+    IssuedToken issueAccessToken(String username, Long userId);
+
     /**
      * 生成包含CSRF Token的访问令牌
      */
@@ -22,6 +30,11 @@ public interface JwtGenerator {
      * 生成刷新令牌
      */
     String generateRefreshToken(String username, Long userId);
+
+    /**
+     * 签发刷新令牌，同时返回令牌ID和过期时间
+     */
+    IssuedToken issueRefreshToken(String username, Long userId);
     
     /**
      * 生成短期令牌（用于一次性操作）
@@ -37,4 +50,9 @@ public interface JwtGenerator {
      * 验证刷新令牌并生成新的访问令牌
      */
     String validateAndRefresh(String refreshToken) throws JwtGenerationException;
+
+    /**
+     * 对外发布的验签公钥集合（JWKS 格式），HMAC 模式下为空集合
+     */
+    Map<String, Object> getPublicJwks();
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.nianji.common.jwt.api;
 import com.nianji.common.jwt.exception.JwtValidationException;
 import com.nianji.common.jwt.dto.JwtUserInfo;
 import com.nianji.common.jwt.dto.JwtDetails;
+import com.nianji.common.jwt.dto.JwtVerification;
 
 import java.util.Date;
 import java.util.concurrent.TimeUnit;
@@ -28,6 +29,23 @@ public interface JwtValidator {
      */
     JwtUserInfo validateAndGetUserInfo(String token) throws JwtValidationException;
     
+    /**
+     * 一次解析完成签名和过期校验，返回令牌声明
+     *
+     * @return 令牌声明，令牌无效或已过期时返回 null（不抛异常）
+     */
+    JwtUserInfo parseValidToken(String token);
+
+    /**
+     * 验证令牌签名、过期时间和必要声明，以结果对象返回失败原因（不抛异常）
+     */
+    JwtVerification verify(String token);
+
+    /**
+     * 签名算法是否为非对称算法（RS256/ES256），验签开销明显高于 HMAC，调用方可据此移出 I/O 线程
+     */
+    boolean isAsymmetric();
+
     /**
      * 提取用户名
      */
@@ -38,6 +56,11 @@ public interface JwtValidator {
      */
     Long extractUserId(String token);
     
+    /**
+     * 提取令牌ID（jti），早期签发的令牌没有该声明时返回 null
+     */
+    String extractTokenId(String token);
+
     /**
      * 提取令牌类型
      */
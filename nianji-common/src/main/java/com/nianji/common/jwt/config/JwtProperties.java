@@ -4,6 +4,10 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
 @Data
 @Component
 @ConfigurationProperties(prefix = "jwt")
@@ -13,4 +17,34 @@ public class JwtProperties {
     private Long refreshExpiration = 604800L; // 默认7天
     private String issuer = "nianji-system";
     private Integer shortTokenMinutes = 30; // 短期令牌默认30分钟
+
+    /**
+     * 签名算法：HS256（共享密钥 secret）、RS256、ES256
+     */
+    private String algorithm = "HS256";
+
+    /**
+     * 非对称签名私钥（JWK JSON，必须包含 kid），只有签发令牌的认证服务需要；未配置时启动生成临时密钥
+     */
+    private String signingJwk;
+
+    /**
+     * 已轮换下线但仍需验证的公钥（JWK JSON），继续通过 JWKS 发布，直到用它签发的令牌全部过期
+     */
+    private List<String> retiredPublicJwks = new ArrayList<>();
+
+    /**
+     * JWKS 地址，配置后只验证令牌，不需要签名私钥或共享密钥
+     */
+    private String jwksUri;
+
+    /**
+     * JWKS 本地缓存时间
+     */
+    private Duration jwksCacheTtl = Duration.ofMinutes(15);
+
+    /**
+     * 缓存过期前多久后台刷新 JWKS
+     */
+    private Duration jwksRefreshAhead = Duration.ofMinutes(1);
 }
\ No newline at end of file
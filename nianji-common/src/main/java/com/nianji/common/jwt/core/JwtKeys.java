@@ -0,0 +1,256 @@
+package com.nianji.common.jwt.core;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.SecurityContext;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JWT签名和验签密钥
+ * <p>
+ * 三种模式：
+ * <ul>
+ *     <li>HS256：共享密钥签名和验签</li>
+ *     <li>RS256/ES256 本地私钥：签发令牌，公钥（含已轮换的旧公钥）通过 JWKS 发布</li>
+ *     <li>RS256/ES256 远程 JWKS：只验证令牌，公钥集合本地缓存并在过期前后台刷新，遇到未知 kid 时按限频重新拉取</li>
+ * </ul>
+ * 非对称模式按令牌头中的 kid 选择公钥，验签器按 kid 缓存
+ */
+@Slf4j
+final class JwtKeys {
+
+    private final JWSAlgorithm algorithm;
+
+    /**
+     * 签名器，只验证令牌的服务为 null
+     */
+    private final JWSSigner signer;
+
+    /**
+     * 签名时使用的令牌头
+     */
+    private final JWSHeader signingHeader;
+
+    /**
+     * 对外发布的公钥集合，HMAC 和远程 JWKS 模式为空
+     */
+    private final JWKSet publicJwkSet;
+
+    /**
+     * HMAC 验签器，非对称模式为 null
+     */
+    private final JWSVerifier macVerifier;
+
+    /**
+     * 非对称模式的公钥来源，HMAC 模式为 null
+     */
+    private final JWKSource<SecurityContext> jwkSource;
+
+    /**
+     * kid -> 验签器，公钥变化时重建
+     */
+    private final Map<String, CachedVerifier> verifiers = new ConcurrentHashMap<>();
+
+    private JwtKeys(JWSAlgorithm algorithm, JWSSigner signer, String keyId, JWKSet publicJwkSet,
+                    JWSVerifier macVerifier, JWKSource<SecurityContext> jwkSource) {
+        this.algorithm = algorithm;
+        this.signer = signer;
+        this.signingHeader = new JWSHeader.Builder(algorithm)
+                .type(JOSEObjectType.JWT)
+                .keyID(keyId)
+                .build();
+        this.publicJwkSet = publicJwkSet;
+        this.macVerifier = macVerifier;
+        this.jwkSource = jwkSource;
+    }
+
+    /**
+     * 共享密钥模式
+     */
+    static JwtKeys hmac(JWSAlgorithm algorithm, String secret) throws JOSEException {
+        return new JwtKeys(algorithm, new MACSigner(secret), null, new JWKSet(),
+                new MACVerifier(secret), null);
+    }
+
+    /**
+     * 本地私钥模式
+     *
+     * @param signingJwk
+     *         私钥（JWK JSON），为空时生成临时密钥
+     * @param retiredPublicJwks
+     *         已轮换下线但仍需验证的公钥（JWK JSON）
+     */
+    static JwtKeys local(JWSAlgorithm algorithm, String signingJwk, List<String> retiredPublicJwks)
+            throws JOSEException, ParseException {
+        JWK signingKey = signingJwk == null || signingJwk.isBlank()
+                ? generateKey(algorithm)
+                : JWK.parse(signingJwk);
+        if (!signingKey.isPrivate() || signingKey.getKeyID() == null) {
+            throw new JOSEException("JWT签名密钥必须是包含 kid 的私钥");
+        }
+        JWSSigner signer = createSigner(signingKey);
+        if (!signer.supportedJWSAlgorithms().contains(algorithm)) {
+            throw new JOSEException("JWT签名密钥类型与算法不匹配: " + algorithm);
+        }
+
+        List<JWK> publicKeys = new ArrayList<>();
+        publicKeys.add(signingKey.toPublicJWK());
+        if (retiredPublicJwks != null) {
+            for (String retired : retiredPublicJwks) {
+                publicKeys.add(JWK.parse(retired).toPublicJWK());
+            }
+        }
+        JWKSet publicJwkSet = new JWKSet(publicKeys);
+
+        return new JwtKeys(algorithm, signer, signingKey.getKeyID(), publicJwkSet,
+                null, new ImmutableJWKSet<>(publicJwkSet));
+    }
+
+    /**
+     * 远程 JWKS 模式
+     *
+     * @param cacheTtl
+     *         公钥集合缓存时间
+     * @param refreshAhead
+     *         缓存过期前多久后台刷新
+     */
+    static JwtKeys remote(JWSAlgorithm algorithm, String jwksUri, Duration cacheTtl, Duration refreshAhead)
+            throws MalformedURLException {
+        JWKSource<SecurityContext> source = JWKSourceBuilder.<SecurityContext>create(new URL(jwksUri))
+                .cache(cacheTtl.toMillis(), JWKSourceBuilder.DEFAULT_CACHE_REFRESH_TIMEOUT)
+                .refreshAheadCache(refreshAhead.toMillis(), true)
+                .retrying(true)
+                .outageTolerant(true)
+                .build();
+        return new JwtKeys(algorithm, null, null, new JWKSet(), null, source);
+    }
+
+    boolean isAsymmetric() {
+        return macVerifier == null;
+    }
+
+    JWSSigner getSigner() {
+        return signer;
+    }
+
+    JWSHeader getSigningHeader() {
+        return signingHeader;
+    }
+
+    JWKSet getPublicJwkSet() {
+        return publicJwkSet;
+    }
+
+    /**
+     * 按令牌头选择验签器
+     *
+     * @return 算法不匹配、缺少 kid 或 kid 未知时返回 null
+     * @throws JOSEException
+     *         公钥集合获取失败
+     */
+    JWSVerifier verifierFor(JWSHeader header) throws JOSEException {
+        // 算法必须与配置一致，防止算法替换攻击
+        if (!algorithm.equals(header.getAlgorithm())) {
+            return null;
+        }
+        if (macVerifier != null) {
+            return macVerifier;
+        }
+
+        String keyId = header.getKeyID();
+        if (keyId == null) {
+            return null;
+        }
+        List<JWK> matched = jwkSource.get(new JWKSelector(new JWKMatcher.Builder()
+                .keyID(keyId)
+                .keyUses(KeyUse.SIGNATURE, null)
+                .build()), null);
+        if (matched.isEmpty()) {
+            return null;
+        }
+
+        JWK jwk = matched.get(0);
+        CachedVerifier cached = verifiers.get(keyId);
+        if (cached != null && cached.jwk().equals(jwk)) {
+            return cached.verifier();
+        }
+        JWSVerifier verifier = createVerifier(jwk);
+        verifiers.put(keyId, new CachedVerifier(jwk, verifier));
+        log.info("JWT验签公钥加载 - kid: {}, 类型: {}", keyId, jwk.getKeyType());
+        return verifier;
+    }
+
+    private static JWK generateKey(JWSAlgorithm algorithm) throws JOSEException {
+        String keyId = UUID.randomUUID().toString().replace("-", "");
+        log.warn("未配置JWT签名私钥，生成临时密钥（重启后失效，多实例部署必须配置 jwt.signing-jwk） - 算法: {}, kid: {}",
+                algorithm, keyId);
+        if (JWSAlgorithm.Family.EC.contains(algorithm)) {
+            return new ECKeyGenerator(Curve.forJWSAlgorithm(algorithm).iterator().next())
+                    .keyID(keyId)
+                    .keyUse(KeyUse.SIGNATURE)
+                    .algorithm(algorithm)
+                    .generate();
+        }
+        return new RSAKeyGenerator(2048)
+                .keyID(keyId)
+                .keyUse(KeyUse.SIGNATURE)
+                .algorithm(algorithm)
+                .generate();
+    }
+
+    private static JWSSigner createSigner(JWK jwk) throws JOSEException {
+        if (jwk instanceof RSAKey rsaKey) {
+            return new RSASSASigner(rsaKey);
+        }
+        if (jwk instanceof ECKey ecKey) {
+            return new ECDSASigner(ecKey);
+        }
+        throw new JOSEException("不支持的JWT签名密钥类型: " + jwk.getKeyType());
+    }
+
+    private static JWSVerifier createVerifier(JWK jwk) throws JOSEException {
+        if (jwk instanceof RSAKey rsaKey) {
+            return new RSASSAVerifier(rsaKey);
+        }
+        if (jwk instanceof ECKey ecKey) {
+            return new ECDSAVerifier(ecKey);
+        }
+        throw new JOSEException("不支持的JWT验签公钥类型: " + jwk.getKeyType());
+    }
+
+    private record CachedVerifier(JWK jwk, JWSVerifier verifier) {
+    }
+}
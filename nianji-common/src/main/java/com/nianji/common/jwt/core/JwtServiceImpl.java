@@ -5,20 +5,23 @@ import com.nianji.common.exception.ExceptionFactory;
 import com.nianji.common.jwt.api.JwtGenerator;
 import com.nianji.common.jwt.api.JwtValidator;
 import com.nianji.common.jwt.config.JwtProperties;
+import com.nianji.common.jwt.dto.IssuedToken;
 import com.nianji.common.jwt.dto.JwtDetails;
 import com.nianji.common.jwt.dto.JwtUserInfo;
+import com.nianji.common.jwt.dto.JwtVerification;
 import com.nimbusds.jose.*;
-import com.nimbusds.jose.crypto.MACSigner;
-import com.nimbusds.jose.crypto.MACVerifier;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
+import java.net.MalformedURLException;
 import java.text.ParseException;
 import java.util.Date;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
@@ -29,16 +32,23 @@ public class JwtServiceImpl implements JwtGenerator, JwtValidator {
 
     private final JwtProperties jwtProperties;
 
-    private JWSSigner signer;
-    private JWSVerifier verifier;
+    private JwtKeys keys;
 
     @PostConstruct
     public void init() {
         try {
-            this.signer = new MACSigner(jwtProperties.getSecret());
-            this.verifier = new MACVerifier(jwtProperties.getSecret());
-            log.info("JWT服务初始化成功");
-        } catch (JOSEException e) {
+            JWSAlgorithm algorithm = JWSAlgorithm.parse(jwtProperties.getAlgorithm());
+            if (JWSAlgorithm.Family.HMAC_SHA.contains(algorithm)) {
+                this.keys = JwtKeys.hmac(algorithm, jwtProperties.getSecret());
+            } else if (StringUtils.hasText(jwtProperties.getJwksUri())) {
+                this.keys = JwtKeys.remote(algorithm, jwtProperties.getJwksUri(),
+                        jwtProperties.getJwksCacheTtl(), jwtProperties.getJwksRefreshAhead());
+            } else {
+                this.keys = JwtKeys.local(algorithm, jwtProperties.getSigningJwk(), jwtProperties.getRetiredPublicJwks());
+            }
+            log.info("JWT服务初始化成功 - 算法: {}, 签发令牌: {}, JWKS: {}",
+                    algorithm, keys.getSigner() != null, jwtProperties.getJwksUri());
+        } catch (JOSEException | ParseException | MalformedURLException e) {
             log.error("JWT服务初始化失败", e);
             throw ExceptionFactory.authService(
                     ErrorCode.System.AUTH_SERVICE_ERROR,
@@ -57,22 +67,33 @@ public class JwtServiceImpl implements JwtGenerator, JwtValidator {
 
     @Override
     public String generateAccessToken(String username, Long userId) {
+        return issueAccessToken(username, userId).getToken();
+    }
+
+    @Override
+    public IssuedToken issueAccessToken(String username, Long userId) {
         return generateToken(username, userId, TOKEN_TYPE_ACCESS, jwtProperties.getExpiration(), null);
     }
 
     @Override
     public String generateAccessTokenWithCsrf(String username, Long userId, String csrfToken) {
-        return generateToken(username, userId, TOKEN_TYPE_ACCESS, jwtProperties.getExpiration(), csrfToken);
+        return generateToken(username, userId, TOKEN_TYPE_ACCESS, jwtProperties.getExpiration(), csrfToken)
+                .getToken();
     }
 
     @Override
     public String generateRefreshToken(String username, Long userId) {
+        return issueRefreshToken(username, userId).getToken();
+    }
+
+    @Override
+    public IssuedToken issueRefreshToken(String username, Long userId) {
         return generateToken(username, userId, TOKEN_TYPE_REFRESH, jwtProperties.getRefreshExpiration(), null);
     }
 
     @Override
     public String generateShortLivedToken(String username, Long userId, int minutes) {
-        return generateToken(username, userId, TOKEN_TYPE_SHORT, minutes * 60L, null);
+        return generateToken(username, userId, TOKEN_TYPE_SHORT, minutes * 60L, null).getToken();
     }
 
     @Override
@@ -115,30 +136,34 @@ public class JwtServiceImpl implements JwtGenerator, JwtValidator {
         }
     }
 
-    private String generateToken(String username, Long userId, String tokenType, long expiration, String csrfToken) {
+    private IssuedToken generateToken(String username, Long userId, String tokenType, long expiration,
+                                      String csrfToken) {
         try {
+            String tokenId = UUID.randomUUID().toString().replace("-", "");
+            Date expirationTime = new Date(System.currentTimeMillis() + expiration * 1000);
             JWTClaimsSet.Builder claimsBuilder = new JWTClaimsSet.Builder()
+                    .jwtID(tokenId)
                     .subject(username)
                     .claim(CLAIM_KEY_USER_ID, userId)
                     .claim(CLAIM_KEY_TOKEN_TYPE, tokenType)
                     .issuer(jwtProperties.getIssuer())
                     .issueTime(new Date())
-                    .expirationTime(new Date(System.currentTimeMillis() + expiration * 1000));
+                    .expirationTime(expirationTime);
 
             if (csrfToken != null) {
                 claimsBuilder.claim(CLAIM_KEY_CSRF_TOKEN, csrfToken);
             }
 
-            JWTClaimsSet claimsSet = claimsBuilder.build();
-            JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.HS256)
-                    .type(JOSEObjectType.JWT)
-                    .build();
+            JWSSigner signer = keys.getSigner();
+            if (signer == null) {
+                throw new JOSEException("当前服务只验证令牌，未配置签名密钥");
+            }
 
-            SignedJWT signedJWT = new SignedJWT(header, claimsSet);
+            SignedJWT signedJWT = new SignedJWT(keys.getSigningHeader(), claimsBuilder.build());
             signedJWT.sign(signer);
 
             log.debug("生成JWT令牌 - 用户: {}, 类型: {}, 有效期: {}秒", username, tokenType, expiration);
-            return signedJWT.serialize();
+            return new IssuedToken(signedJWT.serialize(), tokenId, expirationTime);
 
         } catch (JOSEException e) {
             log.error("JWT令牌生成失败 - 用户: {}, 类型: {}", username, tokenType, e);
@@ -157,7 +182,8 @@ public class JwtServiceImpl implements JwtGenerator, JwtValidator {
     public boolean validateToken(String token) {
         try {
             SignedJWT signedJWT = SignedJWT.parse(token);
-            boolean validSignature = signedJWT.verify(verifier);
+            JWSVerifier verifier = keys.verifierFor(signedJWT.getHeader());
+            boolean validSignature = verifier != null && signedJWT.verify(verifier);
             boolean notExpired = new Date().before(signedJWT.getJWTClaimsSet().getExpirationTime());
 
             if (!validSignature) {
@@ -193,29 +219,88 @@ public class JwtServiceImpl implements JwtGenerator, JwtValidator {
 
     @Override
     public JwtUserInfo validateAndGetUserInfo(String token) {
+        JwtUserInfo userInfo = parseValidToken(token);
         // 验证令牌有效性 - 客户端问题
-        if (!validateToken(token)) {
+        if (userInfo == null) {
             throw ExceptionFactory.authentication(
                     ErrorCode.Client.TOKEN_INVALID,
                     "无效的令牌"
             );
         }
+        return userInfo;
+    }
+
+    @Override
+    public JwtUserInfo parseValidToken(String token) {
+        JwtVerification verification = verify(token);
+        if (!verification.isValid()) {
+            log.warn("JWT令牌验证失败: {}", verification.getStatus());
+            return null;
+        }
+        return verification.getUserInfo();
+    }
+
+    @Override
+    public JwtVerification verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return JwtVerification.MALFORMED;
+        }
 
         try {
-            return JwtUserInfo.builder()
-                    .username(extractUsername(token))
-                    .userId(extractUserId(token))
-                    .issuedAt(extractIssuedAt(token))
-                    .expiration(extractExpiration(token))
-                    .tokenType(extractTokenType(token))
-                    .csrfToken(extractCsrfToken(token))
+            SignedJWT signedJWT = SignedJWT.parse(token);
+            // 先验签再解析声明，伪造的令牌不会走到 JSON 解析
+            JWSVerifier verifier = keys.verifierFor(signedJWT.getHeader());
+            if (verifier == null || !signedJWT.verify(verifier)) {
+                return JwtVerification.INVALID_SIGNATURE;
+            }
+
+            JWTClaimsSet claims = signedJWT.getJWTClaimsSet();
+            Date expiration = claims.getExpirationTime();
+            if (expiration == null) {
+                return JwtVerification.INVALID_CLAIMS;
+            }
+            if (expiration.getTime() <= System.currentTimeMillis()) {
+                return JwtVerification.EXPIRED;
+            }
+
+            JwtUserInfo userInfo = JwtUserInfo.builder()
+                    .tokenId(claims.getJWTID())
+                    .username(claims.getSubject())
+                    .userId(claims.getLongClaim(CLAIM_KEY_USER_ID))
+                    .issuedAt(claims.getIssueTime())
+                    .expiration(expiration)
+                    .tokenType(claims.getStringClaim(CLAIM_KEY_TOKEN_TYPE))
+                    .csrfToken(claims.getStringClaim(CLAIM_KEY_CSRF_TOKEN))
                     .build();
+            return userInfo.isValid() ? JwtVerification.valid(userInfo) : JwtVerification.INVALID_CLAIMS;
+        } catch (ParseException e) {
+            log.debug("JWT令牌解析失败: {}", e.getMessage());
+            return JwtVerification.MALFORMED;
+        } catch (JOSEException e) {
+            log.debug("JWT签名验证异常: {}", e.getMessage());
+            return JwtVerification.INVALID_SIGNATURE;
+        }
+    }
+
+    @Override
+    public boolean isAsymmetric() {
+        return keys.isAsymmetric();
+    }
+
+    @Override
+    public Map<String, Object> getPublicJwks() {
+        return keys.getPublicJwkSet().toJSONObject(true);
+    }
+
+    @Override
+    public String extractUsername(String token) {
+        try {
+            return extractClaims(token).getSubject();
         } catch (Exception e) {
-            log.error("提取用户信息失败", e);
             // 令牌解析失败 - 服务端问题
             throw ExceptionFactory.authService(
                     ErrorCode.System.TOKEN_PARSING_ERROR,
-                    "无法提取用户信息",
+                    "无法提取用户名",
                     "JWT",
                     "parse",
                     e
@@ -224,14 +309,14 @@ public class JwtServiceImpl implements JwtGenerator, JwtValidator {
     }
 
     @Override
-    public String extractUsername(String token) {
+    public Long extractUserId(String token) {
         try {
-            return extractClaims(token).getSubject();
+            return extractClaims(token).getLongClaim(CLAIM_KEY_USER_ID);
         } catch (Exception e) {
             // 令牌解析失败 - 服务端问题
             throw ExceptionFactory.authService(
                     ErrorCode.System.TOKEN_PARSING_ERROR,
-                    "无法提取用户名",
+                    "无法提取用户ID",
                     "JWT",
                     "parse",
                     e
@@ -240,14 +325,14 @@ public class JwtServiceImpl implements JwtGenerator, JwtValidator {
     }
 
     @Override
-    public Long extractUserId(String token) {
+    public String extractTokenId(String token) {
         try {
-            return extractClaims(token).getLongClaim(CLAIM_KEY_USER_ID);
+            return extractClaims(token).getJWTID();
         } catch (Exception e) {
             // 令牌解析失败 - 服务端问题
             throw ExceptionFactory.authService(
                     ErrorCode.System.TOKEN_PARSING_ERROR,
-                    "无法提取用户ID",
+                    "无法提取令牌ID",
                     "JWT",
                     "parse",
                     e
@@ -0,0 +1,29 @@
+package com.nianji.common.jwt.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Date;
+
+/**
+ * 新签发的令牌 签发时已知令牌ID和过期时间，调用方无需再解析刚生成的令牌
+ */
+@Getter
+@AllArgsConstructor
+public final class IssuedToken {
+
+    /**
+     * 令牌原文
+     */
+    private final String token;
+
+    /**
+     * 令牌ID（jti）
+     */
+    private final String tokenId;
+
+    /**
+     * 过期时间
+     */
+    private final Date expiration;
+}
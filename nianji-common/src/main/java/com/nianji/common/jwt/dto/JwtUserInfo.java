@@ -12,6 +12,10 @@ import java.util.List;
 @Data
 @Builder
 public class JwtUserInfo {
+    /**
+     * 令牌ID（jti），用于令牌到会话的反向索引
+     */
+    private String tokenId;
     private String username;
     private Long userId;
     private List<String> roles;
@@ -0,0 +1,58 @@
+package com.nianji.common.jwt.dto;
+
+import lombok.Getter;
+
+/**
+ * JWT令牌验证结果 验证失败以结果返回而不是抛出异常，失败结果为共享常量，不产生额外分配
+ */
+@Getter
+public final class JwtVerification {
+
+    public enum Status {
+        /**
+         * 验证通过
+         */
+        VALID,
+        /**
+         * 令牌为空或格式错误
+         */
+        MALFORMED,
+        /**
+         * 签名不匹配
+         */
+        INVALID_SIGNATURE,
+        /**
+         * 已过期
+         */
+        EXPIRED,
+        /**
+         * 缺少必要声明（用户名、用户ID、过期时间）
+         */
+        INVALID_CLAIMS
+    }
+
+    public static final JwtVerification MALFORMED = new JwtVerification(Status.MALFORMED, null);
+    public static final JwtVerification INVALID_SIGNATURE = new JwtVerification(Status.INVALID_SIGNATURE, null);
+    public static final JwtVerification EXPIRED = new JwtVerification(Status.EXPIRED, null);
+    public static final JwtVerification INVALID_CLAIMS = new JwtVerification(Status.INVALID_CLAIMS, null);
+
+    private final Status status;
+
+    /**
+     * 令牌声明，仅验证通过时非空
+     */
+    private final JwtUserInfo userInfo;
+
+    private JwtVerification(Status status, JwtUserInfo userInfo) {
+        this.status = status;
+        this.userInfo = userInfo;
+    }
+
+    public static JwtVerification valid(JwtUserInfo userInfo) {
+        return new JwtVerification(Status.VALID, userInfo);
+    }
+
+    public boolean isValid() {
+        return status == Status.VALID;
+    }
+}
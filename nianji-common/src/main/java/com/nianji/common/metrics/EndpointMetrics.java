@@ -0,0 +1,79 @@
+package com.nianji.common.metrics;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个接口的请求统计 由 {@link EndpointMetricsRegistry} 按 路由模板+请求方法 维护
+ * <p>
+ * 记录路径无锁；请求数为累计值，耗时分位值只统计最近的滑动窗口； 快照最多每秒合并一次直方图，同一轮导出的多个分位指标共用一份快照
+ */
+public final class EndpointMetrics {
+
+    private static final long SNAPSHOT_TTL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    @Getter
+    private final String route;
+    @Getter
+    private final String method;
+
+    private final WindowedLatencyHistogram histogram;
+    private final LongAdder successCount = new LongAdder();
+    private final LongAdder failureCount = new LongAdder();
+
+    private volatile LatencySnapshot cachedSnapshot;
+    private volatile long cachedAtNanos;
+
+    EndpointMetrics(String route, String method, Duration expiry, int bufferLength) {
+        this.route = route;
+        this.method = method;
+        this.histogram = new WindowedLatencyHistogram(expiry, bufferLength);
+    }
+
+    /**
+     * 记录一次请求
+     *
+     * @param durationNanos
+     *         请求耗时（纳秒）
+     * @param success
+     *         是否成功
+     */
+    public void record(long durationNanos, boolean success) {
+        histogram.record(TimeUnit.NANOSECONDS.toMicros(durationNanos));
+        if (success) {
+            successCount.increment();
+        } else {
+            failureCount.increment();
+        }
+    }
+
+    public long getSuccessCount() {
+        return successCount.sum();
+    }
+
+    public long getFailureCount() {
+        return failureCount.sum();
+    }
+
+    public long getTotalCount() {
+        return successCount.sum() + failureCount.sum();
+    }
+
+    /**
+     * 获取滑动窗口内的延迟快照（最多缓存 1 秒）
+     */
+    public LatencySnapshot snapshot() {
+        LatencySnapshot snapshot = cachedSnapshot;
+        long now = System.nanoTime();
+        if (snapshot == null || now - cachedAtNanos > SNAPSHOT_TTL_NANOS) {
+            // 并发刷新时可能重复合并，结果一致，无需加锁
+            snapshot = LatencySnapshot.of(histogram);
+            cachedSnapshot = snapshot;
+            cachedAtNanos = now;
+        }
+        return snapshot;
+    }
+}
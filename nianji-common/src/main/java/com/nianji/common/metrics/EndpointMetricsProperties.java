@@ -0,0 +1,39 @@
+package com.nianji.common.metrics;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 接口统计配置 由各服务的配置类通过 @EnableConfigurationProperties 注册
+ */
+@Data
+@ConfigurationProperties(prefix = "endpoint-metrics")
+public class EndpointMetricsProperties {
+
+    /**
+     * 是否启用接口统计
+     */
+    private boolean enabled = true;
+
+    /**
+     * 最多统计的接口数（方法+路由），超出部分合并为一项
+     */
+    private int maxEndpoints = 500;
+
+    /**
+     * Micrometer 指标名前缀
+     */
+    private String meterPrefix = "nianji.endpoint";
+
+    /**
+     * 耗时分位值的统计窗口，与 Micrometer 的 distributionStatisticExpiry 含义一致
+     */
+    private Duration distributionExpiry = Duration.ofMinutes(2);
+
+    /**
+     * 窗口内轮换的直方图个数，每隔 distributionExpiry / distributionBufferLength 轮换一次
+     */
+    private int distributionBufferLength = 3;
+}
@@ -0,0 +1,169 @@
+package com.nianji.common.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * 接口请求统计注册表 servlet 服务和网关共用
+ * <p>
+ * 统计按 请求方法 -> 路由模板 两级 Map 保存，查找不拼接字符串； 路由必须是模板（如 /api/user/{id}）或网关路由 ID，而不是原始 URI，
+ * 否则路径参数会让统计项无限增长。 统计项数量达到上限后，新出现的接口计入溢出项 {@link #OVERFLOW_ROUTE}
+ */
+@Slf4j
+public class EndpointMetricsRegistry {
+
+    /**
+     * 未匹配到路由的请求
+     */
+    public static final String UNMATCHED_ROUTE = "UNMATCHED";
+
+    /**
+     * 超出统计上限的接口
+     */
+    public static final String OVERFLOW_ROUTE = "OTHER";
+
+    private static final String OVERFLOW_METHOD = "*";
+
+    private final Map<String, Map<String, EndpointMetrics>> metricsByMethod = new ConcurrentHashMap<>();
+    private final AtomicInteger endpointCount = new AtomicInteger();
+    private final EndpointMetricsProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final EndpointMetrics overflow;
+
+    /**
+     * @param meterRegistry
+     *         Micrometer 注册表，为 null 时不导出
+     */
+    public EndpointMetricsRegistry(EndpointMetricsProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.overflow = newMetrics(OVERFLOW_ROUTE, OVERFLOW_METHOD);
+        bindMeters(overflow);
+    }
+
+    /**
+     * 记录一次请求
+     *
+     * @param method
+     *         请求方法
+     * @param route
+     *         路由模板，为空时计入 {@link #UNMATCHED_ROUTE}
+     * @param durationNanos
+     *         请求耗时（纳秒）
+     * @param success
+     *         是否成功
+     */
+    public void record(String method, String route, long durationNanos, boolean success) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        getOrCreate(method, route).record(durationNanos, success);
+    }
+
+    /**
+     * 获取接口统计，不存在时创建（超出上限返回溢出项）
+     */
+    public EndpointMetrics getOrCreate(String method, String route) {
+        String safeMethod = method != null ? method : OVERFLOW_METHOD;
+        String safeRoute = route != null && !route.isEmpty() ? route : UNMATCHED_ROUTE;
+
+        Map<String, EndpointMetrics> byRoute = metricsByMethod.computeIfAbsent(safeMethod,
+                key -> new ConcurrentHashMap<>());
+        EndpointMetrics metrics = byRoute.get(safeRoute);
+        if (metrics != null) {
+            return metrics;
+        }
+        return create(byRoute, safeMethod, safeRoute);
+    }
+
+    /**
+     * 所有接口统计（含溢出项）
+     */
+    public List<EndpointMetrics> getAll() {
+        List<EndpointMetrics> all = metricsByMethod.values().stream()
+                .map(Map::values)
+                .flatMap(Collection::stream)
+                .collect(Collectors.toCollection(ArrayList::new));
+        all.add(overflow);
+        return all;
+    }
+
+    private EndpointMetrics create(Map<String, EndpointMetrics> byRoute, String method, String route) {
+        if (endpointCount.get() >= properties.getMaxEndpoints()) {
+            return overflow;
+        }
+        EndpointMetrics[] created = new EndpointMetrics[1];
+        EndpointMetrics metrics = byRoute.computeIfAbsent(route, key -> {
+            if (endpointCount.incrementAndGet() > properties.getMaxEndpoints()) {
+                endpointCount.decrementAndGet();
+                return null;
+            }
+            created[0] = newMetrics(key, method);
+            return created[0];
+        });
+        if (metrics == null) {
+            log.warn("接口统计数量已达上限 {}，后续接口计入 {} - 方法: {}, 路由: {}",
+                    properties.getMaxEndpoints(), OVERFLOW_ROUTE, method, route);
+            return overflow;
+        }
+        if (created[0] != null) {
+            bindMeters(created[0]);
+        }
+        return metrics;
+    }
+
+    private EndpointMetrics newMetrics(String route, String method) {
+        return new EndpointMetrics(route, method,
+                properties.getDistributionExpiry(), properties.getDistributionBufferLength());
+    }
+
+    private void bindMeters(EndpointMetrics metrics) {
+        if (meterRegistry == null) {
+            return;
+        }
+        String prefix = properties.getMeterPrefix();
+        Tags tags = Tags.of("uri", metrics.getRoute(), "method", metrics.getMethod());
+
+        FunctionCounter.builder(prefix + ".requests", metrics, EndpointMetrics::getSuccessCount)
+                .tags(tags).tag("outcome", "SUCCESS")
+                .description("接口请求数")
+                .register(meterRegistry);
+        FunctionCounter.builder(prefix + ".requests", metrics, EndpointMetrics::getFailureCount)
+                .tags(tags).tag("outcome", "FAILURE")
+                .description("接口请求数")
+                .register(meterRegistry);
+
+        bindLatency(prefix, tags, metrics, "0.5", LatencySnapshot::getP50);
+        bindLatency(prefix, tags, metrics, "0.9", LatencySnapshot::getP90);
+        bindLatency(prefix, tags, metrics, "0.99", LatencySnapshot::getP99);
+        bindLatency(prefix, tags, metrics, "0.999", LatencySnapshot::getP999);
+        Gauge.builder(prefix + ".latency.max", metrics, m -> microsToMillis(m.snapshot().getMax()))
+                .tags(tags).baseUnit("milliseconds")
+                .description("接口最大耗时（滑动窗口）")
+                .register(meterRegistry);
+    }
+
+    private void bindLatency(String prefix, Tags tags, EndpointMetrics metrics, String quantile,
+                             ToLongFunction<LatencySnapshot> extractor) {
+        Gauge.builder(prefix + ".latency", metrics, m -> microsToMillis(extractor.applyAsLong(m.snapshot())))
+                .tags(tags).tag("quantile", quantile).baseUnit("milliseconds")
+                .description("接口耗时分位值（滑动窗口）")
+                .register(meterRegistry);
+    }
+
+    private static double microsToMillis(long micros) {
+        return micros / 1000.0;
+    }
+}
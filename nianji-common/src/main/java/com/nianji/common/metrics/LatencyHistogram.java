@@ -0,0 +1,129 @@
+package com.nianji.common.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 无锁分段延迟直方图 HDR 风格的对数-线性分桶，单位微秒
+ * <p>
+ * 每个 2 的幂区间再细分 {@link #SUB_BUCKETS} 个线性子桶，相对误差约 6%，上限约 71 分钟（超出部分计入最后一个桶）。 写入按线程分散到多个
+ * stripe，每个 stripe 是一个 AtomicLongArray，记录只做一次数组下标计算和两次原子加，不加锁、不分配对象；读取时合并各 stripe
+ */
+public final class LatencyHistogram {
+
+    /**
+     * 子桶位数
+     */
+    static final int SUB_BUCKET_BITS = 4;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * 可记录的最大值位数（2^32 微秒）
+     */
+    static final int MAX_VALUE_BITS = 32;
+    static final long MAX_VALUE = (1L << MAX_VALUE_BITS) - 1;
+
+    static final int BUCKET_COUNT = (MAX_VALUE_BITS - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    /**
+     * 每个 stripe 末尾的统计槽：总和、最大值
+     */
+    private static final int SUM_SLOT = BUCKET_COUNT;
+    private static final int MAX_SLOT = BUCKET_COUNT + 1;
+    private static final int STRIPE_LENGTH = BUCKET_COUNT + 2;
+
+    private final AtomicLongArray[] stripes;
+    private final int stripeMask;
+
+    public LatencyHistogram() {
+        this(defaultStripeCount());
+    }
+
+    public LatencyHistogram(int stripeCount) {
+        int count = Integer.highestOneBit(Math.max(1, stripeCount));
+        this.stripes = new AtomicLongArray[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new AtomicLongArray(STRIPE_LENGTH);
+        }
+        this.stripeMask = count - 1;
+    }
+
+    /**
+     * 记录一次耗时
+     *
+     * @param micros
+     *         耗时（微秒），负值按 0 处理
+     */
+    public void record(long micros) {
+        long value = Math.min(Math.max(micros, 0L), MAX_VALUE);
+        AtomicLongArray stripe = stripes[stripeIndex()];
+        stripe.incrementAndGet(bucketIndex(value));
+        stripe.addAndGet(SUM_SLOT, value);
+        long currentMax = stripe.get(MAX_SLOT);
+        // 绝大多数请求不会刷新最大值，先读后写避免无谓的 CAS
+        while (value > currentMax && !stripe.compareAndSet(MAX_SLOT, currentMax, value)) {
+            currentMax = stripe.get(MAX_SLOT);
+        }
+    }
+
+    /**
+     * 合并各 stripe 的累计计数，结果写入 counts（长度至少为 BUCKET_COUNT）
+     *
+     * @return 长度为 2 的数组：[总和, 最大值]
+     */
+    long[] collect(long[] counts) {
+        long sum = 0;
+        long max = 0;
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                counts[i] += stripe.get(i);
+            }
+            sum += stripe.get(SUM_SLOT);
+            max = Math.max(max, stripe.get(MAX_SLOT));
+        }
+        return new long[]{sum, max};
+    }
+
+    /**
+     * 清空所有计数，由 {@link WindowedLatencyHistogram} 在轮换时调用
+     */
+    void reset() {
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < STRIPE_LENGTH; i++) {
+                stripe.set(i, 0L);
+            }
+        }
+    }
+
+    /**
+     * 计算值所在的桶下标
+     */
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    /**
+     * 桶的上界（含），用于估算分位值
+     */
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long mantissa = SUB_BUCKETS + (index % SUB_BUCKETS);
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    private int stripeIndex() {
+        long id = Thread.currentThread().getId();
+        return (int) (id ^ (id >>> 16)) & stripeMask;
+    }
+
+    private static int defaultStripeCount() {
+        return Math.min(8, Integer.highestOneBit(Runtime.getRuntime().availableProcessors()));
+    }
+}
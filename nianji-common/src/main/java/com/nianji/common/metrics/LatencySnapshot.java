@@ -0,0 +1,73 @@
+package com.nianji.common.metrics;
+
+import lombok.Getter;
+
+/**
+ * 延迟直方图快照 不可变，分位值按桶上界估算，单位微秒
+ */
+@Getter
+public final class LatencySnapshot {
+
+    private final long count;
+    private final long sum;
+    private final long max;
+    private final long p50;
+    private final long p90;
+    private final long p99;
+    private final long p999;
+
+    private LatencySnapshot(long[] counts, long sum, long max) {
+        long total = 0;
+        for (int i = 0; i < LatencyHistogram.BUCKET_COUNT; i++) {
+            total += counts[i];
+        }
+        this.count = total;
+        this.sum = sum;
+        this.max = max;
+        this.p50 = valueAtPercentile(counts, total, max, 0.5);
+        this.p90 = valueAtPercentile(counts, total, max, 0.9);
+        this.p99 = valueAtPercentile(counts, total, max, 0.99);
+        this.p999 = valueAtPercentile(counts, total, max, 0.999);
+    }
+
+    /**
+     * 合并直方图当前数据生成快照
+     */
+    public static LatencySnapshot of(LatencyHistogram histogram) {
+        long[] counts = new long[LatencyHistogram.BUCKET_COUNT];
+        long[] totals = histogram.collect(counts);
+        return new LatencySnapshot(counts, totals[0], totals[1]);
+    }
+
+    /**
+     * 合并滑动窗口内的数据生成快照
+     */
+    public static LatencySnapshot of(WindowedLatencyHistogram histogram) {
+        long[] counts = new long[LatencyHistogram.BUCKET_COUNT];
+        long[] totals = histogram.collect(counts);
+        return new LatencySnapshot(counts, totals[0], totals[1]);
+    }
+
+    /**
+     * 平均耗时（微秒）
+     */
+    public double getMean() {
+        return count == 0 ? 0.0 : (double) sum / count;
+    }
+
+    private static long valueAtPercentile(long[] counts, long total, long max, double percentile) {
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1L, (long) Math.ceil(total * percentile));
+        long seen = 0;
+        for (int i = 0; i < LatencyHistogram.BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                // 桶上界可能超过实际最大值，取二者较小值
+                return Math.min(LatencyHistogram.bucketUpperBound(i), max);
+            }
+        }
+        return max;
+    }
+}
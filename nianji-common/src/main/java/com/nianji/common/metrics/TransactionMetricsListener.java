@@ -0,0 +1,74 @@
+package com.nianji.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 事务耗时统计 由 Spring Boot 自动注册到事务管理器
+ * <p>
+ * JDBC 事务从开始到提交/回滚一直占用一个数据库连接，这段时间就是事务内的连接占用时间，按事务名（类名.方法名）导出为
+ * {@code nianji.transaction.duration}；事务外的连接占用见 Hikari 自带的 {@code hikaricp.connections.usage}
+ */
+public class TransactionMetricsListener implements TransactionExecutionListener {
+
+    private static final String METER_NAME = "nianji.transaction.duration";
+
+    /**
+     * 当前线程上进行中的事务开始时间，REQUIRES_NEW 会嵌套开启新事务，按栈处理
+     */
+    private static final ThreadLocal<Deque<Long>> START_NANOS = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * @param meterRegistry
+     *         为空时不统计
+     */
+    public TransactionMetricsListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+        if (meterRegistry != null && beginFailure == null && transaction.isNewTransaction()) {
+            START_NANOS.get().push(System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        record(transaction, commitFailure == null ? "COMMIT" : "COMMIT_FAILURE");
+    }
+
+    @Override
+    public void afterRollback(TransactionExecution transaction, Throwable rollbackFailure) {
+        record(transaction, "ROLLBACK");
+    }
+
+    private void record(TransactionExecution transaction, String outcome) {
+        if (meterRegistry == null || !transaction.isNewTransaction()) {
+            return;
+        }
+        Deque<Long> starts = START_NANOS.get();
+        Long start = starts.poll();
+        if (starts.isEmpty()) {
+            START_NANOS.remove();
+        }
+        if (start == null) {
+            return;
+        }
+        String name = transaction.getTransactionName();
+        Timer.builder(METER_NAME)
+                .tag("name", name != null && !name.isEmpty() ? name : "UNNAMED")
+                .tag("outcome", outcome)
+                .description("事务耗时（事务内数据库连接占用时间）")
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,78 @@
+package com.nianji.common.metrics;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 滑动窗口延迟直方图 由 bufferLength 个 {@link LatencyHistogram} 组成的环，单位微秒
+ * <p>
+ * 每隔 expiry / bufferLength 切换到下一个直方图并清空其旧数据，读取时只合并窗口内的直方图， 因此导出的分位值反映最近约 expiry
+ * 时间内的请求，而不是进程启动以来的累计值。 记录只写当前直方图，轮换在同步块内完成，每个周期最多发生一次
+ */
+public final class WindowedLatencyHistogram {
+
+    private final LatencyHistogram[] ring;
+    private final AtomicLongArray epochs;
+    private final long rotateNanos;
+
+    public WindowedLatencyHistogram(Duration expiry, int bufferLength) {
+        int length = Math.max(1, bufferLength);
+        this.ring = new LatencyHistogram[length];
+        this.epochs = new AtomicLongArray(length);
+        for (int i = 0; i < length; i++) {
+            ring[i] = new LatencyHistogram();
+            epochs.set(i, Long.MIN_VALUE);
+        }
+        this.rotateNanos = Math.max(1L, expiry.toNanos() / length);
+    }
+
+    /**
+     * 记录一次耗时
+     *
+     * @param micros
+     *         耗时（微秒）
+     */
+    public void record(long micros) {
+        long epoch = currentEpoch();
+        int slot = slotOf(epoch);
+        if (epochs.get(slot) < epoch) {
+            rotate(slot, epoch);
+        }
+        ring[slot].record(micros);
+    }
+
+    /**
+     * 合并窗口内各直方图的计数，结果写入 counts（长度至少为 BUCKET_COUNT）
+     *
+     * @return 长度为 2 的数组：[总和, 最大值]
+     */
+    long[] collect(long[] counts) {
+        long oldest = currentEpoch() - ring.length + 1;
+        long sum = 0;
+        long max = 0;
+        for (int i = 0; i < ring.length; i++) {
+            if (epochs.get(i) >= oldest) {
+                long[] totals = ring[i].collect(counts);
+                sum += totals[0];
+                max = Math.max(max, totals[1]);
+            }
+        }
+        return new long[]{sum, max};
+    }
+
+    private synchronized void rotate(int slot, long epoch) {
+        // 并发记录的线程在这里排队，只有第一个清空旧数据
+        if (epochs.get(slot) < epoch) {
+            ring[slot].reset();
+            epochs.set(slot, epoch);
+        }
+    }
+
+    private long currentEpoch() {
+        return Math.floorDiv(System.nanoTime(), rotateNanos);
+    }
+
+    private int slotOf(long epoch) {
+        return (int) Math.floorMod(epoch, (long) ring.length);
+    }
+}
@@ -2,6 +2,8 @@ package com.nianji.common.ratelimit.aspect;
 
 import cn.hutool.core.util.ObjectUtil;
 import cn.hutool.core.util.StrUtil;
+import com.nianji.common.identity.InternalIdentity;
+import com.nianji.common.identity.InternalIdentityFilter;
 import com.nianji.common.exception.ExceptionFactory;
 import com.nianji.common.exception.client.RateLimitException;
 import com.nianji.common.ratelimit.api.RateLimitService;
@@ -275,27 +277,20 @@ public class RateLimitAspect {
         }
     }
 
+    /**
+     * 用户ID只取自网关签名的内部身份头，客户端可以伪造的 X-User-Id 请求头和 userId 参数不再采信；
+     * 没有已验证身份时按IP限流
+     */
     private String extractUserIdFromRequest(HttpServletRequest request) {
         if (request == null) {
             return "anonymous";
         }
 
-        try {
-            String userId = request.getHeader("X-User-Id");
-            if (StrUtil.isNotBlank(userId)) {
-                return userId;
-            }
-
-            userId = request.getParameter("userId");
-            if (StrUtil.isNotBlank(userId)) {
-                return userId;
-            }
-
-            return "user_" + (request.getSession(false) != null ? request.getSession().getId() : "anonymous");
-        } catch (Exception e) {
-            log.debug("提取用户ID失败: {}", e.getMessage());
-            return "anonymous";
+        InternalIdentity identity = InternalIdentityFilter.current();
+        if (identity != null && identity.getUserId() != null) {
+            return String.valueOf(identity.getUserId());
         }
+        return "ip_" + IpUtil.getIpAddr(request);
     }
 
     private String extractTargetFromRequest(HttpServletRequest request) {
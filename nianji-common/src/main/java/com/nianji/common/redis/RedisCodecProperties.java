@@ -0,0 +1,41 @@
+package com.nianji.common.redis;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Redis 值编码配置 读取始终兼容两种格式，写入格式切换前需先让所有节点升级到能读取紧凑格式的版本
+ */
+@Data
+@ConfigurationProperties(prefix = "redis-codec")
+public class RedisCodecProperties {
+
+    /**
+     * 写入格式
+     */
+    private WriteFormat writeFormat = WriteFormat.JSON;
+
+    /**
+     * 编码后超过该字节数的值使用 LZ4 压缩，0 表示不压缩
+     */
+    private int compressionThreshold = 512;
+
+    /**
+     * 按结构编码的热点类型（短名 -> 类名），值中只记录短名；短名写入 Redis 后不能再修改或复用
+     */
+    private Map<String, String> types = new LinkedHashMap<>();
+
+    public enum WriteFormat {
+        /**
+         * 带类型信息的 JSON（旧格式，不加版本头）
+         */
+        JSON,
+        /**
+         * 带版本头的紧凑格式：注册类型按结构编码，大值压缩
+         */
+        COMPACT
+    }
+}
@@ -0,0 +1,21 @@
+package com.nianji.common.redis;
+
+/**
+ * Redis 值编码器，由 {@link VersionedRedisSerializer} 按版本头中的编码标识选择
+ */
+public interface RedisValueCodec {
+
+    /**
+     * 编码标识，写入版本头，一经使用不能修改
+     */
+    byte id();
+
+    /**
+     * 是否由该编码器写入
+     */
+    boolean supports(Object value);
+
+    byte[] encode(Object value);
+
+    Object decode(byte[] bytes, int offset, int length);
+}
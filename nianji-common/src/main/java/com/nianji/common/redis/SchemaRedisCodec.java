@@ -0,0 +1,99 @@
+package com.nianji.common.redis;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 注册类型的结构编码
+ * <p>
+ * 格式为 短名长度(1字节) + 短名 + 字段 JSON：类型由短名确定，字段中不再写 @class 类名，空字段省略；
+ * 反序列化忽略未知字段，类型增删字段后旧值仍能读取
+ */
+public class SchemaRedisCodec implements RedisValueCodec {
+
+    public static final byte ID = 2;
+
+    private static final int MAX_ALIAS_LENGTH = 64;
+
+    private final Map<Class<?>, Binding> byType = new HashMap<>();
+    private final Map<String, Binding> byAlias = new HashMap<>();
+
+    public SchemaRedisCodec(Map<String, Class<?>> types) {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+        types.forEach((alias, type) -> {
+            byte[] aliasBytes = alias.getBytes(StandardCharsets.UTF_8);
+            if (aliasBytes.length == 0 || aliasBytes.length > MAX_ALIAS_LENGTH) {
+                throw new IllegalArgumentException("Redis 编码类型短名长度必须在1到" + MAX_ALIAS_LENGTH + "字节之间: " + alias);
+            }
+            Binding binding = new Binding(aliasBytes, objectMapper.writerFor(type), objectMapper.readerFor(type));
+            if (byType.putIfAbsent(type, binding) != null) {
+                throw new IllegalArgumentException("Redis 编码类型重复注册: " + type.getName());
+            }
+            byAlias.put(alias, binding);
+        });
+    }
+
+    @Override
+    public byte id() {
+        return ID;
+    }
+
+    @Override
+    public boolean supports(Object value) {
+        return byType.containsKey(value.getClass());
+    }
+
+    @Override
+    public byte[] encode(Object value) {
+        Binding binding = byType.get(value.getClass());
+        try {
+            byte[] body = binding.writer.writeValueAsBytes(value);
+            byte[] bytes = new byte[1 + binding.alias.length + body.length];
+            bytes[0] = (byte) binding.alias.length;
+            System.arraycopy(binding.alias, 0, bytes, 1, binding.alias.length);
+            System.arraycopy(body, 0, bytes, 1 + binding.alias.length, body.length);
+            return bytes;
+        } catch (IOException e) {
+            throw new SerializationException("结构编码失败: " + value.getClass().getName(), e);
+        }
+    }
+
+    @Override
+    public Object decode(byte[] bytes, int offset, int length) {
+        int aliasLength = bytes[offset] & 0xFF;
+        if (aliasLength == 0 || aliasLength >= length) {
+            throw new SerializationException("结构编码数据格式错误");
+        }
+        String alias = new String(bytes, offset + 1, aliasLength, StandardCharsets.UTF_8);
+        Binding binding = byAlias.get(alias);
+        if (binding == null) {
+            throw new SerializationException("未注册的 Redis 编码类型: " + alias);
+        }
+
+        int bodyOffset = offset + 1 + aliasLength;
+        try {
+            return binding.reader.readValue(bytes, bodyOffset, length - 1 - aliasLength);
+        } catch (IOException e) {
+            throw new SerializationException("结构解码失败: " + alias, e);
+        }
+    }
+
+    private record Binding(byte[] alias, ObjectWriter writer, ObjectReader reader) {
+    }
+}
@@ -0,0 +1,184 @@
+package com.nianji.common.redis;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.List;
+
+/**
+ * 带版本头的 Redis 值序列化器
+ * <p>
+ * 紧凑格式为 魔数(1) + 格式版本(1) + 编码标识(1) + 标志位(1) [+ 原始长度(4)] + 数据。魔数 0xA7 在 UTF-8 中
+ * 只能是续字节，不会出现在 JSON 开头，因此没有版本头的值都按旧版带类型 JSON 读取，旧值在下次写入时自然迁移。
+ * <p>
+ * 字符串、数字、布尔值始终按旧格式写入，不影响 INCR 和脚本读取；未注册类型的小值加版本头没有收益，也按旧格式写入
+ */
+public class VersionedRedisSerializer implements RedisSerializer<Object> {
+
+    private static final byte MAGIC = (byte) 0xA7;
+    private static final byte FORMAT_VERSION = 1;
+    private static final byte FLAG_LZ4 = 0x01;
+
+    private static final int HEADER_LENGTH = 4;
+    private static final int RAW_LENGTH_BYTES = 4;
+
+    /**
+     * 解压后的最大长度，防止损坏数据导致超大分配
+     */
+    private static final int MAX_RAW_LENGTH = 64 * 1024 * 1024;
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final RedisValueCodec fallbackCodec;
+    private final List<RedisValueCodec> codecs;
+    private final RedisValueCodec[] codecsById = new RedisValueCodec[256];
+    private final boolean compact;
+    private final int compressionThreshold;
+
+    private final LZ4Compressor compressor;
+    private final LZ4FastDecompressor decompressor;
+
+    /**
+     * @param fallbackCodec
+     *         可编码任意值的兜底编码器，同时用于读取旧格式
+     * @param codecs
+     *         按顺序匹配的编码器
+     */
+    public VersionedRedisSerializer(RedisValueCodec fallbackCodec, List<RedisValueCodec> codecs,
+                                    RedisCodecProperties properties) {
+        this.fallbackCodec = fallbackCodec;
+        this.codecs = List.copyOf(codecs);
+        this.compact = properties.getWriteFormat() == RedisCodecProperties.WriteFormat.COMPACT;
+        this.compressionThreshold = properties.getCompressionThreshold();
+
+        register(fallbackCodec);
+        this.codecs.forEach(this::register);
+
+        LZ4Factory factory = LZ4Factory.fastestInstance();
+        this.compressor = factory.fastCompressor();
+        this.decompressor = factory.fastDecompressor();
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return EMPTY;
+        }
+        if (!compact || value instanceof CharSequence || value instanceof Number || value instanceof Boolean) {
+            return fallbackCodec.encode(value);
+        }
+
+        RedisValueCodec codec = select(value);
+        byte[] payload = codec.encode(value);
+        if (compressionThreshold > 0 && payload.length >= compressionThreshold) {
+            byte[] compressed = compress(codec, payload);
+            if (compressed != null) {
+                return compressed;
+            }
+        }
+        if (codec == fallbackCodec) {
+            return payload;
+        }
+
+        byte[] bytes = new byte[HEADER_LENGTH + payload.length];
+        writeHeader(bytes, codec, (byte) 0);
+        System.arraycopy(payload, 0, bytes, HEADER_LENGTH, payload.length);
+        return bytes;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            return fallbackCodec.decode(bytes, 0, bytes.length);
+        }
+        if (bytes.length < HEADER_LENGTH || bytes[1] != FORMAT_VERSION) {
+            throw new SerializationException("不支持的 Redis 值格式版本: " + (bytes.length > 1 ? bytes[1] : "?"));
+        }
+
+        RedisValueCodec codec = codecsById[bytes[2] & 0xFF];
+        if (codec == null) {
+            throw new SerializationException("未知的 Redis 值编码: " + bytes[2]);
+        }
+        if ((bytes[3] & FLAG_LZ4) == 0) {
+            return codec.decode(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH);
+        }
+
+        int rawLength = readInt(bytes, HEADER_LENGTH);
+        if (rawLength <= 0 || rawLength > MAX_RAW_LENGTH) {
+            throw new SerializationException("Redis 值原始长度异常: " + rawLength);
+        }
+        byte[] raw = new byte[rawLength];
+        try {
+            decompressor.decompress(bytes, HEADER_LENGTH + RAW_LENGTH_BYTES, raw, 0, rawLength);
+        } catch (LZ4Exception e) {
+            throw new SerializationException("Redis 值解压失败", e);
+        }
+        return codec.decode(raw, 0, rawLength);
+    }
+
+    private RedisValueCodec select(Object value) {
+        for (RedisValueCodec codec : codecs) {
+            if (codec.supports(value)) {
+                return codec;
+            }
+        }
+        return fallbackCodec;
+    }
+
+    /**
+     * 压缩后没有变小时返回 null
+     */
+    private byte[] compress(RedisValueCodec codec, byte[] payload) {
+        int offset = HEADER_LENGTH + RAW_LENGTH_BYTES;
+        byte[] buffer = new byte[offset + compressor.maxCompressedLength(payload.length)];
+        int compressedLength = compressor.compress(payload, 0, payload.length, buffer, offset);
+        if (offset + compressedLength >= HEADER_LENGTH + payload.length) {
+            return null;
+        }
+
+        writeHeader(buffer, codec, FLAG_LZ4);
+        writeInt(buffer, HEADER_LENGTH, payload.length);
+        byte[] bytes = new byte[offset + compressedLength];
+        System.arraycopy(buffer, 0, bytes, 0, bytes.length);
+        return bytes;
+    }
+
+    private void register(RedisValueCodec codec) {
+        int id = codec.id() & 0xFF;
+        if (codecsById[id] != null && codecsById[id] != codec) {
+            throw new IllegalArgumentException("Redis 值编码标识重复: " + id);
+        }
+        codecsById[id] = codec;
+    }
+
+    private static void writeHeader(byte[] bytes, RedisValueCodec codec, byte flags) {
+        bytes[0] = MAGIC;
+        bytes[1] = FORMAT_VERSION;
+        bytes[2] = codec.id();
+        bytes[3] = flags;
+    }
+
+    private static void writeInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        if (bytes.length < offset + 4) {
+            throw new SerializationException("Redis 值数据不完整");
+        }
+        return (bytes[offset] & 0xFF) << 24
+                | (bytes[offset + 1] & 0xFF) << 16
+                | (bytes[offset + 2] & 0xFF) << 8
+                | bytes[offset + 3] & 0xFF;
+    }
+}
@@ -66,4 +66,44 @@ public class EncryptionConfig {
      * 是否启用自动轮换
      */
     private boolean autoRotation = true;
+
+    /**
+     * 集群共享密钥环
+     */
+    private KeyRing keyRing = new KeyRing();
+
+    /**
+     * 集群共享密钥环配置
+     * <p>
+     * 启用后各节点的密钥版本保存在 Redis 中（私钥和对称密钥以主密钥信封加密），
+     * 由选举出的主节点轮换，其他节点通过发布订阅加载新版本，任一节点下发的公钥都能在其他节点解密
+     */
+    @Data
+    public static class KeyRing {
+
+        /**
+         * 是否启用
+         */
+        private boolean enabled = false;
+
+        /**
+         * 主密钥（Base64编码的256位AES密钥），只用于加密各密钥版本的数据密钥，应由外部密钥管理系统注入
+         */
+        private String masterKey;
+
+        /**
+         * Redis 键前缀
+         */
+        private String redisKeyPrefix = "nianji:encryption:keyring";
+
+        /**
+         * 主节点租约时间（毫秒），需大于同步间隔，主节点宕机后其他节点最迟在租约到期后接管轮换
+         */
+        private long leaderLeaseMillis = 180_000;
+
+        /**
+         * 同步间隔（毫秒）：续约主节点租约，并兜底加载错过通知的密钥版本
+         */
+        private long syncIntervalMillis = 60_000;
+    }
 }
\ No newline at end of file
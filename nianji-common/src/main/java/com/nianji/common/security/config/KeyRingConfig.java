@@ -0,0 +1,55 @@
+package com.nianji.common.security.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nianji.common.errorcode.ErrorCode;
+import com.nianji.common.exception.ExceptionFactory;
+import com.nianji.common.security.keyring.KeyEnvelope;
+import com.nianji.common.security.keyring.SharedKeyRing;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.util.StringUtils;
+
+/**
+ * 集群共享密钥环配置
+ * <p>
+ * 主节点续约、兜底同步和定时轮换检查都依赖 {@code @Scheduled}，因此在这里开启调度
+ */
+@Slf4j
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "security.encryption.key-ring", name = "enabled", havingValue = "true")
+public class KeyRingConfig {
+
+    @Bean
+    public SharedKeyRing sharedKeyRing(StringRedisTemplate stringRedisTemplate, ObjectMapper objectMapper,
+                                       EncryptionConfig encryptionConfig) {
+        EncryptionConfig.KeyRing properties = encryptionConfig.getKeyRing();
+        if (!StringUtils.hasText(properties.getMasterKey())) {
+            // 不允许回退到任何内置主密钥，启用密钥环就必须显式配置
+            throw ExceptionFactory.crypto(ErrorCode.System.CRYPTO_ERROR,
+                    "已启用集群共享密钥环，但未配置主密钥 security.encryption.key-ring.master-key（环境变量 KEY_RING_MASTER_KEY）");
+        }
+        KeyEnvelope envelope = new KeyEnvelope(properties.getMasterKey());
+        log.info("启用集群共享密钥环 - 键前缀: {}, 主密钥标识: {}",
+                properties.getRedisKeyPrefix(), envelope.getMasterKeyId());
+        return new SharedKeyRing(stringRedisTemplate, objectMapper, envelope, properties);
+    }
+
+    /**
+     * 接收其他节点的密钥环变更通知
+     */
+    @Bean
+    public RedisMessageListenerContainer keyRingListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                  SharedKeyRing sharedKeyRing) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(sharedKeyRing, sharedKeyRing.getTopic());
+        return container;
+    }
+}
@@ -12,8 +12,10 @@ import javax.crypto.Cipher;
 import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.util.Base64;
@@ -29,6 +31,7 @@ public class AesEncryptionService implements EncryptionService {
     private static final String AES_ALGORITHM = "AES";
     private static final int GCM_TAG_LENGTH = 128;
     private static final int IV_LENGTH = 12; // GCM推荐12字节
+    private static final int CBC_IV_LENGTH = 16;
     
     private final SecureRandom secureRandom = new SecureRandom();
 
@@ -180,6 +183,48 @@ public class AesEncryptionService implements EncryptionService {
         return true;
     }
 
+    /**
+     * 解析对称密钥，批量解密时每个密钥版本只解析一次
+     */
+    public SecretKey parseKey(String key) {
+        return new SecretKeySpec(decodeKey(key), AES_ALGORITHM);
+    }
+
+    /**
+     * 按指定模式创建解密用的 Cipher；Cipher 非线程安全，由调用方按线程持有
+     */
+    public Cipher newDecryptCipher(EncryptionAlgorithm algorithm) throws CryptoException {
+        try {
+            return Cipher.getInstance(algorithm.getAlgorithm());
+        } catch (GeneralSecurityException e) {
+            throw ExceptionFactory.crypto(ErrorCode.System.CRYPTO_ERROR, "AES解密器初始化失败", e);
+        }
+    }
+
+    /**
+     * 使用调用方持有的 Cipher 解密 IV + 密文，IV 长度和参数按模式区分
+     *
+     * @return 密钥不匹配或密文损坏时返回 null，不记录日志，由调用方决定是否尝试其他密钥或模式
+     */
+    public String tryDecrypt(EncryptionAlgorithm algorithm, Cipher cipher, SecretKey key, byte[] combined) {
+        boolean gcm = algorithm == EncryptionAlgorithm.AES_GCM;
+        int ivLength = gcm ? IV_LENGTH : CBC_IV_LENGTH;
+        if (combined.length <= ivLength) {
+            return null;
+        }
+        try {
+            if (gcm) {
+                cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_LENGTH, combined, 0, ivLength));
+            } else {
+                cipher.init(Cipher.DECRYPT_MODE, key, new IvParameterSpec(combined, 0, ivLength));
+            }
+            byte[] decryptedData = cipher.doFinal(combined, ivLength, combined.length - ivLength);
+            return new String(decryptedData, StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException e) {
+            return null;
+        }
+    }
+
     /**
      * 解码Base64密钥
      */
@@ -120,6 +120,44 @@ public class RsaEncryptionService implements EncryptionService {
         }
     }
 
+    /**
+     * 解析私钥，批量解密时每个密钥版本只解析一次
+     */
+    public PrivateKey parsePrivateKey(String privateKey) throws CryptoException {
+        try {
+            return loadPrivateKey(privateKey);
+        } catch (Exception e) {
+            log.error("RSA私钥解析失败", e);
+            throw ExceptionFactory.crypto(ErrorCode.System.CRYPTO_ERROR, "RSA私钥解析失败", e);
+        }
+    }
+
+    /**
+     * 按指定的填充方式创建已初始化的解密 Cipher，doFinal 后可继续用于下一条密文；Cipher 非线程安全，由调用方按线程持有
+     */
+    public Cipher newDecryptCipher(EncryptionAlgorithm algorithm, PrivateKey privateKey) throws CryptoException {
+        try {
+            Cipher cipher = Cipher.getInstance(algorithm.getAlgorithm());
+            cipher.init(Cipher.DECRYPT_MODE, privateKey, secureRandom);
+            return cipher;
+        } catch (GeneralSecurityException e) {
+            throw ExceptionFactory.crypto(ErrorCode.System.CRYPTO_ERROR, "RSA解密器初始化失败", e);
+        }
+    }
+
+    /**
+     * 使用已初始化的 Cipher 解密
+     *
+     * @return 密钥不匹配或密文损坏时返回 null，不记录日志，由调用方决定是否尝试其他密钥
+     */
+    public String tryDecrypt(Cipher cipher, byte[] encryptedData) {
+        try {
+            return new String(cipher.doFinal(encryptedData), StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException e) {
+            return null;
+        }
+    }
+
     private PublicKey loadPublicKey(String publicKeyStr) throws Exception {
         byte[] keyBytes = Base64.getDecoder().decode(publicKeyStr);
         X509EncodedKeySpec keySpec = new X509EncodedKeySpec(keyBytes);
@@ -0,0 +1,139 @@
+package com.nianji.common.security.keyring;
+
+import com.nianji.common.errorcode.ErrorCode;
+import com.nianji.common.exception.ExceptionFactory;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * 密钥信封加密
+ * <p>
+ * 每个密钥版本生成独立的数据密钥加密密钥材料，数据密钥再由主密钥加密；
+ * 两层都使用 AES-GCM，并以"算法:版本"作为附加认证数据，密文不能被挪用到其他版本
+ */
+public final class KeyEnvelope {
+
+    private static final String AES = "AES";
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int GCM_TAG_BITS = 128;
+    private static final int IV_LENGTH = 12;
+    private static final int MASTER_KEY_BYTES = 32;
+
+    private final SecretKey masterKey;
+
+    /**
+     * 主密钥标识（SHA-256 前8字节），用于发现节点间主密钥配置不一致
+     */
+    private final String masterKeyId;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public KeyEnvelope(String base64MasterKey) {
+        if (base64MasterKey == null || base64MasterKey.isBlank()) {
+            throw ExceptionFactory.crypto(ErrorCode.System.CRYPTO_ERROR, "未配置密钥环主密钥");
+        }
+        byte[] keyBytes = Base64.getDecoder().decode(base64MasterKey.trim());
+        if (keyBytes.length != MASTER_KEY_BYTES) {
+            throw ExceptionFactory.crypto(ErrorCode.System.CRYPTO_ERROR, "密钥环主密钥必须是256位");
+        }
+        this.masterKey = new SecretKeySpec(keyBytes, AES);
+        this.masterKeyId = fingerprint(keyBytes);
+    }
+
+    public String getMasterKeyId() {
+        return masterKeyId;
+    }
+
+    /**
+     * 加密密钥材料
+     *
+     * @param aad
+     *         附加认证数据
+     */
+    public Sealed seal(String plaintext, String aad) {
+        try {
+            KeyGenerator generator = KeyGenerator.getInstance(AES);
+            generator.init(256, secureRandom);
+            SecretKey dataKey = generator.generateKey();
+
+            byte[] aadBytes = aad.getBytes(StandardCharsets.UTF_8);
+            String ciphertext = encrypt(dataKey, plaintext.getBytes(StandardCharsets.UTF_8), aadBytes);
+            String wrappedKey = encrypt(masterKey, dataKey.getEncoded(), aadBytes);
+            return new Sealed(wrappedKey, ciphertext);
+        } catch (GeneralSecurityException e) {
+            throw ExceptionFactory.crypto(ErrorCode.System.ENCRYPT_FAILED, "密钥材料加密失败", e);
+        }
+    }
+
+    /**
+     * 解密密钥材料
+     */
+    public String open(Sealed sealed, String aad) {
+        try {
+            byte[] aadBytes = aad.getBytes(StandardCharsets.UTF_8);
+            byte[] dataKey = decrypt(masterKey, sealed.wrappedKey(), aadBytes);
+            byte[] plaintext = decrypt(new SecretKeySpec(dataKey, AES), sealed.ciphertext(), aadBytes);
+            return new String(plaintext, StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw ExceptionFactory.crypto(ErrorCode.System.DECRYPT_FAILED, "密钥材料解密失败: " + aad, e);
+        }
+    }
+
+    private String encrypt(SecretKey key, byte[] plaintext, byte[] aad) throws GeneralSecurityException {
+        byte[] iv = new byte[IV_LENGTH];
+        secureRandom.nextBytes(iv);
+
+        Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+        cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_BITS, iv));
+        cipher.updateAAD(aad);
+        byte[] encrypted = cipher.doFinal(plaintext);
+
+        return Base64.getEncoder().encodeToString(ByteBuffer.allocate(iv.length + encrypted.length)
+                .put(iv)
+                .put(encrypted)
+                .array());
+    }
+
+    private static byte[] decrypt(SecretKey key, String encoded, byte[] aad) throws GeneralSecurityException {
+        byte[] combined = Base64.getDecoder().decode(encoded);
+        if (combined.length <= IV_LENGTH) {
+            throw new GeneralSecurityException("密文长度异常");
+        }
+
+        Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+        cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_BITS, combined, 0, IV_LENGTH));
+        cipher.updateAAD(aad);
+        return cipher.doFinal(combined, IV_LENGTH, combined.length - IV_LENGTH);
+    }
+
+    private static String fingerprint(byte[] keyBytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(keyBytes);
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 信封加密结果
+     *
+     * @param wrappedKey
+     *         主密钥加密的数据密钥
+     * @param ciphertext
+     *         数据密钥加密的密钥材料
+     */
+    public record Sealed(String wrappedKey, String ciphertext) {
+    }
+}
@@ -0,0 +1,85 @@
+package com.nianji.common.security.keyring;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 单个算法的密钥环存储结构（Redis 中的 JSON）
+ * <p>
+ * 公钥明文保存，私钥和对称密钥只保存信封加密后的密文
+ */
+@Data
+public class KeyRingRecord {
+
+    /**
+     * 加密算法
+     */
+    private String algorithm;
+
+    /**
+     * 加密数据密钥的主密钥标识
+     */
+    private String masterKeyId;
+
+    /**
+     * 当前激活的密钥版本
+     */
+    private String currentVersion;
+
+    /**
+     * 下一个预备密钥版本
+     */
+    private String nextVersion;
+
+    /**
+     * 最后轮换时间
+     */
+    private LocalDateTime lastRotationTime;
+
+    /**
+     * 所有密钥版本
+     */
+    private List<StoredKey> keys = new ArrayList<>();
+
+    @Data
+    public static class StoredKey {
+
+        /**
+         * 密钥版本
+         */
+        private String keyVersion;
+
+        /**
+         * RSA公钥（Base64编码）
+         */
+        private String publicKey;
+
+        /**
+         * 主密钥加密的数据密钥
+         */
+        private String wrappedKey;
+
+        /**
+         * 数据密钥加密的私钥或对称密钥
+         */
+        private String ciphertext;
+
+        /**
+         * 密钥创建时间
+         */
+        private LocalDateTime createdAt;
+
+        /**
+         * 过期时间
+         */
+        private LocalDateTime expiresAt;
+
+        /**
+         * 是否有效
+         */
+        private boolean valid;
+    }
+}
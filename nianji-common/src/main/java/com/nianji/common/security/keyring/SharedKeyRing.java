@@ -0,0 +1,256 @@
+package com.nianji.common.security.keyring;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nianji.common.errorcode.ErrorCode;
+import com.nianji.common.exception.ExceptionFactory;
+import com.nianji.common.security.config.EncryptionConfig;
+import com.nianji.common.security.enums.EncryptionAlgorithm;
+import com.nianji.common.security.model.AlgorithmKeyPair;
+import com.nianji.common.security.model.KeyVersionManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * 集群共享密钥环（Redis）
+ * <p>
+ * 每个算法一个 hash：generation 为写入代数，data 为 {@link KeyRingRecord}；写入按代数比较，
+ * 租约交接期间旧主节点的写入会被拒绝。写入成功后在频道上发布"算法:代数"，其他节点收到后重新加载
+ */
+@Slf4j
+public class SharedKeyRing implements MessageListener {
+
+    private static final RedisScript<Long> SAVE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/keyring_save.lua"), Long.class);
+
+    private static final RedisScript<Long> LEADER_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/keyring_leader.lua"), Long.class);
+
+    private static final RedisScript<Long> LEADER_RELEASE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/keyring_leader_release.lua"), Long.class);
+
+    private static final String FIELD_GENERATION = "generation";
+    private static final String FIELD_DATA = "data";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final KeyEnvelope envelope;
+    private final EncryptionConfig.KeyRing properties;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ChannelTopic topic;
+
+    /**
+     * 其他节点写入新代数时的回调（算法, 代数）
+     */
+    private volatile BiConsumer<EncryptionAlgorithm, Long> changeListener;
+
+    public SharedKeyRing(StringRedisTemplate stringRedisTemplate, ObjectMapper objectMapper,
+                         KeyEnvelope envelope, EncryptionConfig.KeyRing properties) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.envelope = envelope;
+        this.properties = properties;
+        this.topic = new ChannelTopic(properties.getRedisKeyPrefix() + ":changed");
+    }
+
+    public ChannelTopic getTopic() {
+        return topic;
+    }
+
+    public void onChange(BiConsumer<EncryptionAlgorithm, Long> listener) {
+        this.changeListener = listener;
+    }
+
+    /**
+     * 读取算法的密钥环
+     *
+     * @return 不存在时返回 null
+     */
+    public Snapshot load(EncryptionAlgorithm algorithm) {
+        List<Object> values = stringRedisTemplate.opsForHash()
+                .multiGet(ringKey(algorithm), List.of(FIELD_GENERATION, FIELD_DATA));
+        Object generation = values.get(0);
+        Object data = values.get(1);
+        if (generation == null || data == null) {
+            return null;
+        }
+
+        try {
+            KeyRingRecord record = objectMapper.readValue(data.toString(), KeyRingRecord.class);
+            return new Snapshot(toManager(algorithm, record), Long.parseLong(generation.toString()));
+        } catch (JsonProcessingException e) {
+            throw ExceptionFactory.crypto(ErrorCode.System.CRYPTO_ERROR, "密钥环数据格式错误: " + algorithm, e);
+        }
+    }
+
+    /**
+     * 按代数比较后写入
+     *
+     * @param expectedGeneration
+     *         本地已知的代数，0 表示首次创建
+     * @return 写入后的代数，其他节点已先写入时返回 -1
+     */
+    public long save(EncryptionAlgorithm algorithm, KeyVersionManager manager, long expectedGeneration) {
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(toRecord(algorithm, manager));
+        } catch (JsonProcessingException e) {
+            throw ExceptionFactory.crypto(ErrorCode.System.CRYPTO_ERROR, "密钥环序列化失败: " + algorithm, e);
+        }
+
+        Long generation = stringRedisTemplate.execute(SAVE_SCRIPT, List.of(ringKey(algorithm)),
+                String.valueOf(expectedGeneration), data);
+        if (generation == null || generation < 0) {
+            return -1;
+        }
+
+        stringRedisTemplate.convertAndSend(topic.getTopic(), algorithm.name() + ":" + generation);
+        log.info("密钥环已写入 - 算法: {}, 代数: {}, 当前版本: {}",
+                algorithm, generation, manager.getCurrentVersion());
+        return generation;
+    }
+
+    /**
+     * 竞选或续约轮换主节点
+     */
+    public boolean tryLead() {
+        Long result = stringRedisTemplate.execute(LEADER_SCRIPT, List.of(leaderKey()),
+                nodeId, String.valueOf(properties.getLeaderLeaseMillis()));
+        return result != null && result == 1L;
+    }
+
+    /**
+     * 释放主节点租约，停机时调用让其他节点尽快接管
+     */
+    public void releaseLeadership() {
+        stringRedisTemplate.execute(LEADER_RELEASE_SCRIPT, List.of(leaderKey()), nodeId);
+    }
+
+    /**
+     * 批量读取所有算法的代数，用于兜底同步
+     */
+    public Map<EncryptionAlgorithm, Long> generations(Iterable<EncryptionAlgorithm> algorithms) {
+        Map<EncryptionAlgorithm, Long> generations = new EnumMap<>(EncryptionAlgorithm.class);
+        for (EncryptionAlgorithm algorithm : algorithms) {
+            Object generation = stringRedisTemplate.opsForHash().get(ringKey(algorithm), FIELD_GENERATION);
+            generations.put(algorithm, generation == null ? 0L : Long.parseLong(generation.toString()));
+        }
+        return generations;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.lastIndexOf(':');
+        BiConsumer<EncryptionAlgorithm, Long> listener = changeListener;
+        if (separator < 0 || listener == null) {
+            return;
+        }
+
+        try {
+            EncryptionAlgorithm algorithm = EncryptionAlgorithm.valueOf(body.substring(0, separator));
+            listener.accept(algorithm, Long.parseLong(body.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            log.warn("忽略无法识别的密钥环通知: {}", body);
+        }
+    }
+
+    private KeyRingRecord toRecord(EncryptionAlgorithm algorithm, KeyVersionManager manager) {
+        KeyRingRecord record = new KeyRingRecord();
+        record.setAlgorithm(algorithm.name());
+        record.setMasterKeyId(envelope.getMasterKeyId());
+        record.setCurrentVersion(manager.getCurrentVersion());
+        record.setNextVersion(manager.getNextVersion());
+        record.setLastRotationTime(manager.getLastRotationTime());
+
+        for (AlgorithmKeyPair key : manager.getKeyVersions()) {
+            KeyRingRecord.StoredKey stored = new KeyRingRecord.StoredKey();
+            stored.setKeyVersion(key.getKeyVersion());
+            stored.setPublicKey(key.getPublicKey());
+            stored.setCreatedAt(key.getCreatedAt());
+            stored.setExpiresAt(key.getExpiresAt());
+            stored.setValid(key.isValid());
+
+            String secret = key.getPrivateKey() != null ? key.getPrivateKey() : key.getSymmetricKey();
+            if (secret != null) {
+                KeyEnvelope.Sealed sealed = envelope.seal(secret, aad(algorithm, key.getKeyVersion()));
+                stored.setWrappedKey(sealed.wrappedKey());
+                stored.setCiphertext(sealed.ciphertext());
+            }
+            record.getKeys().add(stored);
+        }
+        return record;
+    }
+
+    private KeyVersionManager toManager(EncryptionAlgorithm algorithm, KeyRingRecord record) {
+        if (!envelope.getMasterKeyId().equals(record.getMasterKeyId())) {
+            throw ExceptionFactory.crypto(ErrorCode.System.CRYPTO_ERROR,
+                    "密钥环主密钥不一致 - 算法: " + algorithm + ", 密钥环: " + record.getMasterKeyId()
+                            + ", 本节点: " + envelope.getMasterKeyId());
+        }
+
+        KeyVersionManager manager = new KeyVersionManager();
+        manager.setBusiness(algorithm.name());
+        for (KeyRingRecord.StoredKey stored : record.getKeys()) {
+            AlgorithmKeyPair.AlgorithmKeyPairBuilder builder = AlgorithmKeyPair.builder()
+                    .algorithm(algorithm)
+                    .keyVersion(stored.getKeyVersion())
+                    .publicKey(stored.getPublicKey())
+                    .createdAt(stored.getCreatedAt())
+                    .expiresAt(stored.getExpiresAt())
+                    .lastUsedAt(stored.getCreatedAt())
+                    .valid(stored.isValid());
+
+            if (stored.getCiphertext() != null) {
+                String secret = envelope.open(new KeyEnvelope.Sealed(stored.getWrappedKey(), stored.getCiphertext()),
+                        aad(algorithm, stored.getKeyVersion()));
+                if (algorithm.name().startsWith("RSA")) {
+                    builder.privateKey(secret);
+                } else {
+                    builder.symmetricKey(secret);
+                }
+            }
+            manager.addKeyVersion(builder.build());
+        }
+        manager.setCurrentVersion(record.getCurrentVersion());
+        manager.setNextVersion(record.getNextVersion());
+        manager.setLastRotationTime(record.getLastRotationTime());
+        return manager;
+    }
+
+    private String ringKey(EncryptionAlgorithm algorithm) {
+        return properties.getRedisKeyPrefix() + ":ring:" + algorithm.name();
+    }
+
+    private String leaderKey() {
+        return properties.getRedisKeyPrefix() + ":leader";
+    }
+
+    private static String aad(EncryptionAlgorithm algorithm, String version) {
+        return algorithm.name() + ":" + version;
+    }
+
+    /**
+     * 从密钥环加载的密钥版本
+     *
+     * @param manager
+     *         密钥版本
+     * @param generation
+     *         密钥环代数
+     */
+    public record Snapshot(KeyVersionManager manager, long generation) {
+    }
+}
@@ -1,12 +1,19 @@
 package com.nianji.common.security.model;
 
 import com.nianji.common.security.enums.EncryptionAlgorithm;
+import com.nianji.common.utils.CoarseClock;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * 算法密钥对
@@ -53,9 +60,9 @@ public class AlgorithmKeyPair {
     private LocalDateTime expiresAt;
     
     /**
-     * 最后使用时间
+     * 最后使用时间（精度1秒，见 {@link CoarseClock}）
      */
-    private LocalDateTime lastUsedAt;
+    private volatile LocalDateTime lastUsedAt;
     
     /**
      * 是否有效
@@ -63,9 +70,14 @@ public class AlgorithmKeyPair {
     private boolean valid;
     
     /**
-     * 使用次数
+     * 使用次数，高并发下多个线程同时累加，使用 LongAdder 分散竞争
      */
-    private long usageCount;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Builder.Default
+    private final LongAdder usageCounter = new LongAdder();
     
     /**
      * 转换为公钥信息（去除敏感信息）
@@ -92,11 +104,31 @@ public class AlgorithmKeyPair {
     }
     
     /**
-     * 记录使用
+     * 复制密钥对，副本与原对象共享使用次数计数
+     * <p>
+     * 已发布到快照中的密钥对可能仍被旧快照和读者引用，修改属性前先复制
+     */
+    public AlgorithmKeyPair copy() {
+        return new AlgorithmKeyPair(algorithm, keyVersion, publicKey, privateKey, symmetricKey,
+                createdAt, expiresAt, lastUsedAt, valid, usageCounter);
+    }
+
+    /**
+     * 使用次数
+     */
+    public long getUsageCount() {
+        return usageCounter.sum();
+    }
+
+    /**
+     * 记录使用 最后使用时间每秒最多写一次
      */
     public void recordUsage() {
-        this.lastUsedAt = LocalDateTime.now();
-        this.usageCount++;
+        usageCounter.increment();
+        LocalDateTime now = CoarseClock.now();
+        if (lastUsedAt != now) {
+            lastUsedAt = now;
+        }
     }
     
     /**
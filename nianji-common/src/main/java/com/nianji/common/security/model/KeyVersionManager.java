@@ -1,113 +1,258 @@
 package com.nianji.common.security.model;
 
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 /**
  * 密钥版本管理
+ * <p>
+ * 版本数据保存在不可变的 {@link Snapshot} 中，通过单个 volatile 引用发布：
+ * 读取（当前密钥、按版本查找、有效版本列表）只读一次引用，不加锁也不分配对象；
+ * 修改在同步块内基于旧快照构建新快照后整体替换，读者看到的要么是修改前、要么是修改后的完整状态
  */
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
 public class KeyVersionManager {
 
     /**
      * 业务标识
      */
+    @Getter
+    @Setter
     private String business;
 
     /**
-     * 所有密钥版本（按创建时间排序）
+     * 最后轮换时间
      */
-    private List<AlgorithmKeyPair> keyVersions = new CopyOnWriteArrayList<>();
+    @Getter
+    @Setter
+    private volatile LocalDateTime lastRotationTime;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
 
     /**
-     * 当前激活的密钥版本
+     * 复制管理器，副本与原管理器共享当前快照，之后的修改互不影响
+     * <p>
+     * 用于先在副本上完成轮换、写入密钥环成功后再发布
      */
-    private String currentVersion;
+    public KeyVersionManager copy() {
+        KeyVersionManager copy = new KeyVersionManager();
+        copy.business = business;
+        copy.lastRotationTime = lastRotationTime;
+        copy.snapshot = snapshot;
+        return copy;
+    }
 
     /**
-     * 下一个预备密钥版本
+     * 所有密钥版本（按创建时间倒序）
      */
-    private String nextVersion;
+    public List<AlgorithmKeyPair> getKeyVersions() {
+        return snapshot.keyVersions;
+    }
 
     /**
-     * 最后轮换时间
+     * 当前激活的密钥版本
      */
-    private LocalDateTime lastRotationTime;
+    public String getCurrentVersion() {
+        return snapshot.currentVersion;
+    }
+
+    /**
+     * 下一个预备密钥版本
+     */
+    public String getNextVersion() {
+        return snapshot.nextVersion;
+    }
+
+    public synchronized void setCurrentVersion(String currentVersion) {
+        Snapshot current = snapshot;
+        snapshot = new Snapshot(current.keyVersions, currentVersion, current.nextVersion);
+    }
+
+    public synchronized void setNextVersion(String nextVersion) {
+        Snapshot current = snapshot;
+        snapshot = new Snapshot(current.keyVersions, current.currentVersion, nextVersion);
+    }
 
     /**
      * 添加密钥版本
      */
     public synchronized void addKeyVersion(AlgorithmKeyPair keyPair) {
+        Snapshot current = snapshot;
+        List<AlgorithmKeyPair> keyVersions = new ArrayList<>(current.keyVersions);
         keyVersions.add(keyPair);
-        // 按创建时间排序
-        keyVersions.sort(Comparator.comparing(AlgorithmKeyPair::getCreatedAt).reversed());
+        snapshot = new Snapshot(keyVersions, current.currentVersion, current.nextVersion);
+    }
+
+    /**
+     * 添加预备密钥版本（未生效）并设为下一个版本，一次替换快照
+     */
+    public synchronized void prepareVersion(AlgorithmKeyPair keyPair) {
+        Snapshot current = snapshot;
+        List<AlgorithmKeyPair> keyVersions = new ArrayList<>(current.keyVersions);
+        keyVersions.add(keyPair);
+        snapshot = new Snapshot(keyVersions, current.currentVersion, keyPair.getKeyVersion());
+    }
+
+    /**
+     * 用新的密钥对替换同版本的密钥，一次替换快照；版本不存在时忽略
+     */
+    public synchronized void replaceKey(AlgorithmKeyPair keyPair) {
+        Snapshot current = snapshot;
+        if (!current.byVersion.containsKey(keyPair.getKeyVersion())) {
+            return;
+        }
+        List<AlgorithmKeyPair> keyVersions = new ArrayList<>(current.keyVersions.size());
+        for (AlgorithmKeyPair key : current.keyVersions) {
+            keyVersions.add(key.getKeyVersion().equals(keyPair.getKeyVersion()) ? keyPair : key);
+        }
+        snapshot = new Snapshot(keyVersions, current.currentVersion, current.nextVersion);
+    }
+
+    /**
+     * 将密钥提升为当前版本并清理旧版本（保留最近N个），一次替换快照
+     * <p>
+     * 密钥可以是已添加的预备版本，也可以是尚未添加的新密钥；读者只会看到轮换前或轮换后的完整状态。
+     * 未生效的密钥先复制再激活，不修改旧快照仍引用的对象
+     */
+    public synchronized void promote(AlgorithmKeyPair keyPair, int keepVersions) {
+        Snapshot current = snapshot;
+        String version = keyPair.getKeyVersion();
+        AlgorithmKeyPair activated = keyPair;
+        if (!activated.isValid()) {
+            activated = keyPair.copy();
+            activated.setValid(true);
+        }
+
+        List<AlgorithmKeyPair> keyVersions = new ArrayList<>(current.keyVersions.size() + 1);
+        keyVersions.add(activated);
+        for (AlgorithmKeyPair key : current.keyVersions) {
+            if (!key.getKeyVersion().equals(version)) {
+                keyVersions.add(key);
+            }
+        }
+        String nextVersion = version.equals(current.nextVersion) ? null : current.nextVersion;
+        Snapshot promoted = new Snapshot(keyVersions, version, nextVersion);
+
+        // keyVersions 已按创建时间倒序
+        snapshot = promoted.keyVersions.size() <= keepVersions
+                ? promoted
+                : new Snapshot(promoted.keyVersions.subList(0, keepVersions), version, nextVersion);
+    }
+
+    /**
+     * 获取预备密钥（未生效），没有时返回 null
+     */
+    public AlgorithmKeyPair getPreparedKey() {
+        Snapshot current = snapshot;
+        return current.nextVersion == null ? null : current.byVersion.get(current.nextVersion);
     }
 
     /**
      * 获取当前激活的密钥
      */
     public AlgorithmKeyPair getCurrentKey() {
-        return keyVersions.stream()
-                .filter(k -> k.getKeyVersion().equals(currentVersion))
-                .findFirst()
-                .orElseThrow(() -> new IllegalStateException("当前激活密钥不存在: " + currentVersion));
+        AlgorithmKeyPair currentKey = snapshot.currentKey;
+        if (currentKey == null) {
+            throw new IllegalStateException("当前激活密钥不存在: " + snapshot.currentVersion);
+        }
+        return currentKey;
     }
 
     /**
      * 获取指定版本的密钥
      */
     public AlgorithmKeyPair getKeyByVersion(String version) {
-        return keyVersions.stream()
-                .filter(k -> k.getKeyVersion().equals(version) && k.isValid())
-                .findFirst()
-                .orElseThrow(() -> new IllegalStateException("密钥版本不存在或已失效: " + version));
+        AlgorithmKeyPair key = snapshot.byVersion.get(version);
+        if (key == null || !key.isValid()) {
+            throw new IllegalStateException("密钥版本不存在或已失效: " + version);
+        }
+        return key;
     }
 
     /**
-     * 获取所有有效密钥版本
+     * 获取所有有效密钥版本（当前版本在前，其余按创建时间倒序），返回不可修改的共享列表
      */
     public List<AlgorithmKeyPair> getValidKeyVersions() {
-        return keyVersions.stream()
-                .filter(AlgorithmKeyPair::isValid)
-                .collect(Collectors.toList());
+        return snapshot.validKeyVersions;
     }
 
     /**
      * 标记密钥版本为过期
+     * <p>
+     * 替换为失效的副本，旧快照和正在使用它的读者看到的密钥不变
      */
     public synchronized void markVersionExpired(String version) {
-        keyVersions.stream()
-                .filter(k -> k.getKeyVersion().equals(version))
-                .findFirst()
-                .ifPresent(key -> key.setValid(false));
+        AlgorithmKeyPair key = snapshot.byVersion.get(version);
+        if (key != null && key.isValid()) {
+            AlgorithmKeyPair expired = key.copy();
+            expired.setValid(false);
+            replaceKey(expired);
+        }
     }
 
     /**
      * 清理过期密钥（保留最近N个版本）
      */
     public synchronized void cleanupExpiredKeys(int keepVersions) {
-        if (keyVersions.size() <= keepVersions) {
+        Snapshot current = snapshot;
+        if (current.keyVersions.size() <= keepVersions) {
             return;
         }
+        // keyVersions 已按创建时间倒序
+        snapshot = new Snapshot(current.keyVersions.subList(0, keepVersions),
+                current.currentVersion, current.nextVersion);
+    }
+
+    /**
+     * 不可变的版本快照，构建时预先计算读路径需要的所有结构
+     */
+    private static final class Snapshot {
+
+        private static final Snapshot EMPTY = new Snapshot(List.of(), null, null);
+
+        private static final Comparator<AlgorithmKeyPair> NEWEST_FIRST =
+                Comparator.comparing(AlgorithmKeyPair::getCreatedAt,
+                        Comparator.nullsLast(Comparator.reverseOrder()));
+
+        private final List<AlgorithmKeyPair> keyVersions;
+        private final Map<String, AlgorithmKeyPair> byVersion;
+        private final String currentVersion;
+        private final String nextVersion;
+        private final AlgorithmKeyPair currentKey;
+        private final List<AlgorithmKeyPair> validKeyVersions;
+
+        private Snapshot(List<AlgorithmKeyPair> keyVersions, String currentVersion, String nextVersion) {
+            List<AlgorithmKeyPair> sorted = new ArrayList<>(keyVersions);
+            sorted.sort(NEWEST_FIRST);
+
+            Map<String, AlgorithmKeyPair> byVersion = new HashMap<>(sorted.size() * 2);
+            for (AlgorithmKeyPair key : sorted) {
+                byVersion.put(key.getKeyVersion(), key);
+            }
+            AlgorithmKeyPair currentKey = currentVersion == null ? null : byVersion.get(currentVersion);
 
-        List<AlgorithmKeyPair> sorted = keyVersions.stream()
-                .sorted(Comparator.comparing(AlgorithmKeyPair::getCreatedAt).reversed())
-                .toList();
+            List<AlgorithmKeyPair> valid = new ArrayList<>(sorted.size());
+            if (currentKey != null && currentKey.isValid()) {
+                valid.add(currentKey);
+            }
+            for (AlgorithmKeyPair key : sorted) {
+                if (key != currentKey && key.isValid()) {
+                    valid.add(key);
+                }
+            }
 
-        for (int i = keepVersions; i < sorted.size(); i++) {
-            AlgorithmKeyPair key = sorted.get(i);
-            keyVersions.remove(key);
+            this.keyVersions = List.copyOf(sorted);
+            this.byVersion = Map.copyOf(byVersion);
+            this.currentVersion = currentVersion;
+            this.nextVersion = nextVersion;
+            this.currentKey = currentKey;
+            this.validKeyVersions = List.copyOf(valid);
         }
     }
-}
\ No newline at end of file
+}
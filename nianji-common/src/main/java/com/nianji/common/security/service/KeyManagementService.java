@@ -7,13 +7,19 @@ import com.nianji.common.security.config.EncryptionConfig;
 import com.nianji.common.security.encryption.EncryptionService;
 import com.nianji.common.security.encryption.EncryptionServiceFactory;
 import com.nianji.common.security.enums.EncryptionAlgorithm;
+import com.nianji.common.security.keyring.SharedKeyRing;
 import com.nianji.common.security.model.AlgorithmKeyPair;
 import com.nianji.common.security.model.KeyVersionManager;
 import com.nianji.common.security.model.PublicKeyInfo;
 import com.nianji.common.utils.CacheUtil;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -23,8 +29,15 @@ import org.springframework.util.StringUtils;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * 完整的密钥管理服务 支持多算法、多版本、自动轮换、业务隔离、监控统计
@@ -37,37 +50,76 @@ public class KeyManagementService {
     private final EncryptionConfig config;
     private final EncryptionServiceFactory encryptionServiceFactory;
     private final CacheUtil cacheUtil;
+    private final ObjectProvider<SharedKeyRing> sharedKeyRingProvider;
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
 
     // 核心存储结构
     private final Map<EncryptionAlgorithm, KeyVersionManager> algorithmKeyManagers = new ConcurrentHashMap<>();
     private final Map<String, KeyVersionManager> businessKeyManagers = new ConcurrentHashMap<>();
 
-    // 状态控制
+    // 状态控制（初始化与轮换互斥；使用 ReentrantLock 而非 synchronized，虚拟线程等待时不会钉住载体线程）
+    private final ReentrantLock lifecycleLock = new ReentrantLock();
     private volatile boolean initialized = false;
     private volatile boolean rotationInProgress = false;
+    private volatile Map<String, Long> startupTimings = Map.of();
+
+    // 集群共享密钥环（未启用时为 null，密钥只在本节点内存中）
+    private SharedKeyRing sharedKeyRing;
+    private final Map<EncryptionAlgorithm, Long> keyRingGenerations = new ConcurrentHashMap<>();
+    private volatile boolean keyRingLeader = false;
+
+    // 密钥预生成线程（低优先级），RSA 密钥生成耗时数百毫秒，不占用请求线程和生命周期锁
+    private final ExecutorService keyGenerationExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Key-Pregeneration");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    private final Set<EncryptionAlgorithm> pregenerating = ConcurrentHashMap.newKeySet();
 
     // 监控统计
     private final ServiceMetrics serviceMetrics = new ServiceMetrics();
+    private MeterRegistry meterRegistry;
 
     // 常量配置
     private static final String DEFAULT_BUSINESS = "default";
     private static final int MAX_KEY_VERSIONS = 5;
     private static final int CACHE_TTL_HOURS = 2;
     private static final String PUBLIC_KEY_CACHE_PREFIX = "encryption:publicKey:";
+    private static final String ROTATION_PAUSE_METER = "nianji.key.rotation.pause";
+    private static final String PREGENERATION_METER = "nianji.key.pregeneration";
 
     @PostConstruct
     public void initialize() {
         log.info("开始初始化密钥管理服务...");
+        meterRegistry = meterRegistryProvider.getIfAvailable();
+        if (meterRegistry != null) {
+            serviceMetrics.bindTo(meterRegistry);
+        }
+        sharedKeyRing = sharedKeyRingProvider.getIfAvailable();
+        if (sharedKeyRing != null) {
+            sharedKeyRing.onChange(this::onKeyRingChanged);
+        }
         initializeKeyManagement();
     }
 
+    @PreDestroy
+    public void destroy() {
+        keyGenerationExecutor.shutdownNow();
+        if (sharedKeyRing != null && keyRingLeader) {
+            try {
+                sharedKeyRing.releaseLeadership();
+            } catch (Exception e) {
+                log.warn("释放密钥轮换主节点失败: {}", e.getMessage());
+            }
+        }
+    }
+
     @EventListener(ApplicationReadyEvent.class)
     public void onApplicationReady() {
-        if (!initialized) {
-            log.warn("密钥管理服务未完全初始化，重新初始化...");
-            initializeKeyManagement();
-        }
-        log.info("密钥管理服务初始化状态: {}", initialized ? "成功" : "失败");
+        // 初始化在 @PostConstruct 中完成，失败时启动已中止，这里不再重复初始化
+        log.info("密钥管理服务初始化状态: {}, 启动耗时: {}",
+                initialized ? "成功" : (config.isEnabled() ? "失败" : "未启用"), startupTimings);
     }
 
     // ============ 初始化方法 ============
@@ -75,36 +127,59 @@ public class KeyManagementService {
     /**
      * 初始化密钥管理
      */
-    public synchronized void initializeKeyManagement() {
+    public void initializeKeyManagement() {
         if (!config.isEnabled()) {
             log.info("加密服务未启用，跳过初始化");
             return;
         }
 
+        lifecycleLock.lock();
         try {
+            Map<String, Long> timings = new LinkedHashMap<>();
+            long start = System.nanoTime();
+
             // 清理现有状态
             clearExistingState();
 
             // 验证配置参数
             validateConfigParameters();
 
-            // 初始化算法密钥管理器
-            initializeAlgorithmManagers();
+            // 初始化算法密钥管理器（各算法并行）
+            long phaseStart = System.nanoTime();
+            initializeAlgorithmManagers(timings);
+            timings.put("algorithms", elapsedMillis(phaseStart));
 
             // 初始化业务密钥管理器
+            phaseStart = System.nanoTime();
             initializeBusinessManagers();
+            timings.put("businesses", elapsedMillis(phaseStart));
+
+            // 公钥信息一次管道写入缓存
+            phaseStart = System.nanoTime();
+            cacheAllPublicKeyInfo();
+            timings.put("cache", elapsedMillis(phaseStart));
+
+            timings.put("total", elapsedMillis(start));
+            startupTimings = Collections.unmodifiableMap(timings);
 
             initialized = true;
             serviceMetrics.recordInitialization(true);
 
-            log.info("密钥管理服务初始化完成 - 支持算法: {}, 默认算法: {}",
-                    config.getAlgorithms().size(), config.getDefaultAlgorithm());
+            // 启用密钥环时由主节点在轮换检查中预生成
+            if (sharedKeyRing == null) {
+                algorithmKeyManagers.keySet().forEach(this::schedulePregeneration);
+            }
+
+            log.info("密钥管理服务初始化完成 - 支持算法: {}, 默认算法: {}, 耗时(ms): {}",
+                    config.getAlgorithms().size(), config.getDefaultAlgorithm(), startupTimings);
 
         } catch (Exception e) {
             log.error("密钥管理服务初始化失败", e);
             serviceMetrics.recordInitialization(false);
             throw ExceptionFactory.crypto(ErrorCode.System.CRYPTO_ERROR,
                     "密钥管理服务初始化失败", e);
+        } finally {
+            lifecycleLock.unlock();
         }
     }
 
@@ -114,6 +189,7 @@ public class KeyManagementService {
     private void clearExistingState() {
         algorithmKeyManagers.clear();
         businessKeyManagers.clear();
+        keyRingGenerations.clear();
         serviceMetrics.reset();
         log.debug("已清理现有密钥状态");
     }
@@ -142,15 +218,46 @@ public class KeyManagementService {
 
     /**
      * 初始化算法密钥管理器
+     * <p>
+     * 各算法的加载或密钥生成相互独立，并行执行；启用密钥环时直接加载已保存的密钥，不重新生成
+     *
+     * @param timings
+     *         记录每个算法的耗时（键为 algorithm:算法名）
      */
-    private void initializeAlgorithmManagers() {
-        for (EncryptionAlgorithm algorithm : config.getAlgorithms()) {
-            try {
-                initializeAlgorithmManager(algorithm);
-            } catch (Exception e) {
-                log.error("算法密钥管理器初始化失败 - 算法: {}", algorithm, e);
-                // 继续初始化其他算法
+    private void initializeAlgorithmManagers(Map<String, Long> timings) {
+        List<EncryptionAlgorithm> algorithms = List.copyOf(new LinkedHashSet<>(config.getAlgorithms()));
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(algorithms.size(), Runtime.getRuntime().availableProcessors()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "Key-Init-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        try {
+            Map<EncryptionAlgorithm, Future<Long>> futures = new EnumMap<>(EncryptionAlgorithm.class);
+            for (EncryptionAlgorithm algorithm : algorithms) {
+                futures.put(algorithm, executor.submit(() -> {
+                    long start = System.nanoTime();
+                    initializeAlgorithmManager(algorithm);
+                    return elapsedMillis(start);
+                }));
+            }
+
+            for (Map.Entry<EncryptionAlgorithm, Future<Long>> entry : futures.entrySet()) {
+                try {
+                    timings.put("algorithm:" + entry.getKey().name(), entry.getValue().get());
+                } catch (ExecutionException e) {
+                    log.error("算法密钥管理器初始化失败 - 算法: {}", entry.getKey(), e.getCause());
+                    // 继续初始化其他算法
+                }
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw ExceptionFactory.crypto(ErrorCode.System.CRYPTO_ERROR, "密钥管理服务初始化被中断", e);
+        } finally {
+            executor.shutdownNow();
         }
     }
 
@@ -158,6 +265,46 @@ public class KeyManagementService {
      * 初始化单个算法管理器
      */
     private void initializeAlgorithmManager(EncryptionAlgorithm algorithm) {
+        KeyVersionManager manager = sharedKeyRing != null
+                ? loadOrCreateSharedManager(algorithm)
+                : createAlgorithmManager(algorithm);
+        algorithmKeyManagers.put(algorithm, manager);
+
+        log.info("算法密钥管理器初始化完成 - 算法: {}, 版本: {}",
+                algorithm, manager.getCurrentVersion());
+    }
+
+    /**
+     * 从密钥环加载算法密钥，密钥环中还没有时由本节点生成并写入
+     * <p>
+     * 多个节点同时首次启动时只有一个节点写入成功，其余节点加载它写入的密钥
+     */
+    private KeyVersionManager loadOrCreateSharedManager(EncryptionAlgorithm algorithm) {
+        SharedKeyRing.Snapshot snapshot = sharedKeyRing.load(algorithm);
+        if (snapshot == null) {
+            KeyVersionManager created = createAlgorithmManager(algorithm);
+            long generation = sharedKeyRing.save(algorithm, created, 0);
+            if (generation > 0) {
+                keyRingGenerations.put(algorithm, generation);
+                return created;
+            }
+
+            snapshot = sharedKeyRing.load(algorithm);
+            if (snapshot == null) {
+                throw ExceptionFactory.crypto(ErrorCode.System.CRYPTO_ERROR, "密钥环加载失败: " + algorithm);
+            }
+        }
+
+        keyRingGenerations.put(algorithm, snapshot.generation());
+        log.info("从密钥环加载密钥 - 算法: {}, 代数: {}, 当前版本: {}",
+                algorithm, snapshot.generation(), snapshot.manager().getCurrentVersion());
+        return snapshot.manager();
+    }
+
+    /**
+     * 在本节点生成算法密钥
+     */
+    private KeyVersionManager createAlgorithmManager(EncryptionAlgorithm algorithm) {
         KeyVersionManager manager = new KeyVersionManager();
         manager.setBusiness(algorithm.name());
 
@@ -166,22 +313,9 @@ public class KeyManagementService {
         manager.addKeyVersion(initialKey);
         manager.setCurrentVersion(initialKey.getKeyVersion());
 
-        // 预生成下一个版本（如果启用自动轮换）
-        if (config.isAutoRotation()) {
-            AlgorithmKeyPair nextKey = createKeyPair(algorithm, generateKeyVersion());
-            nextKey.setValid(false); // 暂不激活
-            manager.addKeyVersion(nextKey);
-            manager.setNextVersion(nextKey.getKeyVersion());
-        }
-
+        // 下一个版本由预生成线程在后台生成（见 schedulePregeneration）
         manager.setLastRotationTime(LocalDateTime.now());
-        algorithmKeyManagers.put(algorithm, manager);
-
-        // 缓存公钥信息
-        cachePublicKeyInfo(algorithm, initialKey);
-
-        log.info("算法密钥管理器初始化完成 - 算法: {}, 版本: {}",
-                algorithm, initialKey.getKeyVersion());
+        return manager;
     }
 
     /**
@@ -208,9 +342,6 @@ public class KeyManagementService {
 
             businessKeyManagers.put(business, manager);
 
-            // 缓存业务公钥信息
-            cacheBusinessPublicKeyInfo(business, currentKey);
-
             log.info("业务密钥管理器初始化完成 - 业务: {}, 算法: {}",
                     business, defaultAlgorithm);
         } else {
@@ -229,6 +360,14 @@ public class KeyManagementService {
             return;
         }
 
+        // 启用密钥环时只有主节点轮换，轮换前先同步到密钥环最新状态
+        if (sharedKeyRing != null) {
+            if (!tryLeadKeyRing()) {
+                return;
+            }
+            syncKeyRing();
+        }
+
         log.debug("执行定时密钥轮换检查...");
 
         for (Map.Entry<EncryptionAlgorithm, KeyVersionManager> entry : algorithmKeyManagers.entrySet()) {
@@ -239,10 +378,12 @@ public class KeyManagementService {
                 if (shouldRotateKey(manager)) {
                     log.info("触发密钥轮换 - 算法: {}", algorithm);
                     performKeyRotation(algorithm, manager);
+                } else if (manager.getNextVersion() == null) {
+                    schedulePregeneration(algorithm);
                 }
             } catch (Exception e) {
                 log.error("密钥轮换检查失败 - 算法: {}", algorithm, e);
-                serviceMetrics.recordRotationFailure(algorithm.name());
+                serviceMetrics.recordRotationFailure(algorithm);
             }
         }
     }
@@ -270,107 +411,136 @@ public class KeyManagementService {
 
     /**
      * 执行密钥轮换
+     * <p>
+     * 新密钥由预生成线程提前准备好，锁内不生成密钥。轮换先在管理器副本上完成，写入密钥环成功后才替换本地管理器并发布，
+     * 其他节点已先写入时放弃本地结果、加载密钥环中的版本；读路径不获取锁，只会读到替换前或替换后的快照。
+     * 持锁时间导出为 {@code nianji.key.rotation.pause}
      */
-    private synchronized void performKeyRotation(EncryptionAlgorithm algorithm, KeyVersionManager manager) {
+    private void performKeyRotation(EncryptionAlgorithm algorithm, KeyVersionManager manager) {
+        // 没有预备密钥时在锁外生成，避免生成 RSA 密钥期间持有锁
+        AlgorithmKeyPair generatedKey = manager.getPreparedKey() == null
+                ? createKeyPair(algorithm, generateKeyVersion())
+                : null;
+
+        lifecycleLock.lock();
+        long pauseStart = System.nanoTime();
         rotationInProgress = true;
 
         try {
+            // 等待锁期间可能已从密钥环加载了新的密钥版本
+            manager = getAlgorithmManager(algorithm);
             log.info("开始执行密钥轮换 - 算法: {}, 业务: {}", algorithm, manager.getBusiness());
 
-            // 1. 激活预备密钥或生成新密钥
-            if (manager.getNextVersion() != null) {
-                activatePreparedKey(manager);
-            } else {
-                generateAndActivateNewKey(algorithm, manager);
-            }
+            AlgorithmKeyPair preparedKey = manager.getPreparedKey();
+            AlgorithmKeyPair newKey = preparedKey != null
+                    ? preparedKey.copy()
+                    : generatedKey != null ? generatedKey : createKeyPair(algorithm, generateKeyVersion());
 
-            // 2. 预生成下一个版本密钥
-            prepareNextKeyVersion(algorithm, manager);
+            // 1. 在副本上轮换，已发布的管理器和密钥对保持不变
+            KeyVersionManager rotated = manager.copy();
 
-            // 3. 清理过期密钥版本
-            cleanupExpiredKeys(manager);
+            // 当前密钥标记为即将过期，仍然有效，用于解密历史数据
+            AlgorithmKeyPair previousKey = manager.getCurrentKey().copy();
+            previousKey.setExpiresAt(LocalDateTime.now().plusHours(2));
+            rotated.replaceKey(previousKey);
 
-            // 4. 更新缓存和状态
-            updateAfterRotation(algorithm, manager);
+            // 新密钥生效并清理过期版本
+            newKey.setLastUsedAt(LocalDateTime.now());
+            rotated.promote(newKey, MAX_KEY_VERSIONS);
+            rotated.setLastRotationTime(LocalDateTime.now());
 
-            manager.setLastRotationTime(LocalDateTime.now());
-            serviceMetrics.recordRotationSuccess(algorithm.name());
+            // 2. 按代数写入密钥环，其他节点已先轮换时放弃本地结果
+            if (!saveToKeyRing(algorithm, rotated)) {
+                return;
+            }
 
-            log.info("密钥轮换完成 - 算法: {}, 新版本: {}", algorithm, manager.getCurrentVersion());
+            // 3. 写入成功后发布：替换本地管理器，更新缓存和业务管理器
+            algorithmKeyManagers.put(algorithm, rotated);
+            log.debug("密钥已切换: {} -> {}", previousKey.getKeyVersion(), newKey.getKeyVersion());
+            updateAfterRotation(algorithm, rotated);
+
+            serviceMetrics.recordRotationSuccess(algorithm);
+
+            log.info("密钥轮换完成 - 算法: {}, 新版本: {}", algorithm, rotated.getCurrentVersion());
 
         } catch (Exception e) {
             log.error("密钥轮换执行失败 - 算法: {}", algorithm, e);
-            serviceMetrics.recordRotationFailure(algorithm.name());
+            serviceMetrics.recordRotationFailure(algorithm);
             throw ExceptionFactory.crypto(ErrorCode.System.CRYPTO_ERROR, "密钥轮换失败", e);
         } finally {
             rotationInProgress = false;
+            recordTimer(ROTATION_PAUSE_METER, algorithm, System.nanoTime() - pauseStart);
+            lifecycleLock.unlock();
         }
-    }
-
-    /**
-     * 激活预备密钥
-     */
-    private void activatePreparedKey(KeyVersionManager manager) {
-        String nextVersion = manager.getNextVersion();
-        AlgorithmKeyPair nextKey = manager.getKeyByVersion(nextVersion);
 
-        // 标记当前密钥为即将过期
-        AlgorithmKeyPair currentKey = manager.getCurrentKey();
-        currentKey.setExpiresAt(LocalDateTime.now().plusHours(2));
-        currentKey.setValid(true); // 仍然有效，用于解密历史数据
-
-        // 激活预备密钥
-        nextKey.setValid(true);
-        nextKey.setLastUsedAt(LocalDateTime.now());
-        manager.setCurrentVersion(nextVersion);
-        manager.setNextVersion(null);
-
-        log.debug("激活预备密钥: {} -> {}", currentKey.getKeyVersion(), nextVersion);
+        // 4. 后台预生成下一个版本
+        schedulePregeneration(algorithm);
     }
 
     /**
-     * 生成并激活新密钥
+     * 提交下一个版本的预生成任务，同一算法同时只有一个任务
      */
-    private void generateAndActivateNewKey(EncryptionAlgorithm algorithm, KeyVersionManager manager) {
-        String newVersion = generateKeyVersion();
-        AlgorithmKeyPair newKey = createKeyPair(algorithm, newVersion);
-
-        // 标记当前密钥
-        AlgorithmKeyPair currentKey = manager.getCurrentKey();
-        currentKey.setExpiresAt(LocalDateTime.now().plusHours(2));
-
-        // 添加并激活新密钥
-        manager.addKeyVersion(newKey);
-        manager.setCurrentVersion(newVersion);
+    private void schedulePregeneration(EncryptionAlgorithm algorithm) {
+        if (!config.isAutoRotation() || !pregenerating.add(algorithm)) {
+            return;
+        }
 
-        log.debug("生成并激活新密钥: {} -> {}", currentKey.getKeyVersion(), newVersion);
+        try {
+            keyGenerationExecutor.execute(() -> {
+                try {
+                    pregenerateKey(algorithm);
+                } catch (Exception e) {
+                    log.error("预生成密钥失败 - 算法: {}", algorithm, e);
+                } finally {
+                    pregenerating.remove(algorithm);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pregenerating.remove(algorithm);
+            log.warn("预生成任务提交失败 - 算法: {}, 原因: {}", algorithm, e.getMessage());
+        }
     }
 
     /**
-     * 预备下一个版本密钥
+     * 在预生成线程上生成下一个版本，生成完成后短暂持锁挂到当前管理器上
      */
-    private void prepareNextKeyVersion(EncryptionAlgorithm algorithm, KeyVersionManager manager) {
-        String nextVersion = generateKeyVersion();
-        AlgorithmKeyPair nextKey = createKeyPair(algorithm, nextVersion);
+    private void pregenerateKey(EncryptionAlgorithm algorithm) {
+        long start = System.nanoTime();
+        AlgorithmKeyPair nextKey = createKeyPair(algorithm, generateKeyVersion());
         nextKey.setValid(false); // 不激活，仅作为预备
+        recordTimer(PREGENERATION_METER, algorithm, System.nanoTime() - start);
 
-        manager.addKeyVersion(nextKey);
-        manager.setNextVersion(nextVersion);
+        lifecycleLock.lock();
+        try {
+            KeyVersionManager manager = algorithmKeyManagers.get(algorithm);
+            // 生成期间已重新初始化或已从密钥环加载带预备版本的密钥
+            if (manager == null || manager.getNextVersion() != null) {
+                return;
+            }
 
-        log.debug("预备下一个密钥版本: {}", nextVersion);
-    }
+            // 与轮换相同：写入密钥环成功后才替换本地管理器
+            KeyVersionManager prepared = manager.copy();
+            prepared.prepareVersion(nextKey);
+            if (!saveToKeyRing(algorithm, prepared)) {
+                return;
+            }
+            algorithmKeyManagers.put(algorithm, prepared);
 
-    /**
-     * 清理过期密钥
-     */
-    private void cleanupExpiredKeys(KeyVersionManager manager) {
-        int beforeCleanup = manager.getKeyVersions().size();
-        manager.cleanupExpiredKeys(MAX_KEY_VERSIONS);
-        int afterCleanup = manager.getKeyVersions().size();
+            log.info("预备下一个密钥版本 - 算法: {}, 版本: {}, 生成耗时: {}ms",
+                    algorithm, nextKey.getKeyVersion(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } finally {
+            lifecycleLock.unlock();
+        }
+    }
 
-        if (beforeCleanup > afterCleanup) {
-            log.debug("密钥清理完成: {} -> {}", beforeCleanup, afterCleanup);
+    private void recordTimer(String name, EncryptionAlgorithm algorithm, long nanos) {
+        if (meterRegistry == null) {
+            return;
         }
+        Timer.builder(name)
+                .tag("algorithm", algorithm.name())
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
     }
 
     /**
@@ -396,8 +566,7 @@ public class KeyManagementService {
             // 如果业务使用这个算法，则更新
             AlgorithmKeyPair currentBusinessKey = businessManager.getCurrentKey();
             if (currentBusinessKey != null && currentBusinessKey.getAlgorithm() == algorithm) {
-                businessManager.addKeyVersion(newKey);
-                businessManager.setCurrentVersion(newKey.getKeyVersion());
+                businessManager.promote(newKey, MAX_KEY_VERSIONS);
                 businessManager.setLastRotationTime(LocalDateTime.now());
 
                 // 缓存业务公钥信息
@@ -406,6 +575,98 @@ public class KeyManagementService {
         }
     }
 
+    // ============ 集群共享密钥环 ============
+
+    /**
+     * 续约主节点租约并兜底同步错过通知的密钥版本
+     */
+    @Scheduled(fixedDelayString = "${security.encryption.key-ring.sync-interval-millis:60000}")
+    public void scheduledKeyRingSync() {
+        if (sharedKeyRing == null || !initialized) {
+            return;
+        }
+        tryLeadKeyRing();
+        syncKeyRing();
+    }
+
+    private boolean tryLeadKeyRing() {
+        try {
+            boolean leader = sharedKeyRing.tryLead();
+            if (leader != keyRingLeader) {
+                log.info("密钥轮换主节点状态变更: {}", leader ? "成为主节点" : "不再是主节点");
+            }
+            keyRingLeader = leader;
+        } catch (Exception e) {
+            log.warn("密钥轮换主节点竞选失败: {}", e.getMessage());
+            keyRingLeader = false;
+        }
+        return keyRingLeader;
+    }
+
+    /**
+     * 加载密钥环中比本地更新的算法密钥
+     */
+    private void syncKeyRing() {
+        try {
+            Map<EncryptionAlgorithm, Long> generations = sharedKeyRing.generations(algorithmKeyManagers.keySet());
+            generations.forEach(this::onKeyRingChanged);
+        } catch (Exception e) {
+            log.warn("密钥环同步失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 密钥环变更通知（包括本节点自己的写入，按代数过滤）
+     */
+    private void onKeyRingChanged(EncryptionAlgorithm algorithm, long generation) {
+        if (!algorithmKeyManagers.containsKey(algorithm)
+                || generation <= keyRingGenerations.getOrDefault(algorithm, 0L)) {
+            return;
+        }
+
+        lifecycleLock.lock();
+        try {
+            SharedKeyRing.Snapshot snapshot = sharedKeyRing.load(algorithm);
+            if (snapshot == null || snapshot.generation() <= keyRingGenerations.getOrDefault(algorithm, 0L)) {
+                return;
+            }
+
+            KeyVersionManager manager = snapshot.manager();
+            algorithmKeyManagers.put(algorithm, manager);
+            keyRingGenerations.put(algorithm, snapshot.generation());
+            updateBusinessManagers(algorithm, manager.getCurrentKey());
+
+            log.info("已加载密钥环新版本 - 算法: {}, 代数: {}, 当前版本: {}",
+                    algorithm, snapshot.generation(), manager.getCurrentVersion());
+        } catch (Exception e) {
+            log.error("加载密钥环失败 - 算法: {}, 代数: {}", algorithm, generation, e);
+        } finally {
+            lifecycleLock.unlock();
+        }
+    }
+
+    /**
+     * 轮换结果按代数写入密钥环，其他节点已先写入时放弃本地结果，重新加载密钥环中的版本
+     *
+     * @return 是否可以发布本地结果（写入成功或未启用密钥环）
+     */
+    private boolean saveToKeyRing(EncryptionAlgorithm algorithm, KeyVersionManager manager) {
+        if (sharedKeyRing == null) {
+            return true;
+        }
+
+        long expected = keyRingGenerations.getOrDefault(algorithm, 0L);
+        long generation = sharedKeyRing.save(algorithm, manager, expected);
+        if (generation > 0) {
+            keyRingGenerations.put(algorithm, generation);
+            return true;
+        }
+
+        log.warn("密钥环已被其他节点更新，放弃本地轮换结果 - 算法: {}, 本地代数: {}", algorithm, expected);
+        onKeyRingChanged(algorithm, Long.MAX_VALUE);
+        return false;
+    }
+
     // ============ 公开业务方法 ============
 
     /**
@@ -418,7 +679,7 @@ public class KeyManagementService {
         AlgorithmKeyPair currentKey = manager.getCurrentKey();
 
         currentKey.recordUsage();
-        serviceMetrics.recordPublicKeyAccess(algorithm.name());
+        serviceMetrics.recordPublicKeyAccess(algorithm);
 
         return currentKey.toPublicKeyInfo();
     }
@@ -463,7 +724,7 @@ public class KeyManagementService {
         }
 
         key.recordUsage();
-        serviceMetrics.recordVersionedAccess(algorithm.name());
+        serviceMetrics.recordVersionedAccess(algorithm);
 
         return key.toPublicKeyInfo();
     }
@@ -476,15 +737,8 @@ public class KeyManagementService {
 
         KeyVersionManager manager = getAlgorithmManager(algorithm);
 
-        // 修复：创建可修改的列表副本
-        List<AlgorithmKeyPair> validKeys = new ArrayList<>(manager.getValidKeyVersions());
-
-        // 按使用时间倒序尝试（最近使用的优先）
-        validKeys.sort((k1, k2) -> {
-            LocalDateTime t1 = k1.getLastUsedAt() != null ? k1.getLastUsedAt() : k1.getCreatedAt();
-            LocalDateTime t2 = k2.getLastUsedAt() != null ? k2.getLastUsedAt() : k2.getCreatedAt();
-            return t2.compareTo(t1);
-        });
+        // 当前版本在前，其余按创建时间倒序；共享的不可变列表，无需复制和排序
+        List<AlgorithmKeyPair> validKeys = manager.getValidKeyVersions();
 
         Exception lastException = null;
 
@@ -493,25 +747,76 @@ public class KeyManagementService {
                 String decrypted = performDecryption(algorithm, encryptedData, key);
 
                 key.recordUsage();
-                serviceMetrics.recordDecryptionSuccess(algorithm.name(), key.getKeyVersion());
+                serviceMetrics.recordDecryptionSuccess(algorithm);
 
                 log.debug("解密成功 - 算法: {}, 版本: {}", algorithm, key.getKeyVersion());
                 return decrypted;
 
             } catch (Exception e) {
                 lastException = e;
-                serviceMetrics.recordDecryptionFailure(algorithm.name(), key.getKeyVersion());
+                serviceMetrics.recordDecryptionFailure(algorithm);
                 log.debug("解密尝试失败 - 算法: {}, 版本: {}", algorithm, key.getKeyVersion());
             }
         }
 
-        serviceMetrics.recordDecryptionFailure(algorithm.name(), "all");
         log.error("所有密钥版本解密均失败 - 算法: {}, 尝试版本数: {}", algorithm, validKeys.size());
 
         throw ExceptionFactory.crypto(ErrorCode.System.DECRYPT_FAILED,
                 "解密失败，请检查加密数据或密钥版本", lastException);
     }
 
+    /**
+     * 获取可用于解密的密钥版本（当前版本在前），供批量解密按组解析密钥后自行解密
+     */
+    public List<AlgorithmKeyPair> getDecryptionKeys(EncryptionAlgorithm algorithm) {
+        checkInitialized();
+        return getAlgorithmManager(algorithm).getValidKeyVersions();
+    }
+
+    /**
+     * 获取算法当前密钥（不记录使用统计），供预序列化的公钥响应按版本判断是否需要重建
+     */
+    public AlgorithmKeyPair getCurrentKey(EncryptionAlgorithm algorithm) {
+        checkInitialized();
+        return getAlgorithmManager(algorithm).getCurrentKey();
+    }
+
+    /**
+     * 获取业务当前密钥（不记录使用统计），业务不存在时使用默认业务
+     */
+    public AlgorithmKeyPair getBusinessCurrentKey(String business) {
+        checkInitialized();
+
+        KeyVersionManager manager = businessKeyManagers.get(business);
+        if (manager == null) {
+            manager = businessKeyManagers.get(DEFAULT_BUSINESS);
+        }
+        if (manager == null) {
+            throw ExceptionFactory.crypto(ErrorCode.System.CRYPTO_ERROR, "业务密钥管理器不存在: " + business);
+        }
+        return manager.getCurrentKey();
+    }
+
+    /**
+     * 算法最早可能自动轮换的时间，与 {@link #shouldRotateKey} 的判断一致；未开启自动轮换时返回 null
+     * <p>
+     * 手动轮换不受此限制，但轮换后旧密钥仍保留2小时有效期，客户端缓存的旧公钥加密的数据仍可解密
+     */
+    public LocalDateTime getNextRotationTime(EncryptionAlgorithm algorithm) {
+        if (!config.isAutoRotation()) {
+            return null;
+        }
+
+        KeyVersionManager manager = getAlgorithmManager(algorithm);
+        LocalDateTime lastRotationTime = manager.getLastRotationTime();
+        if (lastRotationTime == null) {
+            return LocalDateTime.now();
+        }
+
+        LocalDateTime nextRotation = lastRotationTime.plusHours(config.getRotationIntervalHours());
+        return manager.getNextVersion() != null ? nextRotation.minusHours(1) : nextRotation;
+    }
+
     /**
      * 使用指定版本解密
      */
@@ -529,12 +834,12 @@ public class KeyManagementService {
             String decrypted = performDecryption(algorithm, encryptedData, key);
 
             key.recordUsage();
-            serviceMetrics.recordDecryptionSuccess(algorithm.name(), version);
+            serviceMetrics.recordDecryptionSuccess(algorithm);
 
             return decrypted;
 
         } catch (Exception e) {
-            serviceMetrics.recordDecryptionFailure(algorithm.name(), version);
+            serviceMetrics.recordDecryptionFailure(algorithm);
 
             log.error("指定版本解密失败 - 算法: {}, 版本: {}", algorithm, version, e);
             throw ExceptionFactory.crypto(ErrorCode.System.DECRYPT_FAILED,
@@ -594,17 +899,22 @@ public class KeyManagementService {
         KeyVersionManager manager = getAlgorithmManager(algorithm);
         performKeyRotation(algorithm, manager);
 
-        serviceMetrics.recordManualRotation(algorithm.name());
+        serviceMetrics.recordManualRotation(algorithm);
         log.info("手动密钥轮换完成 - 算法: {}", algorithm);
     }
 
     /**
      * 重新初始化密钥服务
      */
-    public synchronized void reinitialize() {
+    public void reinitialize() {
         log.info("手动触发密钥服务重新初始化...");
-        initializeKeyManagement();
-        serviceMetrics.recordReinitialization();
+        lifecycleLock.lock();
+        try {
+            initializeKeyManagement();
+            serviceMetrics.recordReinitialization();
+        } finally {
+            lifecycleLock.unlock();
+        }
     }
 
     // ============ 状态查询和管理方法 ============
@@ -617,11 +927,17 @@ public class KeyManagementService {
 
         status.put("initialized", initialized);
         status.put("rotationInProgress", rotationInProgress);
+        status.put("startupTimings", startupTimings);
         status.put("enabled", config.isEnabled());
         status.put("autoRotation", config.isAutoRotation());
         status.put("rotationIntervalHours", config.getRotationIntervalHours());
         status.put("supportedAlgorithms", config.getAlgorithms().size());
         status.put("defaultAlgorithm", config.getDefaultAlgorithm().name());
+        status.put("sharedKeyRing", sharedKeyRing != null);
+        if (sharedKeyRing != null) {
+            status.put("keyRingLeader", keyRingLeader);
+            status.put("keyRingGenerations", new LinkedHashMap<>(keyRingGenerations));
+        }
 
         // 算法状态
         Map<String, Object> algorithmStatus = new LinkedHashMap<>();
@@ -700,7 +1016,6 @@ public class KeyManagementService {
                 .createdAt(LocalDateTime.now())
                 .lastUsedAt(LocalDateTime.now())
                 .valid(true)
-                .usageCount(0L)
                 .expiresAt(LocalDateTime.now().plusHours(config.getRotationIntervalHours() + 2));
 
         // 根据算法类型设置密钥
@@ -785,6 +1100,24 @@ public class KeyManagementService {
         }
     }
 
+    /**
+     * 缓存所有算法和业务的公钥信息，一次管道写入
+     */
+    private void cacheAllPublicKeyInfo() {
+        Map<String, Object> entries = new LinkedHashMap<>();
+        algorithmKeyManagers.forEach((algorithm, manager) -> entries.put(
+                PUBLIC_KEY_CACHE_PREFIX + "algorithm:" + algorithm.name(), manager.getCurrentKey().toPublicKeyInfo()));
+        businessKeyManagers.forEach((business, manager) -> entries.put(
+                PUBLIC_KEY_CACHE_PREFIX + "business:" + business, manager.getCurrentKey().toPublicKeyInfo()));
+
+        cacheUtil.putAll(entries, CACHE_TTL_HOURS, TimeUnit.HOURS);
+        log.debug("公钥信息已批量缓存 - 条数: {}", entries.size());
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
     /**
      * 缓存公钥信息
      */
@@ -821,8 +1154,7 @@ public class KeyManagementService {
      * 发布密钥轮换事件
      */
     private void publishKeyRotationEvent(EncryptionAlgorithm algorithm, String business, String newVersion) {
-        // 这里可以集成消息队列、事件总线等
-        // 用于通知相关服务密钥已更新
+        // 启用密钥环时，其他节点由 saveToKeyRing 写入后的发布订阅通知加载新版本
         log.info("发布密钥轮换事件 - 算法: {}, 业务: {}, 新版本: {}", algorithm, business, newVersion);
     }
 
@@ -896,88 +1228,149 @@ public class KeyManagementService {
 
     /**
      * 服务监控指标
+     * <p>
+     * 计数器按枚举下标固定布局，热点路径只做一次 LongAdder 累加，不查 Map、不创建对象；
+     * 绑定 Micrometer 后通过 /actuator/metrics 导出，状态接口只返回少量汇总值
      */
     private static class ServiceMetrics {
-        private final AtomicLong totalOperations = new AtomicLong(0);
-        private final AtomicLong successOperations = new AtomicLong(0);
-        private final Map<String, AtomicLong> algorithmMetrics = new ConcurrentHashMap<>();
-        private final Map<String, AtomicLong> businessMetrics = new ConcurrentHashMap<>();
-        private final Map<String, AtomicLong> operationMetrics = new ConcurrentHashMap<>();
 
-        private long startTime = System.currentTimeMillis();
-        private long lastInitializationTime = 0;
-        private boolean lastInitializationSuccess = false;
+        /**
+         * 操作类型
+         */
+        private enum Operation {
+            INITIALIZATION("initialization", true),
+            INITIALIZATION_FAILURE("initialization", false),
+            ROTATION_SUCCESS("rotation", true),
+            ROTATION_FAILURE("rotation", false),
+            MANUAL_ROTATION("manual.rotation", true),
+            REINITIALIZATION("reinitialization", true),
+            PUBLIC_KEY_ACCESS("publicKey.access", true),
+            BUSINESS_ACCESS("business.access", true),
+            VERSIONED_ACCESS("versioned.access", true),
+            DECRYPTION_SUCCESS("decryption", true),
+            DECRYPTION_FAILURE("decryption", false);
+
+            private final String key;
+            private final boolean success;
+
+            Operation(String key, boolean success) {
+                this.key = key;
+                this.success = success;
+            }
+        }
+
+        private static final Operation[] OPERATIONS = Operation.values();
+        private static final EncryptionAlgorithm[] ALGORITHMS = EncryptionAlgorithm.values();
+
+        private final LongAdder[] operationCounters = newAdders(OPERATIONS.length);
+        private final LongAdder[] algorithmCounters = newAdders(ALGORITHMS.length);
+
+        /**
+         * 业务标识不是枚举，数量很少（默认业务及其别名），读多写少
+         */
+        private final Map<String, LongAdder> businessCounters = new ConcurrentHashMap<>();
+
+        private volatile MeterRegistry meterRegistry;
+        private volatile long startTime = System.currentTimeMillis();
+        private volatile long lastInitializationTime = 0;
+        private volatile boolean lastInitializationSuccess = false;
 
         public void recordInitialization(boolean success) {
             lastInitializationTime = System.currentTimeMillis();
             lastInitializationSuccess = success;
-            recordOperation("initialization", success);
+            increment(success ? Operation.INITIALIZATION : Operation.INITIALIZATION_FAILURE);
         }
 
-        public void recordRotationSuccess(String algorithm) {
-            recordOperation("rotation.success", true);
-            algorithmMetrics.computeIfAbsent(algorithm, k -> new AtomicLong(0)).incrementAndGet();
+        public void recordRotationSuccess(EncryptionAlgorithm algorithm) {
+            increment(Operation.ROTATION_SUCCESS);
+            algorithmCounters[algorithm.ordinal()].increment();
         }
 
-        public void recordRotationFailure(String algorithm) {
-            recordOperation("rotation.failure", false);
+        public void recordRotationFailure(EncryptionAlgorithm algorithm) {
+            increment(Operation.ROTATION_FAILURE);
         }
 
-        public void recordManualRotation(String algorithm) {
-            recordOperation("manual.rotation", true);
+        public void recordManualRotation(EncryptionAlgorithm algorithm) {
+            increment(Operation.MANUAL_ROTATION);
         }
 
         public void recordReinitialization() {
-            recordOperation("reinitialization", true);
+            increment(Operation.REINITIALIZATION);
         }
 
-        public void recordPublicKeyAccess(String algorithm) {
-            recordOperation("publicKey.access", true);
-            algorithmMetrics.computeIfAbsent(algorithm, k -> new AtomicLong(0)).incrementAndGet();
+        public void recordPublicKeyAccess(EncryptionAlgorithm algorithm) {
+            increment(Operation.PUBLIC_KEY_ACCESS);
+            algorithmCounters[algorithm.ordinal()].increment();
         }
 
         public void recordBusinessAccess(String business) {
-            recordOperation("business.access", true);
-            businessMetrics.computeIfAbsent(business, k -> new AtomicLong(0)).incrementAndGet();
+            increment(Operation.BUSINESS_ACCESS);
+            LongAdder counter = businessCounters.get(business);
+            if (counter == null) {
+                counter = businessCounters.computeIfAbsent(business, this::newBusinessCounter);
+            }
+            counter.increment();
         }
 
-        public void recordVersionedAccess(String algorithm) {
-            recordOperation("versioned.access", true);
+        public void recordVersionedAccess(EncryptionAlgorithm algorithm) {
+            increment(Operation.VERSIONED_ACCESS);
         }
 
-        public void recordDecryptionSuccess(String algorithm, String version) {
-            recordOperation("decryption.success", true);
-            algorithmMetrics.computeIfAbsent(algorithm, k -> new AtomicLong(0)).incrementAndGet();
+        public void recordDecryptionSuccess(EncryptionAlgorithm algorithm) {
+            increment(Operation.DECRYPTION_SUCCESS);
+            algorithmCounters[algorithm.ordinal()].increment();
         }
 
-        public void recordDecryptionFailure(String algorithm, String version) {
-            recordOperation("decryption.failure", false);
+        public void recordDecryptionFailure(EncryptionAlgorithm algorithm) {
+            increment(Operation.DECRYPTION_FAILURE);
         }
 
-        private void recordOperation(String operation, boolean success) {
-            totalOperations.incrementAndGet();
-            if (success) {
-                successOperations.incrementAndGet();
-            }
-            operationMetrics.computeIfAbsent(operation, k -> new AtomicLong(0)).incrementAndGet();
+        private void increment(Operation operation) {
+            operationCounters[operation.ordinal()].increment();
         }
 
+        /**
+         * 重新初始化时只重置起始时间；计数器与 Micrometer 一样在进程内单调递增
+         */
         public void reset() {
-            totalOperations.set(0);
-            successOperations.set(0);
-            algorithmMetrics.clear();
-            businessMetrics.clear();
-            operationMetrics.clear();
             startTime = System.currentTimeMillis();
         }
 
-        public Map<String, Object> getSummary() {
-            Map<String, Object> summary = new LinkedHashMap<>();
+        /**
+         * 注册到 Micrometer：nianji.key.operations{operation,outcome}、nianji.key.algorithm.usage{algorithm}、
+         * nianji.key.business.usage{business}
+         */
+        public void bindTo(MeterRegistry registry) {
+            this.meterRegistry = registry;
+            for (Operation operation : OPERATIONS) {
+                FunctionCounter.builder("nianji.key.operations", operationCounters[operation.ordinal()], LongAdder::sum)
+                        .tag("operation", operation.key)
+                        .tag("outcome", operation.success ? "success" : "failure")
+                        .description("密钥管理操作次数")
+                        .register(registry);
+            }
+            for (EncryptionAlgorithm algorithm : ALGORITHMS) {
+                FunctionCounter.builder("nianji.key.algorithm.usage", algorithmCounters[algorithm.ordinal()], LongAdder::sum)
+                        .tag("algorithm", algorithm.name())
+                        .description("按算法统计的密钥使用次数")
+                        .register(registry);
+            }
+            businessCounters.forEach(this::registerBusinessCounter);
+        }
 
-            long total = totalOperations.get();
-            long success = successOperations.get();
+        public Map<String, Object> getSummary() {
+            long total = 0;
+            long success = 0;
+            for (Operation operation : OPERATIONS) {
+                long count = operationCounters[operation.ordinal()].sum();
+                total += count;
+                if (operation.success) {
+                    success += count;
+                }
+            }
             double successRate = total > 0 ? (double) success / total * 100 : 0.0;
 
+            Map<String, Object> summary = new LinkedHashMap<>();
             summary.put("totalOperations", total);
             summary.put("successOperations", success);
             summary.put("failureOperations", total - success);
@@ -985,26 +1378,31 @@ public class KeyManagementService {
             summary.put("uptime", System.currentTimeMillis() - startTime);
             summary.put("lastInitializationTime", lastInitializationTime);
             summary.put("lastInitializationSuccess", lastInitializationSuccess);
+            return summary;
+        }
 
-            // 算法使用统计
-            Map<String, Object> algorithmStats = new LinkedHashMap<>();
-            algorithmMetrics.forEach((algo, count) ->
-                    algorithmStats.put(algo, count.get()));
-            summary.put("algorithmUsage", algorithmStats);
-
-            // 业务使用统计
-            Map<String, Object> businessStats = new LinkedHashMap<>();
-            businessMetrics.forEach((business, count) ->
-                    businessStats.put(business, count.get()));
-            summary.put("businessUsage", businessStats);
+        private LongAdder newBusinessCounter(String business) {
+            LongAdder counter = new LongAdder();
+            MeterRegistry registry = meterRegistry;
+            if (registry != null) {
+                registerBusinessCounter(business, counter);
+            }
+            return counter;
+        }
 
-            // 操作统计
-            Map<String, Object> operationStats = new LinkedHashMap<>();
-            operationMetrics.forEach((op, count) ->
-                    operationStats.put(op, count.get()));
-            summary.put("operationStats", operationStats);
+        private void registerBusinessCounter(String business, LongAdder counter) {
+            FunctionCounter.builder("nianji.key.business.usage", counter, LongAdder::sum)
+                    .tag("business", business)
+                    .description("按业务统计的公钥获取次数")
+                    .register(meterRegistry);
+        }
 
-            return summary;
+        private static LongAdder[] newAdders(int size) {
+            LongAdder[] adders = new LongAdder[size];
+            for (int i = 0; i < size; i++) {
+                adders[i] = new LongAdder();
+            }
+            return adders;
         }
     }
-}
\ No newline at end of file
+}
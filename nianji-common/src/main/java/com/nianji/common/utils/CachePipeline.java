@@ -0,0 +1,254 @@
+package com.nianji.common.utils;
+
+import com.nianji.common.config.CacheConfig;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 管道命令收集器，由 {@link CacheUtil#pipelined} 创建
+ * <p>
+ * 方法只记录命令，回调结束后所有命令在一次管道往返中发出；对象值与字符串值分别按 RedisTemplate、
+ * StringRedisTemplate 的序列化方式读写，可以混用。返回的 {@link Result} 在管道执行后才能取值
+ */
+public final class CachePipeline {
+
+    private static final RedisSerializer<String> KEY_SERIALIZER = RedisSerializer.string();
+
+    private final RedisSerializer<Object> valueSerializer;
+    private final RedisSerializer<String> stringSerializer;
+    private final CacheConfig cacheConfig;
+
+    private final List<Command<?>> commands = new ArrayList<>();
+
+    CachePipeline(RedisSerializer<Object> valueSerializer, RedisSerializer<String> stringSerializer,
+                  CacheConfig cacheConfig) {
+        this.valueSerializer = valueSerializer;
+        this.stringSerializer = stringSerializer;
+        this.cacheConfig = cacheConfig;
+    }
+
+    // ============ 对象缓存操作 ============
+
+    /**
+     * 获取缓存值
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Result<T> get(String key) {
+        return add(connection -> connection.stringCommands().get(rawKey(key)),
+                raw -> (T) valueSerializer.deserialize((byte[]) raw));
+    }
+
+    /**
+     * 设置缓存值（带过期时间，timeout 不大于0时不过期）
+     */
+    public Result<Boolean> put(String key, Object value, long timeout, TimeUnit unit) {
+        byte[] rawValue = valueSerializer.serialize(value);
+        return set(key, rawValue, timeout, unit);
+    }
+
+    /**
+     * 智能设置缓存
+     */
+    public Result<Boolean> putSmart(String key, Object value) {
+        return put(key, value, cacheConfig.getExpire(key), TimeUnit.SECONDS);
+    }
+
+    /**
+     * 从左侧插入
+     */
+    public Result<Long> leftPush(String key, Object value) {
+        byte[] rawValue = valueSerializer.serialize(value);
+        return add(connection -> connection.listCommands().lPush(rawKey(key), rawValue), CachePipeline::asLong);
+    }
+
+    /**
+     * 从右侧插入
+     */
+    public Result<Long> rightPush(String key, Object value) {
+        byte[] rawValue = valueSerializer.serialize(value);
+        return add(connection -> connection.listCommands().rPush(rawKey(key), rawValue), CachePipeline::asLong);
+    }
+
+    // ============ 字符串缓存操作 ============
+
+    /**
+     * 获取字符串缓存值
+     */
+    public Result<String> getString(String key) {
+        return add(connection -> connection.stringCommands().get(rawKey(key)),
+                raw -> stringSerializer.deserialize((byte[]) raw));
+    }
+
+    /**
+     * 设置字符串缓存值（带过期时间，timeout 不大于0时不过期）
+     */
+    public Result<Boolean> putString(String key, String value, long timeout, TimeUnit unit) {
+        return set(key, stringSerializer.serialize(value), timeout, unit);
+    }
+
+    /**
+     * 智能设置字符串缓存
+     */
+    public Result<Boolean> putStringSmart(String key, String value) {
+        return putString(key, value, cacheConfig.getExpire(key), TimeUnit.SECONDS);
+    }
+
+    /**
+     * 从左侧插入字符串
+     */
+    public Result<Long> leftPushString(String key, String value) {
+        byte[] rawValue = stringSerializer.serialize(value);
+        return add(connection -> connection.listCommands().lPush(rawKey(key), rawValue), CachePipeline::asLong);
+    }
+
+    // ============ 键操作（与值的序列化方式无关） ============
+
+    /**
+     * 删除键
+     */
+    public Result<Long> delete(String key) {
+        return add(connection -> connection.keyCommands().del(rawKey(key)), CachePipeline::asLong);
+    }
+
+    /**
+     * 修剪列表
+     */
+    public Result<Boolean> trim(String key, long start, long end) {
+        return add(connection -> connection.listCommands().lTrim(rawKey(key), start, end),
+                CachePipeline::asBoolean);
+    }
+
+    /**
+     * 设置过期时间
+     */
+    public Result<Boolean> expire(String key, long timeout, TimeUnit unit) {
+        long millis = unit.toMillis(timeout);
+        return add(connection -> connection.keyCommands().pExpire(rawKey(key), millis), CachePipeline::asBoolean);
+    }
+
+    /**
+     * 获取剩余的过期时间（毫秒），不存在时为 -2，未设置过期时间时为 -1
+     */
+    public Result<Long> getExpireMillis(String key) {
+        return add(connection -> connection.keyCommands().pTtl(rawKey(key)), CachePipeline::asLong);
+    }
+
+    /**
+     * 智能设置过期时间
+     */
+    public Result<Boolean> expireSmart(String key) {
+        return expire(key, cacheConfig.getExpire(key), TimeUnit.SECONDS);
+    }
+
+    boolean isEmpty() {
+        return commands.isEmpty();
+    }
+
+    /**
+     * 在管道连接上发出所有命令
+     */
+    void issue(RedisConnection connection) {
+        for (Command<?> command : commands) {
+            command.issue.accept(connection);
+        }
+    }
+
+    /**
+     * 按命令顺序解码管道结果并填充 {@link Result}
+     *
+     * @return 解码后的结果，与命令顺序一致
+     */
+    List<Object> complete(List<Object> rawResults) {
+        if (rawResults.size() != commands.size()) {
+            throw new IllegalStateException("管道结果数量不一致: 命令 " + commands.size() + ", 结果 " + rawResults.size());
+        }
+        List<Object> results = new ArrayList<>(commands.size());
+        for (int i = 0; i < commands.size(); i++) {
+            results.add(commands.get(i).complete(rawResults.get(i)));
+        }
+        return results;
+    }
+
+    /**
+     * 管道执行失败时将所有结果置为 null
+     *
+     * @return 与命令数量相同的全 null 列表
+     */
+    List<Object> fail() {
+        List<Object> results = new ArrayList<>(commands.size());
+        for (Command<?> command : commands) {
+            command.result.set(null);
+            results.add(null);
+        }
+        return results;
+    }
+
+    private Result<Boolean> set(String key, byte[] rawValue, long timeout, TimeUnit unit) {
+        if (timeout > 0) {
+            long millis = unit.toMillis(timeout);
+            return add(connection -> connection.stringCommands().pSetEx(rawKey(key), millis, rawValue),
+                    CachePipeline::asBoolean);
+        }
+        return add(connection -> connection.stringCommands().set(rawKey(key), rawValue), CachePipeline::asBoolean);
+    }
+
+    private <T> Result<T> add(Consumer<RedisConnection> issue, Function<Object, T> decoder) {
+        Command<T> command = new Command<>(issue, decoder, new Result<>());
+        commands.add(command);
+        return command.result;
+    }
+
+    /**
+     * 不同客户端对状态回复的转换不完全一致，OK 也视为成功
+     */
+    private static Boolean asBoolean(Object raw) {
+        return raw instanceof Boolean value ? value : "OK".equals(String.valueOf(raw));
+    }
+
+    private static Long asLong(Object raw) {
+        return raw instanceof Number number ? number.longValue() : null;
+    }
+
+    private static byte[] rawKey(String key) {
+        return KEY_SERIALIZER.serialize(key);
+    }
+
+    private record Command<T>(Consumer<RedisConnection> issue, Function<Object, T> decoder, Result<T> result) {
+
+        T complete(Object raw) {
+            T value = raw == null ? null : decoder.apply(raw);
+            result.set(value);
+            return value;
+        }
+    }
+
+    /**
+     * 管道命令的结果
+     */
+    public static final class Result<T> {
+
+        private T value;
+        private boolean done;
+
+        private void set(T value) {
+            this.value = value;
+            this.done = true;
+        }
+
+        /**
+         * 管道执行后的结果，管道执行失败或键不存在时为 null
+         */
+        public T get() {
+            if (!done) {
+                throw new IllegalStateException("管道尚未执行");
+            }
+            return value;
+        }
+    }
+}
@@ -2,16 +2,43 @@ package com.nianji.common.utils;
 
 import com.nianji.common.config.CacheConfig;
 import com.nianji.common.constant.CacheKeys;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
 
 /**
  * 统一缓存工具类 简化操作，支持对象和字符串缓存
@@ -21,9 +48,61 @@ import java.util.function.Supplier;
 @RequiredArgsConstructor
 public class CacheUtil {
 
+    private static final RedisScript<Long> LEASE_RELEASE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/cache_lease_release.lua"), Long.class);
+
+    /**
+     * 上次加载耗时（毫秒）的伴随键后缀，用于提前刷新
+     */
+    private static final String DELTA_SUFFIX = ":xfetch";
+
+    /**
+     * 加载租约键后缀
+     */
+    private static final String LEASE_SUFFIX = ":lease";
+
+    /**
+     * 失效版本号伴随键后缀，{@link #invalidate} 时递增，加载前后版本不一致说明加载期间键已失效
+     */
+    private static final String VERSION_SUFFIX = ":version";
+
+    /**
+     * 失效版本号的保留时间，需远大于单次加载耗时；每次失效都会重新计时
+     */
+    private static final long VERSION_TTL_HOURS = 1;
+
+    private static final long LEASE_POLL_MILLIS = 50;
+
     private final RedisTemplate<String, Object> redisTemplate;
     private final StringRedisTemplate stringRedisTemplate;
     private final CacheConfig cacheConfig;
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+    /**
+     * 是否为集群连接，首次批量读取时探测
+     */
+    private volatile Boolean clusterMode;
+
+    /**
+     * 本节点正在加载的键，同一个键的并发加载共享同一个结果
+     */
+    private final Map<String, CompletableFuture<Object>> inFlightLoads = new ConcurrentHashMap<>();
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final LongAdder[] loadCounters = newLoadCounters();
+
+    @PostConstruct
+    void bindMeters() {
+        meterRegistryProvider.ifAvailable(registry -> {
+            for (LoadOutcome outcome : LoadOutcome.values()) {
+                FunctionCounter.builder("nianji.cache.loads", loadCounters[outcome.ordinal()], LongAdder::sum)
+                        .description("getOrCompute 的加载情况")
+                        .tag("outcome", outcome.tag)
+                        .register(registry);
+            }
+        });
+    }
 
     // ============ 对象缓存操作 ============
 
@@ -69,15 +148,81 @@ public class CacheUtil {
         put(key, value, expire, TimeUnit.SECONDS);
     }
 
+    /**
+     * 批量获取缓存值
+     * <p>
+     * 单机一次 MGET；集群模式下 MGET 不能跨槽，按哈希槽分组，每个槽一条 MGET，在同一个管道中发出
+     *
+     * @return 与 keys 顺序一致，不存在的键对应 null；失败时返回全 null 列表
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> multiGet(Collection<String> keys) {
+        List<String> keyList = List.copyOf(keys);
+        try {
+            return (List<T>) multiGet(keyList, valueSerializer(), redisTemplate.opsForValue()::multiGet);
+        } catch (Exception e) {
+            log.error("批量获取缓存失败. keys: {}", keyList, e);
+            return nulls(keyList.size());
+        }
+    }
+
+    /**
+     * 批量设置缓存值（相同过期时间），一次管道往返
+     */
+    public void putAll(Map<String, ?> values, long timeout, TimeUnit unit) {
+        pipelined(pipeline -> values.forEach((key, value) -> pipeline.put(key, value, timeout, unit)));
+    }
+
+    /**
+     * 批量设置缓存值（每个键单独的过期时间，单位秒），一次管道往返
+     */
+    public void putAll(Map<String, ?> values, ToLongFunction<String> timeoutSeconds) {
+        pipelined(pipeline -> values.forEach((key, value) ->
+                pipeline.put(key, value, timeoutSeconds.applyAsLong(key), TimeUnit.SECONDS)));
+    }
+
+    /**
+     * 批量智能设置缓存，一次管道往返
+     */
+    public void putAllSmart(Map<String, ?> values) {
+        putAll(values, cacheConfig::getExpire);
+    }
+
+    /**
+     * 管道批量执行，回调中记录的命令在一次往返中发出
+     * <p>
+     * 回调在发出命令前执行，命令之间不能依赖彼此的结果；各命令的结果也可以通过其返回的
+     * {@link CachePipeline.Result} 获取
+     *
+     * @return 按命令顺序解码后的结果；失败时返回全 null 列表
+     */
+    public List<Object> pipelined(Consumer<CachePipeline> commands) {
+        CachePipeline pipeline = new CachePipeline(valueSerializer(),
+                stringRedisTemplate.getStringSerializer(), cacheConfig);
+        try {
+            commands.accept(pipeline);
+            if (pipeline.isEmpty()) {
+                return new ArrayList<>();
+            }
+            List<Object> rawResults = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                pipeline.issue(connection);
+                return null;
+            }, null);
+            return pipeline.complete(rawResults);
+        } catch (Exception e) {
+            log.error("管道执行失败", e);
+            return pipeline.fail();
+        }
+    }
+
     /**
      * 添加值（带过期时间）
      */
     public void add(String key, Object value, long timeout, TimeUnit unit) {
         try {
+            redisTemplate.opsForSet().add(key, value);
             if (timeout > 0) {
-                redisTemplate.opsForSet().add(key, value, timeout, unit);
-            } else {
-                redisTemplate.opsForSet().add(key, value);
+                redisTemplate.expire(key, timeout, unit);
             }
         } catch (Exception e) {
             log.error("添加值. key: {}", key, e);
@@ -105,6 +250,17 @@ public class CacheUtil {
         }
     }
 
+    /**
+     * 使 getOrCompute 缓存的键失效
+     * <p>
+     * 先递增失效版本号再删除：删除前已开始的加载（包括提前刷新）写入后会发现版本变化并删除自己写入的旧值，
+     * 数据源更新后需要立即失效的键应使用此方法而不是 {@link #delete}
+     */
+    public void invalidate(String key) {
+        incrementWithExpireString(key + VERSION_SUFFIX, 1, VERSION_TTL_HOURS, TimeUnit.HOURS);
+        delete(key);
+    }
+
     /**
      * 移除键值对
      */
@@ -129,6 +285,52 @@ public class CacheUtil {
         return null;
     }
 
+    /**
+     * 添加集合成员（StringRedisTemplate）
+     */
+    public void addString(String key, String value, long timeout, TimeUnit unit) {
+        try {
+            stringRedisTemplate.opsForSet().add(key, value);
+            if (timeout > 0) {
+                stringRedisTemplate.expire(key, timeout, unit);
+            }
+        } catch (Exception e) {
+            log.error("添加集合成员失败（StringRedisTemplate）. key: {}", key, e);
+        }
+    }
+
+    /**
+     * 添加集合成员，自动获取过期时间（StringRedisTemplate）
+     */
+    public void addStringSmart(String key, String value) {
+        long expire = cacheConfig.getExpire(key);
+        addString(key, value, expire, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 移除集合成员（StringRedisTemplate）
+     */
+    public void removeString(String key, String... values) {
+        try {
+            stringRedisTemplate.opsForSet().remove(key, (Object[]) values);
+        } catch (Exception e) {
+            log.error("移除集合成员失败（StringRedisTemplate）. key: {}", key, e);
+        }
+    }
+
+    /**
+     * 汇总集合所有成员（StringRedisTemplate）
+     */
+    public Set<String> membersString(String key) {
+        try {
+            return stringRedisTemplate.opsForSet().members(key);
+        } catch (Exception e) {
+            log.error("汇总集合所有成员失败（StringRedisTemplate）. key: {}", key, e);
+        }
+
+        return null;
+    }
+
     /**
      * 选取指定范围
      */
@@ -153,14 +355,42 @@ public class CacheUtil {
      * 获取或计算缓存（带过期时间）
      */
     public <T> T getOrCompute(String key, Supplier<T> supplier, long timeout, TimeUnit unit) {
-        T value = get(key);
-        if (value == null) {
-            value = supplier.get();
-            if (value != null) {
-                put(key, value, timeout, unit);
-            }
+        return getOrCompute(key, timeout > 0 ? Duration.ofMillis(unit.toMillis(timeout)) : null, supplier);
+    }
+
+    /**
+     * 获取或计算缓存（防击穿）
+     * <p>
+     * 1. 本节点内同一个键只有一个线程执行加载，并发请求等待并共享结果；
+     * 2. 命中时按 XFetch 提前刷新：剩余时间不大于 δ·β·(-ln U) 时由当前请求重新加载（δ 为上次加载耗时，
+     *    U 为 (0,1) 均匀随机数），越接近过期越可能刷新，刷新期间其他请求继续返回旧值；
+     * 3. 开启租约时，多个节点同时加载同一个键只有拿到租约的节点执行，其余节点等待其写入；
+     * 4. 加载前记录失效版本号，写入后版本已变化（加载期间调用了 {@link #invalidate}）时删除刚写入的值。
+     * <p>
+     * 加载结果为 null 时不缓存
+     *
+     * @param ttl
+     *         过期时间，null 表示不过期（不提前刷新）
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getOrCompute(String key, Duration ttl, Supplier<T> loader) {
+        if (ttl == null) {
+            T cached = get(key);
+            return cached != null ? cached : singleFlight(key, null, loader, null, getString(key + VERSION_SUFFIX));
         }
-        return value;
+
+        // 值、剩余时间、上次加载耗时和失效版本号一次管道往返读取
+        List<Object> results = pipelined(pipeline -> {
+            pipeline.get(key);
+            pipeline.getExpireMillis(key);
+            pipeline.getString(key + DELTA_SUFFIX);
+            pipeline.getString(key + VERSION_SUFFIX);
+        });
+        T cached = (T) results.get(0);
+        if (cached != null && !shouldRefreshEarly((Long) results.get(1), (String) results.get(2))) {
+            return cached;
+        }
+        return singleFlight(key, ttl, loader, cached, (String) results.get(3));
     }
 
     // ============ 字符串缓存操作 ============
@@ -177,6 +407,21 @@ public class CacheUtil {
         }
     }
 
+    /**
+     * 批量获取字符串缓存值，一次 MGET
+     *
+     * @return 与 keys 顺序一致，不存在的键对应 null；失败时返回全 null 列表
+     */
+    public List<String> multiGetString(List<String> keys) {
+        try {
+            return multiGet(keys, stringRedisTemplate.getStringSerializer(),
+                    stringRedisTemplate.opsForValue()::multiGet);
+        } catch (Exception e) {
+            log.error("批量获取字符串缓存失败. keys: {}", keys, e);
+            return nulls(keys.size());
+        }
+    }
+
     /**
      * 设置字符串缓存值
      */
@@ -488,4 +733,266 @@ public class CacheUtil {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    // ============ 防击穿加载 ============
+
+    /**
+     * 同一个键只有一个线程加载
+     *
+     * @param stale
+     *         提前刷新时的旧值，其他线程或节点正在加载时直接返回；未命中时为 null
+     * @param version
+     *         加载前读取的失效版本号，没有时为 null
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T singleFlight(String key, Duration ttl, Supplier<T> loader, T stale, String version) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlightLoads.putIfAbsent(key, flight);
+        if (existing != null) {
+            increment(LoadOutcome.COALESCED);
+            return stale != null ? stale : (T) await(existing);
+        }
+
+        try {
+            T value = loadWithLease(key, ttl, loader, stale, version);
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLoads.remove(key, flight);
+        }
+    }
+
+    private <T> T loadWithLease(String key, Duration ttl, Supplier<T> loader, T stale, String version) {
+        CacheConfig.Stampede stampede = cacheConfig.getStampede();
+        String leaseKey = stampede.isLeaseEnabled() ? key + LEASE_SUFFIX : null;
+        if (leaseKey != null && !acquireLease(leaseKey, stampede.getLeaseTime())) {
+            // 其他节点正在加载：刷新时继续用旧值，未命中时等待其写入，超时后自行加载
+            if (stale != null) {
+                increment(LoadOutcome.LEASE_WAITED);
+                return stale;
+            }
+            T loaded = awaitOtherNode(key, stampede.getLeaseWait());
+            if (loaded != null) {
+                increment(LoadOutcome.LEASE_WAITED);
+                return loaded;
+            }
+            leaseKey = null;
+        }
+
+        try {
+            long start = System.nanoTime();
+            T value = loader.get();
+            long deltaMillis = Math.max(1L, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            increment(stale != null ? LoadOutcome.EARLY_REFRESH : LoadOutcome.LOADED);
+
+            if (value != null) {
+                pipelined(pipeline -> {
+                    if (ttl == null) {
+                        pipeline.put(key, value, -1, TimeUnit.MILLISECONDS);
+                    } else {
+                        pipeline.put(key, value, ttl.toMillis(), TimeUnit.MILLISECONDS);
+                        pipeline.putString(key + DELTA_SUFFIX, String.valueOf(deltaMillis),
+                                ttl.toMillis(), TimeUnit.MILLISECONDS);
+                    }
+                });
+                discardIfInvalidated(key, version);
+            }
+            return value;
+        } finally {
+            if (leaseKey != null) {
+                releaseLease(leaseKey);
+            }
+        }
+    }
+
+    /**
+     * 写入后再读一次失效版本号，加载期间键已失效时删除刚写入的值
+     * <p>
+     * 失效先递增版本号再删除键：递增发生在这次读取之前时由这里删除，发生在之后时失效自身的删除晚于本次写入
+     */
+    private void discardIfInvalidated(String key, String version) {
+        if (!Objects.equals(version, getString(key + VERSION_SUFFIX))) {
+            log.debug("加载期间缓存已失效，丢弃本次写入. key: {}", key);
+            delete(key);
+        }
+    }
+
+    /**
+     * XFetch：-δ·β·ln(U) 不小于剩余时间时提前刷新，缺少加载耗时或剩余时间时不提前刷新
+     */
+    private boolean shouldRefreshEarly(Long remainingMillis, String deltaMillis) {
+        double beta = cacheConfig.getStampede().getBeta();
+        if (beta <= 0 || remainingMillis == null || remainingMillis < 0 || deltaMillis == null) {
+            return false;
+        }
+        try {
+            double gap = Long.parseLong(deltaMillis) * beta * -Math.log(ThreadLocalRandom.current().nextDouble());
+            return gap >= remainingMillis;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private boolean acquireLease(String leaseKey, Duration leaseTime) {
+        try {
+            return Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(leaseKey, nodeId, leaseTime));
+        } catch (Exception e) {
+            // Redis 不可用时不阻塞加载
+            log.warn("获取缓存加载租约失败. key: {}", leaseKey, e);
+            return true;
+        }
+    }
+
+    private void releaseLease(String leaseKey) {
+        try {
+            stringRedisTemplate.execute(LEASE_RELEASE_SCRIPT, List.of(leaseKey), nodeId);
+        } catch (Exception e) {
+            log.warn("释放缓存加载租约失败. key: {}", leaseKey, e);
+        }
+    }
+
+    /**
+     * 等待持有租约的节点写入，超时返回 null
+     */
+    private <T> T awaitOtherNode(String key, Duration leaseWait) {
+        long deadline = System.nanoTime() + leaseWait.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(LEASE_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            T value = get(key);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private static Object await(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void increment(LoadOutcome outcome) {
+        loadCounters[outcome.ordinal()].increment();
+    }
+
+    private static LongAdder[] newLoadCounters() {
+        LongAdder[] counters = new LongAdder[LoadOutcome.values().length];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+
+    /**
+     * getOrCompute 的加载情况
+     */
+    private enum LoadOutcome {
+        /**
+         * 未命中后由本线程加载
+         */
+        LOADED("loaded"),
+        /**
+         * 本节点已有线程在加载，合并到同一次加载（或提前刷新期间返回旧值）
+         */
+        COALESCED("coalesced"),
+        /**
+         * 命中后按 XFetch 提前刷新
+         */
+        EARLY_REFRESH("early_refresh"),
+        /**
+         * 其他节点持有租约，使用其加载结果或旧值
+         */
+        LEASE_WAITED("lease_waited");
+
+        private final String tag;
+
+        LoadOutcome(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    // ============ 批量读取 ============
+
+    /**
+     * 按哈希槽分组执行 MGET，所有键在同一个槽（或非集群）时直接使用模板的 MGET
+     */
+    private <V> List<V> multiGet(List<String> keys, RedisSerializer<V> serializer,
+                                 Function<List<String>, List<V>> mget) {
+        if (keys.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Collection<List<Integer>> slots = isClusterMode() ? groupBySlot(keys) : List.of();
+        if (slots.size() <= 1) {
+            List<V> values = mget.apply(keys);
+            return values != null ? values : nulls(keys.size());
+        }
+
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (List<Integer> indexes : slots) {
+                byte[][] rawKeys = new byte[indexes.size()][];
+                for (int i = 0; i < rawKeys.length; i++) {
+                    rawKeys[i] = keys.get(indexes.get(i)).getBytes(StandardCharsets.UTF_8);
+                }
+                connection.stringCommands().mGet(rawKeys);
+            }
+            return null;
+        }, null);
+
+        List<V> values = nulls(keys.size());
+        int slot = 0;
+        for (List<Integer> indexes : slots) {
+            List<?> rawValues = (List<?>) results.get(slot++);
+            for (int i = 0; i < indexes.size(); i++) {
+                values.set(indexes.get(i), serializer.deserialize((byte[]) rawValues.get(i)));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * 键的下标按哈希槽分组，保持首次出现的顺序
+     */
+    private static Collection<List<Integer>> groupBySlot(List<String> keys) {
+        Map<Integer, List<Integer>> slots = new LinkedHashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            slots.computeIfAbsent(ClusterSlotHashUtil.calculateSlot(keys.get(i)), slot -> new ArrayList<>()).add(i);
+        }
+        return slots.values();
+    }
+
+    private boolean isClusterMode() {
+        Boolean cluster = clusterMode;
+        if (cluster == null) {
+            cluster = Boolean.TRUE.equals(redisTemplate.execute(
+                    (RedisCallback<Boolean>) connection -> connection instanceof RedisClusterConnection));
+            clusterMode = cluster;
+        }
+        return cluster;
+    }
+
+    @SuppressWarnings("unchecked")
+    private RedisSerializer<Object> valueSerializer() {
+        return (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+    }
+
+    private static <V> List<V> nulls(int size) {
+        return new ArrayList<>(Collections.nCopies(size, null));
+    }
+}
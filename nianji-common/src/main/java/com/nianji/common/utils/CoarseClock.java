@@ -0,0 +1,36 @@
+package com.nianji.common.utils;
+
+import java.time.LocalDateTime;
+
+/**
+ * 粗粒度时钟 每秒最多刷新一次
+ * <p>
+ * 热点路径上记录"最后使用时间"时复用同一个 {@link LocalDateTime}，不在每次调用时创建对象；
+ * 调用方可以按引用比较，只在时间变化时写字段
+ */
+public final class CoarseClock {
+
+    private static final long RESOLUTION_MILLIS = 1000;
+
+    private static volatile Tick tick = new Tick(System.currentTimeMillis(), LocalDateTime.now());
+
+    private CoarseClock() {
+    }
+
+    /**
+     * 当前时间，精度1秒
+     */
+    public static LocalDateTime now() {
+        Tick current = tick;
+        long millis = System.currentTimeMillis();
+        if (millis - current.millis() >= RESOLUTION_MILLIS) {
+            // 多个线程同时刷新时结果相同，后写入的覆盖先写入的即可
+            current = new Tick(millis, LocalDateTime.now());
+            tick = current;
+        }
+        return current.time();
+    }
+
+    private record Tick(long millis, LocalDateTime time) {
+    }
+}
@@ -1,16 +1,18 @@
 package com.nianji.common.utils;
 
 
-import cn.hutool.core.util.StrUtil;
+import com.nianji.common.ip.CidrSet;
+import com.nianji.common.ip.ClientIpResolver;
+import com.nianji.common.ip.IpAddressParser;
+import com.nianji.common.ip.geo.GeoRegion;
+import com.nianji.common.ip.geo.IpGeoLocator;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Component;
 
 
 import jakarta.servlet.http.HttpServletRequest;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
-import java.util.regex.Pattern;
 
 
 /**
@@ -31,7 +33,7 @@ public class IpUtil {
     /**
      * 未知 IP
      */
-    public static final String UNKNOWN_IP = "unknown";
+    public static final String UNKNOWN_IP = ClientIpResolver.UNKNOWN_IP;
 
 
     /**
@@ -58,50 +60,41 @@ public class IpUtil {
     public static final String IP_SEPARATOR = ",";
 
 
-    // ============ IP 头信息常量 ============
+    // ============ IP 地址段 ============
 
 
     /**
-     * 可能包含真实 IP 的请求头
+     * 内网地址段（私有地址、回环地址、IPv6 唯一本地/链路本地地址）
      */
-    private static final String[] IP_HEADERS = {
-            "X-Forwarded-For",
-            "X-Real-IP",
-            "Proxy-Client-IP",
-            "WL-Proxy-Client-IP",
-            "HTTP_CLIENT_IP",
-            "HTTP_X_FORWARDED_FOR"
-    };
-
-
-    // ============ IP 地址模式匹配 ============
-
-
-    /**
-     * IPv4 地址正则表达式
-     */
-    private static final Pattern IPV4_PATTERN = Pattern.compile(
-            "^((25[0-5]|2[0-4][0-9]|[01]?[0-9][0-9]?)\\.){3}(25[0-5]|2[0-4][0-9]|[01]?[0-9][0-9]?)$"
+    private static final CidrSet PRIVATE_IP_RANGES = CidrSet.of(
+            "10.0.0.0/8",
+            "172.16.0.0/12",
+            "192.168.0.0/16",
+            "127.0.0.0/8",
+            "::1/128",
+            "fc00::/7",
+            "fe80::/10"
     );
 
 
     /**
-     * IPv6 地址正则表达式（简化版）
+     * 国内 IP 常见的首段（未加载地理位置数据库时的兜底判断）
      */
-    private static final Pattern IPV6_PATTERN = Pattern.compile(
-            "^([0-9a-fA-F]{1,4}:){7}[0-9a-fA-F]{1,4}$"
-    );
-
+    private static final boolean[] DOMESTIC_FIRST_SEGMENTS = new boolean[256];
 
-    /**
-     * 私有 IP 地址段
-     */
-    private static final String[] PRIVATE_IP_RANGES = {
-            "10.", "172.16.", "172.17.", "172.18.", "172.19.",
-            "172.20.", "172.21.", "172.22.", "172.23.", "172.24.",
-            "172.25.", "172.26.", "172.27.", "172.28.", "172.29.",
-            "172.30.", "172.31.", "192.168."
-    };
+    static {
+        int[] segments = {
+                1, 14, 27, 36, 39, 42, 49, 58, 59, 60, 61, 101, 106,
+                110, 111, 112, 113, 114, 115, 116, 117, 118, 119, 120, 121, 122, 123, 124, 125, 126,
+                171, 175, 180, 182, 183, 202, 203, 210, 211, 218, 219, 220, 221, 222
+        };
+        for (int segment : segments) {
+            DOMESTIC_FIRST_SEGMENTS[segment] = true;
+        }
+        for (int segment = 223; segment <= 239; segment++) {
+            DOMESTIC_FIRST_SEGMENTS[segment] = true;
+        }
+    }
 
 
     // ============ IP 地址获取方法 ============
@@ -120,37 +113,7 @@ public class IpUtil {
         }
 
 
-        String ip = null;
-
-
-        // 1. 检查代理头信息
-        for (String header : IP_HEADERS) {
-            ip = request.getHeader(header);
-            if (isValidIp(ip)) {
-                break;
-            }
-        }
-
-
-        // 2. 如果代理头中没有有效的 IP，使用 getRemoteAddr
-        if (!isValidIp(ip)) {
-            ip = request.getRemoteAddr();
-        }
-
-
-        // 3. 处理多个 IP 的情况（如 X-Forwarded-For: client, proxy1, proxy2）
-        if (StrUtil.isNotEmpty(ip) && ip.contains(IP_SEPARATOR)) {
-            ip = ip.split(IP_SEPARATOR)[0].trim();
-        }
-
-
-        // 4. 处理本地地址
-        if (LOCALHOST_IPV6.equals(ip)) {
-            ip = LOCALHOST_IPV4;
-        }
-
-
-        return isValidIp(ip) ? ip : UNKNOWN_IP;
+        return ClientIpResolver.defaults().resolve(request::getHeader, request.getRemoteAddr());
     }
 
 
@@ -167,13 +130,7 @@ public class IpUtil {
         }
 
 
-        String ip = request.getRemoteAddr();
-        if (LOCALHOST_IPV6.equals(ip)) {
-            ip = LOCALHOST_IPV4;
-        }
-
-
-        return isValidIp(ip) ? ip : UNKNOWN_IP;
+        return ClientIpResolver.defaults().resolve(header -> null, request.getRemoteAddr());
     }
 
 
@@ -185,9 +142,7 @@ public class IpUtil {
      * @return 是否有效
      */
     public static boolean isValidIp(String ip) {
-        return StrUtil.isNotEmpty(ip) &&
-                !UNKNOWN_IP.equalsIgnoreCase(ip) &&
-                (isValidIpv4(ip) || isValidIpv6(ip));
+        return IpAddressParser.isValid(ip);
     }
 
 
@@ -199,7 +154,7 @@ public class IpUtil {
      * @return 是否为 IPv4
      */
     public static boolean isValidIpv4(String ip) {
-        return ip != null && IPV4_PATTERN.matcher(ip).matches();
+        return IpAddressParser.isIpv4(ip);
     }
 
 
@@ -211,7 +166,7 @@ public class IpUtil {
      * @return 是否为 IPv6
      */
     public static boolean isValidIpv6(String ip) {
-        return ip != null && IPV6_PATTERN.matcher(ip).matches();
+        return IpAddressParser.isIpv6(ip);
     }
 
 
@@ -226,21 +181,7 @@ public class IpUtil {
      * @return 是否为内网 IP
      */
     public static boolean isInternalIp(String ip) {
-        if (!isValidIpv4(ip)) {
-            return false;
-        }
-
-
-        // 检查私有 IP 段
-        for (String privateRange : PRIVATE_IP_RANGES) {
-            if (ip.startsWith(privateRange)) {
-                return true;
-            }
-        }
-
-
-        // 检查回环地址
-        return ip.startsWith("127.") || ip.equals(LOCALHOST_IPV4);
+        return PRIVATE_IP_RANGES.contains(ip);
     }
 
 
@@ -272,7 +213,7 @@ public class IpUtil {
 
 
     /**
-     * 获取 IP 地理位置（简化版） 基于 IP 地址段进行简单的地理位置判断
+     * 获取 IP 地理位置 优先查询本地 IP 地理位置数据库，未加载时基于 IP 地址段进行粗略判断
      *
      * @param ip
      *         IP 地址
@@ -284,140 +225,34 @@ public class IpUtil {
         }
 
 
-        try {
-            // 这里可以使用本地的 IP 地址库或调用第三方服务
-            // 以下是基于常见 IP 地址段的简单判断
-            return getLocationByIpSegment(ip);
-        } catch (Exception e) {
-            log.warn("获取 IP 地理位置失败: {}", ip, e);
+        long ipLong = IpAddressParser.parseIpv4(ip);
+        if (ipLong == IpAddressParser.INVALID) {
             return "未知";
         }
+
+
+        if (IpGeoLocator.isAvailable()) {
+            GeoRegion region = IpGeoLocator.lookup(ipLong);
+            return region != null ? region.getLocation() : "未知";
+        }
+        return getLocationByIpSegment(ipLong);
     }
 
 
     /**
-     * 根据 IP 地址段获取地理位置（简化实现）
+     * 根据 IP 地址段获取地理位置（未加载地理位置数据库时的兜底实现）
      *
-     * @param ip
-     *         IP 地址
+     * @param ipLong
+     *         IPv4 地址值
      * @return 地理位置
      */
-    private static String getLocationByIpSegment(String ip) {
-        if (!isValidIpv4(ip)) {
-            return "未知";
-        }
-
-
-        String[] segments = ip.split("\\.");
-        if (segments.length != 4) {
-            return "未知";
-        }
-
-
-        int firstSegment = Integer.parseInt(segments[0]);
-        int secondSegment = Integer.parseInt(segments[1]);
-
-
-        // 基于 IP 地址段的简单地理位置判断
-        // 注意：这只是一个简化实现，实际项目中应该使用专业的 IP 地址库
-        if (firstSegment == 1) {
-            return "中国";
-        } else if (firstSegment == 14) {
-            return "中国";
-        } else if (firstSegment == 27) {
-            return "中国";
-        } else if (firstSegment == 36) {
-            return "中国";
-        } else if (firstSegment == 39) {
-            return "中国";
-        } else if (firstSegment == 42) {
-            return "中国";
-        } else if (firstSegment == 49) {
-            return "中国";
-        } else if (firstSegment == 58) {
-            return "中国";
-        } else if (firstSegment == 59) {
-            return "中国";
-        } else if (firstSegment == 60) {
-            return "中国";
-        } else if (firstSegment == 61) {
-            return "中国";
-        } else if (firstSegment == 101) {
-            return "中国";
-        } else if (firstSegment == 106) {
-            return "中国";
-        } else if (firstSegment == 110) {
-            return "中国";
-        } else if (firstSegment == 111) {
-            return "中国";
-        } else if (firstSegment == 112) {
-            return "中国";
-        } else if (firstSegment == 113) {
-            return "中国";
-        } else if (firstSegment == 114) {
-            return "中国";
-        } else if (firstSegment == 115) {
-            return "中国";
-        } else if (firstSegment == 116) {
-            return "中国";
-        } else if (firstSegment == 117) {
-            return "中国";
-        } else if (firstSegment == 118) {
-            return "中国";
-        } else if (firstSegment == 119) {
-            return "中国";
-        } else if (firstSegment == 120) {
-            return "中国";
-        } else if (firstSegment == 121) {
-            return "中国";
-        } else if (firstSegment == 122) {
-            return "中国";
-        } else if (firstSegment == 123) {
-            return "中国";
-        } else if (firstSegment == 124) {
-            return "中国";
-        } else if (firstSegment == 125) {
-            return "中国";
-        } else if (firstSegment == 126) {
-            return "中国";
-        } else if (firstSegment == 171) {
-            return "中国";
-        } else if (firstSegment == 175) {
-            return "中国";
-        } else if (firstSegment == 180) {
-            return "中国";
-        } else if (firstSegment == 182) {
-            return "中国";
-        } else if (firstSegment == 183) {
-            return "中国";
-        } else if (firstSegment == 202) {
-            return "中国";
-        } else if (firstSegment == 203) {
-            return "中国";
-        } else if (firstSegment == 210) {
-            return "中国";
-        } else if (firstSegment == 211) {
-            return "中国";
-        } else if (firstSegment == 218) {
-            return "中国";
-        } else if (firstSegment == 219) {
-            return "中国";
-        } else if (firstSegment == 220) {
-            return "中国";
-        } else if (firstSegment == 221) {
-            return "中国";
-        } else if (firstSegment == 222) {
-            return "中国";
-        } else if (firstSegment >= 223 && firstSegment <= 239) {
-            return "中国";
-        } else {
-            return "海外";
-        }
+    private static String getLocationByIpSegment(long ipLong) {
+        return DOMESTIC_FIRST_SEGMENTS[(int) (ipLong >>> 24)] ? GeoRegion.DOMESTIC_COUNTRY : "海外";
     }
 
 
     /**
-     * 获取详细的 IP 地理位置信息 实际项目中应该集成专业的 IP 地址查询服务
+     * 获取详细的 IP 地理位置信息 基于本地 IP 地理位置数据库，未收录的字段填充为"未知"
      *
      * @param ip
      *         IP 地址
@@ -428,38 +263,25 @@ public class IpUtil {
         location.setIp(ip);
 
         if (!isValidIp(ip)) {
-            location.setCountry("未知");
-            location.setRegion("未知");
-            location.setCity("未知");
-            location.setIsp("未知");
+            fillLocation(location, "未知", "未知", "未知", "未知");
             return location;
         }
 
 
         if (isInternalIp(ip)) {
-            location.setCountry("内网");
-            location.setRegion("内网");
-            location.setCity("内网");
-            location.setIsp("内网");
+            fillLocation(location, "内网", "内网", "内网", "内网");
             return location;
         }
 
 
-        try {
-            // 这里可以调用第三方 IP 地址查询 API
-            // 例如：淘宝 IP、百度 IP、ip-api.com 等
-            // 以下是模拟数据
-            location.setCountry("中国");
-            location.setRegion("北京市");
-            location.setCity("北京市");
-            location.setIsp("电信");
-
-        } catch (Exception e) {
-            log.warn("获取详细 IP 地理位置失败: {}", ip, e);
-            location.setCountry("未知");
-            location.setRegion("未知");
-            location.setCity("未知");
-            location.setIsp("未知");
+        long ipLong = IpAddressParser.parseIpv4(ip);
+        GeoRegion region = ipLong != IpAddressParser.INVALID ? IpGeoLocator.lookup(ipLong) : null;
+        if (region != null) {
+            fillLocation(location, region.getCountry(), region.getRegion(), region.getCity(), region.getIsp());
+        } else if (ipLong != IpAddressParser.INVALID && !IpGeoLocator.isAvailable()) {
+            fillLocation(location, getLocationByIpSegment(ipLong), "未知", "未知", "未知");
+        } else {
+            fillLocation(location, "未知", "未知", "未知", "未知");
         }
 
 
@@ -467,6 +289,14 @@ public class IpUtil {
     }
 
 
+    private static void fillLocation(IpLocation location, String country, String region, String city, String isp) {
+        location.setCountry(country);
+        location.setRegion(region);
+        location.setCity(city);
+        location.setIsp(isp);
+    }
+
+
     // ============ IP 转换和计算 ============
 
 
@@ -478,19 +308,8 @@ public class IpUtil {
      * @return 长整型表示的 IP
      */
     public static long ipToLong(String ip) {
-        if (!isValidIpv4(ip)) {
-            return 0;
-        }
-
-
-        String[] segments = ip.split("\\.");
-        long result = 0;
-
-        for (int i = 0; i < 4; i++) {
-            result += Long.parseLong(segments[i]) << (24 - (8 * i));
-        }
-
-        return result;
+        long result = IpAddressParser.parseIpv4(ip);
+        return result == IpAddressParser.INVALID ? 0 : result;
     }
 
 
@@ -584,8 +403,14 @@ public class IpUtil {
         }
 
 
-        // 这里可以添加更多的风险评估逻辑
-        // 例如：检查 IP 是否在黑名单中、是否来自高风险地区等
+        // 境外 IP 视为中风险（仅在加载了地理位置数据库时判断）
+        long ipLong = IpAddressParser.parseIpv4(ip);
+        if (ipLong != IpAddressParser.INVALID) {
+            GeoRegion region = IpGeoLocator.lookup(ipLong);
+            if (region != null && !region.isDomestic()) {
+                return RiskLevel.MEDIUM;
+            }
+        }
 
         return RiskLevel.NORMAL;
     }
@@ -603,16 +428,15 @@ public class IpUtil {
      * @return 是否在范围内
      */
     public static boolean isInRange(String ip, String startIp, String endIp) {
-        if (!isValidIpv4(ip) || !isValidIpv4(startIp) || !isValidIpv4(endIp)) {
+        long ipLong = IpAddressParser.parseIpv4(ip);
+        long startLong = IpAddressParser.parseIpv4(startIp);
+        long endLong = IpAddressParser.parseIpv4(endIp);
+        if (ipLong == IpAddressParser.INVALID || startLong == IpAddressParser.INVALID
+                || endLong == IpAddressParser.INVALID) {
             return false;
         }
 
 
-        long ipLong = ipToLong(ip);
-        long startLong = ipToLong(startIp);
-        long endLong = ipToLong(endIp);
-
-
         return ipLong >= startLong && ipLong <= endLong;
     }
 
@@ -745,13 +569,7 @@ public class IpUtil {
         }
 
 
-        String[] segments = ip.split("\\.");
-        if (segments.length == 4) {
-            return segments[0] + "." + segments[1] + "." + segments[2] + ".xxx";
-        }
-
-
-        return ip;
+        return ip.substring(0, ip.lastIndexOf('.') + 1) + "xxx";
     }
 
 
@@ -0,0 +1,19 @@
+-- 竞选或续约密钥轮换主节点
+--
+-- KEYS[1] 主节点键
+--
+-- ARGV[1] 节点ID        ARGV[2] 租约（毫秒）
+--
+-- 返回 1 表示当前节点是主节点
+
+local owner = redis.call('GET', KEYS[1])
+if owner == ARGV[1] then
+    redis.call('PEXPIRE', KEYS[1], ARGV[2])
+    return 1
+end
+if owner then
+    return 0
+end
+
+redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+return 1
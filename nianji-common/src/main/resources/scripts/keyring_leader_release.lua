@@ -0,0 +1,10 @@
+-- 释放密钥轮换主节点，只删除自己持有的租约
+--
+-- KEYS[1] 主节点键
+--
+-- ARGV[1] 节点ID
+
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('DEL', KEYS[1])
+end
+return 0
@@ -0,0 +1,17 @@
+-- 按代数比较后写入密钥环，防止租约交接期间新旧主节点互相覆盖
+--
+-- KEYS[1] 密钥环键（hash：generation、data）
+--
+-- ARGV[1] 期望的当前代数（0 表示尚不存在）
+-- ARGV[2] 新的密钥环记录
+--
+-- 返回写入后的代数，代数不一致时返回 -1
+
+local current = tonumber(redis.call('HGET', KEYS[1], 'generation') or '0')
+if current ~= tonumber(ARGV[1]) then
+    return -1
+end
+
+local next = current + 1
+redis.call('HSET', KEYS[1], 'generation', next, 'data', ARGV[2])
+return next
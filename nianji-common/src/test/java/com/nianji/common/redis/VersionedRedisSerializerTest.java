@@ -0,0 +1,109 @@
+package com.nianji.common.redis;
+
+import com.nianji.common.config.RedisSerializationConfig;
+import com.nianji.common.security.model.PublicKeyInfo;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.testng.annotations.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * 版本头编解码往返：旧版无版本头的值、紧凑格式、超过阈值的 LZ4 压缩，以及未知编码和格式版本
+ */
+public class VersionedRedisSerializerTest {
+
+    private static final byte MAGIC = (byte) 0xA7;
+    private static final int COMPRESSION_THRESHOLD = 512;
+
+    private final VersionedRedisSerializer jsonSerializer = serializer(RedisCodecProperties.WriteFormat.JSON);
+    private final VersionedRedisSerializer compactSerializer = serializer(RedisCodecProperties.WriteFormat.COMPACT);
+
+    @Test
+    public void decodesLegacyValuesWithoutHeader() {
+        PublicKeyInfo value = publicKeyInfo("MIIBIjANBgkqhkiG9w0BAQEFAAOCAQ8AMIIBCgKCAQEA");
+        byte[] legacy = RedisSerializationConfig.valueSerializer().serialize(value);
+
+        assertNotEquals(legacy[0], MAGIC);
+        assertEquals(jsonSerializer.deserialize(legacy), value);
+        assertEquals(compactSerializer.deserialize(legacy), value);
+        assertEquals(compactSerializer.deserialize(RedisSerializationConfig.valueSerializer().serialize("legacy")), "legacy");
+    }
+
+    @Test
+    public void jsonWriteFormatMatchesLegacySerializer() {
+        PublicKeyInfo value = publicKeyInfo("MIIBIjANBgkqhkiG9w0BAQEFAAOCAQ8AMIIBCgKCAQEA");
+
+        assertEquals(jsonSerializer.serialize(value), RedisSerializationConfig.valueSerializer().serialize(value));
+    }
+
+    @Test
+    public void roundTripsCompactValuesWithHeader() {
+        PublicKeyInfo value = publicKeyInfo("MIIBIjANBgkqhkiG9w0BAQEFAAOCAQ8AMIIBCgKCAQEA");
+        byte[] bytes = compactSerializer.serialize(value);
+
+        assertEquals(bytes[0], MAGIC);
+        assertEquals(bytes[1], (byte) 1);
+        assertEquals(bytes[2], SchemaRedisCodec.ID);
+        assertEquals(bytes[3] & 0x01, 0);
+        assertTrue(bytes.length < COMPRESSION_THRESHOLD);
+        assertEquals(compactSerializer.deserialize(bytes), value);
+        // 滚动升级期间仍以 JSON 写入的节点也能读取
+        assertEquals(jsonSerializer.deserialize(bytes), value);
+    }
+
+    @Test
+    public void compressesValuesAboveThreshold() {
+        PublicKeyInfo value = publicKeyInfo("MIIBIjANBgkqhkiG9w0BAQEFAAOCAQ8AMIIBCgKCAQEA".repeat(100));
+        byte[] bytes = compactSerializer.serialize(value);
+
+        assertEquals(bytes[0], MAGIC);
+        assertEquals(bytes[2], SchemaRedisCodec.ID);
+        assertEquals(bytes[3] & 0x01, 1);
+        assertTrue(bytes.length < value.getPublicKey().length());
+        assertEquals(compactSerializer.deserialize(bytes), value);
+        assertEquals(jsonSerializer.deserialize(bytes), value);
+    }
+
+    @Test(expectedExceptions = SerializationException.class)
+    public void rejectsUnknownCodecId() {
+        byte[] bytes = compactSerializer.serialize(publicKeyInfo("MIIBIjANBgkqhkiG9w0BAQEFAAOCAQ8AMIIBCgKCAQEA"));
+        bytes[2] = 99;
+        compactSerializer.deserialize(bytes);
+    }
+
+    @Test(expectedExceptions = SerializationException.class)
+    public void rejectsUnknownFormatVersion() {
+        byte[] bytes = compactSerializer.serialize(publicKeyInfo("MIIBIjANBgkqhkiG9w0BAQEFAAOCAQ8AMIIBCgKCAQEA"));
+        bytes[1] = 2;
+        compactSerializer.deserialize(bytes);
+    }
+
+    private static VersionedRedisSerializer serializer(RedisCodecProperties.WriteFormat writeFormat) {
+        RedisCodecProperties properties = new RedisCodecProperties();
+        properties.setWriteFormat(writeFormat);
+        properties.setCompressionThreshold(COMPRESSION_THRESHOLD);
+        return new VersionedRedisSerializer(
+                new TypedJsonRedisCodec(RedisSerializationConfig.getRedisObjectMapper()),
+                List.of(new SchemaRedisCodec(Map.of("public-key", PublicKeyInfo.class))),
+                properties);
+    }
+
+    private static PublicKeyInfo publicKeyInfo(String publicKey) {
+        LocalDateTime createdAt = LocalDateTime.of(2026, 1, 1, 8, 0);
+        return PublicKeyInfo.builder()
+                .algorithm("RSA_ECB_OAEP")
+                .keyVersion("v1a2b3c4d-1767225600000")
+                .business("default")
+                .publicKey(publicKey)
+                .createdAt(createdAt)
+                .expiresAt(createdAt.plusHours(26))
+                .valid(true)
+                .build();
+    }
+}
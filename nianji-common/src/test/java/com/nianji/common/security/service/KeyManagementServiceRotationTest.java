@@ -0,0 +1,183 @@
+package com.nianji.common.security.service;
+
+import com.nianji.common.security.config.EncryptionConfig;
+import com.nianji.common.security.encryption.EncryptionServiceFactory;
+import com.nianji.common.security.encryption.impl.AesEncryptionService;
+import com.nianji.common.security.encryption.impl.HashService;
+import com.nianji.common.security.encryption.impl.RsaEncryptionService;
+import com.nianji.common.security.enums.EncryptionAlgorithm;
+import com.nianji.common.security.keyring.SharedKeyRing;
+import com.nianji.common.security.model.KeyVersionManager;
+import com.nianji.common.utils.CacheUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * 强制轮换期间持续调用 decryptAuto：读路径不获取轮换锁
+ * <p>
+ * 轮换在持有 lifecycleLock 时写入密钥环，测试用的密钥环在写入时阻塞，使轮换停在锁内；
+ * 此时解密请求仍须全部完成，且只能读到轮换前发布的快照。不比较耗时，结果不受 GC 停顿或 CI 负载影响
+ */
+public class KeyManagementServiceRotationTest {
+
+    private static final EncryptionAlgorithm ALGORITHM = EncryptionAlgorithm.RSA_ECB_OAEP;
+    private static final String PLAINTEXT = "rotation-password";
+    private static final int READS_DURING_ROTATION = 200;
+
+    /**
+     * 只用于判定线程是否卡死，不作为耗时断言
+     */
+    private static final long TIMEOUT_SECONDS = 30;
+
+    private final RsaEncryptionService rsaEncryptionService = new RsaEncryptionService();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BlockingKeyRing keyRing;
+    private KeyManagementService keyManagementService;
+
+    @BeforeMethod
+    public void setUp() {
+        EncryptionConfig config = new EncryptionConfig();
+        config.setAlgorithms(EnumSet.of(ALGORITHM));
+        config.setDefaultAlgorithm(ALGORITHM);
+        // 不预生成，锁内只有本测试触发的这一次轮换
+        config.setAutoRotation(false);
+
+        EncryptionServiceFactory factory = new EncryptionServiceFactory(
+                new AesEncryptionService(), rsaEncryptionService, new HashService());
+
+        keyRing = new BlockingKeyRing();
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", meterRegistry);
+        beanFactory.addBean("sharedKeyRing", keyRing);
+
+        keyManagementService = new KeyManagementService(config, factory, new NoOpCacheUtil(),
+                beanFactory.getBeanProvider(SharedKeyRing.class), beanFactory.getBeanProvider(MeterRegistry.class));
+        keyManagementService.initialize();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        keyRing.release.countDown();
+        keyManagementService.destroy();
+    }
+
+    @Test
+    public void decryptAutoCompletesWhileRotationHoldsLock() throws Exception {
+        String initialVersion = keyManagementService.getCurrentKey(ALGORITHM).getKeyVersion();
+        // 用轮换前的公钥加密，轮换后需要回退到旧版本解密
+        String encrypted = rsaEncryptionService.encrypt(PLAINTEXT,
+                keyManagementService.getCurrentKey(ALGORITHM).getPublicKey());
+
+        ExecutorService rotator = Executors.newSingleThreadExecutor();
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        ExecutorService readers = Executors.newFixedThreadPool(threads);
+        try {
+            // 1. 轮换停在锁内的密钥环写入处
+            keyRing.blockNextSave = true;
+            Future<?> rotation = rotator.submit(() -> keyManagementService.manualRotateKey(ALGORITHM));
+            assertTrue(keyRing.saving.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "轮换未进入密钥环写入");
+
+            // 2. 锁被占用期间解密仍全部完成，读到的是轮换前的快照
+            List<Future<String>> reads = new ArrayList<>(READS_DURING_ROTATION);
+            for (int i = 0; i < READS_DURING_ROTATION; i++) {
+                reads.add(readers.submit(() -> keyManagementService.decryptAuto(ALGORITHM, encrypted)));
+            }
+            for (Future<String> read : reads) {
+                assertEquals(read.get(TIMEOUT_SECONDS, TimeUnit.SECONDS), PLAINTEXT);
+            }
+            assertEquals(keyManagementService.getCurrentKey(ALGORITHM).getKeyVersion(), initialVersion);
+            assertFalse(rotation.isDone(), "解密期间轮换应仍持有锁");
+
+            // 3. 写入完成后发布新版本，旧密文仍可解密
+            keyRing.release.countDown();
+            rotation.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } finally {
+            rotator.shutdownNow();
+            readers.shutdownNow();
+        }
+
+        String currentVersion = keyManagementService.getCurrentKey(ALGORITHM).getKeyVersion();
+        assertNotEquals(currentVersion, initialVersion);
+        assertEquals(keyManagementService.decryptAuto(ALGORITHM, encrypted), PLAINTEXT);
+        String rotatedEncrypted = rsaEncryptionService.encrypt(PLAINTEXT,
+                keyManagementService.getCurrentKey(ALGORITHM).getPublicKey());
+        assertEquals(keyManagementService.decryptAuto(ALGORITHM, rotatedEncrypted), PLAINTEXT);
+
+        Timer pause = meterRegistry.find("nianji.key.rotation.pause").tag("algorithm", ALGORITHM.name()).timer();
+        assertTrue(pause != null && pause.count() == 1, "未记录轮换停顿时间");
+    }
+
+    /**
+     * 内存中的密钥环，blockNextSave 置位后下一次写入阻塞到 release
+     */
+    private static class BlockingKeyRing extends SharedKeyRing {
+
+        private final AtomicLong generation = new AtomicLong();
+        private final CountDownLatch saving = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private volatile boolean blockNextSave;
+
+        BlockingKeyRing() {
+            super(null, null, null, new EncryptionConfig.KeyRing());
+        }
+
+        @Override
+        public Snapshot load(EncryptionAlgorithm algorithm) {
+            return null;
+        }
+
+        @Override
+        public long save(EncryptionAlgorithm algorithm, KeyVersionManager manager, long expectedGeneration) {
+            if (blockNextSave) {
+                blockNextSave = false;
+                saving.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return -1;
+                }
+            }
+            return generation.incrementAndGet();
+        }
+    }
+
+    /**
+     * 公钥信息缓存不影响轮换和解密，测试中不连接 Redis
+     */
+    private static class NoOpCacheUtil extends CacheUtil {
+
+        NoOpCacheUtil() {
+            super(null, null, null, null);
+        }
+
+        @Override
+        public void put(String key, Object value, long timeout, TimeUnit unit) {
+        }
+
+        @Override
+        public void putAll(Map<String, ?> values, long timeout, TimeUnit unit) {
+        }
+    }
+}
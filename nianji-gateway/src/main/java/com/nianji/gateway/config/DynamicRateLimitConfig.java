@@ -1,5 +1,7 @@
 package com.nianji.gateway.config;
 
+import com.nianji.common.ip.CidrSet;
+import com.nianji.common.ip.ClientIpResolver;
 import com.nianji.gateway.property.GatewayRateLimitProperties;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -15,18 +17,39 @@ public class DynamicRateLimitConfig {
     
     @Getter
     private volatile List<GatewayRateLimitProperties.RateLimitRule> rules;
+    @Getter
+    private volatile ClientIpResolver clientIpResolver;
+    @Getter
+    private volatile CidrSet allowList;
+    @Getter
+    private volatile CidrSet denyList;
     private final GatewayRateLimitProperties gatewayRateLimitProperties;
 
     public DynamicRateLimitConfig(GatewayRateLimitProperties gatewayRateLimitProperties) {
         this.gatewayRateLimitProperties = gatewayRateLimitProperties;
-        this.rules = List.copyOf(gatewayRateLimitProperties.getRules());
+        reload();
     }
 
     @EventListener
     public void onRefreshEvent(ContextRefreshedEvent event) {
         // 配置刷新时重新加载规则
+        reload();
+        log.info("限流规则已刷新，当前规则数量: {}, 可信代理: {}, 白名单: {}, 黑名单: {}",
+                rules.size(), gatewayRateLimitProperties.getTrustedProxies(), allowList, denyList);
+    }
+
+    /**
+     * 重新加载规则，并将网段配置预编译为 CidrSet
+     */
+    private void reload() {
         this.rules = List.copyOf(gatewayRateLimitProperties.getRules());
-        log.info("限流规则已刷新，当前规则数量: {}", rules.size());
+        // 网关直接面向客户端，未配置可信代理时代理头可被任意伪造，只使用直连地址
+        CidrSet trustedProxies = CidrSet.of(gatewayRateLimitProperties.getTrustedProxies());
+        this.clientIpResolver = trustedProxies.isEmpty()
+                ? ClientIpResolver.remoteOnly()
+                : ClientIpResolver.of(trustedProxies);
+        this.allowList = CidrSet.of(gatewayRateLimitProperties.getAllowList());
+        this.denyList = CidrSet.of(gatewayRateLimitProperties.getDenyList());
     }
 
     public boolean isEnabled() {
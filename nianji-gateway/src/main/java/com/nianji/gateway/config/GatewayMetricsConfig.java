@@ -0,0 +1,23 @@
+package com.nianji.gateway.config;
+
+import com.nianji.common.metrics.EndpointMetricsProperties;
+import com.nianji.common.metrics.EndpointMetricsRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 网关接口统计配置 与 servlet 服务共用 {@link EndpointMetricsRegistry}，按网关路由 ID 统计
+ */
+@Configuration
+@EnableConfigurationProperties(EndpointMetricsProperties.class)
+public class GatewayMetricsConfig {
+
+    @Bean
+    public EndpointMetricsRegistry endpointMetricsRegistry(EndpointMetricsProperties endpointMetricsProperties,
+                                                           ObjectProvider<MeterRegistry> meterRegistry) {
+        return new EndpointMetricsRegistry(endpointMetricsProperties, meterRegistry.getIfAvailable());
+    }
+}
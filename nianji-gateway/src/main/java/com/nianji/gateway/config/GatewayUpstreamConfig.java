@@ -0,0 +1,35 @@
+package com.nianji.gateway.config;
+
+import com.nianji.gateway.filter.UpstreamRoutingFilter;
+import com.nianji.gateway.property.GatewayUpstreamProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.List;
+
+/**
+ * 上游连接配置 默认的 NettyRoutingFilter 已通过 spring.cloud.gateway.global-filter.netty-routing.enabled=false 关闭，
+ * 由 {@link UpstreamRoutingFilter} 按路由隔离连接池
+ */
+@Configuration
+public class GatewayUpstreamConfig {
+
+    @Bean
+    public UpstreamRoutingFilter upstreamRoutingFilter(HttpClient httpClient,
+                                                       ObjectProvider<List<HttpHeadersFilter>> headersFilters,
+                                                       HttpClientProperties httpClientProperties,
+                                                       ServerProperties serverProperties,
+                                                       HttpClientSslConfigurer httpClientSslConfigurer,
+                                                       ObjectProvider<HttpClientCustomizer> httpClientCustomizers,
+                                                       GatewayUpstreamProperties gatewayUpstreamProperties) {
+        return new UpstreamRoutingFilter(httpClient, headersFilters, httpClientProperties, serverProperties,
+                httpClientSslConfigurer, httpClientCustomizers.orderedStream().toList(), gatewayUpstreamProperties);
+    }
+}
@@ -0,0 +1,22 @@
+package com.nianji.gateway.config;
+
+import com.nianji.common.identity.InternalIdentityCodec;
+import com.nianji.common.identity.InternalIdentityProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 内部身份头配置 与下游服务共用 internal-identity.secret，网关验证 JWT 后签发身份头
+ */
+@Configuration
+@EnableConfigurationProperties(InternalIdentityProperties.class)
+public class InternalIdentityForwardConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "internal-identity", name = "secret")
+    public InternalIdentityCodec internalIdentityCodec(InternalIdentityProperties internalIdentityProperties) {
+        return new InternalIdentityCodec(internalIdentityProperties.getSecret());
+    }
+}
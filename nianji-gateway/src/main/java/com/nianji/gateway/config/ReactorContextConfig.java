@@ -0,0 +1,23 @@
+package com.nianji.gateway.config;
+
+import com.nianji.gateway.context.RequestInfoThreadLocalAccessor;
+import io.micrometer.context.ContextRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.publisher.Hooks;
+
+/**
+ * Reactor 上下文传递配置 注册请求上下文访问器并开启自动上下文传递
+ */
+@Slf4j
+@Configuration
+public class ReactorContextConfig {
+
+    @PostConstruct
+    public void init() {
+        ContextRegistry.getInstance().registerThreadLocalAccessor(new RequestInfoThreadLocalAccessor());
+        Hooks.enableAutomaticContextPropagation();
+        log.debug("Reactor 自动上下文传递已开启");
+    }
+}
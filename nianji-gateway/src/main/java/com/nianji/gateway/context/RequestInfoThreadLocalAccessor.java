@@ -0,0 +1,37 @@
+package com.nianji.gateway.context;
+
+import com.nianji.common.context.CustomRequestContext;
+import com.nianji.common.context.MdcContextInitializer;
+import com.nianji.common.context.RequestInfo;
+import io.micrometer.context.ThreadLocalAccessor;
+
+/**
+ * 请求上下文的 ThreadLocal 访问器
+ * <p>
+ * 开启 Reactor 自动上下文传递后，操作符切换线程时按 Reactor Context 中的 {@link RequestInfo#CONTEXT_KEY} 恢复
+ * {@link CustomRequestContext} 和 MDC，网关日志因此带上请求ID，公共代码也能用同一套静态方法读取请求信息
+ */
+public class RequestInfoThreadLocalAccessor implements ThreadLocalAccessor<RequestInfo> {
+
+    @Override
+    public Object key() {
+        return RequestInfo.CONTEXT_KEY;
+    }
+
+    @Override
+    public RequestInfo getValue() {
+        return CustomRequestContext.current();
+    }
+
+    @Override
+    public void setValue(RequestInfo value) {
+        CustomRequestContext.attach(value);
+        MdcContextInitializer.putRequestInfo(value);
+    }
+
+    @Override
+    public void setValue() {
+        CustomRequestContext.clear();
+        MdcContextInitializer.removeRequestInfo();
+    }
+}
@@ -0,0 +1,118 @@
+package com.nianji.gateway.exception;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nianji.common.errorcode.ErrorCode;
+import com.nianji.common.reqres.Result;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 网关错误响应输出
+ * <p>
+ * 启动时把每个 {@link ErrorCode} 的默认响应体编码为只读字节，限流、认证失败等高频拒绝路径直接写出，不再逐次序列化；
+ * 请求ID已由 {@link com.nianji.gateway.filter.RequestContextWebFilter} 写入响应头，静态响应体只包含 code、msg、success。
+ * 自定义消息的响应由 Jackson 编码器按需序列化
+ */
+@Slf4j
+@Component
+public class GatewayErrorResponseWriter {
+
+    /**
+     * 错误码 -> 预编码的响应体
+     */
+    private final Map<String, StaticBody> staticBodies;
+
+    private final Jackson2JsonEncoder encoder;
+
+    public GatewayErrorResponseWriter(ObjectMapper objectMapper) {
+        this.encoder = new Jackson2JsonEncoder(objectMapper);
+        this.staticBodies = buildStaticBodies(objectMapper);
+        log.info("网关错误响应预编码完成 - 错误码数量: {}", staticBodies.size());
+    }
+
+    /**
+     * 输出错误码的默认响应
+     */
+    public Mono<Void> write(ServerWebExchange exchange, HttpStatus status, ErrorCode errorCode) {
+        return write(exchange, status, errorCode.getCode(), errorCode.getMessage());
+    }
+
+    /**
+     * 输出错误响应，消息与错误码默认消息一致时使用预编码响应体，否则动态序列化
+     */
+    public Mono<Void> write(ServerWebExchange exchange, HttpStatus status, String code, String message) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+
+        StaticBody staticBody = staticBodies.get(code);
+        if (staticBody != null && staticBody.message().equals(message)) {
+            response.getHeaders().setContentLength(staticBody.length());
+            // 共享的只读字节，每次只创建一个视图，不复制
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(staticBody.view())));
+        }
+
+        Result<Object> result = Result.fail(code, message);
+        DataBuffer buffer = encoder.encodeValue(result, response.bufferFactory(),
+                ResolvableType.forInstance(result), MediaType.APPLICATION_JSON, Collections.emptyMap());
+        return response.writeWith(Mono.just(buffer));
+    }
+
+    private static Map<String, StaticBody> buildStaticBodies(ObjectMapper objectMapper) {
+        Map<String, StaticBody> bodies = new HashMap<>();
+        Arrays.stream(ErrorCode.class.getDeclaredClasses())
+                .filter(type -> type.isEnum() && ErrorCode.class.isAssignableFrom(type))
+                .flatMap(type -> Arrays.stream(type.getEnumConstants()))
+                .map(ErrorCode.class::cast)
+                .forEach(errorCode -> bodies.put(errorCode.getCode(), encode(objectMapper, errorCode)));
+        return Map.copyOf(bodies);
+    }
+
+    private static StaticBody encode(ObjectMapper objectMapper, ErrorCode errorCode) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("code", errorCode.getCode());
+        body.put("msg", errorCode.getMessage());
+        body.put("success", false);
+        try {
+            byte[] bytes = objectMapper.writeValueAsBytes(body);
+            return new StaticBody(errorCode.getMessage(), ByteBuffer.wrap(bytes).asReadOnlyBuffer());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("错误响应预编码失败: " + errorCode.getCode(), e);
+        }
+    }
+
+    /**
+     * 预编码的响应体
+     *
+     * @param message
+     *         错误码默认消息
+     * @param body
+     *         只读响应体
+     */
+    private record StaticBody(String message, ByteBuffer body) {
+
+        ByteBuffer view() {
+            return body.duplicate();
+        }
+
+        int length() {
+            return body.remaining();
+        }
+    }
+}
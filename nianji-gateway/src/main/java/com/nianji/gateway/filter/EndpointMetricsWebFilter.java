@@ -0,0 +1,47 @@
+package com.nianji.gateway.filter;
+
+import com.nianji.common.metrics.EndpointMetricsRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * 网关接口耗时统计过滤器
+ * <p>
+ * 以 WebFilter 形式位于安全过滤器之前，被认证或限流拒绝的请求也会计入； 按匹配到的路由 ID 统计，未匹配路由的请求计入
+ * {@link EndpointMetricsRegistry#UNMATCHED_ROUTE}
+ */
+@Component
+@RequiredArgsConstructor
+public class EndpointMetricsWebFilter implements WebFilter, Ordered {
+
+    private final EndpointMetricsRegistry endpointMetricsRegistry;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        long startNanos = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> record(exchange, signal, System.nanoTime() - startNanos));
+    }
+
+    private void record(ServerWebExchange exchange, SignalType signal, long durationNanos) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        boolean success = signal == SignalType.ON_COMPLETE && (status == null || status.value() < 400);
+        endpointMetricsRegistry.record(exchange.getRequest().getMethod().name(),
+                route != null ? route.getId() : null, durationNanos, success);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -1,9 +1,8 @@
 package com.nianji.gateway.filter;
 
-import cn.hutool.json.JSONUtil;
 import com.nianji.common.errorcode.ErrorCode;
-import com.nianji.common.reqres.Result;
 import com.nianji.gateway.config.DynamicRateLimitConfig;
+import com.nianji.gateway.exception.GatewayErrorResponseWriter;
 import com.nianji.gateway.property.GatewayRateLimitProperties;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -12,12 +11,13 @@ import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.nio.charset.StandardCharsets;
+import java.net.InetSocketAddress;
 import java.time.Duration;
 
 @Slf4j
@@ -27,6 +27,7 @@ public class GatewayRateLimitFilter implements GlobalFilter, Ordered {
 
     private final ReactiveRedisTemplate<String, String> redisTemplate;
     private final DynamicRateLimitConfig dynamicRateLimitConfig;
+    private final GatewayErrorResponseWriter errorResponseWriter;
     private final AntPathMatcher pathMatcher = new AntPathMatcher();
 
     @Override
@@ -40,6 +41,15 @@ public class GatewayRateLimitFilter implements GlobalFilter, Ordered {
         String path = exchange.getRequest().getPath().value();
         String clientIp = getClientIp(exchange);
 
+        // 黑白名单检查
+        if (dynamicRateLimitConfig.getDenyList().contains(clientIp)) {
+            log.warn("请求命中IP黑名单 - IP: {}, 路径: {}", clientIp, path);
+            return errorResponse(exchange, HttpStatus.FORBIDDEN, ErrorCode.Client.ACCESS_DENIED);
+        }
+        if (dynamicRateLimitConfig.getAllowList().contains(clientIp)) {
+            return chain.filter(exchange);
+        }
+
         // 查找匹配的限流规则
         GatewayRateLimitProperties.RateLimitRule rule = findMatchingRule(path);
 
@@ -97,15 +107,11 @@ public class GatewayRateLimitFilter implements GlobalFilter, Ordered {
     }
 
     private String getClientIp(ServerWebExchange exchange) {
-        String ip = exchange.getRequest().getHeaders().getFirst("X-Forwarded-For");
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = exchange.getRequest().getHeaders().getFirst("X-Real-IP");
-        }
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = exchange.getRequest().getRemoteAddress() != null ?
-                    exchange.getRequest().getRemoteAddress().getAddress().getHostAddress() : "unknown";
-        }
-        return ip.split(",")[0].trim();
+        ServerHttpRequest request = exchange.getRequest();
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        String remoteAddr = remoteAddress != null && remoteAddress.getAddress() != null
+                ? remoteAddress.getAddress().getHostAddress() : null;
+        return dynamicRateLimitConfig.getClientIpResolver().resolve(request.getHeaders()::getFirst, remoteAddr);
     }
 
     private String buildRateLimitKey(String path, String identifier, GatewayRateLimitProperties.LimitType type) {
@@ -118,14 +124,12 @@ public class GatewayRateLimitFilter implements GlobalFilter, Ordered {
     }
 
     private Mono<Void> rateLimitedResponse(ServerWebExchange exchange) {
-        exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
-        exchange.getResponse().getHeaders().add("Content-Type", "application/json");
-
+        return errorResponse(exchange, HttpStatus.TOO_MANY_REQUESTS, ErrorCode.Client.RATE_LIMIT_EXCEEDED);
+    }
 
-        String body = JSONUtil.toJsonStr(Result.fail(ErrorCode.Client.RATE_LIMIT_EXCEEDED));
-        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
-        return exchange.getResponse().writeWith(Mono.just(exchange.getResponse()
-                .bufferFactory().wrap(bytes)));
+    private Mono<Void> errorResponse(ServerWebExchange exchange, HttpStatus status, ErrorCode errorCode) {
+        // 预编码响应体，拒绝请求不做序列化
+        return errorResponseWriter.write(exchange, status, errorCode);
     }
 
     @Override
@@ -28,14 +28,11 @@ public class JwtAuthenticationFilter extends AuthenticationWebFilter {
         setAuthenticationFailureHandler((exchange, exception) -> {
             String path = exchange.getExchange().getRequest().getPath().value();
 
-            // 将Spring Security异常转换为自定义异常
-            AuthenticationException authException = ExceptionFactory.authentication(
-                    ErrorCode.Client.TOKEN_INVALID,
-                    "认证失败: " + exception.getMessage()
-            );
-
-            log.warn("❌ JWT认证失败 - 路径: {}, 错误码: {}, 消息: {}",
-                    path, authException.getCode(), authException.getMessage());
+            // 将Spring Security异常转换为自定义异常，使用默认消息以便输出预编码响应体，失败原因只记日志
+            AuthenticationException authException = ExceptionFactory.authentication(ErrorCode.Client.TOKEN_INVALID);
+
+            log.warn("❌ JWT认证失败 - 路径: {}, 错误码: {}, 原因: {}",
+                    path, authException.getCode(), exception.getMessage());
 
             // 直接抛出异常，让全局异常处理器处理
             return Mono.error(authException);
@@ -0,0 +1,45 @@
+package com.nianji.gateway.filter;
+
+import com.nianji.common.constant.CommonConstants;
+import com.nianji.common.context.RequestInfo;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * 网关请求上下文过滤器
+ * <p>
+ * 沿用客户端传入的请求ID或生成新ID，写入响应头并转发给下游服务，下游 RequestInterceptor 会沿用同一个ID； 请求上下文放入 Reactor
+ * Context，由 {@link com.nianji.gateway.context.RequestInfoThreadLocalAccessor} 在各执行线程上恢复
+ */
+@Component
+public class RequestContextWebFilter implements WebFilter, Ordered {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String requestId = request.getHeaders().getFirst(CommonConstants.REQUEST_ID_HEADER);
+        RequestInfo info = RequestInfo.start(requestId, request.getPath().value(), request.getMethod().name());
+
+        ServerWebExchange mutated = exchange;
+        if (!info.getRequestId().equals(requestId)) {
+            mutated = exchange.mutate()
+                    .request(builder -> builder.header(CommonConstants.REQUEST_ID_HEADER, info.getRequestId()))
+                    .build();
+        }
+        mutated.getResponse().getHeaders().set(CommonConstants.REQUEST_ID_HEADER, info.getRequestId());
+
+        return chain.filter(mutated)
+                .contextWrite(context -> context.put(RequestInfo.CONTEXT_KEY, info));
+    }
+
+    @Override
+    public int getOrder() {
+        // 紧随耗时统计过滤器，先于安全过滤器，认证失败的日志也带请求ID
+        return Ordered.HIGHEST_PRECEDENCE + 1;
+    }
+}
@@ -0,0 +1,177 @@
+package com.nianji.gateway.filter;
+
+import com.nianji.gateway.property.GatewayResponseCacheProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 网关响应缓存过滤器
+ * <p>
+ * 用于公钥这类按版本变化、全员相同的公开响应：命中时由网关直接写出缓存的 body 或 304，不再转发到认证服务。
+ * 缓存时长跟随上游的 max-age，上游已按距下次密钥轮换的时间收敛 max-age，网关缓存不会越过轮换点太久
+ */
+@Slf4j
+@Component
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+
+    private final GatewayResponseCacheProperties properties;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, CachedResponse> cache = new ConcurrentHashMap<>();
+
+    public ResponseCacheFilter(GatewayResponseCacheProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!properties.isEnabled() || exchange.getRequest().getMethod() != HttpMethod.GET || !isCacheable(exchange)) {
+            return chain.filter(exchange);
+        }
+
+        String cacheKey = exchange.getRequest().getURI().getRawPath() + "?" + exchange.getRequest().getURI().getRawQuery();
+        CachedResponse cached = cache.get(cacheKey);
+        long now = System.currentTimeMillis();
+        if (cached != null && cached.expiresAtMillis() > now) {
+            return writeCached(exchange, cached, now);
+        }
+        if (cached != null) {
+            cache.remove(cacheKey, cached);
+        }
+
+        return chain.filter(exchange.mutate().response(new CapturingResponse(exchange.getResponse(), cacheKey)).build());
+    }
+
+    @Override
+    public int getOrder() {
+        // 在写出上游响应之前包装 response
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    }
+
+    private boolean isCacheable(ServerWebExchange exchange) {
+        String path = exchange.getRequest().getPath().value();
+        for (String pattern : properties.getPaths()) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached, long now) {
+        ServerHttpResponse response = exchange.getResponse();
+        long maxAge = Math.max(0, (cached.expiresAtMillis() - now) / 1000);
+        HttpHeaders headers = response.getHeaders();
+        headers.setETag(cached.etag());
+        headers.setCacheControl(CacheControl.maxAge(maxAge, TimeUnit.SECONDS).cachePublic());
+
+        if (matches(exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH), cached.etag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+
+        response.setStatusCode(HttpStatus.OK);
+        headers.setContentType(cached.contentType());
+        headers.setContentLength(cached.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 上游 max-age 和配置上限中较小的一个（毫秒），不可缓存时返回 0
+     */
+    private long ttlMillis(HttpHeaders headers) {
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl == null || cacheControl.contains("no-store") || cacheControl.contains("private")) {
+            return 0;
+        }
+        Matcher matcher = MAX_AGE.matcher(cacheControl);
+        if (!matcher.find()) {
+            return 0;
+        }
+        return Math.min(TimeUnit.SECONDS.toMillis(Long.parseLong(matcher.group(1))), properties.getMaxTtl().toMillis());
+    }
+
+    /**
+     * 在响应写出时复制一份 body 存入缓存
+     */
+    private class CapturingResponse extends ServerHttpResponseDecorator {
+
+        private final String cacheKey;
+
+        CapturingResponse(ServerHttpResponse delegate, String cacheKey) {
+            super(delegate);
+            this.cacheKey = cacheKey;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpHeaders headers = getHeaders();
+            long ttl = ttlMillis(headers);
+            if (!HttpStatus.OK.equals(getStatusCode()) || headers.getETag() == null || ttl <= 0) {
+                return super.writeWith(body);
+            }
+
+            return DataBufferUtils.join(Flux.from(body))
+                    .flatMap(joined -> {
+                        byte[] bytes = new byte[joined.readableByteCount()];
+                        joined.read(bytes);
+                        DataBufferUtils.release(joined);
+
+                        if (bytes.length <= properties.getMaxBodyBytes()) {
+                            MediaType contentType = headers.getContentType() != null
+                                    ? headers.getContentType() : MediaType.APPLICATION_JSON;
+                            cache.put(cacheKey, new CachedResponse(headers.getETag(), contentType, bytes,
+                                    System.currentTimeMillis() + ttl));
+                            log.debug("响应已缓存 - 键: {}, ETag: {}, 有效期: {}ms", cacheKey, headers.getETag(), ttl);
+                        }
+
+                        return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                    })
+                    .switchIfEmpty(Mono.defer(() -> super.writeWith(Flux.empty())));
+        }
+    }
+
+    private record CachedResponse(String etag, MediaType contentType, byte[] body, long expiresAtMillis) {
+    }
+}
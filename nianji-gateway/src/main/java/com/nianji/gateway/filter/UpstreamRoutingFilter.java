@@ -0,0 +1,138 @@
+package com.nianji.gateway.filter;
+
+import com.nianji.gateway.property.GatewayUpstreamProperties;
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientFactory;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.CONNECT_TIMEOUT_ATTR;
+
+/**
+ * 按路由隔离连接池的路由过滤器 替换网关默认的 {@link NettyRoutingFilter}
+ * <p>
+ * 每个路由一个 {@link ConnectionProvider}（池名为路由ID），单个上游变慢只会耗尽自己的连接池；
+ * 连接池指标通过 Micrometer 导出为 reactor.netty.connection.provider.*，按池名和上游地址区分。
+ * <p>
+ * Reactor Netty 不能替换已创建客户端的连接池，路由客户端沿用网关 {@link HttpClientFactory} 的构建流程
+ * （SSL、代理、响应头大小限制、wiretap、压缩及 {@link HttpClientCustomizer}），只换成路由自己的连接池
+ */
+@Slf4j
+public class UpstreamRoutingFilter extends NettyRoutingFilter implements DisposableBean {
+
+    private final GatewayUpstreamProperties upstreamProperties;
+    private final HttpClientProperties httpClientProperties;
+    private final ServerProperties serverProperties;
+    private final HttpClientSslConfigurer sslConfigurer;
+    private final List<HttpClientCustomizer> customizers;
+
+    /**
+     * 路由ID -> 路由专用客户端
+     */
+    private final Map<String, RouteClient> routeClients = new ConcurrentHashMap<>();
+
+    public UpstreamRoutingFilter(HttpClient httpClient,
+                                 ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider,
+                                 HttpClientProperties properties,
+                                 ServerProperties serverProperties,
+                                 HttpClientSslConfigurer sslConfigurer,
+                                 List<HttpClientCustomizer> customizers,
+                                 GatewayUpstreamProperties upstreamProperties) {
+        super(httpClient, headersFiltersProvider, properties);
+        this.httpClientProperties = properties;
+        this.serverProperties = serverProperties;
+        this.sslConfigurer = sslConfigurer;
+        this.customizers = customizers;
+        this.upstreamProperties = upstreamProperties;
+    }
+
+    @Override
+    protected HttpClient getHttpClient(Route route, ServerWebExchange exchange) {
+        HttpClient client = routeClients.computeIfAbsent(route.getId(), this::createRouteClient).httpClient();
+
+        // 与默认实现一致，路由 metadata 中的连接超时优先
+        Object connectTimeout = route.getMetadata().get(CONNECT_TIMEOUT_ATTR);
+        if (connectTimeout != null) {
+            client = client.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, getInteger(connectTimeout));
+        }
+        return client;
+    }
+
+    @Override
+    public void destroy() {
+        routeClients.values().forEach(routeClient -> routeClient.provider().dispose());
+        routeClients.clear();
+    }
+
+    private static int getInteger(Object value) {
+        return value instanceof Number number ? number.intValue() : Integer.parseInt(value.toString());
+    }
+
+    private RouteClient createRouteClient(String routeId) {
+        GatewayUpstreamProperties.PoolConfig config = upstreamProperties.resolve(routeId);
+
+        ConnectionProvider provider = ConnectionProvider.builder(routeId)
+                .maxConnections(config.getMaxConnections())
+                .pendingAcquireMaxCount(config.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(config.getPendingAcquireTimeout())
+                .maxIdleTime(config.getMaxIdleTime())
+                .maxLifeTime(config.getMaxLifeTime())
+                .evictInBackground(config.getEvictionInterval())
+                .metrics(true)
+                .build();
+
+        HttpClient client = new RouteHttpClientFactory(provider).build()
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) config.getConnectTimeout().toMillis());
+        if (Boolean.TRUE.equals(config.getH2c())) {
+            // 同时保留 HTTP/1.1，上游不支持 h2c 时降级
+            client = client.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+        }
+
+        log.info("创建上游连接池 - 路由: {}, 最大连接数: {}, 等待队列: {}, 连接超时: {}, h2c: {}",
+                routeId, config.getMaxConnections(), config.getPendingAcquireMaxCount(),
+                config.getConnectTimeout(), config.getH2c());
+        return new RouteClient(provider, client);
+    }
+
+    private record RouteClient(ConnectionProvider provider, HttpClient httpClient) {
+    }
+
+    /**
+     * 与网关默认客户端相同的构建流程，连接池换成路由专用的
+     */
+    private final class RouteHttpClientFactory extends HttpClientFactory {
+
+        private final ConnectionProvider routeProvider;
+
+        private RouteHttpClientFactory(ConnectionProvider routeProvider) {
+            super(UpstreamRoutingFilter.this.httpClientProperties, UpstreamRoutingFilter.this.serverProperties,
+                    UpstreamRoutingFilter.this.sslConfigurer, UpstreamRoutingFilter.this.customizers);
+            this.routeProvider = routeProvider;
+        }
+
+        @Override
+        protected ConnectionProvider buildConnectionProvider(HttpClientProperties properties) {
+            return routeProvider;
+        }
+
+        private HttpClient build() {
+            return createInstance();
+        }
+    }
+}
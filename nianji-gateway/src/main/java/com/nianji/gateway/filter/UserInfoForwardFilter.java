@@ -1,73 +1,97 @@
 package com.nianji.gateway.filter;
 
-import com.nianji.gateway.property.SecurityProperties;
-import lombok.RequiredArgsConstructor;
+import com.nianji.common.identity.InternalIdentity;
+import com.nianji.common.identity.InternalIdentityCodec;
+import com.nianji.common.identity.InternalIdentityProperties;
+import com.nianji.common.jwt.dto.JwtUserInfo;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
 import org.springframework.core.Ordered;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.stereotype.Component;
-import org.springframework.util.AntPathMatcher;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
+/**
+ * 用户身份转发过滤器
+ * <p>
+ * 清除客户端传入的身份头，已认证请求把 JWT 验证得到的用户信息签名为 {@link InternalIdentity#HEADER} 转发给下游，
+ * 下游由 {@link com.nianji.common.identity.InternalIdentityFilter} 验签，不再重复解析 JWT
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class UserInfoForwardFilter implements GlobalFilter, Ordered {
 
-    private final AntPathMatcher pathMatcher = new AntPathMatcher();
-    private final SecurityProperties securityProperties;
+    /**
+     * 旧版本下游读取的明文用户ID头，客户端可伪造，一律清除
+     */
+    private static final String LEGACY_USER_ID_HEADER = "X-User-Id";
+
+    private final InternalIdentityCodec codec;
+    private final InternalIdentityProperties properties;
+
+    public UserInfoForwardFilter(ObjectProvider<InternalIdentityCodec> codecProvider,
+                                 InternalIdentityProperties properties) {
+        this.codec = codecProvider.getIfAvailable();
+        this.properties = properties;
+        if (codec == null) {
+            log.warn("未配置 internal-identity.secret，网关不向下游转发用户身份");
+        }
+    }
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-        String path = exchange.getRequest().getPath().value();
-
-        // 检查是否为公开路径
-        if (isPublicPath(path)) {
-            log.debug("公共路径：{}", path);
-            return chain.filter(exchange);
+        ServerWebExchange stripped = exchange.mutate()
+                .request(builder -> builder.headers(headers -> {
+                    headers.remove(InternalIdentity.HEADER);
+                    headers.remove(LEGACY_USER_ID_HEADER);
+                }))
+                .build();
+        if (codec == null) {
+            return chain.filter(stripped);
         }
 
-        // // 从SecurityContext中获取认证信息，并转发到下游服务
-        // return ReactiveSecurityContextHolder.getContext()
-        //         .flatMap(securityContext -> {
-        //             if (securityContext.getAuthentication() != null &&
-        //                     securityContext.getAuthentication().isAuthenticated()) {
-        //
-        //                 // 获取JWT用户信息
-        //                 Object principal = securityContext.getAuthentication().getPrincipal();
-        //                 if (principal instanceof JwtUserInfo userInfo) {
-        //
-        //                     // 添加用户信息到请求头，供下游服务使用
-        //                     ServerHttpRequest mutatedRequest = exchange.getRequest().mutate()
-        //                             .header("X-User-Id", userInfo.getUserId().toString())
-        //                             .header("X-Username", userInfo.getUsername())
-        //                             .header("X-Token-Type", userInfo.getTokenType())
-        //                             .build();
-        //
-        //                     log.debug("转发用户信息到下游服务 - 用户: {}, 路径: {}", userInfo.getUsername(), path);
-        //                     // return chain.filter(exchange).contextWrite(context -> context.put("USER_INFO", userInfo));
-        //                     return chain.filter(exchange.mutate().request(mutatedRequest).build());
-        //                 }
-        //             }
-        //
-        //             // 如果没有认证信息，继续执行
-        //             return chain.filter(exchange);
-        //         })
-        //         .switchIfEmpty(chain.filter(exchange));
-        return chain.filter(exchange);
+        // 公开路径没有认证信息，直接转发
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .filter(authentication -> authentication.isAuthenticated()
+                        && authentication.getPrincipal() instanceof JwtUserInfo)
+                .map(authentication -> withIdentity(stripped, authentication))
+                .defaultIfEmpty(stripped)
+                .flatMap(chain::filter);
     }
 
-    private boolean isPublicPath(String path) {
-        return securityProperties.getPublicPaths()
-                .stream()
-                .anyMatch(pattern -> pathMatcher.match(pattern, path));
+    private ServerWebExchange withIdentity(ServerWebExchange exchange, Authentication authentication) {
+        JwtUserInfo userInfo = (JwtUserInfo) authentication.getPrincipal();
+        List<String> roles = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+
+        // 身份头过期时间不晚于令牌本身
+        long expiresAt = System.currentTimeMillis() / 1000 + properties.getTtl().toSeconds();
+        if (userInfo.getExpiration() != null) {
+            expiresAt = Math.min(expiresAt, userInfo.getExpiration().getTime() / 1000);
+        }
+
+        String header = codec.encode(new InternalIdentity(userInfo.getUserId(), userInfo.getUsername(), roles, expiresAt));
+        log.debug("转发用户身份到下游服务 - 用户: {}, 路径: {}", userInfo.getUsername(), exchange.getRequest().getPath());
+        return exchange.mutate()
+                .request(builder -> builder.header(InternalIdentity.HEADER, header))
+                .build();
     }
 
     @Override
     public int getOrder() {
-        // 在安全认证之后执行
-        return Ordered.LOWEST_PRECEDENCE;
+        // 全局过滤器在安全认证（WebFilter）之后执行；显式排在负载均衡之后、路由转发（LOWEST_PRECEDENCE）之前，
+        // 不能与路由过滤器同序，否则身份头可能在请求发出之后才写入
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
     }
-}
\ No newline at end of file
+}
@@ -5,6 +5,7 @@ import com.nianji.common.errorcode.ErrorCode;
 import com.nianji.common.exception.ExceptionFactory;
 import com.nianji.common.exception.client.AuthenticationException;
 import com.nianji.common.jwt.dto.JwtUserInfo;
+import com.nianji.common.jwt.dto.JwtVerification;
 import com.nianji.gateway.model.JwtAuthenticationToken;
 import com.nianji.gateway.service.GatewayJwtService;
 import lombok.RequiredArgsConstructor;
@@ -65,54 +66,48 @@ public class JwtAuthenticationManager implements ReactiveAuthenticationManager {
         // 1. 检查Token是否为空
         if (!StringUtils.hasText(token)) {
             log.warn("Token为空");
-            return Mono.error(ExceptionFactory.authentication(
-                    ErrorCode.Client.TOKEN_MISSING,
-                    "Token不能为空"
-            ));
+            return Mono.error(ExceptionFactory.authenticationRejected(ErrorCode.Client.TOKEN_MISSING));
         }
 
-        // 2. 检查Token黑名单
-        return checkTokenBlacklist(token)
-                .flatMap(blacklisted -> {
-                    if (blacklisted) {
-                        log.warn("🚫 JWT Token在黑名单中");
-                        return Mono.error(ExceptionFactory.authentication(
-                                ErrorCode.Client.TOKEN_INVALID,
-                                "Token已失效"
-                        ));
+        // 2. 验签（先于黑名单检查，伪造的令牌不访问 Redis），失败以结果返回
+        return gatewayJwtService.verify(token)
+                .flatMap(verification -> {
+                    if (!verification.isValid()) {
+                        log.debug("JWT验证失败: {}", verification.getStatus());
+                        return Mono.error(rejection(verification.getStatus()));
                     }
 
-                    // 3. 使用GatewayJwtService验证Token
-                    try {
-                        JwtUserInfo userInfo = gatewayJwtService.validateAndGetUserInfo(token);
-
-                        // 4. 创建认证对象
-                        List<SimpleGrantedAuthority> authorities = extractAuthorities(userInfo);
-                        JwtAuthenticationToken authenticated = new JwtAuthenticationToken(
-                                userInfo, token, authorities);
-                        authenticated.setAuthenticated(true);
-
-                        log.debug("✅ JWT认证成功 - 用户: {}", userInfo.getUsername());
-                        return Mono.just(authenticated);
-                    } catch (AuthenticationException e) {
-                        // 直接转换为Mono.error，确保在响应式流中正确传播
-                        log.debug("转换为Mono.error的认证异常: {}", e.getMessage());
-                        return Mono.error(e);
-                    }
-                })
-                .onErrorResume(e -> {
-                    // 捕获其他异常并转换为认证异常
-                    if (!(e instanceof AuthenticationException)) {
-                        log.error("JWT认证处理异常", e);
-                        return Mono.error(ExceptionFactory.authentication(
-                                ErrorCode.Client.TOKEN_INVALID,
-                                "认证处理异常"
-                        ));
-                    }
-                    return Mono.error(e);
+                    // 3. 检查Token黑名单
+                    JwtUserInfo userInfo = verification.getUserInfo();
+                    return checkTokenBlacklist(token)
+                            .flatMap(blacklisted -> {
+                                if (blacklisted) {
+                                    log.warn("🚫 JWT Token在黑名单中 - 用户: {}", userInfo.getUsername());
+                                    return Mono.error(ExceptionFactory.authenticationRejected(
+                                            ErrorCode.Client.TOKEN_INVALID));
+                                }
+
+                                // 4. 创建认证对象
+                                List<SimpleGrantedAuthority> authorities = extractAuthorities(userInfo);
+                                JwtAuthenticationToken authenticated = new JwtAuthenticationToken(
+                                        userInfo, token, authorities);
+                                authenticated.setAuthenticated(true);
+
+                                log.debug("✅ JWT认证成功 - 用户: {}", userInfo.getUsername());
+                                return Mono.just(authenticated);
+                            });
                 });
     }
 
+    /**
+     * 验证失败转换为不带堆栈的认证异常，消息使用错误码默认消息，由全局异常处理器输出预编码响应
+     */
+    private static AuthenticationException rejection(JwtVerification.Status status) {
+        return ExceptionFactory.authenticationRejected(status == JwtVerification.Status.EXPIRED
+                ? ErrorCode.Client.TOKEN_EXPIRED
+                : ErrorCode.Client.TOKEN_INVALID);
+    }
+
     private Mono<Boolean> checkTokenBlacklist(String token) {
         String key = CacheKeys.Security.blacklistedToken(token);
         return redisTemplate.hasKey(key)
@@ -16,6 +16,18 @@ public class GatewayRateLimitProperties {
     private String redisKeyPrefix = "nianji:gateway:rate_limit";
     private DefaultConfig defaults;
     private List<RateLimitRule> rules = new ArrayList<>();
+    /**
+     * 可信代理网段（CIDR），仅当直连地址在其中时才信任代理头；为空时只使用直连地址
+     */
+    private List<String> trustedProxies = new ArrayList<>();
+    /**
+     * 白名单网段（CIDR），命中后跳过限流
+     */
+    private List<String> allowList = new ArrayList<>();
+    /**
+     * 黑名单网段（CIDR），命中后直接拒绝
+     */
+    private List<String> denyList = new ArrayList<>();
 
     @Data
     public static class DefaultConfig {
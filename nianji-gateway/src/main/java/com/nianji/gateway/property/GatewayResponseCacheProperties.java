@@ -0,0 +1,36 @@
+package com.nianji.gateway.property;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 网关响应缓存配置 只缓存上游返回 200、带 ETag 且 Cache-Control max-age 大于 0 的 GET 响应，
+ * 缓存时长取上游 max-age 和 maxTtl 中较小的一个
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "gateway-response-cache")
+public class GatewayResponseCacheProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * 可缓存的路径（Ant 风格），按完整路径（含查询参数）分别缓存
+     */
+    private List<String> paths = new ArrayList<>();
+
+    /**
+     * 单条缓存的最长时间
+     */
+    private Duration maxTtl = Duration.ofMinutes(10);
+
+    /**
+     * 单个响应体的最大字节数，超过的不缓存
+     */
+    private int maxBodyBytes = 64 * 1024;
+}
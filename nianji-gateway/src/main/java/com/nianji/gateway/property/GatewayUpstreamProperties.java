@@ -0,0 +1,102 @@
+package com.nianji.gateway.property;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 上游服务连接配置 每个路由使用独立的连接池，路由未配置的项使用默认值
+ * <p>
+ * 响应超时使用网关原生配置：全局 spring.cloud.gateway.httpclient.response-timeout，单个路由 metadata.response-timeout
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "gateway-upstream")
+public class GatewayUpstreamProperties {
+
+    /**
+     * 默认连接配置
+     */
+    private PoolConfig defaults = PoolConfig.defaults();
+
+    /**
+     * 路由ID -> 连接配置
+     */
+    private Map<String, PoolConfig> routes = new LinkedHashMap<>();
+
+    /**
+     * 路由的生效配置
+     */
+    public PoolConfig resolve(String routeId) {
+        PoolConfig route = routes.get(routeId);
+        return route == null ? defaults : route.withDefaults(defaults);
+    }
+
+    @Data
+    public static class PoolConfig {
+        /**
+         * 每个上游实例的最大连接数
+         */
+        private Integer maxConnections;
+        /**
+         * 等待获取连接的最大请求数，超出后立即失败
+         */
+        private Integer pendingAcquireMaxCount;
+        /**
+         * 等待获取连接的超时时间
+         */
+        private Duration pendingAcquireTimeout;
+        /**
+         * 连接最大空闲时间，应小于上游服务的 keep-alive 超时
+         */
+        private Duration maxIdleTime;
+        /**
+         * 连接最大存活时间，定期重建连接以感知上游扩缩容
+         */
+        private Duration maxLifeTime;
+        /**
+         * 后台清理空闲连接的间隔
+         */
+        private Duration evictionInterval;
+        /**
+         * 建立连接超时时间
+         */
+        private Duration connectTimeout;
+        /**
+         * 使用 HTTP/2 明文（h2c）连接上游，上游需开启 server.http2.enabled
+         */
+        private Boolean h2c;
+
+        static PoolConfig defaults() {
+            PoolConfig config = new PoolConfig();
+            config.setMaxConnections(200);
+            config.setPendingAcquireMaxCount(1000);
+            config.setPendingAcquireTimeout(Duration.ofSeconds(2));
+            config.setMaxIdleTime(Duration.ofSeconds(30));
+            config.setMaxLifeTime(Duration.ofMinutes(5));
+            config.setEvictionInterval(Duration.ofSeconds(30));
+            config.setConnectTimeout(Duration.ofSeconds(2));
+            config.setH2c(false);
+            return config;
+        }
+
+        PoolConfig withDefaults(PoolConfig defaults) {
+            PoolConfig merged = new PoolConfig();
+            merged.setMaxConnections(maxConnections != null ? maxConnections : defaults.getMaxConnections());
+            merged.setPendingAcquireMaxCount(pendingAcquireMaxCount != null
+                    ? pendingAcquireMaxCount : defaults.getPendingAcquireMaxCount());
+            merged.setPendingAcquireTimeout(pendingAcquireTimeout != null
+                    ? pendingAcquireTimeout : defaults.getPendingAcquireTimeout());
+            merged.setMaxIdleTime(maxIdleTime != null ? maxIdleTime : defaults.getMaxIdleTime());
+            merged.setMaxLifeTime(maxLifeTime != null ? maxLifeTime : defaults.getMaxLifeTime());
+            merged.setEvictionInterval(evictionInterval != null ? evictionInterval : defaults.getEvictionInterval());
+            merged.setConnectTimeout(connectTimeout != null ? connectTimeout : defaults.getConnectTimeout());
+            merged.setH2c(h2c != null ? h2c : defaults.getH2c());
+            return merged;
+        }
+    }
+}
@@ -36,6 +36,46 @@ public class SecurityProperties {
             "/api/auth/refresh-token"
     ));
 
+    /**
+     * 令牌验签配置
+     */
+    private JwtVerificationConfig jwtVerification = new JwtVerificationConfig();
+
+    @Data
+    public static class JwtVerificationConfig {
+        /**
+         * 验签线程模式
+         */
+        private OffloadMode offload = OffloadMode.AUTO;
+        /**
+         * 验签线程数，默认CPU核数
+         */
+        private int threads = Runtime.getRuntime().availableProcessors();
+        /**
+         * 等待队列容量，队列满时返回503
+         */
+        private int queueCapacity = 1024;
+        /**
+         * 过载时建议客户端重试等待时间（秒）
+         */
+        private long retryAfterSeconds = 1;
+    }
+
+    public enum OffloadMode {
+        /**
+         * 非对称算法（RS256/ES256）在独立线程池验签，HMAC 直接在 I/O 线程验签
+         */
+        AUTO,
+        /**
+         * 始终在独立线程池验签
+         */
+        ALWAYS,
+        /**
+         * 始终在 I/O 线程验签
+         */
+        NEVER
+    }
+
     @Data
     public static class CookieConfig {
         private int cookieExpire = 1440;
@@ -2,83 +2,95 @@ package com.nianji.gateway.service;
 
 import com.nianji.common.errorcode.ErrorCode;
 import com.nianji.common.exception.ExceptionFactory;
-import com.nianji.common.exception.client.AuthenticationException;
 import com.nianji.common.jwt.api.JwtValidator;
-import com.nianji.common.jwt.dto.JwtUserInfo;
-import lombok.RequiredArgsConstructor;
+import com.nianji.common.jwt.dto.JwtVerification;
+import com.nianji.gateway.property.SecurityProperties;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * 网关JWT服务 - 集成异常体系
+ * 网关JWT服务
+ * <p>
+ * 验证结果以 {@link JwtVerification} 返回，不在热路径上抛异常；非对称算法验签放到有界线程池执行，不占用 Netty 事件循环，
+ * 线程池队列满时返回 503
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class GatewayJwtService {
 
     private final JwtValidator jwtValidator;
+    private final SecurityProperties.JwtVerificationConfig config;
 
     /**
-     * 验证Token并获取用户信息 - 集成异常体系
+     * 验签线程池，不需要移出事件循环时为 null
      */
-    public JwtUserInfo validateAndGetUserInfo(String token) {
-        try {
-            // 基础验证
-            if (!jwtValidator.validateToken(token)) {
-                throw ExceptionFactory.authentication(
-                    ErrorCode.Client.TOKEN_INVALID, 
-                    "Token验证失败"
-                );
-            }
-
-            // 解析用户信息
-            JwtUserInfo userInfo = jwtValidator.validateAndGetUserInfo(token);
-            if (userInfo == null || !userInfo.isValid()) {
-                throw ExceptionFactory.authentication(
-                    ErrorCode.Client.TOKEN_INVALID, 
-                    "用户信息无效"
-                );
-            }
-
-            // 检查Token是否过期
-            if (userInfo.isExpired()) {
-                throw ExceptionFactory.authentication(
-                    ErrorCode.Client.TOKEN_EXPIRED, 
-                    "Token已过期"
-                );
-            }
+    private final Scheduler verifyScheduler;
 
-            log.debug("✅ JWT Token验证成功 - 用户: {}", userInfo.getUsername());
-            return userInfo;
+    public GatewayJwtService(JwtValidator jwtValidator, SecurityProperties securityProperties) {
+        this.jwtValidator = jwtValidator;
+        this.config = securityProperties.getJwtVerification();
+        this.verifyScheduler = shouldOffload() ? createScheduler() : null;
+        log.info("网关JWT验签初始化 - 非对称算法: {}, 独立线程池: {}", jwtValidator.isAsymmetric(), verifyScheduler != null);
+    }
 
-        } catch (Exception e) {
-            log.error("JWT Token验证异常", e);
-            throw ExceptionFactory.authentication(
-                ErrorCode.Client.TOKEN_INVALID, 
-                "Token验证异常"
-            );
+    /**
+     * 验证Token，失败以结果返回
+     */
+    public Mono<JwtVerification> verify(String token) {
+        if (verifyScheduler == null) {
+            // HMAC 验签只需微秒级，直接在当前线程完成
+            return Mono.just(jwtValidator.verify(token));
         }
+        return Mono.fromCallable(() -> jwtValidator.verify(token))
+                .subscribeOn(verifyScheduler)
+                .onErrorMap(RejectedExecutionException.class, e -> ExceptionFactory.overload(
+                        ErrorCode.System.SYSTEM_OVERLOAD, "令牌验证繁忙，请稍后重试", config.getRetryAfterSeconds()));
     }
 
     /**
-     * 快速验证Token有效性
+     * 快速验证Token有效性（同步，不检查黑名单）
      */
     public boolean quickValidateToken(String token) {
-        try {
-            return jwtValidator.validateToken(token) && !isTokenBlacklisted(token);
-        } catch (Exception e) {
-            log.debug("快速Token验证失败: {}", e.getMessage());
-            return false;
+        return jwtValidator.verify(token).isValid();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (verifyScheduler != null) {
+            verifyScheduler.dispose();
         }
     }
 
-    /**
-     * 检查Token是否在黑名单中（同步版本）
-     */
-    private boolean isTokenBlacklisted(String token) {
-        // 这里需要根据您的实际缓存实现来调整
-        // 如果是同步操作，可能需要使用非响应式RedisTemplate
-        return false; // 临时返回false，实际需要实现
+    private boolean shouldOffload() {
+        return switch (config.getOffload()) {
+            case ALWAYS -> true;
+            case NEVER -> false;
+            case AUTO -> jwtValidator.isAsymmetric();
+        };
+    }
+
+    private Scheduler createScheduler() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        int threads = Math.max(1, config.getThreads());
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, config.getQueueCapacity())),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "Jwt-Verify-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        log.info("JWT验签线程池初始化 - 线程数: {}, 队列容量: {}", threads, config.getQueueCapacity());
+        return Schedulers.fromExecutorService(executor, "jwt-verify");
     }
-}
\ No newline at end of file
+}
@@ -19,11 +19,17 @@ CREATE TABLE `users` (
  `create_time` timestamp NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
  `update_time` timestamp NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
  `deleted` tinyint(4) DEFAULT '0' COMMENT '逻辑删除: 0-未删除, 1-已删除',
+ `live_username` varchar(10) COLLATE utf8mb4_general_ci GENERATED ALWAYS AS (IF(`deleted` = 0, `username`, NULL)) VIRTUAL COMMENT '未删除用户的用户名，仅用于唯一索引',
+ `live_email` varchar(100) COLLATE utf8mb4_general_ci GENERATED ALWAYS AS (IF(`deleted` = 0, `email`, NULL)) VIRTUAL COMMENT '未删除用户的邮箱，仅用于唯一索引',
+ `live_phone` varchar(20) COLLATE utf8mb4_general_ci GENERATED ALWAYS AS (IF(`deleted` = 0, `phone`, NULL)) VIRTUAL COMMENT '未删除用户的手机号，仅用于唯一索引',
  PRIMARY KEY (`id`),
- UNIQUE KEY `username` (`username`),
  KEY `idx_username` (`username`),
  KEY `idx_email` (`email`),
  KEY `idx_phone` (`phone`),
+ -- 唯一性只约束未删除的用户，注册预检查直接按 live_* 列查询；已注销的标识符可以重新注册
+ UNIQUE KEY `uk_username` (`live_username`),
+ UNIQUE KEY `uk_email` (`live_email`),
+ UNIQUE KEY `uk_phone` (`live_phone`),
  KEY `idx_status` (`status`),
  KEY `idx_publicId` (`public_id`) USING BTREE
 ) ENGINE=InnoDB AUTO_INCREMENT=0 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci COMMENT='用户表';
@@ -0,0 +1,26 @@
+-- 已有数据库升级：用户名、邮箱、手机号唯一索引只约束未删除的用户
+-- 新建库直接使用 init.sql，无需执行本脚本
+-- 执行后与 init.sql 的索引一致：PRIMARY、idx_username、idx_email、idx_phone、uk_username、uk_email、uk_phone、idx_status、idx_publicId
+USE nianji;
+
+-- 1. 未填手机号统一为 NULL，避免多个空串在 uk_phone 上冲突
+UPDATE `users` SET `phone` = NULL WHERE `phone` IS NOT NULL AND TRIM(`phone`) = '';
+
+-- 2. 检查未删除用户中的重复标识符，以下查询均应返回空结果，否则先人工处理重复数据再继续
+SELECT `username`, COUNT(*) FROM `users` WHERE `deleted` = 0 GROUP BY `username` HAVING COUNT(*) > 1;
+SELECT `email`, COUNT(*) FROM `users` WHERE `deleted` = 0 GROUP BY `email` HAVING COUNT(*) > 1;
+SELECT `phone`, COUNT(*) FROM `users` WHERE `deleted` = 0 AND `phone` IS NOT NULL GROUP BY `phone` HAVING COUNT(*) > 1;
+
+-- 3. 删除覆盖已删除用户的旧唯一索引（uk_email、uk_phone 仅在按旧版 init.sql 建库或手动添加过时存在，不存在则跳过对应语句）
+ALTER TABLE `users` DROP INDEX `username`;
+ALTER TABLE `users` DROP INDEX `uk_email`;
+ALTER TABLE `users` DROP INDEX `uk_phone`;
+
+-- 4. 新增仅包含未删除用户的生成列及其唯一索引
+ALTER TABLE `users`
+    ADD COLUMN `live_username` varchar(10) COLLATE utf8mb4_general_ci GENERATED ALWAYS AS (IF(`deleted` = 0, `username`, NULL)) VIRTUAL COMMENT '未删除用户的用户名，仅用于唯一索引',
+    ADD COLUMN `live_email` varchar(100) COLLATE utf8mb4_general_ci GENERATED ALWAYS AS (IF(`deleted` = 0, `email`, NULL)) VIRTUAL COMMENT '未删除用户的邮箱，仅用于唯一索引',
+    ADD COLUMN `live_phone` varchar(20) COLLATE utf8mb4_general_ci GENERATED ALWAYS AS (IF(`deleted` = 0, `phone`, NULL)) VIRTUAL COMMENT '未删除用户的手机号，仅用于唯一索引',
+    ADD UNIQUE KEY `uk_username` (`live_username`),
+    ADD UNIQUE KEY `uk_email` (`live_email`),
+    ADD UNIQUE KEY `uk_phone` (`live_phone`);